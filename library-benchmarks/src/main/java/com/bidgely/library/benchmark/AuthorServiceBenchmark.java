@@ -0,0 +1,40 @@
+package com.bidgely.library.benchmark;
+
+import com.bidgely.library.model.Author;
+import com.bidgely.library.service.AuthorService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link AuthorService#searchAuthorsByName(String)} as the author
+ * registry grows, for a name shared by many authors and one matching few.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx12g")
+@State(Scope.Benchmark)
+public class AuthorServiceBenchmark {
+
+    @Param({"1000", "100000", "1000000", "10000000"})
+    private int authorCount;
+
+    @Param({"smith", "-4242"})
+    private String query;
+
+    private AuthorService authorService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        authorService = new AuthorService();
+        new CatalogGenerator(42).populateAuthors(authorService, authorCount);
+    }
+
+    @Benchmark
+    public List<Author> searchAuthorsByName() {
+        return authorService.searchAuthorsByName(query);
+    }
+}
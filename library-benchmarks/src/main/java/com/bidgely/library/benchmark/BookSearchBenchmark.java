@@ -0,0 +1,58 @@
+package com.bidgely.library.benchmark;
+
+import com.bidgely.library.model.Book;
+import com.bidgely.library.service.LibraryService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Compares the original full-scan title search with the trigram-indexed
+ * {@link LibraryService#searchBooksByTitle(String)} across catalog sizes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class BookSearchBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    private int catalogSize;
+
+    @Param({"quantum riv", "garden"})
+    private String query;
+
+    private Map<String, Book> books;
+    private LibraryService libraryService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        CatalogGenerator generator = new CatalogGenerator(42);
+        books = new HashMap<>(catalogSize * 2);
+        libraryService = new LibraryService();
+        for (int i = 0; i < catalogSize; i++) {
+            Book book = generator.book(i);
+            books.put(book.getIsbn(), book);
+            libraryService.addBook(book);
+        }
+    }
+
+    @Benchmark
+    public List<Book> scan() {
+        String searchTerm = query.toLowerCase();
+        return books.values().stream()
+                .filter(book -> book.getTitle().toLowerCase().contains(searchTerm))
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<Book> index() {
+        return libraryService.searchBooksByTitle(query);
+    }
+}
@@ -0,0 +1,57 @@
+package com.bidgely.library.benchmark;
+
+import com.bidgely.library.model.Book;
+import com.bidgely.library.service.BulkLoadReport;
+import com.bidgely.library.service.LibraryService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times loading a whole catalog into an empty service, one addBook call at a
+ * time versus a single {@link LibraryService#addBooks(Iterable)} batch.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx12g")
+@State(Scope.Benchmark)
+public class BulkLoadBenchmark {
+
+    @Param({"100000", "1000000"})
+    private int catalogSize;
+
+    private List<Book> catalog;
+    private LibraryService libraryService;
+
+    @Setup(Level.Trial)
+    public void generate() {
+        CatalogGenerator generator = new CatalogGenerator(42);
+        catalog = new ArrayList<>(catalogSize);
+        for (int i = 0; i < catalogSize; i++) {
+            catalog.add(generator.book(i));
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        libraryService = new LibraryService();
+        System.gc();
+    }
+
+    @Benchmark
+    public LibraryService addBookOneByOne() {
+        for (Book book : catalog) {
+            libraryService.addBook(book);
+        }
+        return libraryService;
+    }
+
+    @Benchmark
+    public BulkLoadReport addBooks() {
+        return libraryService.addBooks(catalog);
+    }
+}
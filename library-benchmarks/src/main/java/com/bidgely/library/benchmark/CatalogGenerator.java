@@ -0,0 +1,187 @@
+package com.bidgely.library.benchmark;
+
+import com.bidgely.library.exception.BookNotAvailableException;
+import com.bidgely.library.exception.LoanLimitExceededException;
+import com.bidgely.library.model.*;
+import com.bidgely.library.service.AuthorService;
+import com.bidgely.library.service.LibraryService;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic generator of synthetic catalogs, members, authors and loan
+ * histories for the benchmarks.
+ *
+ * <p>Titles are built from a small vocabulary so searches hit a realistic mix of
+ * common and rare words, author names repeat across books, categories and
+ * membership types follow a skewed mix, and loans favour popular books. The same
+ * seed always produces the same data.
+ */
+public class CatalogGenerator {
+
+    private static final String[] ADJECTIVES = {
+        "silent", "ancient", "modern", "hidden", "broken", "golden", "quantum", "secret",
+        "last", "distant", "crimson", "endless", "wild", "forgotten", "practical", "little"
+    };
+    private static final String[] NOUNS = {
+        "garden", "river", "empire", "shadow", "ocean", "mountain", "kingdom", "island",
+        "journey", "winter", "algorithm", "forest", "dragon", "physics", "code", "history",
+        "machine", "city", "poetry", "midnight", "library", "storm", "compiler", "harbor"
+    };
+    private static final String[] FIRST_NAMES = {
+        "James", "Mary", "Robert", "Patricia", "John", "Jennifer", "Michael", "Linda",
+        "David", "Elizabeth", "William", "Barbara", "Richard", "Susan", "Joseph", "Jessica",
+        "Thomas", "Sarah", "Wei", "Aisha", "Hiroshi", "Priya", "Carlos", "Olga"
+    };
+    private static final String[] LAST_NAMES = {
+        "Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia", "Miller", "Davis",
+        "Rodriguez", "Martinez", "Hernandez", "Lopez", "Wilson", "Anderson", "Taylor", "Thomas",
+        "Moore", "Jackson", "Martin", "Lee", "Nakamura", "Sharma", "Kowalski", "Ivanova"
+    };
+    private static final String[] PUBLISHERS = {
+        "Penguin", "HarperCollins", "Macmillan", "Hachette", "Simon & Schuster", "Addison-Wesley",
+        "O'Reilly", "Springer", "Oxford University Press", "Vintage"
+    };
+    private static final MembershipType[] MEMBERSHIP_MIX = {
+        MembershipType.BASIC, MembershipType.BASIC, MembershipType.BASIC, MembershipType.BASIC,
+        MembershipType.STUDENT, MembershipType.STUDENT, MembershipType.STUDENT,
+        MembershipType.PREMIUM, MembershipType.PREMIUM, MembershipType.FACULTY
+    };
+
+    private final Random random;
+
+    public CatalogGenerator(long seed) {
+        this.random = new Random(seed);
+    }
+
+    /**
+     * Returns the 13-digit ISBN of the i-th generated book.
+     */
+    public static String isbn(int i) {
+        return String.format("978%010d", i);
+    }
+
+    /**
+     * Returns the ID of the i-th generated member.
+     */
+    public static String memberId(int i) {
+        return "M" + i;
+    }
+
+    /**
+     * Generates a title such as "the forgotten harbor" or "compiler of the silent island".
+     */
+    public String title() {
+        switch (random.nextInt(3)) {
+            case 0:
+                return "the " + pick(ADJECTIVES) + " " + pick(NOUNS);
+            case 1:
+                return pick(NOUNS) + " of the " + pick(ADJECTIVES) + " " + pick(NOUNS);
+            default:
+                return pick(ADJECTIVES) + " " + pick(NOUNS) + " and " + pick(NOUNS);
+        }
+    }
+
+    /**
+     * Generates an author name; roughly one in twenty books shares each name.
+     */
+    public String authorName() {
+        return pick(FIRST_NAMES) + " " + pick(LAST_NAMES) + (random.nextInt(50) == 0 ? " Jr." : "");
+    }
+
+    /**
+     * Generates the i-th book with one to eight copies, most titles having one or two.
+     */
+    public Book book(int i) {
+        int copies = 1 + Math.min(7, (int) Math.abs(random.nextGaussian() * 2));
+        BookCategory[] categories = BookCategory.values();
+        BookCategory category = categories[Math.min(categories.length - 1,
+                (int) Math.abs(random.nextGaussian() * categories.length / 2))];
+        return new Book(isbn(i), title() + " " + i, authorName(), pick(PUBLISHERS),
+                1950 + random.nextInt(75), copies, category);
+    }
+
+    /**
+     * Generates the i-th member with a skewed mix of membership types.
+     */
+    public Member member(int i) {
+        String name = pick(FIRST_NAMES) + " " + pick(LAST_NAMES);
+        return new Member(memberId(i), name, "member" + i + "@example.com",
+                String.format("555%07d", i % 10_000_000),
+                LocalDate.of(2015, 1, 1).plusDays(random.nextInt(3650)), pick(MEMBERSHIP_MIX));
+    }
+
+    /**
+     * Returns the index of a book drawn with a bias towards low indexes, so a few
+     * titles account for most loans.
+     */
+    public int popularBook(int bookCount) {
+        double u = random.nextDouble();
+        return (int) (bookCount * u * u * u);
+    }
+
+    /**
+     * Adds books {@code 0..count-1} to the service.
+     */
+    public void populateBooks(LibraryService libraryService, int count) {
+        for (int i = 0; i < count; i++) {
+            libraryService.addBook(book(i));
+        }
+    }
+
+    /**
+     * Registers members {@code 0..count-1} with the service.
+     */
+    public void populateMembers(LibraryService libraryService, int count) {
+        for (int i = 0; i < count; i++) {
+            libraryService.registerMember(member(i));
+        }
+    }
+
+    /**
+     * Adds {@code count} generated authors to the service.
+     */
+    public void populateAuthors(AuthorService authorService, int count) {
+        for (int i = 0; i < count; i++) {
+            authorService.addAuthor(pick(FIRST_NAMES), pick(LAST_NAMES) + (i % 997 == 0 ? "" : "-" + i));
+        }
+    }
+
+    /**
+     * Issues up to {@code attempts} loans of popular books to random members and
+     * returns a share of them, leaving a history with both active and returned loans.
+     * Attempts that hit an unavailable book or a member's limit are skipped.
+     *
+     * @return the loans still active
+     */
+    public List<Loan> populateLoanHistory(LibraryService libraryService, int bookCount, int memberCount,
+                                          int attempts, double returnRatio) {
+        List<Loan> active = new ArrayList<>();
+        for (int i = 0; i < attempts; i++) {
+            Loan loan;
+            try {
+                loan = libraryService.issueBook(memberId(random.nextInt(memberCount)),
+                        isbn(popularBook(bookCount)));
+            } catch (BookNotAvailableException | LoanLimitExceededException e) {
+                continue;
+            }
+            if (random.nextDouble() < returnRatio) {
+                libraryService.returnBook(loan.getLoanId());
+            } else {
+                active.add(loan);
+            }
+        }
+        return active;
+    }
+
+    private String pick(String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private MembershipType pick(MembershipType[] values) {
+        return values[random.nextInt(values.length)];
+    }
+}
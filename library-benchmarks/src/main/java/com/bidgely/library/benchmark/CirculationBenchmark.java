@@ -0,0 +1,104 @@
+package com.bidgely.library.benchmark;
+
+import com.bidgely.library.exception.BookNotAvailableException;
+import com.bidgely.library.exception.InvalidInputException;
+import com.bidgely.library.exception.LoanLimitExceededException;
+import com.bidgely.library.model.Loan;
+import com.bidgely.library.model.LoanStatus;
+import com.bidgely.library.service.LibraryService;
+import com.bidgely.library.service.ReservationService;
+import com.bidgely.library.util.ManualClock;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs {@code days} of simulated circulation on a {@link ManualClock}: each day
+ * members borrow and return books, place holds on titles that are out, and the
+ * day ends with the overdue report and the reservation expiry sweep before the
+ * clock moves on. Shows what months of activity cost without waiting for them,
+ * and that the daily scans stay cheap as the loan history grows.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CirculationBenchmark {
+
+    private static final int BOOK_COUNT = 20_000;
+    private static final int MEMBER_COUNT = 10_000;
+    private static final int LOANS_PER_DAY = 2_000;
+    private static final int HOLDS_PER_DAY = 200;
+    private static final Instant START = Instant.parse("2024-01-01T09:00:00Z");
+
+    @Param({"180"})
+    private int days;
+
+    private ManualClock clock;
+    private LibraryService libraryService;
+    private ReservationService reservationService;
+    private CatalogGenerator generator;
+    private Random random;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        clock = new ManualClock(START, ZoneOffset.UTC);
+        libraryService = new LibraryService(64, new AtomicLong()::incrementAndGet, clock);
+        reservationService = new ReservationService(libraryService);
+        generator = new CatalogGenerator(42);
+        generator.populateBooks(libraryService, BOOK_COUNT);
+        generator.populateMembers(libraryService, MEMBER_COUNT);
+        random = new Random(42);
+    }
+
+    /**
+     * @return loans issued plus overdue loans reported, so no work is optimized away
+     */
+    @Benchmark
+    public long simulate() {
+        Deque<Loan> open = new ArrayDeque<>();
+        long issued = 0;
+        long overdueSeen = 0;
+        for (int day = 0; day < days; day++) {
+            for (int i = 0; i < LOANS_PER_DAY; i++) {
+                try {
+                    open.addLast(libraryService.issueBook(
+                            CatalogGenerator.memberId(random.nextInt(MEMBER_COUNT)),
+                            CatalogGenerator.isbn(generator.popularBook(BOOK_COUNT))));
+                    issued++;
+                } catch (BookNotAvailableException | LoanLimitExceededException e) {
+                    // Busy title or busy member; the simulation moves on
+                }
+            }
+            // Most loans come back within a few weeks, some of them late
+            int returns = Math.min(open.size(), LOANS_PER_DAY - LOANS_PER_DAY / 20);
+            for (int i = 0; i < returns; i++) {
+                Loan loan = open.pollFirst();
+                if (loan.getStatus() == LoanStatus.ACTIVE) {
+                    libraryService.returnBook(loan.getLoanId());
+                }
+            }
+            for (int i = 0; i < HOLDS_PER_DAY; i++) {
+                try {
+                    reservationService.createReservation(CatalogGenerator.memberId(random.nextInt(MEMBER_COUNT)),
+                            CatalogGenerator.isbn(generator.popularBook(BOOK_COUNT / 100)));
+                } catch (InvalidInputException e) {
+                    // Already holding that title
+                }
+            }
+            overdueSeen += libraryService.getOverdueLoans().size();
+            reservationService.processExpiredReservations();
+            clock.advance(Duration.ofDays(1));
+        }
+        return issued + overdueSeen;
+    }
+}
@@ -0,0 +1,124 @@
+package com.bidgely.library.benchmark;
+
+import com.bidgely.library.model.Loan;
+import com.bidgely.library.model.LoanStatus;
+import com.bidgely.library.model.codec.EntityDecoder;
+import com.bidgely.library.model.codec.EntityEncoder;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link EntityEncoder}/{@link EntityDecoder} against Java
+ * serialization for a stream of generated books, members or loans, encoding
+ * into and decoding from a direct buffer as the journal does.
+ *
+ * <p>Encoded sizes are printed once per trial, in bytes per entity; both
+ * formats share repeated strings across the stream.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CodecBenchmark {
+
+    private static final int BATCH_SIZE = 10_000;
+    private static final int BOOK_COUNT = 100_000;
+    private static final int MEMBER_COUNT = 20_000;
+
+    @Param({"BOOK", "MEMBER", "LOAN"})
+    private String entity;
+
+    private List<Object> batch;
+    private Class<?> type;
+    private final EntityEncoder encoder = new EntityEncoder();
+    private final EntityDecoder decoder = new EntityDecoder();
+    private ByteBuffer buffer;
+    private ByteBuffer encoded;
+    private ByteArrayOutputStream serialOut;
+    private byte[] serialized;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        CatalogGenerator generator = new CatalogGenerator(42);
+        Random random = new Random(7);
+        LocalDate start = LocalDate.of(2024, 1, 1);
+        batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            if ("BOOK".equals(entity)) {
+                batch.add(generator.book(i));
+            } else if ("MEMBER".equals(entity)) {
+                batch.add(generator.member(i));
+            } else {
+                LocalDate loanDate = start.plusDays(i / 100);
+                Loan loan = new Loan("L" + (1_000_000 + i), CatalogGenerator.memberId(random.nextInt(MEMBER_COUNT)),
+                        CatalogGenerator.isbn(generator.popularBook(BOOK_COUNT)), loanDate, loanDate.plusDays(14));
+                if (random.nextInt(3) > 0) {
+                    loan.setReturnDate(loanDate.plusDays(random.nextInt(20)));
+                    loan.setStatus(LoanStatus.RETURNED);
+                }
+                batch.add(loan);
+            }
+        }
+        type = batch.get(0).getClass();
+        buffer = ByteBuffer.allocateDirect(BATCH_SIZE * 1024);
+        encoded = codecEncode().duplicate();
+        serialOut = new ByteArrayOutputStream(BATCH_SIZE * 1024);
+        serialized = serializationEncode();
+        System.out.printf("%n%s bytes per entity: codec %.1f, Java serialization %.1f%n", entity,
+                (double) encoded.remaining() / BATCH_SIZE, (double) serialized.length / BATCH_SIZE);
+    }
+
+    @Benchmark
+    public ByteBuffer codecEncode() {
+        encoder.reset();
+        buffer.clear();
+        for (Object e : batch) {
+            encoder.write(buffer, e);
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    @Benchmark
+    public void codecDecode(Blackhole blackhole) {
+        decoder.reset();
+        ByteBuffer in = encoded.duplicate();
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            blackhole.consume(decoder.read(in, type));
+        }
+    }
+
+    @Benchmark
+    public byte[] serializationEncode() throws IOException {
+        serialOut.reset();
+        try (ObjectOutputStream out = new ObjectOutputStream(serialOut)) {
+            for (Object e : batch) {
+                out.writeObject(e);
+            }
+        }
+        return serialOut.toByteArray();
+    }
+
+    @Benchmark
+    public void serializationDecode(Blackhole blackhole) throws IOException, ClassNotFoundException {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(serialized))) {
+            for (int i = 0; i < BATCH_SIZE; i++) {
+                blackhole.consume(in.readObject());
+            }
+        }
+    }
+}
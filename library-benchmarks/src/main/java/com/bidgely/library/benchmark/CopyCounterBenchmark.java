@@ -0,0 +1,153 @@
+package com.bidgely.library.benchmark;
+
+import com.bidgely.library.model.Book;
+import com.bidgely.library.model.BookCategory;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Compares copy-counter strategies for a popular title under contention:
+ * a monitor-guarded counter, the CAS counter used by {@link Book#tryBorrow()},
+ * and a striped counter that spreads copies over padded cells.
+ *
+ * <p>Each operation borrows a copy and, if successful, returns it. Run
+ * {@link #main(String[])} to sweep 1 to 64 threads.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CopyCounterBenchmark {
+
+    @Param({"8", "1024"})
+    private int copies;
+
+    private SynchronizedCounter synchronizedCounter;
+    private Book book;
+    private StripedCounter stripedCounter;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        synchronizedCounter = new SynchronizedCounter(copies);
+        book = new Book("9780134685991", "Effective Java", "Joshua Bloch",
+                "Addison-Wesley", 2018, copies, BookCategory.TECHNOLOGY);
+        stripedCounter = new StripedCounter(copies, Runtime.getRuntime().availableProcessors());
+    }
+
+    @Benchmark
+    public boolean synchronizedCounter() {
+        if (synchronizedCounter.tryBorrow()) {
+            synchronizedCounter.tryReturn();
+            return true;
+        }
+        return false;
+    }
+
+    @Benchmark
+    public boolean casCounter() {
+        if (book.tryBorrow()) {
+            book.tryReturn();
+            return true;
+        }
+        return false;
+    }
+
+    @Benchmark
+    public boolean stripedCounter() {
+        int cell = stripedCounter.tryBorrow();
+        if (cell >= 0) {
+            stripedCounter.release(cell);
+            return true;
+        }
+        return false;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        for (int threads : new int[] {1, 2, 4, 8, 16, 32, 64}) {
+            Options options = new OptionsBuilder()
+                    .include(CopyCounterBenchmark.class.getSimpleName())
+                    .threads(threads)
+                    .build();
+            new Runner(options).run();
+        }
+    }
+
+    /**
+     * Baseline: the pre-atomic check-then-act counter made safe with a monitor.
+     */
+    static final class SynchronizedCounter {
+        private final int total;
+        private int available;
+
+        SynchronizedCounter(int total) {
+            this.total = total;
+            this.available = total;
+        }
+
+        synchronized boolean tryBorrow() {
+            if (available > 0) {
+                available--;
+                return true;
+            }
+            return false;
+        }
+
+        synchronized boolean tryReturn() {
+            if (available < total) {
+                available++;
+                return true;
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Copies spread over cache-line padded cells; a thread starts at its home
+     * cell and only probes the others when its own cell is empty.
+     */
+    static final class StripedCounter {
+        private static final int PAD = 16;
+
+        private final AtomicIntegerArray cells;
+        private final int cellCount;
+
+        StripedCounter(int total, int cellCount) {
+            this.cellCount = Math.max(1, cellCount);
+            this.cells = new AtomicIntegerArray(this.cellCount * PAD);
+            for (int i = 0; i < total; i++) {
+                int slot = (i % this.cellCount) * PAD;
+                cells.set(slot, cells.get(slot) + 1);
+            }
+        }
+
+        /**
+         * Returns the cell a copy was taken from, or -1 if none were available.
+         */
+        int tryBorrow() {
+            int home = (int) (Thread.currentThread().getId() % cellCount);
+            for (int i = 0; i < cellCount; i++) {
+                int cell = (home + i) % cellCount;
+                int slot = cell * PAD;
+                int current;
+                while ((current = cells.get(slot)) > 0) {
+                    if (cells.compareAndSet(slot, current, current - 1)) {
+                        return cell;
+                    }
+                }
+            }
+            return -1;
+        }
+
+        void release(int cell) {
+            cells.incrementAndGet(cell * PAD);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.bidgely.library.benchmark;
+
+import com.bidgely.library.model.SymbolTable;
+import com.bidgely.library.util.HandleMap;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the two ways the services have held entities by identifier: a
+ * {@link ConcurrentHashMap} keyed by the ID string, and a {@link SymbolTable}
+ * handing out int handles with a {@link HandleMap} per entity kind, over
+ * {@code memberCount} member IDs or {@code isbnCount} ISBNs.
+ *
+ * <p>Each layout holds three maps keyed by the same IDs, as the library service
+ * holds members, their loans and their active loans. The heap of the first map
+ * is printed once per trial, in bytes per key, not counting the ID strings or
+ * the values; with a symbol table, further maps cost only a handle map each.
+ * Lookups use IDs equal to, but not the same instances as, the stored ones, as
+ * IDs parsed from requests are.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms3g", "-Xmx3g"})
+@State(Scope.Benchmark)
+public class IdentifierLookupBenchmark {
+
+    private static final int LOOKUP_KEYS = 1 << 16;
+
+    @Param({"MEMBER", "ISBN"})
+    private String idType;
+
+    @Param({"5000000"})
+    private int memberCount;
+
+    @Param({"2000000"})
+    private int isbnCount;
+
+    private Map<String, Object> hashMap;
+    private Map<String, Object> secondHashMap;
+    private Map<String, Object> thirdHashMap;
+    private SymbolTable symbols;
+    private HandleMap<Object> handleMap;
+    private HandleMap<Object> secondHandleMap;
+    private HandleMap<Object> thirdHandleMap;
+    private String[] lookups;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        boolean members = idType.equals("MEMBER");
+        int keyCount = members ? memberCount : isbnCount;
+        String[] ids = new String[keyCount];
+        for (int i = 0; i < keyCount; i++) {
+            ids[i] = members ? CatalogGenerator.memberId(i) : CatalogGenerator.isbn(i);
+            ids[i].hashCode();
+        }
+        Object value = new Object();
+
+        long before = usedHeap();
+        hashMap = new ConcurrentHashMap<>();
+        for (String id : ids) {
+            hashMap.put(id, value);
+        }
+        long hashMapBytes = usedHeap() - before;
+        secondHashMap = new ConcurrentHashMap<>(hashMap);
+        thirdHashMap = new ConcurrentHashMap<>(hashMap);
+
+        before = usedHeap();
+        symbols = new SymbolTable();
+        for (String id : ids) {
+            symbols.intern(id);
+        }
+        long symbolBytes = usedHeap() - before;
+        before = usedHeap();
+        handleMap = new HandleMap<>();
+        for (int handle = 0; handle < keyCount; handle++) {
+            handleMap.put(handle, value);
+        }
+        long handleMapBytes = usedHeap() - before;
+        secondHandleMap = new HandleMap<>();
+        thirdHandleMap = new HandleMap<>();
+        for (int handle = 0; handle < keyCount; handle++) {
+            secondHandleMap.put(handle, value);
+            thirdHandleMap.put(handle, value);
+        }
+
+        System.out.printf("%n%s bytes per key: ConcurrentHashMap %.1f; symbol table %.1f plus %.1f per handle map%n",
+                idType, (double) hashMapBytes / keyCount, (double) symbolBytes / keyCount,
+                (double) handleMapBytes / keyCount);
+
+        Random random = new Random(7);
+        lookups = new String[LOOKUP_KEYS];
+        for (int i = 0; i < LOOKUP_KEYS; i++) {
+            lookups[i] = new String(ids[random.nextInt(keyCount)].toCharArray());
+        }
+    }
+
+    @Benchmark
+    public Object lookupHashMap() {
+        return hashMap.get(lookups[next++ & (LOOKUP_KEYS - 1)]);
+    }
+
+    @Benchmark
+    public Object lookupSymbolTable() {
+        return handleMap.get(symbols.find(lookups[next++ & (LOOKUP_KEYS - 1)]));
+    }
+
+    /**
+     * Looks one ID up in all three maps, as an operation on a member's loans does.
+     */
+    @Benchmark
+    public int lookupHashMapThreeMaps() {
+        String id = lookups[next++ & (LOOKUP_KEYS - 1)];
+        return System.identityHashCode(hashMap.get(id)) ^ System.identityHashCode(secondHashMap.get(id))
+                ^ System.identityHashCode(thirdHashMap.get(id));
+    }
+
+    @Benchmark
+    public int lookupSymbolTableThreeMaps() {
+        int handle = symbols.find(lookups[next++ & (LOOKUP_KEYS - 1)]);
+        return System.identityHashCode(handleMap.get(handle)) ^ System.identityHashCode(secondHandleMap.get(handle))
+                ^ System.identityHashCode(thirdHandleMap.get(handle));
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
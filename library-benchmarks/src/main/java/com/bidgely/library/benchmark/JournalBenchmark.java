@@ -0,0 +1,115 @@
+package com.bidgely.library.benchmark;
+
+import com.bidgely.library.model.Loan;
+import com.bidgely.library.model.Member;
+import com.bidgely.library.model.MembershipType;
+import com.bidgely.library.service.LibraryService;
+import com.bidgely.library.service.journal.FsyncPolicy;
+import com.bidgely.library.service.journal.Journal;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Measures what journaling costs an issue-and-return cycle (two journal records)
+ * under each fsync policy, against no journal at all.
+ *
+ * <p>The concurrent variant shows group commit: with {@code EVERY_OP}, threads
+ * that sync while a force is in flight share the next one. Results depend
+ * heavily on the device; run it on the disk the journal will live on, pointing
+ * {@code -Djava.io.tmpdir} there if needed.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JournalBenchmark {
+
+    private static final int MAX_THREADS = 64;
+    private static final int BOOKS_PER_THREAD = 1_000;
+    private static final int CATALOG_SIZE = MAX_THREADS * BOOKS_PER_THREAD;
+
+    @Param({"NONE", "EVERY_OP", "INTERVAL", "OS"})
+    private String policy;
+
+    private LibraryService libraryService;
+    private Journal journal;
+    private Path directory;
+    private String[] isbns;
+    private final AtomicInteger borrowers = new AtomicInteger();
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        libraryService = new LibraryService();
+        CatalogGenerator generator = new CatalogGenerator(42);
+        generator.populateBooks(libraryService, CATALOG_SIZE);
+        isbns = new String[CATALOG_SIZE];
+        for (int i = 0; i < CATALOG_SIZE; i++) {
+            isbns[i] = CatalogGenerator.isbn(i);
+        }
+        if (!"NONE".equals(policy)) {
+            directory = Files.createTempDirectory("library-journal");
+            journal = new Journal(directory, FsyncPolicy.valueOf(policy), 10);
+            libraryService.setJournal(journal);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        if (journal != null) {
+            journal.close();
+            TempDirectories.delete(directory);
+        }
+    }
+
+    @Benchmark
+    public Loan issueAndReturnBook(Borrower borrower) {
+        return borrower.cycle(this);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Loan issueAndReturnBookConcurrently(Borrower borrower) {
+        return borrower.cycle(this);
+    }
+
+    /**
+     * A member of its own per thread, cycling over its own slice of the catalog,
+     * so threads contend on the journal rather than on members or copies.
+     */
+    @State(Scope.Thread)
+    public static class Borrower {
+        private String memberId;
+        private int first;
+        private int next;
+
+        @Setup(Level.Trial)
+        public void setUp(JournalBenchmark benchmark) {
+            int id = benchmark.borrowers.getAndIncrement();
+            if (id >= MAX_THREADS) {
+                throw new IllegalStateException("At most " + MAX_THREADS + " threads are supported");
+            }
+            memberId = "BENCH" + id;
+            first = id * BOOKS_PER_THREAD;
+            next = first;
+            benchmark.libraryService.registerMember(new Member(memberId, "Benchmark Borrower " + id,
+                    "borrower" + id + "@example.com", "5550000000", LocalDate.of(2020, 1, 1),
+                    MembershipType.FACULTY));
+        }
+
+        Loan cycle(JournalBenchmark benchmark) {
+            String isbn = benchmark.isbns[next];
+            next = next + 1 == first + BOOKS_PER_THREAD ? first : next + 1;
+            Loan loan = benchmark.libraryService.issueBook(memberId, isbn);
+            benchmark.libraryService.returnBook(loan.getLoanId());
+            return loan;
+        }
+    }
+}
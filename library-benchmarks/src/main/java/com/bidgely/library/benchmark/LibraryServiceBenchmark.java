@@ -0,0 +1,117 @@
+package com.bidgely.library.benchmark;
+
+import com.bidgely.library.model.Book;
+import com.bidgely.library.model.Loan;
+import com.bidgely.library.model.Member;
+import com.bidgely.library.model.MembershipType;
+import com.bidgely.library.service.LibraryService;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the core {@link LibraryService} operations against a generated catalog
+ * with a loan history of roughly one active loan per ten books.
+ *
+ * <p>Run with {@code -prof gc} to report allocation rate alongside throughput and
+ * latency percentiles.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx12g")
+@State(Scope.Benchmark)
+public class LibraryServiceBenchmark {
+
+    private static final int ADDED_BOOKS = 100_000;
+    private static final String BORROWER = "BENCH";
+
+    @Param({"1000", "100000", "1000000"})
+    private int catalogSize;
+
+    private LibraryService libraryService;
+    private CatalogGenerator generator;
+    private LocalDate overdueAsOf;
+    private Book[] newBooks;
+    private int nextNewBook;
+    private String[] shelvedIsbns;
+    private int nextIssue;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        generator = new CatalogGenerator(42);
+        libraryService = new LibraryService();
+        int memberCount = Math.max(100, catalogSize / 10);
+        generator.populateBooks(libraryService, catalogSize);
+        generator.populateMembers(libraryService, memberCount);
+        List<Loan> active = generator.populateLoanHistory(libraryService, catalogSize, memberCount,
+                catalogSize / 5, 0.5);
+        // Loans in the generated history are all due within 30 days; a date in the
+        // middle of that window makes a share of them overdue.
+        overdueAsOf = LocalDate.now().plusDays(20);
+        if (active.isEmpty()) {
+            throw new IllegalStateException("Loan history is empty");
+        }
+
+        libraryService.registerMember(new Member(BORROWER, "Benchmark Borrower", "borrower@example.com",
+                "5550000000", LocalDate.of(2020, 1, 1), MembershipType.FACULTY));
+        List<String> shelved = new ArrayList<>();
+        for (Book book : libraryService.getAvailableBooks()) {
+            shelved.add(book.getIsbn());
+        }
+        shelvedIsbns = shelved.toArray(new String[0]);
+
+        newBooks = new Book[ADDED_BOOKS];
+        for (int i = 0; i < ADDED_BOOKS; i++) {
+            newBooks[i] = generator.book(catalogSize + i);
+        }
+    }
+
+    /**
+     * Adds books beyond the generated catalog, cycling over a fixed window so
+     * later passes replace (and re-index) books instead of growing without bound.
+     */
+    @Benchmark
+    public Book addBook() {
+        Book book = newBooks[nextNewBook];
+        nextNewBook = (nextNewBook + 1) % ADDED_BOOKS;
+        libraryService.addBook(book);
+        return book;
+    }
+
+    /**
+     * Issues a shelved copy to a member with no other loans and returns it
+     * straight away, so copies and limits stay in steady state.
+     */
+    @Benchmark
+    public Loan issueAndReturnBook() {
+        String isbn = shelvedIsbns[nextIssue];
+        nextIssue = (nextIssue + 1) % shelvedIsbns.length;
+        Loan loan = libraryService.issueBook(BORROWER, isbn);
+        libraryService.returnBook(loan.getLoanId());
+        return loan;
+    }
+
+    @Benchmark
+    public List<Book> searchBooksByTitle(Query query) {
+        return libraryService.searchBooksByTitle(query.text);
+    }
+
+    @Benchmark
+    public List<Loan> getOverdueLoans() {
+        return libraryService.getOverdueLoans(overdueAsOf);
+    }
+
+    /**
+     * Search terms: a single common word and a phrase that spans two words.
+     */
+    @State(Scope.Benchmark)
+    public static class Query {
+        @Param({"quantum", "silent harbor"})
+        String text;
+    }
+}
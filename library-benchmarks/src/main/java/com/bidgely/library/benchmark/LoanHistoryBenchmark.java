@@ -0,0 +1,145 @@
+package com.bidgely.library.benchmark;
+
+import com.bidgely.library.model.Loan;
+import com.bidgely.library.model.LoanStatus;
+import com.bidgely.library.service.history.ColumnarLoanStore;
+import com.bidgely.library.util.IdGenerator;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares a {@link ColumnarLoanStore} with loans held as objects the way
+ * {@link com.bidgely.library.service.LibraryService} holds them (by ID, and in
+ * a list per member) for a generated history of {@code loanCount} loans over
+ * two years, nineteen in twenty of them returned.
+ *
+ * <p>The heap each layout takes is printed once per trial, in bytes per loan.
+ * Member IDs and ISBNs are shared strings in both, as they are in the service.
+ * Large histories need a large heap, e.g.
+ * {@code -p loanCount=20000000 -jvmArgsAppend -Xmx16g}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LoanHistoryBenchmark {
+
+    private static final int MEMBER_COUNT = 200_000;
+    private static final int BOOK_COUNT = 500_000;
+    private static final LocalDate START = LocalDate.of(2023, 1, 1);
+    private static final int DAYS = 730;
+
+    @Param({"2000000"})
+    private int loanCount;
+
+    private ColumnarLoanStore store;
+    private Map<String, Loan> loans;
+    private Map<String, List<Loan>> memberLoans;
+    private LocalDate asOf;
+    private Random random;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        String[] memberIds = new String[MEMBER_COUNT];
+        for (int i = 0; i < MEMBER_COUNT; i++) {
+            memberIds[i] = CatalogGenerator.memberId(i);
+        }
+        String[] isbns = new String[BOOK_COUNT];
+        for (int i = 0; i < BOOK_COUNT; i++) {
+            isbns[i] = CatalogGenerator.isbn(i);
+        }
+        asOf = START.plusDays(DAYS);
+
+        long before = usedHeap();
+        loans = new HashMap<>();
+        memberLoans = new HashMap<>();
+        CatalogGenerator generator = new CatalogGenerator(42);
+        Random history = new Random(7);
+        for (int i = 0; i < loanCount; i++) {
+            Loan loan = loan(i, memberIds, isbns, generator, history);
+            loans.put(loan.getLoanId(), loan);
+            memberLoans.computeIfAbsent(loan.getMemberId(), id -> new ArrayList<>()).add(loan);
+        }
+        long objectBytes = usedHeap() - before;
+
+        // The same history again, so the store sees the loans in issue order
+        before = usedHeap();
+        store = new ColumnarLoanStore(loanCount);
+        generator = new CatalogGenerator(42);
+        history = new Random(7);
+        for (int i = 0; i < loanCount; i++) {
+            store.record(loan(i, memberIds, isbns, generator, history));
+        }
+        long columnarBytes = usedHeap() - before;
+
+        System.out.printf("%nBytes per loan: objects %.1f, columnar %.1f%n",
+                (double) objectBytes / loanCount, (double) columnarBytes / loanCount);
+        random = new Random(11);
+    }
+
+    @Benchmark
+    public long countOverdueObjects() {
+        return loans.values().stream().filter(loan -> loan.getStatus() == LoanStatus.ACTIVE
+                && asOf.isAfter(loan.getDueDate())).count();
+    }
+
+    @Benchmark
+    public int countOverdueColumnar() {
+        return store.getOverdueLoanCount(asOf);
+    }
+
+    @Benchmark
+    public long countActiveObjects() {
+        return loans.values().stream().filter(loan -> loan.getStatus() == LoanStatus.ACTIVE).count();
+    }
+
+    @Benchmark
+    public int countActiveColumnar() {
+        return store.getTotalActiveLoans();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<Loan> memberHistoryObjects() {
+        List<Loan> history = memberLoans.get(CatalogGenerator.memberId(random.nextInt(MEMBER_COUNT)));
+        return history == null ? new ArrayList<>() : new ArrayList<>(history);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<Loan> memberHistoryColumnar() {
+        return store.getLoanHistory(CatalogGenerator.memberId(random.nextInt(MEMBER_COUNT)));
+    }
+
+    /**
+     * Generates the i-th loan of the history: loans are spread evenly over the
+     * two years, and all but the recent ones and one in twenty are returned.
+     */
+    private Loan loan(int i, String[] memberIds, String[] isbns, CatalogGenerator generator, Random random) {
+        LocalDate loanDate = START.plusDays((long) i * DAYS / loanCount);
+        Loan loan = new Loan(IdGenerator.formatId("LOAN", i + 1L), memberIds[random.nextInt(memberIds.length)],
+                isbns[generator.popularBook(isbns.length)], loanDate, loanDate.plusDays(14));
+        if (random.nextInt(20) > 0 && loanDate.isBefore(START.plusDays(DAYS - 21))) {
+            loan.setReturnDate(loanDate.plusDays(7 + random.nextInt(14)));
+            loan.setStatus(LoanStatus.RETURNED);
+        }
+        return loan;
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
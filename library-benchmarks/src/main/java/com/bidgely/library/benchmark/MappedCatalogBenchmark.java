@@ -0,0 +1,142 @@
+package com.bidgely.library.benchmark;
+
+import com.bidgely.library.model.Book;
+import com.bidgely.library.service.LibraryService;
+import com.bidgely.library.service.catalog.MappedBookCatalog;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Compares {@link LibraryService#findBookByIsbn(String)} over {@code bookCount}
+ * books added to the service ({@code HEAP}) with the same books held in a
+ * {@link MappedBookCatalog} attached to an otherwise empty service
+ * ({@code CATALOG}): finding a book, finding one and reading its title, and
+ * restarting. A heap restart generates the books and adds them again, a lower
+ * bound on loading them from a snapshot; a catalog restart reopens the files.
+ * Each store gets its own trial, so one's heap does not tax the other's GC.
+ *
+ * <p>The heap the service takes is printed once per trial, in bytes per book,
+ * with the size of the catalog files. The heap service includes its search
+ * indexes, as a service holding the books has them. Setup writes the catalog
+ * to {@code java.io.tmpdir}, about 200 bytes per book. Add {@code -prof gc} to
+ * see the garbage each lookup leaves.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms3g", "-Xmx3g"})
+@State(Scope.Benchmark)
+public class MappedCatalogBenchmark {
+
+    private static final int LOOKUP_KEYS = 1 << 16;
+
+    @Param({"HEAP", "CATALOG"})
+    private String store;
+
+    @Param({"500000"})
+    private int bookCount;
+
+    private Path directory;
+    private MappedBookCatalog catalog;
+    private LibraryService libraryService;
+    private String[] lookups;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("library-catalog");
+        long before = usedHeap();
+        if (store.equals("HEAP")) {
+            libraryService = loadHeapService();
+        } else {
+            catalog = MappedBookCatalog.create(directory, bookCount);
+            CatalogGenerator generator = new CatalogGenerator(42);
+            for (int i = 0; i < bookCount; i++) {
+                catalog.addBook(generator.book(i));
+            }
+            catalog.force();
+            libraryService = new LibraryService();
+            libraryService.setCatalog(catalog);
+        }
+        long heapBytes = usedHeap() - before;
+
+        long fileBytes;
+        try (Stream<Path> files = Files.list(directory)) {
+            fileBytes = files.mapToLong(path -> path.toFile().length()).sum();
+        }
+        System.out.printf("%n%s: heap bytes per book %.1f, catalog file bytes per book %.1f%n",
+                store, (double) heapBytes / bookCount, (double) fileBytes / bookCount);
+
+        Random random = new Random(7);
+        lookups = new String[LOOKUP_KEYS];
+        for (int i = 0; i < LOOKUP_KEYS; i++) {
+            lookups[i] = new String(CatalogGenerator.isbn(random.nextInt(bookCount)).toCharArray());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        if (catalog != null) {
+            catalog.close();
+        }
+        TempDirectories.delete(directory);
+    }
+
+    @Benchmark
+    public Book findBook() {
+        return libraryService.findBookByIsbn(lookups[next++ & (LOOKUP_KEYS - 1)]);
+    }
+
+    @Benchmark
+    public String readTitle() {
+        return libraryService.findBookByIsbn(lookups[next++ & (LOOKUP_KEYS - 1)]).getTitle();
+    }
+
+    /**
+     * Brings the books back as a restarted node would and finds one of them.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 2)
+    @Measurement(iterations = 5)
+    public String restart() throws IOException {
+        String isbn = lookups[next++ & (LOOKUP_KEYS - 1)];
+        if (catalog == null) {
+            libraryService = null;
+            libraryService = loadHeapService();
+            return libraryService.findBookByIsbn(isbn).getTitle();
+        }
+        try (MappedBookCatalog reopened = MappedBookCatalog.open(directory)) {
+            return reopened.findBook(isbn).getTitle();
+        }
+    }
+
+    private LibraryService loadHeapService() {
+        CatalogGenerator generator = new CatalogGenerator(42);
+        List<Book> books = new ArrayList<>(bookCount);
+        for (int i = 0; i < bookCount; i++) {
+            books.add(generator.book(i));
+        }
+        LibraryService service = new LibraryService();
+        service.addBooks(books);
+        return service;
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
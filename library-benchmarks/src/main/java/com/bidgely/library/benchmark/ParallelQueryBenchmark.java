@@ -0,0 +1,117 @@
+package com.bidgely.library.benchmark;
+
+import com.bidgely.library.model.Author;
+import com.bidgely.library.model.Book;
+import com.bidgely.library.model.BookCategory;
+import com.bidgely.library.model.Loan;
+import com.bidgely.library.model.Member;
+import com.bidgely.library.service.AuthorService;
+import com.bidgely.library.service.LibraryService;
+import com.bidgely.library.service.QueryParallelism;
+import com.bidgely.library.util.ManualClock;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Measures the whole-collection queries of {@link LibraryService} and
+ * {@link AuthorService} run in a fork-join pool of {@code threads} workers,
+ * against {@code catalogSize} books, as many members and authors, and a loan
+ * history issued over 60 days so the overdue loans span many due dates.
+ * {@code threads=0} runs the queries sequentially, as a baseline.
+ *
+ * <p>Speed-up is bounded by the cores the machine has; thread counts above
+ * them show the cost of oversubscription instead.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class ParallelQueryBenchmark {
+
+    private static final int HISTORY_DAYS = 60;
+    private static final int SEQUENTIAL_THRESHOLD = 10_000;
+
+    @Param({"0", "1", "2", "4", "8", "16", "32"})
+    private int threads;
+
+    @Param({"200000"})
+    private int catalogSize;
+
+    private LibraryService libraryService;
+    private AuthorService authorService;
+    private ForkJoinPool pool;
+    private LocalDate overdueAsOf;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ManualClock clock = new ManualClock(Instant.parse("2024-01-01T12:00:00Z"), ZoneOffset.UTC);
+        libraryService = new LibraryService(64, new AtomicLong()::incrementAndGet, clock);
+        authorService = new AuthorService();
+        CatalogGenerator generator = new CatalogGenerator(42);
+        generator.populateBooks(libraryService, catalogSize);
+        generator.populateMembers(libraryService, catalogSize);
+        for (int day = 0; day < HISTORY_DAYS; day++) {
+            generator.populateLoanHistory(libraryService, catalogSize, catalogSize, catalogSize / HISTORY_DAYS, 0.5);
+            clock.advance(Duration.ofDays(1));
+        }
+        overdueAsOf = LocalDate.now(clock).plusDays(30);
+        for (int i = 0; i < catalogSize; i += 7) {
+            libraryService.deactivateMember(CatalogGenerator.memberId(i));
+        }
+        generator.populateAuthors(authorService, catalogSize);
+
+        if (threads > 0) {
+            pool = new ForkJoinPool(threads);
+            QueryParallelism parallelism = QueryParallelism.parallel(pool, SEQUENTIAL_THRESHOLD);
+            libraryService.setQueryParallelism(parallelism);
+            authorService.setQueryParallelism(parallelism);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
+    @Benchmark
+    public List<Book> getAvailableBooks() {
+        return libraryService.getAvailableBooks();
+    }
+
+    @Benchmark
+    public List<Book> getBooksByCategory() {
+        return libraryService.getBooksByCategory(BookCategory.FICTION);
+    }
+
+    @Benchmark
+    public List<Loan> getOverdueLoans() {
+        return libraryService.getOverdueLoans(overdueAsOf);
+    }
+
+    @Benchmark
+    public List<Member> getActiveMembers() {
+        return libraryService.getActiveMembers();
+    }
+
+    @Benchmark
+    public List<Author> getActiveAuthors() {
+        return authorService.getActiveAuthors();
+    }
+
+    @Benchmark
+    public List<Author> searchAuthorsByName() {
+        return authorService.searchAuthorsByName("smith");
+    }
+}
@@ -0,0 +1,283 @@
+package com.bidgely.library.benchmark;
+
+import com.bidgely.library.util.IntIntMap;
+import com.bidgely.library.util.LongIntMap;
+import com.bidgely.library.util.LongObjectMap;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link LongObjectMap} with a {@code HashMap<Long, Object>},
+ * {@link IntIntMap} with a {@code HashMap<Integer, Integer>} and
+ * {@link LongIntMap} with a {@code HashMap<Long, Integer>}, holding
+ * {@code size} random keys: a lookup of a present key, filling an empty map
+ * from scratch, and a pass over every entry.
+ *
+ * <p>The heap each map takes is printed once per trial, in bytes per entry,
+ * not counting the shared value object of the long-keyed maps. The default
+ * sizes fit the 3 GB heap the fork is given; larger ones need a larger heap,
+ * e.g. {@code -p size=50000000 -jvmArgsAppend -Xmx24g}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms3g", "-Xmx3g"})
+@State(Scope.Benchmark)
+public class PrimitiveCollectionsBenchmark {
+
+    private static final int LOOKUP_KEYS = 1 << 16;
+
+    @Param({"1000000", "10000000"})
+    private int size;
+
+    private long[] longKeys;
+    private int[] intKeys;
+    private Object value;
+    private Map<Long, Object> longHashMap;
+    private LongObjectMap<Object> longObjectMap;
+    private Map<Integer, Integer> intHashMap;
+    private IntIntMap intIntMap;
+    private Map<Long, Integer> longIntHashMap;
+    private LongIntMap longIntMap;
+    private long[] longLookups;
+    private int[] intLookups;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(17);
+        longKeys = new long[size];
+        intKeys = new int[size];
+        for (int i = 0; i < size; i++) {
+            longKeys[i] = random.nextLong();
+            intKeys[i] = random.nextInt();
+        }
+        value = new Object();
+
+        long before = usedHeap();
+        longHashMap = fillLongHashMap();
+        long longHashMapBytes = usedHeap() - before;
+        before = usedHeap();
+        longObjectMap = fillLongObjectMap();
+        long longObjectMapBytes = usedHeap() - before;
+        before = usedHeap();
+        intHashMap = fillIntHashMap();
+        long intHashMapBytes = usedHeap() - before;
+        before = usedHeap();
+        intIntMap = fillIntIntMap();
+        long intIntMapBytes = usedHeap() - before;
+        before = usedHeap();
+        longIntHashMap = fillLongIntHashMap();
+        long longIntHashMapBytes = usedHeap() - before;
+        before = usedHeap();
+        longIntMap = fillLongIntMap();
+        long longIntMapBytes = usedHeap() - before;
+
+        System.out.printf("%nbytes per entry: HashMap<Long, Object> %.1f, LongObjectMap %.1f, "
+                        + "HashMap<Integer, Integer> %.1f, IntIntMap %.1f, "
+                        + "HashMap<Long, Integer> %.1f, LongIntMap %.1f%n",
+                (double) longHashMapBytes / longHashMap.size(), (double) longObjectMapBytes / longObjectMap.size(),
+                (double) intHashMapBytes / intHashMap.size(), (double) intIntMapBytes / intIntMap.size(),
+                (double) longIntHashMapBytes / longIntHashMap.size(), (double) longIntMapBytes / longIntMap.size());
+
+        longLookups = new long[LOOKUP_KEYS];
+        intLookups = new int[LOOKUP_KEYS];
+        for (int i = 0; i < LOOKUP_KEYS; i++) {
+            longLookups[i] = longKeys[random.nextInt(size)];
+            intLookups[i] = intKeys[random.nextInt(size)];
+        }
+    }
+
+    @Benchmark
+    public Object getLongHashMap() {
+        return longHashMap.get(longLookups[next++ & (LOOKUP_KEYS - 1)]);
+    }
+
+    @Benchmark
+    public Object getLongObjectMap() {
+        return longObjectMap.get(longLookups[next++ & (LOOKUP_KEYS - 1)]);
+    }
+
+    @Benchmark
+    public Integer getIntHashMap() {
+        return intHashMap.get(intLookups[next++ & (LOOKUP_KEYS - 1)]);
+    }
+
+    @Benchmark
+    public int getIntIntMap() {
+        return intIntMap.get(intLookups[next++ & (LOOKUP_KEYS - 1)]);
+    }
+
+    @Benchmark
+    public Integer getLongIntHashMap() {
+        return longIntHashMap.get(longLookups[next++ & (LOOKUP_KEYS - 1)]);
+    }
+
+    @Benchmark
+    public int getLongIntMap() {
+        return longIntMap.get(longLookups[next++ & (LOOKUP_KEYS - 1)]);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 2)
+    @Measurement(iterations = 5)
+    public Map<Long, Object> putLongHashMap() {
+        return fillLongHashMap();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 2)
+    @Measurement(iterations = 5)
+    public LongObjectMap<Object> putLongObjectMap() {
+        return fillLongObjectMap();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 2)
+    @Measurement(iterations = 5)
+    public Map<Integer, Integer> putIntHashMap() {
+        return fillIntHashMap();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 2)
+    @Measurement(iterations = 5)
+    public IntIntMap putIntIntMap() {
+        return fillIntIntMap();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 2)
+    @Measurement(iterations = 5)
+    public Map<Long, Integer> putLongIntHashMap() {
+        return fillLongIntHashMap();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 2)
+    @Measurement(iterations = 5)
+    public LongIntMap putLongIntMap() {
+        return fillLongIntMap();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public int iterateLongHashMap() {
+        int[] sum = new int[1];
+        longHashMap.forEach((key, entry) -> sum[0] += key.intValue() + System.identityHashCode(entry));
+        return sum[0];
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public int iterateLongObjectMap() {
+        int[] sum = new int[1];
+        longObjectMap.forEach((entry, key) -> sum[0] += (int) key + System.identityHashCode(entry));
+        return sum[0];
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public int iterateIntHashMap() {
+        int[] sum = new int[1];
+        intHashMap.forEach((key, entry) -> sum[0] += key + entry);
+        return sum[0];
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public int iterateIntIntMap() {
+        int[] sum = new int[1];
+        intIntMap.forEach((key, entry) -> sum[0] += key + entry);
+        return sum[0];
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public int iterateLongIntHashMap() {
+        int[] sum = new int[1];
+        longIntHashMap.forEach((key, entry) -> sum[0] += key.intValue() + entry);
+        return sum[0];
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public int iterateLongIntMap() {
+        int[] sum = new int[1];
+        longIntMap.forEach((key, entry) -> sum[0] += (int) key + entry);
+        return sum[0];
+    }
+
+    private Map<Long, Object> fillLongHashMap() {
+        Map<Long, Object> map = new HashMap<>();
+        for (long key : longKeys) {
+            map.put(key, value);
+        }
+        return map;
+    }
+
+    private LongObjectMap<Object> fillLongObjectMap() {
+        LongObjectMap<Object> map = new LongObjectMap<>();
+        for (long key : longKeys) {
+            map.put(key, value);
+        }
+        return map;
+    }
+
+    private Map<Integer, Integer> fillIntHashMap() {
+        Map<Integer, Integer> map = new HashMap<>();
+        for (int i = 0; i < intKeys.length; i++) {
+            map.put(intKeys[i], i);
+        }
+        return map;
+    }
+
+    private IntIntMap fillIntIntMap() {
+        IntIntMap map = new IntIntMap(-1);
+        for (int i = 0; i < intKeys.length; i++) {
+            map.put(intKeys[i], i);
+        }
+        return map;
+    }
+
+    private Map<Long, Integer> fillLongIntHashMap() {
+        Map<Long, Integer> map = new HashMap<>();
+        for (int i = 0; i < longKeys.length; i++) {
+            map.put(longKeys[i], i);
+        }
+        return map;
+    }
+
+    private LongIntMap fillLongIntMap() {
+        LongIntMap map = new LongIntMap(-1);
+        for (int i = 0; i < longKeys.length; i++) {
+            map.put(longKeys[i], i);
+        }
+        return map;
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,77 @@
+package com.bidgely.library.benchmark;
+
+import com.bidgely.library.model.Reservation;
+import com.bidgely.library.service.LibraryService;
+import com.bidgely.library.service.ReservationService;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link ReservationService} latency as the number of existing
+ * reservations grows; with the member, ISBN and expiry indexes both
+ * {@code createReservation} and the daily expiry sweep should stay flat from
+ * 1k to 10M.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx12g")
+@State(Scope.Benchmark)
+public class ReservationBenchmark {
+
+    private static final int BOOKS = 1000;
+    private static final int FRESH_MEMBERS = 100_000;
+
+    @Param({"1000", "100000", "1000000", "10000000"})
+    private int existingReservations;
+
+    private ReservationService reservationService;
+    private String[] isbns;
+    private String[] freshMembers;
+    private long next;
+    private LocalDate today;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        CatalogGenerator generator = new CatalogGenerator(42);
+        LibraryService libraryService = new LibraryService();
+        generator.populateBooks(libraryService, BOOKS);
+        isbns = new String[BOOKS];
+        for (int i = 0; i < BOOKS; i++) {
+            isbns[i] = CatalogGenerator.isbn(i);
+        }
+
+        // Existing reservations use members 0..n-1, one reservation per book each;
+        // fresh members follow and have none.
+        int existingMembers = (existingReservations + BOOKS - 1) / BOOKS;
+        generator.populateMembers(libraryService, existingMembers + FRESH_MEMBERS);
+        freshMembers = new String[FRESH_MEMBERS];
+        for (int m = 0; m < FRESH_MEMBERS; m++) {
+            freshMembers[m] = CatalogGenerator.memberId(existingMembers + m);
+        }
+
+        reservationService = new ReservationService(libraryService);
+        for (int r = 0; r < existingReservations; r++) {
+            reservationService.createReservation(CatalogGenerator.memberId(r / BOOKS), isbns[r % BOOKS]);
+        }
+        today = LocalDate.now();
+    }
+
+    @Benchmark
+    public Reservation createReservation() {
+        long n = next++;
+        return reservationService.createReservation(freshMembers[(int) (n % FRESH_MEMBERS)],
+                isbns[(int) ((n / FRESH_MEMBERS) % BOOKS)]);
+    }
+
+    /**
+     * The daily sweep when nothing has expired yet, which is the common case.
+     */
+    @Benchmark
+    public int processExpiredReservations() {
+        return reservationService.processExpiredReservations(today);
+    }
+}
@@ -0,0 +1,90 @@
+package com.bidgely.library.benchmark;
+
+import com.bidgely.library.model.Book;
+import com.bidgely.library.model.Loan;
+import com.bidgely.library.model.LoanStatus;
+import com.bidgely.library.model.Reservation;
+import com.bidgely.library.service.AuthorService;
+import com.bidgely.library.service.LibraryService;
+import com.bidgely.library.service.LibraryStatistics;
+import com.bidgely.library.service.ReservationService;
+import com.bidgely.library.util.ManualClock;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Compares a {@link LibraryStatistics} snapshot with working out the same
+ * figures by scanning, as monitoring had to before the services counted them:
+ * {@code catalogSize} books, as many members and authors, a loan history
+ * issued over 60 days and a reservation per hundred books.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class StatisticsBenchmark {
+
+    private static final int HISTORY_DAYS = 60;
+
+    @Param({"200000"})
+    private int catalogSize;
+
+    private LibraryService libraryService;
+    private ReservationService reservationService;
+    private AuthorService authorService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ManualClock clock = new ManualClock(Instant.parse("2024-01-01T12:00:00Z"), ZoneOffset.UTC);
+        libraryService = new LibraryService(64, new AtomicLong()::incrementAndGet, clock);
+        reservationService = new ReservationService(libraryService);
+        authorService = new AuthorService();
+        CatalogGenerator generator = new CatalogGenerator(42);
+        generator.populateBooks(libraryService, catalogSize);
+        generator.populateMembers(libraryService, catalogSize);
+        for (int day = 0; day < HISTORY_DAYS; day++) {
+            generator.populateLoanHistory(libraryService, catalogSize, catalogSize, catalogSize / HISTORY_DAYS, 0.5);
+            clock.advance(Duration.ofDays(1));
+        }
+        for (int i = 0; i < catalogSize; i += 100) {
+            reservationService.createReservation(CatalogGenerator.memberId(i), CatalogGenerator.isbn(i));
+        }
+        generator.populateAuthors(authorService, catalogSize);
+    }
+
+    @Benchmark
+    public LibraryStatistics snapshot() {
+        return LibraryStatistics.snapshot(libraryService, reservationService, authorService);
+    }
+
+    @Benchmark
+    public long scan() {
+        long activeLoans = 0;
+        for (Loan loan : libraryService.getAllLoans()) {
+            if (loan.getStatus() == LoanStatus.ACTIVE) {
+                activeLoans++;
+            }
+        }
+        long availableCopies = 0;
+        for (Book book : libraryService.getAllBooks()) {
+            availableCopies += book.getAvailableCopies();
+        }
+        Map<Reservation.ReservationStatus, Long> reservations = new EnumMap<>(Reservation.ReservationStatus.class);
+        for (Reservation reservation : reservationService.getAllReservations()) {
+            reservations.merge(reservation.getStatus(), 1L, Long::sum);
+        }
+        return activeLoans + availableCopies + reservations.size()
+                + libraryService.getOverdueLoans().size()
+                + libraryService.getActiveMembers().size()
+                + authorService.getActiveAuthors().size();
+    }
+}
@@ -0,0 +1,32 @@
+package com.bidgely.library.benchmark;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/**
+ * Cleans up the scratch directories benchmarks write journals to.
+ */
+final class TempDirectories {
+
+    private TempDirectories() {
+    }
+
+    /**
+     * Deletes the directory and everything under it.
+     */
+    static void delete(Path directory) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> {
+                try {
+                    Files.delete(path);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+}
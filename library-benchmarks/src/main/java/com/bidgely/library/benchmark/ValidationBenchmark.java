@@ -0,0 +1,60 @@
+package com.bidgely.library.benchmark;
+
+import com.bidgely.library.util.ValidationUtil;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link ValidationUtil} against the original {@code String.matches}
+ * validation, which recompiled the pattern on every call.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ValidationBenchmark {
+
+    private static final String LEGACY_ISBN_PATTERN = "^(?:ISBN(?:-1[03])?:? )?(?=[0-9X]{10}$|(?=(?:[0-9]+[- ]){3})[- 0-9X]{13}$|97[89][0-9]{10}$|(?=(?:[0-9]+[- ]){4})[- 0-9]{17}$)(?:97[89][- ]?)?[0-9]{1,5}[- ]?[0-9]+[- ]?[0-9]+[- ]?[0-9X]$";
+    private static final String LEGACY_PHONE_PATTERN = "^[0-9]{10}$";
+
+    private String phoneNumber = "5551234567";
+
+    @Benchmark
+    public boolean legacyIsbn(Isbn isbn) {
+        return isbn.value.matches(LEGACY_ISBN_PATTERN);
+    }
+
+    @Benchmark
+    public boolean isbnFormat(Isbn isbn) {
+        return ValidationUtil.isValidIsbnFormat(isbn.value);
+    }
+
+    @Benchmark
+    public void isbnFormatAndChecksum(Isbn isbn, Blackhole blackhole) {
+        blackhole.consume(ValidationUtil.isValidIsbnFormat(isbn.value));
+        blackhole.consume(ValidationUtil.hasValidIsbnChecksum(isbn.value));
+    }
+
+    @Benchmark
+    public boolean legacyPhone() {
+        return phoneNumber.matches(LEGACY_PHONE_PATTERN);
+    }
+
+    @Benchmark
+    public boolean phone() {
+        return ValidationUtil.isValidPhoneNumber(phoneNumber);
+    }
+
+    /**
+     * Bare ISBN-13 (the bulk-import case), hyphenated ISBN-13 and ISBN-10 with an X check digit.
+     */
+    @State(Scope.Benchmark)
+    public static class Isbn {
+        @Param({"9780134685991", "978-0-13-468599-1", "013468599X"})
+        String value;
+    }
+}
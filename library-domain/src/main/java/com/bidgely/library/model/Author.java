@@ -1,12 +1,15 @@
 package com.bidgely.library.model;
 
+import java.io.Serializable;
 import java.time.LocalDate;
 import java.util.Objects;
 
 /**
  * Represents a book author.
  */
-public class Author {
+public class Author implements Serializable {
+    private static final long serialVersionUID = 1L;
+
     private String authorId;
     private String firstName;
     private String lastName;
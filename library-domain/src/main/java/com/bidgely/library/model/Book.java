@@ -1,18 +1,25 @@
 package com.bidgely.library.model;
 
+import java.io.Serializable;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Represents a book in the library system.
+ *
+ * <p>The available-copy count is an atomic counter, so {@link #tryBorrow()} and
+ * {@link #tryReturn()} may be called concurrently without external locking.
  */
-public class Book {
+public class Book implements Serializable {
+    private static final long serialVersionUID = 1L;
+
     private String isbn;
     private String title;
     private String author;
     private String publisher;
     private int publicationYear;
-    private int totalCopies;
-    private int availableCopies;
+    private volatile int totalCopies;
+    private final AtomicInteger availableCopies;
     private BookCategory category;
 
     public Book(String isbn, String title, String author, String publisher, 
@@ -23,7 +30,7 @@ public class Book {
         this.publisher = publisher;
         this.publicationYear = publicationYear;
         this.totalCopies = totalCopies;
-        this.availableCopies = totalCopies;
+        this.availableCopies = new AtomicInteger(totalCopies);
         this.category = category;
     }
 
@@ -76,11 +83,11 @@ public class Book {
     }
 
     public int getAvailableCopies() {
-        return availableCopies;
+        return availableCopies.get();
     }
 
     public void setAvailableCopies(int availableCopies) {
-        this.availableCopies = availableCopies;
+        this.availableCopies.set(availableCopies);
     }
 
     public BookCategory getCategory() {
@@ -92,19 +99,67 @@ public class Book {
     }
 
     public boolean isAvailable() {
-        return availableCopies > 0;
+        return availableCopies.get() > 0;
+    }
+
+    /**
+     * Atomically takes one copy if any is available.
+     *
+     * @return true if a copy was reserved, false if none were left
+     */
+    public boolean tryBorrow() {
+        return borrowAndGetRemaining() >= 0;
+    }
+
+    /**
+     * Atomically puts one copy back unless all copies are already on the shelf.
+     *
+     * @return true if the copy was returned, false if the count was already full
+     */
+    public boolean tryReturn() {
+        return returnAndGetAvailable() >= 0;
+    }
+
+    /**
+     * Atomically takes one copy if any is available.
+     *
+     * @return the copies left after this borrow, or -1 if none were available
+     */
+    public int borrowAndGetRemaining() {
+        while (true) {
+            int current = availableCopies.get();
+            if (current <= 0) {
+                return -1;
+            }
+            if (availableCopies.compareAndSet(current, current - 1)) {
+                return current - 1;
+            }
+        }
     }
 
-    public void borrowCopy() {
-        if (availableCopies > 0) {
-            availableCopies--;
+    /**
+     * Atomically puts one copy back unless all copies are already on the shelf.
+     *
+     * @return the copies available after this return, or -1 if the count was already full
+     */
+    public int returnAndGetAvailable() {
+        while (true) {
+            int current = availableCopies.get();
+            if (current >= totalCopies) {
+                return -1;
+            }
+            if (availableCopies.compareAndSet(current, current + 1)) {
+                return current + 1;
+            }
         }
     }
 
+    public void borrowCopy() {
+        tryBorrow();
+    }
+
     public void returnCopy() {
-        if (availableCopies < totalCopies) {
-            availableCopies++;
-        }
+        tryReturn();
     }
 
     @Override
@@ -129,7 +184,7 @@ public class Book {
                 ", publisher='" + publisher + '\'' +
                 ", publicationYear=" + publicationYear +
                 ", totalCopies=" + totalCopies +
-                ", availableCopies=" + availableCopies +
+                ", availableCopies=" + availableCopies.get() +
                 ", category=" + category +
                 '}';
     }
@@ -0,0 +1,69 @@
+package com.bidgely.library.model;
+
+import java.time.LocalDate;
+
+/**
+ * Conversions between {@link LocalDate} and the int epoch days that loans and
+ * reservations store their dates as.
+ *
+ * <p>Dates between 1970 and 2149 convert back to a shared {@link LocalDate}
+ * instance, so the date getters of loans and reservations do not allocate.
+ *
+ * <p>An int holds the epoch days of about 5.8 million years either side of
+ * 1970, far less than {@link LocalDate} spans; dates outside that range, and
+ * the one date whose epoch day is {@link #NONE}, are rejected rather than
+ * stored as a different day.
+ */
+public final class EpochDays {
+
+    /** Epoch day standing for a date that is not set. */
+    public static final int NONE = Integer.MIN_VALUE;
+
+    private static final int CACHED_DAYS = 1 << 16;
+    private static final LocalDate[] DATES = new LocalDate[CACHED_DAYS];
+
+    private EpochDays() {
+    }
+
+    /**
+     * Gets the date's epoch day, or {@link #NONE} for null.
+     *
+     * @throws IllegalArgumentException if the date's epoch day does not fit in an int
+     */
+    public static int of(LocalDate date) {
+        if (date == null) {
+            return NONE;
+        }
+        long epochDay = date.toEpochDay();
+        if (epochDay <= NONE || epochDay > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Date out of range: " + date);
+        }
+        return (int) epochDay;
+    }
+
+    /**
+     * Gets the date of an epoch day, or null for {@link #NONE}.
+     */
+    public static LocalDate toDate(int epochDay) {
+        if (epochDay == NONE) {
+            return null;
+        }
+        if (epochDay < 0 || epochDay >= CACHED_DAYS) {
+            return LocalDate.ofEpochDay(epochDay);
+        }
+        // Racing threads may each create the date; LocalDate is immutable, so either copy is safe to share
+        LocalDate date = DATES[epochDay];
+        if (date == null) {
+            date = LocalDate.ofEpochDay(epochDay);
+            DATES[epochDay] = date;
+        }
+        return date;
+    }
+
+    /**
+     * Gets today's epoch day in the system default time zone.
+     */
+    public static int today() {
+        return of(LocalDate.now());
+    }
+}
@@ -1,27 +1,46 @@
 package com.bidgely.library.model;
 
+import java.io.Serializable;
 import java.time.LocalDate;
 import java.util.Objects;
 
 /**
  * Represents a book loan transaction.
+ *
+ * <p>Dates are held as int epoch days ({@link EpochDays#NONE} when unset) and
+ * the {@link LocalDate} accessors convert on the way in and out. Scans over
+ * many loans should read the date once and pass it to {@link #isOverdue(int)}
+ * and {@link #getDaysOverdue(int)}, which compare ints and never consult the clock.
+ * Pass the day from the service's clock: the no-argument overloads read the
+ * system clock in the default time zone, so they do not follow a clock given
+ * to the services.
  */
-public class Loan {
+public class Loan implements Serializable {
+    private static final long serialVersionUID = 1L;
+
     private String loanId;
     private String memberId;
     private String isbn;
-    private LocalDate loanDate;
-    private LocalDate dueDate;
-    private LocalDate returnDate;
+    private int loanDay;
+    private int dueDay;
+    private int returnDay;
     private LoanStatus status;
     private double fineAmount;
 
     public Loan(String loanId, String memberId, String isbn, LocalDate loanDate, LocalDate dueDate) {
+        this(loanId, memberId, isbn, EpochDays.of(loanDate), EpochDays.of(dueDate));
+    }
+
+    /**
+     * Creates an active loan from epoch days; either may be {@link EpochDays#NONE}.
+     */
+    public Loan(String loanId, String memberId, String isbn, int loanDay, int dueDay) {
         this.loanId = loanId;
         this.memberId = memberId;
         this.isbn = isbn;
-        this.loanDate = loanDate;
-        this.dueDate = dueDate;
+        this.loanDay = loanDay;
+        this.dueDay = dueDay;
+        this.returnDay = EpochDays.NONE;
         this.status = LoanStatus.ACTIVE;
         this.fineAmount = 0.0;
     }
@@ -51,27 +70,51 @@ public class Loan {
     }
 
     public LocalDate getLoanDate() {
-        return loanDate;
+        return EpochDays.toDate(loanDay);
     }
 
     public void setLoanDate(LocalDate loanDate) {
-        this.loanDate = loanDate;
+        this.loanDay = EpochDays.of(loanDate);
+    }
+
+    public int getLoanDay() {
+        return loanDay;
+    }
+
+    public void setLoanDay(int loanDay) {
+        this.loanDay = loanDay;
     }
 
     public LocalDate getDueDate() {
-        return dueDate;
+        return EpochDays.toDate(dueDay);
     }
 
     public void setDueDate(LocalDate dueDate) {
-        this.dueDate = dueDate;
+        this.dueDay = EpochDays.of(dueDate);
+    }
+
+    public int getDueDay() {
+        return dueDay;
+    }
+
+    public void setDueDay(int dueDay) {
+        this.dueDay = dueDay;
     }
 
     public LocalDate getReturnDate() {
-        return returnDate;
+        return EpochDays.toDate(returnDay);
     }
 
     public void setReturnDate(LocalDate returnDate) {
-        this.returnDate = returnDate;
+        this.returnDay = EpochDays.of(returnDate);
+    }
+
+    public int getReturnDay() {
+        return returnDay;
+    }
+
+    public void setReturnDay(int returnDay) {
+        this.returnDay = returnDay;
     }
 
     public LoanStatus getStatus() {
@@ -90,15 +133,40 @@ public class Loan {
         this.fineAmount = fineAmount;
     }
 
+    /**
+     * Checks whether the loan is overdue as of today on the system clock.
+     *
+     * @deprecated ignores any clock given to the services; use
+     *             {@link #isOverdue(int)} with the service's current day
+     */
+    @Deprecated
     public boolean isOverdue() {
-        return status == LoanStatus.ACTIVE && LocalDate.now().isAfter(dueDate);
+        return isOverdue(EpochDays.today());
     }
 
+    /**
+     * Checks whether the loan is active and past its due day as of the given epoch day.
+     */
+    public boolean isOverdue(int today) {
+        return status == LoanStatus.ACTIVE && dueDay != EpochDays.NONE && today > dueDay;
+    }
+
+    /**
+     * Gets the number of days the loan is overdue as of today on the system clock.
+     *
+     * @deprecated ignores any clock given to the services; use
+     *             {@link #getDaysOverdue(int)} with the service's current day
+     */
+    @Deprecated
     public long getDaysOverdue() {
-        if (!isOverdue()) {
-            return 0;
-        }
-        return java.time.temporal.ChronoUnit.DAYS.between(dueDate, LocalDate.now());
+        return getDaysOverdue(EpochDays.today());
+    }
+
+    /**
+     * Gets the number of days the loan is overdue as of the given epoch day, or 0 if it is not.
+     */
+    public long getDaysOverdue(int today) {
+        return isOverdue(today) ? (long) today - dueDay : 0;
     }
 
     @Override
@@ -120,9 +188,9 @@ public class Loan {
                 "loanId='" + loanId + '\'' +
                 ", memberId='" + memberId + '\'' +
                 ", isbn='" + isbn + '\'' +
-                ", loanDate=" + loanDate +
-                ", dueDate=" + dueDate +
-                ", returnDate=" + returnDate +
+                ", loanDate=" + getLoanDate() +
+                ", dueDate=" + getDueDate() +
+                ", returnDate=" + getReturnDate() +
                 ", status=" + status +
                 ", fineAmount=" + fineAmount +
                 '}';
@@ -1,12 +1,15 @@
 package com.bidgely.library.model;
 
+import java.io.Serializable;
 import java.time.LocalDate;
 import java.util.Objects;
 
 /**
  * Represents a library member.
  */
-public class Member {
+public class Member implements Serializable {
+    private static final long serialVersionUID = 1L;
+
     private String memberId;
     private String name;
     private String email;
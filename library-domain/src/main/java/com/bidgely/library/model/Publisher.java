@@ -1,11 +1,14 @@
 package com.bidgely.library.model;
 
+import java.io.Serializable;
 import java.util.Objects;
 
 /**
  * Represents a book publisher.
  */
-public class Publisher {
+public class Publisher implements Serializable {
+    private static final long serialVersionUID = 1L;
+
     private String publisherId;
     private String name;
     private String address;
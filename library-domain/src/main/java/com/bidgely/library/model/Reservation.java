@@ -1,25 +1,40 @@
 package com.bidgely.library.model;
 
+import java.io.Serializable;
 import java.time.LocalDate;
 import java.util.Objects;
 
 /**
  * Represents a book reservation by a member.
+ *
+ * <p>Dates are held as int epoch days ({@link EpochDays#NONE} when unset), like
+ * {@link Loan}'s; {@link #isExpired(int)} compares against a supplied day,
+ * which should come from the service's clock rather than the system clock.
  */
-public class Reservation {
+public class Reservation implements Serializable {
+    private static final long serialVersionUID = 1L;
+    private static final int VALID_DAYS = 7;
+
     private String reservationId;
     private String memberId;
     private String isbn;
-    private LocalDate reservationDate;
-    private LocalDate expiryDate;
+    private int reservationDay;
+    private int expiryDay;
     private ReservationStatus status;
 
     public Reservation(String reservationId, String memberId, String isbn, LocalDate reservationDate) {
+        this(reservationId, memberId, isbn, EpochDays.of(reservationDate));
+    }
+
+    public Reservation(String reservationId, String memberId, String isbn, int reservationDay) {
+        if (reservationDay == EpochDays.NONE) {
+            throw new IllegalArgumentException("Reservation date is required");
+        }
         this.reservationId = reservationId;
         this.memberId = memberId;
         this.isbn = isbn;
-        this.reservationDate = reservationDate;
-        this.expiryDate = reservationDate.plusDays(7); // Reservation valid for 7 days
+        this.reservationDay = reservationDay;
+        this.expiryDay = reservationDay + VALID_DAYS;
         this.status = ReservationStatus.ACTIVE;
     }
 
@@ -48,19 +63,35 @@ public class Reservation {
     }
 
     public LocalDate getReservationDate() {
-        return reservationDate;
+        return EpochDays.toDate(reservationDay);
     }
 
     public void setReservationDate(LocalDate reservationDate) {
-        this.reservationDate = reservationDate;
+        this.reservationDay = EpochDays.of(reservationDate);
+    }
+
+    public int getReservationDay() {
+        return reservationDay;
+    }
+
+    public void setReservationDay(int reservationDay) {
+        this.reservationDay = reservationDay;
     }
 
     public LocalDate getExpiryDate() {
-        return expiryDate;
+        return EpochDays.toDate(expiryDay);
     }
 
     public void setExpiryDate(LocalDate expiryDate) {
-        this.expiryDate = expiryDate;
+        this.expiryDay = EpochDays.of(expiryDate);
+    }
+
+    public int getExpiryDay() {
+        return expiryDay;
+    }
+
+    public void setExpiryDay(int expiryDay) {
+        this.expiryDay = expiryDay;
     }
 
     public ReservationStatus getStatus() {
@@ -71,8 +102,22 @@ public class Reservation {
         this.status = status;
     }
 
+    /**
+     * Checks whether the reservation is expired as of today on the system clock.
+     *
+     * @deprecated ignores any clock given to the services; use
+     *             {@link #isExpired(int)} with the service's current day
+     */
+    @Deprecated
     public boolean isExpired() {
-        return LocalDate.now().isAfter(expiryDate) && status == ReservationStatus.ACTIVE;
+        return isExpired(EpochDays.today());
+    }
+
+    /**
+     * Checks whether the reservation is active and past its expiry day as of the given epoch day.
+     */
+    public boolean isExpired(int today) {
+        return status == ReservationStatus.ACTIVE && expiryDay != EpochDays.NONE && today > expiryDay;
     }
 
     public void cancel() {
@@ -103,7 +148,7 @@ public class Reservation {
                 ", memberId='" + memberId + '\'' +
                 ", isbn='" + isbn + '\'' +
                 ", status=" + status +
-                ", expiryDate=" + expiryDate +
+                ", expiryDate=" + getExpiryDate() +
                 '}';
     }
 
@@ -0,0 +1,159 @@
+package com.bidgely.library.model;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Interns identifiers such as ISBNs, member, author and publisher IDs as dense
+ * int handles: the first identifier interned gets 0, the next new one 1, and so
+ * on. Structures keyed by identifier can then be arrays indexed by handle, and
+ * entities can share one String instance per identifier.
+ *
+ * <p>Handles are never reused or released, so a table only grows. Lookups
+ * ({@link #find(String)}, {@link #symbol(int)}) take no lock; interning a new
+ * identifier takes the table's lock. Safe for concurrent use.
+ */
+public final class SymbolTable {
+
+    /** Handle returned for an identifier that has not been interned. */
+    public static final int NONE = -1;
+
+    private static final int CHUNK_BITS = 10;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    private final Object lock = new Object();
+    // Open-addressing table of (hash, handle + 1) pairs, handle 0 marking a free
+    // slot, kept at most two thirds full; probes compare hashes without loading symbols
+    private volatile AtomicIntegerArray slots = new AtomicIntegerArray(32);
+    // Symbols by handle, in chunks so growing never copies them
+    private volatile String[][] chunks = new String[1][];
+    private volatile int size;
+
+    /**
+     * Gets the handle of an identifier, interning it if it is new.
+     *
+     * @throws IllegalArgumentException if the identifier is null
+     */
+    public int intern(String symbol) {
+        if (symbol == null) {
+            throw new IllegalArgumentException("Symbol cannot be null");
+        }
+        int handle = find(symbol);
+        if (handle != NONE) {
+            return handle;
+        }
+        synchronized (lock) {
+            handle = find(symbol);
+            if (handle != NONE) {
+                return handle;
+            }
+            handle = size;
+            if (handle == Integer.MAX_VALUE - 1) {
+                throw new IllegalStateException("Symbol table is full");
+            }
+            store(handle, symbol);
+            // Counted before a slot leads to it, so symbol() accepts every handle find() can return
+            size = handle + 1;
+            AtomicIntegerArray table = slots;
+            if ((handle + 1) * 3L > table.length()) {
+                slots = rehash(table.length() * 2);
+            } else {
+                insert(table, handle, symbol);
+            }
+            return handle;
+        }
+    }
+
+    /**
+     * Gets the handle of an identifier, or {@link #NONE} if it was never
+     * interned (or is null).
+     */
+    public int find(String symbol) {
+        if (symbol == null) {
+            return NONE;
+        }
+        AtomicIntegerArray table = slots;
+        int mask = (table.length() >>> 1) - 1;
+        int hash = symbol.hashCode();
+        for (int slot = spread(hash) & mask; ; slot = (slot + 1) & mask) {
+            // The handle is written after the hash, so read it first
+            int entry = table.get(2 * slot + 1);
+            if (entry == 0) {
+                return NONE;
+            }
+            if (table.get(2 * slot) == hash && symbolAt(entry - 1).equals(symbol)) {
+                return entry - 1;
+            }
+        }
+    }
+
+    /**
+     * Gets the identifier a handle stands for.
+     *
+     * @throws IllegalArgumentException if no identifier has that handle
+     */
+    public String symbol(int handle) {
+        if (handle < 0 || handle >= size) {
+            throw new IllegalArgumentException("Unknown symbol handle: " + handle);
+        }
+        return symbolAt(handle);
+    }
+
+    /**
+     * Gets the number of identifiers interned, which is also the next handle.
+     */
+    public int size() {
+        return size;
+    }
+
+    private String symbolAt(int handle) {
+        return chunks[handle >>> CHUNK_BITS][handle & CHUNK_MASK];
+    }
+
+    /**
+     * Stores a symbol under its handle; caller must hold the lock. The symbol is
+     * written before the slot that leads to it, so a reader that finds the slot
+     * also sees the symbol.
+     */
+    private void store(int handle, String symbol) {
+        int chunk = handle >>> CHUNK_BITS;
+        String[][] current = chunks;
+        if (chunk == current.length) {
+            current = Arrays.copyOf(current, current.length * 2);
+        }
+        if (current[chunk] == null) {
+            current[chunk] = new String[CHUNK_SIZE];
+        }
+        current[chunk][handle & CHUNK_MASK] = symbol;
+        chunks = current;
+    }
+
+    private static void insert(AtomicIntegerArray table, int handle, String symbol) {
+        int mask = (table.length() >>> 1) - 1;
+        int hash = symbol.hashCode();
+        int slot = spread(hash) & mask;
+        while (table.get(2 * slot + 1) != 0) {
+            slot = (slot + 1) & mask;
+        }
+        table.set(2 * slot, hash);
+        table.set(2 * slot + 1, handle + 1);
+    }
+
+    /**
+     * Builds a larger table holding every counted symbol; readers keep using
+     * the old one until the caller publishes it.
+     */
+    private AtomicIntegerArray rehash(int capacity) {
+        AtomicIntegerArray table = new AtomicIntegerArray(capacity);
+        for (int handle = 0; handle < size; handle++) {
+            insert(table, handle, symbolAt(handle));
+        }
+        return table;
+    }
+
+    private static int spread(int hash) {
+        int h = hash * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,342 @@
+package com.bidgely.library.model.codec;
+
+import com.bidgely.library.model.*;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads entities written by an {@link EntityEncoder}.
+ *
+ * <p>A decoder must see the encoder's entities in order and be created with the
+ * same dictionary capacity. Strings read from the dictionary are the same
+ * instance every time, so decoded loans share their member IDs and ISBNs. A read that
+ * runs past the buffer's limit leaves the position and dictionary as they were.
+ *
+ * <p>Not thread-safe.
+ */
+public final class EntityDecoder {
+
+    private static final BookCategory[] CATEGORIES = BookCategory.values();
+    private static final MembershipType[] MEMBERSHIP_TYPES = MembershipType.values();
+    private static final LoanStatus[] LOAN_STATUSES = LoanStatus.values();
+    private static final Reservation.ReservationStatus[] RESERVATION_STATUSES = Reservation.ReservationStatus.values();
+
+    private final int dictionaryCapacity;
+    private final List<String> entries = new ArrayList<>();
+    private byte[] scratch = new byte[256];
+    private char[] digits = new char[64];
+    private int entriesAtStart;
+
+    public EntityDecoder() {
+        this(EntityEncoder.DEFAULT_DICTIONARY_CAPACITY);
+    }
+
+    /**
+     * @param dictionaryCapacity the capacity the encoder was created with
+     */
+    public EntityDecoder(int dictionaryCapacity) {
+        if (dictionaryCapacity < 0) {
+            throw new IllegalArgumentException("Dictionary capacity cannot be negative");
+        }
+        this.dictionaryCapacity = dictionaryCapacity;
+    }
+
+    /**
+     * Reads a book with the available-copy count it was written with.
+     *
+     * @throws IllegalArgumentException if the bytes are not an encoded book
+     */
+    public Book readBook(ByteBuffer in) {
+        int start = begin(in);
+        try {
+            Book book = new Book(getReference(in), getText(in), getShared(in), getShared(in), getInt(in),
+                    getInt(in), null);
+            book.setAvailableCopies(getInt(in));
+            book.setCategory(getEnum(in, CATEGORIES));
+            return book;
+        } catch (BufferUnderflowException e) {
+            throw rollback(in, start, e);
+        }
+    }
+
+    public Member readMember(ByteBuffer in) {
+        int start = begin(in);
+        try {
+            Member member = new Member(getReference(in), getText(in), getText(in), getId(in), getDate(in),
+                    getEnum(in, MEMBERSHIP_TYPES));
+            member.setActive(getBoolean(in));
+            return member;
+        } catch (BufferUnderflowException e) {
+            throw rollback(in, start, e);
+        }
+    }
+
+    public Loan readLoan(ByteBuffer in) {
+        int start = begin(in);
+        try {
+            String loanId = getId(in);
+            String memberId = getReference(in);
+            String isbn = getReference(in);
+            int loanDay = getDay(in);
+            Loan loan = new Loan(loanId, memberId, isbn, loanDay, getDayAfter(in, loanDay));
+            loan.setReturnDay(getDayAfter(in, loanDay));
+            loan.setStatus(getEnum(in, LOAN_STATUSES));
+            loan.setFineAmount(getAmount(in));
+            return loan;
+        } catch (BufferUnderflowException e) {
+            throw rollback(in, start, e);
+        }
+    }
+
+    public Reservation readReservation(ByteBuffer in) {
+        int start = begin(in);
+        try {
+            String reservationId = getId(in);
+            String memberId = getReference(in);
+            String isbn = getReference(in);
+            int reservationDay = getDay(in);
+            if (reservationDay == EpochDays.NONE) {
+                throw new IllegalArgumentException("Reservation without a date: " + reservationId);
+            }
+            Reservation reservation = new Reservation(reservationId, memberId, isbn, reservationDay);
+            reservation.setExpiryDay(getDayAfter(in, reservationDay));
+            reservation.setStatus(getEnum(in, RESERVATION_STATUSES));
+            return reservation;
+        } catch (BufferUnderflowException e) {
+            throw rollback(in, start, e);
+        }
+    }
+
+    public Author readAuthor(ByteBuffer in) {
+        int start = begin(in);
+        try {
+            Author author = new Author(getId(in), getText(in), getText(in));
+            author.setBirthDate(getDate(in));
+            author.setNationality(getShared(in));
+            author.setBiography(getText(in));
+            author.setActive(getBoolean(in));
+            return author;
+        } catch (BufferUnderflowException e) {
+            throw rollback(in, start, e);
+        }
+    }
+
+    public Publisher readPublisher(ByteBuffer in) {
+        int start = begin(in);
+        try {
+            String publisherId = getId(in);
+            String name = getText(in);
+            Publisher publisher = new Publisher(publisherId, name, null);
+            publisher.setAddress(getText(in));
+            publisher.setPhone(getId(in));
+            publisher.setEmail(getText(in));
+            publisher.setWebsite(getText(in));
+            publisher.setCountry(getShared(in));
+            publisher.setActive(getBoolean(in));
+            return publisher;
+        } catch (BufferUnderflowException e) {
+            throw rollback(in, start, e);
+        }
+    }
+
+    /**
+     * Reads an entity of the given type.
+     *
+     * @throws IllegalArgumentException if the type is not supported or the bytes do not encode one
+     */
+    public <T> T read(ByteBuffer in, Class<T> type) {
+        Object entity;
+        if (type == Loan.class) {
+            entity = readLoan(in);
+        } else if (type == Book.class) {
+            entity = readBook(in);
+        } else if (type == Member.class) {
+            entity = readMember(in);
+        } else if (type == Reservation.class) {
+            entity = readReservation(in);
+        } else if (type == Author.class) {
+            entity = readAuthor(in);
+        } else if (type == Publisher.class) {
+            entity = readPublisher(in);
+        } else {
+            throw new IllegalArgumentException("Cannot decode " + type.getName());
+        }
+        return type.cast(entity);
+    }
+
+    /**
+     * Forgets every shared string, matching {@link EntityEncoder#reset()}.
+     */
+    public void reset() {
+        entries.clear();
+    }
+
+    public int getDictionarySize() {
+        return entries.size();
+    }
+
+    private int begin(ByteBuffer in) {
+        entriesAtStart = entries.size();
+        return in.position();
+    }
+
+    private BufferUnderflowException rollback(ByteBuffer in, int start, BufferUnderflowException e) {
+        in.position(start);
+        while (entries.size() > entriesAtStart) {
+            entries.remove(entries.size() - 1);
+        }
+        return e;
+    }
+
+    private String getReference(ByteBuffer in) {
+        return dictionaryCapacity == 0 ? getId(in) : getShared(in);
+    }
+
+    private String getShared(ByteBuffer in) {
+        if (dictionaryCapacity == 0) {
+            return getText(in);
+        }
+        int tag = WireFormat.getVarInt(in);
+        if (tag == WireFormat.NULL) {
+            return null;
+        }
+        if (tag == WireFormat.NEW_ENTRY) {
+            String value = getText(in);
+            if (value == null) {
+                throw new IllegalArgumentException("Null dictionary entry");
+            }
+            if (entries.size() < dictionaryCapacity) {
+                entries.add(value);
+            }
+            return value;
+        }
+        int index = tag - 2;
+        if (index >= entries.size()) {
+            throw new IllegalArgumentException("Unknown dictionary entry " + index);
+        }
+        return entries.get(index);
+    }
+
+    private String getId(ByteBuffer in) {
+        int tag = WireFormat.getVarInt(in);
+        if (tag == WireFormat.NULL) {
+            return null;
+        }
+        if (tag == WireFormat.TEXT_ID) {
+            return getShared(in);
+        }
+        int count = tag - WireFormat.TEXT_ID;
+        if (count > WireFormat.MAX_ID_DIGITS) {
+            throw new IllegalArgumentException("Invalid ID tag " + tag);
+        }
+        String prefix = getShared(in);
+        if (prefix == null) {
+            throw new IllegalArgumentException("ID without a prefix");
+        }
+        long number = WireFormat.getVarLong(in);
+        int length = prefix.length() + count;
+        if (digits.length < length) {
+            digits = new char[Math.max(length, digits.length * 2)];
+        }
+        prefix.getChars(0, prefix.length(), digits, 0);
+        for (int i = length - 1; i >= prefix.length(); i--) {
+            digits[i] = (char) ('0' + number % 10);
+            number /= 10;
+        }
+        if (number != 0) {
+            throw new IllegalArgumentException("ID number longer than " + count + " digits");
+        }
+        return new String(digits, 0, length);
+    }
+
+    /**
+     * Reads UTF-8 straight from a heap buffer's array, or through a reused
+     * scratch array from a direct one.
+     */
+    private String getText(ByteBuffer in) {
+        int tag = WireFormat.getVarInt(in);
+        if (tag == WireFormat.NULL) {
+            return null;
+        }
+        int length = tag - 1;
+        WireFormat.checkRemaining(in, length);
+        String value;
+        if (in.hasArray()) {
+            value = new String(in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8);
+            in.position(in.position() + length);
+        } else {
+            if (scratch.length < length) {
+                scratch = new byte[Math.max(length, scratch.length * 2)];
+            }
+            in.get(scratch, 0, length);
+            value = new String(scratch, 0, length, StandardCharsets.UTF_8);
+        }
+        return value;
+    }
+
+    private static int getInt(ByteBuffer in) {
+        long value = WireFormat.unzigzag(WireFormat.getVarLong(in));
+        if (value != (int) value) {
+            throw new IllegalArgumentException("Int out of range: " + value);
+        }
+        return (int) value;
+    }
+
+    private static boolean getBoolean(ByteBuffer in) {
+        byte value = in.get();
+        if (value != 0 && value != 1) {
+            throw new IllegalArgumentException("Invalid boolean " + value);
+        }
+        return value == 1;
+    }
+
+    private static LocalDate getDate(ByteBuffer in) {
+        return EpochDays.toDate(getDay(in));
+    }
+
+    private static int getDay(ByteBuffer in) {
+        return getDayAfter(in, EpochDays.NONE);
+    }
+
+    /**
+     * Reads an epoch day written relative to a base day, or absolute if the base is not set.
+     */
+    private static int getDayAfter(ByteBuffer in, int base) {
+        long tag = WireFormat.getVarLong(in);
+        if (tag == WireFormat.NULL) {
+            return EpochDays.NONE;
+        }
+        long epochDay = WireFormat.unzigzag(tag - 1) + (base == EpochDays.NONE ? 0 : base);
+        if (epochDay < LocalDate.MIN.toEpochDay() || epochDay > LocalDate.MAX.toEpochDay()) {
+            throw new IllegalArgumentException("Invalid epoch day " + epochDay);
+        }
+        return (int) epochDay;
+    }
+
+    private static <E extends Enum<E>> E getEnum(ByteBuffer in, E[] constants) {
+        int tag = WireFormat.getVarInt(in);
+        if (tag == WireFormat.NULL) {
+            return null;
+        }
+        if (tag > constants.length) {
+            throw new IllegalArgumentException("Invalid ordinal " + (tag - 1));
+        }
+        return constants[tag - 1];
+    }
+
+    private static double getAmount(ByteBuffer in) {
+        byte flag = in.get();
+        if (flag == 0) {
+            return 0.0;
+        }
+        if (flag != 1) {
+            throw new IllegalArgumentException("Invalid amount flag " + flag);
+        }
+        return in.getDouble();
+    }
+}
@@ -0,0 +1,331 @@
+package com.bidgely.library.model.codec;
+
+import com.bidgely.library.model.*;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes domain entities to a {@link ByteBuffer} in a compact binary form read
+ * back by {@link EntityDecoder}.
+ *
+ * <ul>
+ *   <li>Dates are epoch days as zigzag varints; a loan's due and return dates
+ *       and a reservation's expiry are stored relative to its start date.</li>
+ *   <li>Enums are ordinals and counts are varints.</li>
+ *   <li>IDs ending in digits (loan IDs, ISBNs, phone numbers) are stored as a
+ *       prefix and a varint number, keeping leading zeros.</li>
+ *   <li>Strings that repeat across entities (member IDs and ISBNs referred to by
+ *       loans, author and publisher names, countries) go through a dictionary:
+ *       the first occurrence is written in full and later ones as its index.</li>
+ * </ul>
+ *
+ * <p>The dictionary makes an encoder a stream: entities must be decoded in the
+ * order they were encoded, by a decoder with the same dictionary capacity. With
+ * a capacity of 0 nothing is shared and each entity decodes on its own; member
+ * IDs and ISBNs are then written as IDs. A write that overflows the buffer
+ * leaves both the buffer position and the dictionary as they were, so the
+ * caller can drain the buffer and write the entity again.
+ *
+ * <p>Not thread-safe.
+ */
+public final class EntityEncoder {
+
+    /** Dictionary capacity of encoders and decoders created without one. */
+    public static final int DEFAULT_DICTIONARY_CAPACITY = 1 << 20;
+
+    private final int dictionaryCapacity;
+    private final Map<String, Integer> dictionary = new HashMap<>();
+    private final List<String> entries = new ArrayList<>();
+    private String lastPrefix = "";
+    private int entriesAtStart;
+
+    public EntityEncoder() {
+        this(DEFAULT_DICTIONARY_CAPACITY);
+    }
+
+    /**
+     * @param dictionaryCapacity how many distinct shared strings to remember; 0
+     *                           makes every entity self-contained
+     */
+    public EntityEncoder(int dictionaryCapacity) {
+        if (dictionaryCapacity < 0) {
+            throw new IllegalArgumentException("Dictionary capacity cannot be negative");
+        }
+        this.dictionaryCapacity = dictionaryCapacity;
+    }
+
+    /**
+     * Writes a book, including its available-copy count.
+     */
+    public void writeBook(ByteBuffer out, Book book) {
+        int start = begin(out);
+        try {
+            putReference(out, book.getIsbn());
+            putText(out, book.getTitle());
+            putShared(out, book.getAuthor());
+            putShared(out, book.getPublisher());
+            putInt(out, book.getPublicationYear());
+            putInt(out, book.getTotalCopies());
+            putInt(out, book.getAvailableCopies());
+            putEnum(out, book.getCategory());
+        } catch (BufferOverflowException e) {
+            throw rollback(out, start, e);
+        }
+    }
+
+    public void writeMember(ByteBuffer out, Member member) {
+        int start = begin(out);
+        try {
+            putReference(out, member.getMemberId());
+            putText(out, member.getName());
+            putText(out, member.getEmail());
+            putId(out, member.getPhoneNumber());
+            putDate(out, member.getMembershipDate());
+            putEnum(out, member.getMembershipType());
+            out.put(member.isActive() ? (byte) 1 : 0);
+        } catch (BufferOverflowException e) {
+            throw rollback(out, start, e);
+        }
+    }
+
+    public void writeLoan(ByteBuffer out, Loan loan) {
+        int start = begin(out);
+        try {
+            putId(out, loan.getLoanId());
+            putReference(out, loan.getMemberId());
+            putReference(out, loan.getIsbn());
+            putDay(out, loan.getLoanDay());
+            putDayAfter(out, loan.getDueDay(), loan.getLoanDay());
+            putDayAfter(out, loan.getReturnDay(), loan.getLoanDay());
+            putEnum(out, loan.getStatus());
+            putAmount(out, loan.getFineAmount());
+        } catch (BufferOverflowException e) {
+            throw rollback(out, start, e);
+        }
+    }
+
+    public void writeReservation(ByteBuffer out, Reservation reservation) {
+        if (reservation.getReservationDay() == EpochDays.NONE) {
+            throw new IllegalArgumentException("Reservation without a date: " + reservation.getReservationId());
+        }
+        int start = begin(out);
+        try {
+            putId(out, reservation.getReservationId());
+            putReference(out, reservation.getMemberId());
+            putReference(out, reservation.getIsbn());
+            putDay(out, reservation.getReservationDay());
+            putDayAfter(out, reservation.getExpiryDay(), reservation.getReservationDay());
+            putEnum(out, reservation.getStatus());
+        } catch (BufferOverflowException e) {
+            throw rollback(out, start, e);
+        }
+    }
+
+    public void writeAuthor(ByteBuffer out, Author author) {
+        int start = begin(out);
+        try {
+            putId(out, author.getAuthorId());
+            putText(out, author.getFirstName());
+            putText(out, author.getLastName());
+            putDate(out, author.getBirthDate());
+            putShared(out, author.getNationality());
+            putText(out, author.getBiography());
+            out.put(author.isActive() ? (byte) 1 : 0);
+        } catch (BufferOverflowException e) {
+            throw rollback(out, start, e);
+        }
+    }
+
+    public void writePublisher(ByteBuffer out, Publisher publisher) {
+        int start = begin(out);
+        try {
+            putId(out, publisher.getPublisherId());
+            putText(out, publisher.getName());
+            putText(out, publisher.getAddress());
+            putId(out, publisher.getPhone());
+            putText(out, publisher.getEmail());
+            putText(out, publisher.getWebsite());
+            putShared(out, publisher.getCountry());
+            out.put(publisher.isActive() ? (byte) 1 : 0);
+        } catch (BufferOverflowException e) {
+            throw rollback(out, start, e);
+        }
+    }
+
+    /**
+     * Writes any supported entity; the reader must know which type to expect.
+     *
+     * @throws IllegalArgumentException if the entity is not a supported type
+     */
+    public void write(ByteBuffer out, Object entity) {
+        if (entity instanceof Loan) {
+            writeLoan(out, (Loan) entity);
+        } else if (entity instanceof Book) {
+            writeBook(out, (Book) entity);
+        } else if (entity instanceof Member) {
+            writeMember(out, (Member) entity);
+        } else if (entity instanceof Reservation) {
+            writeReservation(out, (Reservation) entity);
+        } else if (entity instanceof Author) {
+            writeAuthor(out, (Author) entity);
+        } else if (entity instanceof Publisher) {
+            writePublisher(out, (Publisher) entity);
+        } else {
+            throw new IllegalArgumentException("Cannot encode " + entity);
+        }
+    }
+
+    /**
+     * Forgets every shared string, starting a new stream.
+     */
+    public void reset() {
+        dictionary.clear();
+        entries.clear();
+    }
+
+    public int getDictionarySize() {
+        return entries.size();
+    }
+
+    private int begin(ByteBuffer out) {
+        entriesAtStart = entries.size();
+        return out.position();
+    }
+
+    /**
+     * Undoes a partial write: restores the position and drops the shared
+     * strings the entity added.
+     */
+    private BufferOverflowException rollback(ByteBuffer out, int start, BufferOverflowException e) {
+        out.position(start);
+        while (entries.size() > entriesAtStart) {
+            dictionary.remove(entries.remove(entries.size() - 1));
+        }
+        return e;
+    }
+
+    private void putReference(ByteBuffer out, String value) {
+        if (dictionaryCapacity == 0) {
+            putId(out, value);
+        } else {
+            putShared(out, value);
+        }
+    }
+
+    private void putShared(ByteBuffer out, String value) {
+        if (dictionaryCapacity == 0) {
+            putText(out, value);
+            return;
+        }
+        if (value == null) {
+            WireFormat.putVarInt(out, WireFormat.NULL);
+            return;
+        }
+        Integer index = dictionary.get(value);
+        if (index != null) {
+            WireFormat.putVarInt(out, index + 2);
+            return;
+        }
+        WireFormat.putVarInt(out, WireFormat.NEW_ENTRY);
+        putText(out, value);
+        if (entries.size() < dictionaryCapacity) {
+            dictionary.put(value, entries.size());
+            entries.add(value);
+        }
+    }
+
+    /**
+     * Writes an ID as its prefix, shared, and its trailing digits (at most 18)
+     * as a varint tagged with their count.
+     */
+    private void putId(ByteBuffer out, String value) {
+        if (value == null) {
+            WireFormat.putVarInt(out, WireFormat.NULL);
+            return;
+        }
+        int digitsStart = value.length();
+        long number = 0;
+        long scale = 1;
+        while (digitsStart > 0 && value.length() - digitsStart < WireFormat.MAX_ID_DIGITS) {
+            char c = value.charAt(digitsStart - 1);
+            if (c < '0' || c > '9') {
+                break;
+            }
+            number += (c - '0') * scale;
+            scale *= 10;
+            digitsStart--;
+        }
+        int digits = value.length() - digitsStart;
+        if (digits == 0) {
+            WireFormat.putVarInt(out, WireFormat.TEXT_ID);
+            putShared(out, value);
+            return;
+        }
+        WireFormat.putVarInt(out, WireFormat.TEXT_ID + digits);
+        putShared(out, prefix(value, digitsStart));
+        WireFormat.putVarLong(out, number);
+    }
+
+    /**
+     * Gets the ID's prefix, reusing the previous prefix when they match since
+     * consecutive IDs usually share one.
+     */
+    private String prefix(String value, int length) {
+        if (lastPrefix.length() != length || !value.startsWith(lastPrefix)) {
+            lastPrefix = value.substring(0, length);
+        }
+        return lastPrefix;
+    }
+
+    private static void putText(ByteBuffer out, String value) {
+        if (value == null) {
+            WireFormat.putVarInt(out, WireFormat.NULL);
+            return;
+        }
+        int length = WireFormat.utf8Length(value);
+        WireFormat.putVarInt(out, length + 1);
+        WireFormat.putUtf8(out, value, length);
+    }
+
+    private static void putInt(ByteBuffer out, int value) {
+        WireFormat.putVarLong(out, WireFormat.zigzag(value));
+    }
+
+    private static void putDate(ByteBuffer out, LocalDate date) {
+        putDay(out, EpochDays.of(date));
+    }
+
+    private static void putDay(ByteBuffer out, int epochDay) {
+        putDayAfter(out, epochDay, EpochDays.NONE);
+    }
+
+    /**
+     * Writes an epoch day relative to a base day, or absolute if the base is not set.
+     */
+    private static void putDayAfter(ByteBuffer out, int epochDay, int base) {
+        if (epochDay == EpochDays.NONE) {
+            WireFormat.putVarInt(out, WireFormat.NULL);
+            return;
+        }
+        long days = base == EpochDays.NONE ? epochDay : (long) epochDay - base;
+        WireFormat.putVarLong(out, WireFormat.zigzag(days) + 1);
+    }
+
+    private static void putEnum(ByteBuffer out, Enum<?> value) {
+        WireFormat.putVarInt(out, value == null ? WireFormat.NULL : value.ordinal() + 1);
+    }
+
+    private static void putAmount(ByteBuffer out, double amount) {
+        if (amount == 0.0 && Double.doubleToRawLongBits(amount) == 0) {
+            out.put((byte) 0);
+        } else {
+            out.put((byte) 1).putDouble(amount);
+        }
+    }
+}
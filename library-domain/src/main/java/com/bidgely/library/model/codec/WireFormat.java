@@ -0,0 +1,124 @@
+package com.bidgely.library.model.codec;
+
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * Primitive encodings shared by {@link EntityEncoder} and {@link EntityDecoder}.
+ *
+ * <p>Unsigned values are LEB128 varints (7 bits per byte, low bits first);
+ * signed values are zigzag-mapped first so small negatives stay short.
+ */
+final class WireFormat {
+
+    /** Tag of a null string, ID, date or enum. */
+    static final int NULL = 0;
+    /** Tag of a shared string written in full, and added to the dictionary if it has room. */
+    static final int NEW_ENTRY = 1;
+    /** Tag of an ID written as a shared string; larger tags give the length of a numeric suffix. */
+    static final int TEXT_ID = 1;
+    /** Longest numeric ID suffix kept as a number; 18 digits always fit in a long. */
+    static final int MAX_ID_DIGITS = 18;
+
+    private WireFormat() {
+    }
+
+    static void putVarLong(ByteBuffer out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.put((byte) value);
+    }
+
+    static long getVarLong(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Varint longer than 10 bytes");
+    }
+
+    static void putVarInt(ByteBuffer out, int value) {
+        putVarLong(out, value & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Reads an unsigned varint that must fit in a non-negative int.
+     */
+    static int getVarInt(ByteBuffer in) {
+        long value = getVarLong(in);
+        if (value < 0 || value > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Varint out of range: " + value);
+        }
+        return (int) value;
+    }
+
+    static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * Counts the bytes of the string in UTF-8, with unpaired surrogates taking
+     * one byte each as {@link String#getBytes} replaces them with '?'.
+     */
+    static int utf8Length(String value) {
+        int length = value.length();
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c >= 0x800) {
+                if (Character.isHighSurrogate(c) && i + 1 < value.length()
+                        && Character.isLowSurrogate(value.charAt(i + 1))) {
+                    length += 2;
+                    i++;
+                } else if (!Character.isSurrogate(c)) {
+                    length += 2;
+                }
+            } else if (c >= 0x80) {
+                length++;
+            }
+        }
+        return length;
+    }
+
+    /**
+     * Writes the string's UTF-8 bytes straight into the buffer.
+     */
+    static void putUtf8(ByteBuffer out, String value, int utf8Length) {
+        if (out.remaining() < utf8Length) {
+            throw new BufferOverflowException();
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                out.put((byte) c);
+            } else if (c < 0x800) {
+                out.put((byte) (0xC0 | c >> 6)).put((byte) (0x80 | c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length()
+                    && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                out.put((byte) (0xF0 | codePoint >> 18)).put((byte) (0x80 | codePoint >> 12 & 0x3F))
+                        .put((byte) (0x80 | codePoint >> 6 & 0x3F)).put((byte) (0x80 | codePoint & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                out.put((byte) '?');
+            } else {
+                out.put((byte) (0xE0 | c >> 12)).put((byte) (0x80 | c >> 6 & 0x3F)).put((byte) (0x80 | c & 0x3F));
+            }
+        }
+    }
+
+    static void checkRemaining(ByteBuffer in, int length) {
+        if (length > in.remaining()) {
+            throw new BufferUnderflowException();
+        }
+    }
+}
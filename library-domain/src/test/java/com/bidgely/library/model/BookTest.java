@@ -3,6 +3,8 @@ package com.bidgely.library.model;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 class BookTest {
@@ -65,6 +67,54 @@ class BookTest {
         assertThat(book.getAvailableCopies()).isEqualTo(5);
     }
 
+    @Test
+    void testTryBorrow() {
+        assertThat(book.tryBorrow()).isTrue();
+        assertThat(book.getAvailableCopies()).isEqualTo(4);
+    }
+
+    @Test
+    void testTryBorrow_whenNoCopiesAvailable() {
+        book.setAvailableCopies(0);
+        assertThat(book.tryBorrow()).isFalse();
+        assertThat(book.getAvailableCopies()).isEqualTo(0);
+    }
+
+    @Test
+    void testTryReturn_whenAllCopiesAvailable() {
+        assertThat(book.tryReturn()).isFalse();
+        assertThat(book.getAvailableCopies()).isEqualTo(5);
+    }
+
+    @Test
+    void testBorrowAndGetRemaining() {
+        book.setAvailableCopies(1);
+        assertThat(book.borrowAndGetRemaining()).isEqualTo(0);
+        assertThat(book.borrowAndGetRemaining()).isEqualTo(-1);
+        assertThat(book.returnAndGetAvailable()).isEqualTo(1);
+    }
+
+    @Test
+    void testTryBorrow_concurrent() throws InterruptedException {
+        AtomicInteger borrowed = new AtomicInteger();
+        Thread[] threads = new Thread[8];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(() -> {
+                for (int j = 0; j < 100; j++) {
+                    if (book.tryBorrow()) {
+                        borrowed.incrementAndGet();
+                    }
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertThat(borrowed.get()).isEqualTo(5);
+        assertThat(book.getAvailableCopies()).isEqualTo(0);
+    }
+
     @Test
     void testEquals_sameIsbn() {
         Book book2 = new Book("978-0-13-468599-1", "Different Title", "Different Author",
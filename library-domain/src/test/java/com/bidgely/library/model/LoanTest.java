@@ -6,6 +6,7 @@ import org.junit.jupiter.api.Test;
 import java.time.LocalDate;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 class LoanTest {
 
@@ -125,5 +126,60 @@ class LoanTest {
         assertThat(loan.getLoanDate()).isEqualTo(LocalDate.of(2023, 11, 1));
         assertThat(loan.getDueDate()).isEqualTo(LocalDate.of(2023, 11, 15));
     }
-}
 
+    @Test
+    void testDates_storedAsEpochDays() {
+        assertThat(loan.getLoanDay()).isEqualTo((int) LocalDate.of(2023, 10, 1).toEpochDay());
+        assertThat(loan.getDueDay()).isEqualTo(loan.getLoanDay() + 14);
+        assertThat(loan.getReturnDay()).isEqualTo(EpochDays.NONE);
+        assertThat(loan.getDueDate()).isSameAs(loan.getDueDate());
+
+        loan.setReturnDay(loan.getDueDay() + 1);
+        assertThat(loan.getReturnDate()).isEqualTo(LocalDate.of(2023, 10, 16));
+        loan.setReturnDate(null);
+        assertThat(loan.getReturnDay()).isEqualTo(EpochDays.NONE);
+    }
+
+    @Test
+    void testDates_outsideIntEpochDaysAreRejected() {
+        LocalDate dueDate = loan.getDueDate();
+
+        assertThatThrownBy(() -> loan.setDueDate(LocalDate.MAX))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("out of range");
+        assertThatThrownBy(() -> loan.setReturnDate(LocalDate.ofEpochDay(EpochDays.NONE)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(loan.getDueDate()).isEqualTo(dueDate);
+        assertThat(loan.getReturnDay()).isEqualTo(EpochDays.NONE);
+
+        LocalDate last = LocalDate.ofEpochDay(Integer.MAX_VALUE);
+        loan.setDueDate(last);
+        assertThat(loan.getDueDate()).isEqualTo(last);
+    }
+
+    @Test
+    void testIsOverdue_againstSuppliedDay() {
+        int dueDay = loan.getDueDay();
+
+        assertThat(loan.isOverdue(dueDay)).isFalse();
+        assertThat(loan.isOverdue(dueDay + 1)).isTrue();
+        assertThat(loan.getDaysOverdue(dueDay)).isZero();
+        assertThat(loan.getDaysOverdue(dueDay + 3)).isEqualTo(3);
+
+        loan.setStatus(LoanStatus.RETURNED);
+        assertThat(loan.isOverdue(dueDay + 1)).isFalse();
+        assertThat(loan.getDaysOverdue(dueDay + 3)).isZero();
+    }
+
+    @Test
+    void testReservationIsExpired_againstSuppliedDay() {
+        Reservation reservation = new Reservation("R1", "M001", "978-0-13-468599-1", LocalDate.of(2023, 10, 1));
+        int expiryDay = reservation.getExpiryDay();
+
+        assertThat(reservation.getExpiryDate()).isEqualTo(LocalDate.of(2023, 10, 8));
+        assertThat(reservation.isExpired(expiryDay)).isFalse();
+        assertThat(reservation.isExpired(expiryDay + 1)).isTrue();
+        reservation.cancel();
+        assertThat(reservation.isExpired(expiryDay + 1)).isFalse();
+    }
+}
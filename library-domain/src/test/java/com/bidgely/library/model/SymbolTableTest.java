@@ -0,0 +1,126 @@
+package com.bidgely.library.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SymbolTableTest {
+
+    @Test
+    void testIntern_handsOutDenseHandlesAndSharesTheFirstInstance() {
+        SymbolTable table = new SymbolTable();
+        String first = new String("M001".toCharArray());
+
+        assertThat(table.intern(first)).isEqualTo(0);
+        assertThat(table.intern("9780134685991")).isEqualTo(1);
+        assertThat(table.intern(new String("M001".toCharArray()))).isEqualTo(0);
+
+        assertThat(table.size()).isEqualTo(2);
+        assertThat(table.symbol(0)).isSameAs(first);
+        assertThat(table.find("9780134685991")).isEqualTo(1);
+        assertThat(table.find("M002")).isEqualTo(SymbolTable.NONE);
+        assertThat(table.find(null)).isEqualTo(SymbolTable.NONE);
+    }
+
+    @Test
+    void testIntern_manySymbolsWithCollidingHashes() {
+        SymbolTable table = new SymbolTable();
+        // "Aa" and "BB" share a hash code, so these strings all collide
+        String[] parts = {"Aa", "BB"};
+        for (int i = 0; i < 5000; i++) {
+            StringBuilder symbol = new StringBuilder();
+            for (int bit = 0; bit < 12; bit++) {
+                symbol.append(parts[(i >>> bit) & 1]);
+            }
+            assertThat(table.intern(symbol.toString() + (i >>> 12))).isEqualTo(i);
+        }
+        for (int i = 0; i < 100_000; i++) {
+            table.intern("ID-" + i);
+        }
+
+        assertThat(table.size()).isEqualTo(105_000);
+        assertThat(table.find("ID-99999")).isEqualTo(104_999);
+        assertThat(table.symbol(104_999)).isEqualTo("ID-99999");
+    }
+
+    @Test
+    void testIntern_concurrentThreadsAgreeOnHandles() throws InterruptedException {
+        SymbolTable table = new SymbolTable();
+        int symbols = 20_000;
+        AtomicIntegerArray seen = new AtomicIntegerArray(symbols);
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            int offset = t;
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < symbols; i++) {
+                    int symbol = (i * 7 + offset * 5003) % symbols;
+                    int handle = table.intern("S" + symbol);
+                    if (!seen.compareAndSet(symbol, 0, handle + 1)) {
+                        assertThat(seen.get(symbol)).isEqualTo(handle + 1);
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertThat(table.size()).isEqualTo(symbols);
+        for (int i = 0; i < symbols; i++) {
+            assertThat(table.symbol(seen.get(i) - 1)).isEqualTo("S" + i);
+        }
+    }
+
+    @Test
+    void testSymbol_acceptsEveryHandleFindReturnsWhileInterning() throws Exception {
+        SymbolTable table = new SymbolTable();
+        int symbols = 50_000;
+        AtomicBoolean done = new AtomicBoolean();
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Integer> reader = executor.submit(() -> {
+                int checked = 0;
+                while (!done.get()) {
+                    int last = table.size() - 1;
+                    for (int i = Math.max(0, last - 2); i <= last + 2; i++) {
+                        int handle = table.find("S" + i);
+                        if (handle != SymbolTable.NONE) {
+                            assertThat(table.symbol(handle)).isEqualTo("S" + i);
+                            checked++;
+                        }
+                    }
+                }
+                return checked;
+            });
+            Future<?> writer = executor.submit(() -> {
+                for (int i = 0; i < symbols; i++) {
+                    table.intern("S" + i);
+                }
+                done.set(true);
+            });
+            writer.get();
+            assertThat(reader.get()).isPositive();
+        } finally {
+            executor.shutdown();
+        }
+        assertThat(table.size()).isEqualTo(symbols);
+    }
+
+    @Test
+    void testSymbol_unknownHandle() {
+        SymbolTable table = new SymbolTable();
+        table.intern("M001");
+
+        assertThatThrownBy(() -> table.symbol(1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> table.symbol(SymbolTable.NONE)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> table.intern(null)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
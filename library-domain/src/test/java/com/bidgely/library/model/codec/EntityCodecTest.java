@@ -0,0 +1,187 @@
+package com.bidgely.library.model.codec;
+
+import com.bidgely.library.model.*;
+import org.junit.jupiter.api.Test;
+
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class EntityCodecTest {
+
+    private final EntityEncoder encoder = new EntityEncoder();
+    private final EntityDecoder decoder = new EntityDecoder();
+
+    @Test
+    void testRoundTrip_everyEntityType() {
+        Book book = new Book("978-0-13-468599-1", "Effective Java", "Joshua Bloch", "Addison-Wesley",
+                2018, 5, BookCategory.TECHNOLOGY);
+        book.setAvailableCopies(2);
+        Member member = new Member("M0042", "Jane Doe", "jane@example.com", "555-0100",
+                LocalDate.of(2020, 1, 15), MembershipType.FACULTY);
+        member.setActive(false);
+        Loan loan = new Loan("L000123", "M0042", "978-0-13-468599-1", LocalDate.of(2024, 3, 1),
+                LocalDate.of(2024, 3, 15));
+        loan.setReturnDate(LocalDate.of(2024, 3, 20));
+        loan.setStatus(LoanStatus.RETURNED);
+        loan.setFineAmount(2.5);
+        Reservation reservation = new Reservation("R7", "M0042", "978-0-13-468599-1", LocalDate.of(2024, 4, 1));
+        reservation.setStatus(Reservation.ReservationStatus.FULFILLED);
+        Author author = new Author("A1", "Joshua", "Bloch");
+        author.setBirthDate(LocalDate.of(1961, 8, 28));
+        author.setNationality("American");
+        author.setBiography("Wrote the collections framework.");
+        Publisher publisher = new Publisher("P1", "Addison-Wesley", "USA");
+        publisher.setAddress("75 Arlington Street, Boston");
+        publisher.setPhone("+1-617-848-6000");
+        publisher.setEmail("info@aw.com");
+        publisher.setWebsite("https://www.pearson.com");
+        Object[] entities = {book, member, loan, reservation, author, publisher};
+
+        ByteBuffer buffer = ByteBuffer.allocate(4096);
+        for (Object entity : entities) {
+            encoder.write(buffer, entity);
+        }
+        buffer.flip();
+
+        for (Object entity : entities) {
+            assertThat(decoder.read(buffer, entity.getClass()))
+                    .isEqualToComparingFieldByFieldRecursively(entity);
+        }
+        assertThat(buffer.hasRemaining()).isFalse();
+    }
+
+    @Test
+    void testRoundTrip_nullsAndUnusualValues() {
+        Book book = new Book(null, null, null, null, -300, 0, null);
+        Member member = new Member("0000", "Zoë Ünal 日本 📚", null, "", null, null);
+        Loan loan = new Loan("LOAN-99999999999999999999", "M1", "X", LocalDate.of(1600, 1, 1),
+                LocalDate.of(1599, 12, 1));
+        loan.setFineAmount(-0.0);
+        loan.setStatus(null);
+        Author author = new Author(null, "", "lone \uD800 surrogate");
+
+        ByteBuffer buffer = ByteBuffer.allocateDirect(4096);
+        encoder.write(buffer, book);
+        encoder.write(buffer, member);
+        encoder.write(buffer, loan);
+        encoder.write(buffer, author);
+        buffer.flip();
+
+        assertThat(decoder.readBook(buffer)).isEqualToComparingFieldByFieldRecursively(book);
+        assertThat(decoder.readMember(buffer)).isEqualToComparingFieldByFieldRecursively(member);
+        Loan decodedLoan = decoder.readLoan(buffer);
+        assertThat(decodedLoan.getLoanId()).isEqualTo("LOAN-99999999999999999999");
+        assertThat(decodedLoan.getDueDate()).isEqualTo(LocalDate.of(1599, 12, 1));
+        assertThat(decodedLoan.getStatus()).isNull();
+        assertThat(Double.doubleToRawLongBits(decodedLoan.getFineAmount()))
+                .isEqualTo(Double.doubleToRawLongBits(-0.0));
+        assertThat(decoder.readAuthor(buffer).getLastName()).isEqualTo("lone ? surrogate");
+    }
+
+    @Test
+    void testDictionary_repeatedStringsAreWrittenOnceAndShared() {
+        ByteBuffer buffer = ByteBuffer.allocate(4096);
+        encoder.writeLoan(buffer, loan("L1", "M0001", "978-0-00-000001-1"));
+        int first = buffer.position();
+        encoder.writeLoan(buffer, loan("L2", "M0001", "978-0-00-000001-1"));
+        int second = buffer.position() - first;
+        buffer.flip();
+
+        Loan one = decoder.readLoan(buffer);
+        Loan two = decoder.readLoan(buffer);
+
+        assertThat(second).isLessThan(first).isLessThanOrEqualTo(12);
+        assertThat(two.getLoanId()).isEqualTo("L2");
+        assertThat(two.getMemberId()).isSameAs(one.getMemberId());
+        assertThat(two.getIsbn()).isSameAs(one.getIsbn());
+        assertThat(decoder.getDictionarySize()).isEqualTo(encoder.getDictionarySize());
+    }
+
+    @Test
+    void testDictionary_fullDictionaryWritesNewStringsInFull() {
+        EntityEncoder small = new EntityEncoder(1);
+        EntityDecoder smallDecoder = new EntityDecoder(1);
+        ByteBuffer buffer = ByteBuffer.allocate(4096);
+        small.writeLoan(buffer, loan("L1", "M1", "I1"));
+        small.writeLoan(buffer, loan("L2", "M2", "I1"));
+        small.writeLoan(buffer, loan("L3", "M1", "I2"));
+        buffer.flip();
+
+        assertThat(smallDecoder.readLoan(buffer).getIsbn()).isEqualTo("I1");
+        Loan second = smallDecoder.readLoan(buffer);
+        Loan third = smallDecoder.readLoan(buffer);
+        assertThat(second.getMemberId()).isEqualTo("M2");
+        assertThat(third.getMemberId()).isEqualTo("M1");
+        assertThat(third.getIsbn()).isEqualTo("I2");
+        assertThat(small.getDictionarySize()).isEqualTo(1);
+    }
+
+    @Test
+    void testWithoutDictionary_eachEntityDecodesOnItsOwn() {
+        EntityEncoder standalone = new EntityEncoder(0);
+        ByteBuffer first = ByteBuffer.allocate(256);
+        ByteBuffer second = ByteBuffer.allocate(256);
+        standalone.writeLoan(first, loan("L1", "M0001", "978-0-00-000001-1"));
+        standalone.writeLoan(second, loan("L2", "M0001", "978-0-00-000001-1"));
+        second.flip();
+
+        Loan decoded = new EntityDecoder(0).readLoan(second);
+
+        assertThat(decoded.getLoanId()).isEqualTo("L2");
+        assertThat(decoded.getMemberId()).isEqualTo("M0001");
+        assertThat(decoded.getIsbn()).isEqualTo("978-0-00-000001-1");
+        assertThat(standalone.getDictionarySize()).isZero();
+    }
+
+    @Test
+    void testWrite_overflowLeavesBufferAndDictionaryUnchanged() {
+        ByteBuffer small = ByteBuffer.allocate(12);
+        small.put((byte) 7);
+
+        assertThatThrownBy(() -> encoder.writeLoan(small, loan("L1", "M0001", "978-0-00-000001-1")))
+                .isInstanceOf(BufferOverflowException.class);
+        assertThat(small.position()).isEqualTo(1);
+        assertThat(encoder.getDictionarySize()).isZero();
+
+        ByteBuffer buffer = ByteBuffer.allocate(256);
+        encoder.writeLoan(buffer, loan("L1", "M0001", "978-0-00-000001-1"));
+        buffer.flip();
+        assertThat(decoder.readLoan(buffer).getMemberId()).isEqualTo("M0001");
+    }
+
+    @Test
+    void testRead_underflowLeavesBufferAndDictionaryUnchanged() {
+        ByteBuffer buffer = ByteBuffer.allocate(256);
+        encoder.writeLoan(buffer, loan("L1", "M0001", "978-0-00-000001-1"));
+        int end = buffer.position();
+        buffer.flip().limit(end - 3);
+
+        assertThatThrownBy(() -> decoder.readLoan(buffer)).isInstanceOf(BufferUnderflowException.class);
+        assertThat(buffer.position()).isZero();
+        assertThat(decoder.getDictionarySize()).isZero();
+
+        buffer.limit(end);
+        assertThat(decoder.readLoan(buffer).getLoanId()).isEqualTo("L1");
+    }
+
+    @Test
+    void testRead_rejectsMalformedInput() {
+        ByteBuffer buffer = ByteBuffer.allocate(16);
+        buffer.put((byte) 1).put((byte) 9).flip();
+
+        assertThatThrownBy(() -> decoder.readLoan(buffer))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Unknown dictionary entry");
+        assertThatThrownBy(() -> encoder.write(buffer, "not an entity"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static Loan loan(String loanId, String memberId, String isbn) {
+        return new Loan(loanId, memberId, isbn, LocalDate.of(2024, 1, 10), LocalDate.of(2024, 1, 24));
+    }
+}
@@ -2,23 +2,56 @@ package com.bidgely.library.service;
 
 import com.bidgely.library.exception.InvalidInputException;
 import com.bidgely.library.model.Author;
+import com.bidgely.library.model.SymbolTable;
+import com.bidgely.library.util.HandleMap;
 import com.bidgely.library.util.IdGenerator;
+import com.bidgely.library.util.StripedLock;
 import com.bidgely.library.util.ValidationUtil;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
 import java.util.stream.Collectors;
 
 /**
- * Service for managing authors.
+ * Service for managing authors. Author IDs are interned in a {@link SymbolTable}
+ * and authors held by handle in a concurrent {@link HandleMap}, so a journal
+ * snapshot can copy them while they change. Active authors are counted as
+ * they are added, replaced and deactivated; an author deactivated directly with
+ * {@link Author#setActive(boolean)} is not seen by the count.
+ *
+ * <p>Changes to an author are applied and journaled under a lock striped by
+ * author ID, so the journal holds each author's changes in the order they were
+ * made; the service then waits for the journal with no lock held.
  */
 public class AuthorService {
-    private final Map<String, Author> authors;
+    private static final int LOCK_STRIPES = 64;
+
+    private final SymbolTable authorIds;
+    private final HandleMap<Author> authors;
+    private final LongAdder activeAuthorCount = new LongAdder();
+    private final StripedLock authorLocks = new StripedLock(LOCK_STRIPES);
+    private volatile ChangeJournal journal;
+    private volatile QueryParallelism queryParallelism = QueryParallelism.sequential();
 
     public AuthorService() {
-        this.authors = new HashMap<>();
+        this.authorIds = new SymbolTable();
+        this.authors = new HandleMap<>();
+    }
+
+    /**
+     * Sets the journal that records every author change; null disables journaling.
+     */
+    public void setJournal(ChangeJournal journal) {
+        this.journal = journal;
+    }
+
+    /**
+     * Sets how scans over all authors, such as the active authors, run; null makes them sequential, the default.
+     */
+    public void setQueryParallelism(QueryParallelism queryParallelism) {
+        this.queryParallelism = queryParallelism == null ? QueryParallelism.sequential() : queryParallelism;
     }
 
     /**
@@ -28,18 +61,54 @@ public class AuthorService {
         ValidationUtil.validateNotEmpty(firstName, "First name");
         ValidationUtil.validateNotEmpty(lastName, "Last name");
 
-        String authorId = IdGenerator.generateAuthorId();
+        String authorId = IdGenerator.formatId("AUTH", IdGenerator.generateSnowflakeId());
         Author author = new Author(authorId, firstName, lastName);
-        authors.put(authorId, author);
+        long sequence;
+        Lock lock = authorLocks.get(authorId);
+        lock.lock();
+        try {
+            authors.put(authorIds.intern(authorId), author);
+            activeAuthorCount.increment();
+            sequence = journal(ChangeType.AUTHOR_ADDED, author);
+        } finally {
+            lock.unlock();
+        }
+        sync(sequence);
 
         return author;
     }
 
+    /**
+     * Restores an author recorded elsewhere (e.g. a backup), keeping its ID and details.
+     */
+    public void restoreAuthor(Author author) {
+        if (author == null) {
+            throw new InvalidInputException("Author cannot be null");
+        }
+        ValidationUtil.validateNotEmpty(author.getAuthorId(), "Author ID");
+        ValidationUtil.validateNotEmpty(author.getFirstName(), "First name");
+        ValidationUtil.validateNotEmpty(author.getLastName(), "Last name");
+        int handle = authorIds.intern(author.getAuthorId());
+        long sequence;
+        Lock lock = authorLocks.get(author.getAuthorId());
+        lock.lock();
+        try {
+            if (authors.putIfAbsent(handle, author) != null) {
+                throw new InvalidInputException("Author already exists: " + author.getAuthorId());
+            }
+            activeAuthorCount.add(activeCount(author));
+            sequence = journal(ChangeType.AUTHOR_RESTORED, author);
+        } finally {
+            lock.unlock();
+        }
+        sync(sequence);
+    }
+
     /**
      * Finds an author by ID.
      */
     public Author findAuthorById(String authorId) {
-        return authors.get(authorId);
+        return authors.get(authorIds.find(authorId));
     }
 
     /**
@@ -51,19 +120,18 @@ public class AuthorService {
         }
 
         String searchTerm = name.toLowerCase();
-        return authors.values().stream()
+        return queryParallelism.query(authors.size(), authors::spliterator, all -> all
                 .filter(author -> author.getFirstName().toLowerCase().contains(searchTerm) ||
                         author.getLastName().toLowerCase().contains(searchTerm))
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
     }
 
     /**
      * Gets all active authors.
      */
     public List<Author> getActiveAuthors() {
-        return authors.values().stream()
-                .filter(Author::isActive)
-                .collect(Collectors.toList());
+        return queryParallelism.query(authors.size(), authors::spliterator,
+                all -> all.filter(Author::isActive).collect(Collectors.toList()));
     }
 
     /**
@@ -74,11 +142,21 @@ public class AuthorService {
             throw new InvalidInputException("Invalid author");
         }
 
-        if (!authors.containsKey(author.getAuthorId())) {
-            throw new InvalidInputException("Author not found: " + author.getAuthorId());
+        int handle = authorIds.find(author.getAuthorId());
+        long sequence;
+        Lock lock = authorLocks.get(author.getAuthorId());
+        lock.lock();
+        try {
+            if (!authors.containsKey(handle)) {
+                throw new InvalidInputException("Author not found: " + author.getAuthorId());
+            }
+            Author previous = authors.put(handle, author);
+            activeAuthorCount.add(activeCount(author) - activeCount(previous));
+            sequence = journal(ChangeType.AUTHOR_UPDATED, author);
+        } finally {
+            lock.unlock();
         }
-
-        authors.put(author.getAuthorId(), author);
+        sync(sequence);
         return author;
     }
 
@@ -86,19 +164,29 @@ public class AuthorService {
      * Deactivates an author.
      */
     public void deactivateAuthor(String authorId) {
-        Author author = authors.get(authorId);
-        if (author == null) {
-            throw new InvalidInputException("Author not found: " + authorId);
+        long sequence;
+        Lock lock = authorLocks.get(authorId);
+        lock.lock();
+        try {
+            // The author's lock orders this against updates, so the image deactivated is the current one
+            Author author = findAuthorById(authorId);
+            if (author == null) {
+                throw new InvalidInputException("Author not found: " + authorId);
+            }
+            activeAuthorCount.add(-activeCount(author));
+            author.setActive(false);
+            sequence = journal(ChangeType.AUTHOR_DEACTIVATED, author);
+        } finally {
+            lock.unlock();
         }
-
-        author.setActive(false);
+        sync(sequence);
     }
 
     /**
      * Gets all authors.
      */
     public List<Author> getAllAuthors() {
-        return new ArrayList<>(authors.values());
+        return authors.values();
     }
 
     /**
@@ -112,9 +200,32 @@ public class AuthorService {
      * Gets total number of active authors.
      */
     public int getTotalActiveAuthors() {
-        return (int) authors.values().stream()
-                .filter(Author::isActive)
-                .count();
+        return activeAuthorCount.intValue();
+    }
+
+    private static int activeCount(Author author) {
+        return author != null && author.isActive() ? 1 : 0;
+    }
+
+    /**
+     * Appends a change to the journal, if there is one; call it under the
+     * author's lock.
+     *
+     * @return the sequence of the change, or 0 if it was not journaled
+     */
+    private long journal(ChangeType type, Author author) {
+        ChangeJournal changes = journal;
+        return changes == null ? 0 : changes.append(type, author);
+    }
+
+    /**
+     * Waits until changes up to the sequence are durable; call it with no lock held.
+     */
+    private void sync(long sequence) {
+        ChangeJournal changes = journal;
+        if (changes != null && sequence > 0) {
+            changes.sync(sequence);
+        }
     }
 }
 
@@ -0,0 +1,23 @@
+package com.bidgely.library.service;
+
+import com.bidgely.library.model.Book;
+
+/**
+ * Store of book records that {@link LibraryService} consults for ISBNs it does
+ * not hold itself, such as a union catalog too large to keep on the heap.
+ *
+ * <p>The books it returns may be views over its storage rather than copies;
+ * borrowing and returning copies through them must update the store, and be
+ * safe for concurrent use. The store's copy counts are its own record of the
+ * loans on its books, so loans the service restores, such as from a journal,
+ * take no copies from it again.
+ */
+public interface BookCatalog {
+
+    /**
+     * Finds a book by ISBN.
+     *
+     * @return the book, or null if the catalog has no record of it
+     */
+    Book findBook(String isbn);
+}
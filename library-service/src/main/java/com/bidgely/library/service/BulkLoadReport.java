@@ -0,0 +1,84 @@
+package com.bidgely.library.service;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Outcome of a bulk load: how many records were accepted and why the others were rejected.
+ */
+public class BulkLoadReport {
+
+    private final int acceptedCount;
+    private final List<RecordError> errors;
+
+    public BulkLoadReport(int acceptedCount, List<RecordError> errors) {
+        this.acceptedCount = acceptedCount;
+        this.errors = Collections.unmodifiableList(errors);
+    }
+
+    public int getAcceptedCount() {
+        return acceptedCount;
+    }
+
+    public int getRejectedCount() {
+        return errors.size();
+    }
+
+    /**
+     * Gets the rejected records in input order.
+     */
+    public List<RecordError> getErrors() {
+        return errors;
+    }
+
+    public boolean hasErrors() {
+        return !errors.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "BulkLoadReport{" +
+                "acceptedCount=" + acceptedCount +
+                ", rejectedCount=" + errors.size() +
+                '}';
+    }
+
+    /**
+     * A rejected record, identified by its zero-based position in the input.
+     */
+    public static class RecordError {
+        private final int index;
+        private final String key;
+        private final String message;
+
+        public RecordError(int index, String key, String message) {
+            this.index = index;
+            this.key = key;
+            this.message = message;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        /**
+         * Gets the record's natural key (e.g. ISBN), or null if it had none.
+         */
+        public String getKey() {
+            return key;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        @Override
+        public String toString() {
+            return "RecordError{" +
+                    "index=" + index +
+                    ", key='" + key + '\'' +
+                    ", message='" + message + '\'' +
+                    '}';
+        }
+    }
+}
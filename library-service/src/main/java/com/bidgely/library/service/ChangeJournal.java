@@ -0,0 +1,29 @@
+package com.bidgely.library.service;
+
+/**
+ * Records the state changes made by {@link LibraryService}, {@link ReservationService}
+ * and {@link AuthorService} so they can be rebuilt after a restart.
+ *
+ * <p>The services call {@link #append} while still holding the locks that
+ * ordered the change, so changes to one entity are appended in the order they
+ * were applied; {@code append} must therefore not block on I/O. Before a
+ * mutating method returns, the service calls {@link #sync} with the last
+ * sequence it appended, after releasing its locks, so callers waiting on the
+ * same flush can share it.
+ */
+public interface ChangeJournal {
+
+    /**
+     * Appends a change. The entity is encoded before this method returns, so the
+     * caller may keep modifying it.
+     *
+     * @return the positive sequence number of the change; sequences increase in append order
+     */
+    long append(ChangeType type, Object entity);
+
+    /**
+     * Waits until every change up to and including the given sequence is as
+     * durable as the journal's policy promises.
+     */
+    void sync(long sequence);
+}
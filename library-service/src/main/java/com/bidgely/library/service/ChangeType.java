@@ -0,0 +1,67 @@
+package com.bidgely.library.service;
+
+import com.bidgely.library.model.Author;
+import com.bidgely.library.model.Book;
+import com.bidgely.library.model.Loan;
+import com.bidgely.library.model.Member;
+import com.bidgely.library.model.Reservation;
+
+/**
+ * State changes made by the services, each recorded with the changed entity as
+ * it stood right after the change ({@link #BOOK_REMOVED} carries the removed book).
+ *
+ * <p>Codes are persisted by journals and must never be reused or renumbered.
+ */
+public enum ChangeType {
+    BOOK_ADDED(1, Book.class),
+    BOOK_UPDATED(2, Book.class),
+    BOOK_REMOVED(3, Book.class),
+    MEMBER_REGISTERED(10, Member.class),
+    MEMBER_UPDATED(11, Member.class),
+    MEMBER_DEACTIVATED(12, Member.class),
+    LOAN_ISSUED(20, Loan.class),
+    BOOK_RETURNED(21, Loan.class),
+    LOAN_RESTORED(22, Loan.class),
+    RESERVATION_CREATED(30, Reservation.class),
+    RESERVATION_CANCELLED(31, Reservation.class),
+    RESERVATION_FULFILLED(32, Reservation.class),
+    RESERVATION_EXPIRED(33, Reservation.class),
+    RESERVATION_RESTORED(34, Reservation.class),
+    AUTHOR_ADDED(40, Author.class),
+    AUTHOR_UPDATED(41, Author.class),
+    AUTHOR_DEACTIVATED(42, Author.class),
+    AUTHOR_RESTORED(43, Author.class);
+
+    private static final ChangeType[] BY_CODE = new ChangeType[64];
+
+    static {
+        for (ChangeType type : values()) {
+            BY_CODE[type.code] = type;
+        }
+    }
+
+    private final byte code;
+    private final Class<?> entityType;
+
+    ChangeType(int code, Class<?> entityType) {
+        this.code = (byte) code;
+        this.entityType = entityType;
+    }
+
+    public byte getCode() {
+        return code;
+    }
+
+    public Class<?> getEntityType() {
+        return entityType;
+    }
+
+    /**
+     * Looks up a change type by its persisted code.
+     *
+     * @return the type, or null if the code is unknown
+     */
+    public static ChangeType fromCode(int code) {
+        return code >= 0 && code < BY_CODE.length ? BY_CODE[code] : null;
+    }
+}
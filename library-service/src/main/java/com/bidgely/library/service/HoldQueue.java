@@ -0,0 +1,28 @@
+package com.bidgely.library.service;
+
+import com.bidgely.library.model.Reservation;
+
+/**
+ * Per-ISBN queue of pending holds consulted by {@link LibraryService#returnBook(String)}
+ * so that a returned copy goes to the oldest eligible reservation instead of the shelf.
+ *
+ * <p>Implementations are called while LibraryService holds a member lock, so they
+ * must not call back into LibraryService methods that take locks.
+ */
+public interface HoldQueue {
+
+    /**
+     * Returns the first active hold on the ISBN queued after the given one, or the
+     * head of the queue if {@code after} is null or no longer queued.
+     *
+     * @return the next active hold, or null if there is none
+     */
+    Reservation nextHold(String isbn, Reservation after);
+
+    /**
+     * Marks the hold as fulfilled and removes it from the queue.
+     *
+     * @return false if the hold was cancelled, expired or fulfilled in the meantime
+     */
+    boolean claimHold(Reservation reservation);
+}
@@ -2,28 +2,229 @@ package com.bidgely.library.service;
 
 import com.bidgely.library.exception.*;
 import com.bidgely.library.model.*;
+import com.bidgely.library.util.CollectionUtil;
+import com.bidgely.library.util.DayClock;
+import com.bidgely.library.util.HandleMap;
+import com.bidgely.library.util.IdGenerator;
+import com.bidgely.library.util.IntArrayList;
+import com.bidgely.library.util.StripedLock;
+import com.bidgely.library.util.TrigramIndex;
 import com.bidgely.library.util.ValidationUtil;
 
+import java.time.Clock;
 import java.time.LocalDate;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.function.LongSupplier;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 /**
  * Service class for library operations.
+ *
+ * <p>The service is safe for concurrent use. Lookups of books and members are
+ * lock-free, and a loan lookup holds its stripe of the loan table briefly; mutations
+ * take a striped lock keyed by ISBN and/or member ID, so operations on different
+ * titles and members run in parallel. When both are needed the member lock is
+ * always acquired before the book lock. Copies are reserved and released with
+ * a compare-and-set on the book's counter; the book lock is only taken when the
+ * count crosses zero and the available-books index has to follow.
+ *
+ * <p>ISBNs and member IDs are interned in {@link SymbolTable}s, and books,
+ * members and their loans are held in arrays indexed by the resulting int
+ * handles: an operation finds an identifier's handle once, and each identifier
+ * is stored once however many loans refer to it, as loans are created with
+ * the interned ID strings.
+ *
+ * <p>Loans are keyed by the number in their {@code LOAN-<number>} ID, in
+ * open-addressing tables striped like the locks, and a member's active loans
+ * are kept as positions in their loan history rather than as a set of loans.
+ *
+ * <p>Active loans, active members, available copies and fines are counted as
+ * they change, so {@link LibraryStatistics} reads them without a scan. Changes
+ * made directly on a book or member, such as {@link Member#setActive(boolean)},
+ * are not seen by the counters, and neither are books in an attached catalog.
  */
 public class LibraryService {
     
-    private final Map<String, Book> books;
-    private final Map<String, Member> members;
-    private final Map<String, Loan> loans;
-    private final Map<String, List<Loan>> memberLoans;
+    private static final int DEFAULT_CONCURRENCY_LEVEL = 64;
+    private static final int BULK_CHUNK_MIN = 1024;
+    private static final String LOAN_PREFIX = "LOAN";
+
+    private final SymbolTable isbns;
+    private final SymbolTable memberIds;
+    private final HandleMap<Book> books;
+    private final HandleMap<Member> members;
+    private final NumberedIdMap<Loan>[] loanStripes;
+    private final HandleMap<List<Loan>> memberLoans;
+    private final HandleMap<IntArrayList> activeMemberLoans;
+    private final TrigramIndex<String> titleIndex;
+    private final TrigramIndex<String> authorIndex;
+    private final Map<BookCategory, Set<Book>> booksByCategory;
+    private final Set<Book> availableBooks;
+    private final NavigableMap<LocalDate, Set<Loan>> activeLoansByDueDate;
+    private final StripedLock bookLocks;
+    private final StripedLock memberLocks;
+    private final LongSupplier loanIds;
+    private final DayClock dayClock;
+    private final LongAdder activeLoanCount = new LongAdder();
+    private final LongAdder activeMemberCount = new LongAdder();
+    private final LongAdder availableCopyCount = new LongAdder();
+    private final DoubleAdder finesAccrued = new DoubleAdder();
+    private volatile HoldQueue holdQueue;
+    private volatile BookCatalog catalog;
+    private volatile ChangeJournal journal;
+    private volatile QueryParallelism queryParallelism = QueryParallelism.sequential();
     private static final double FINE_PER_DAY = 1.0;
 
     public LibraryService() {
-        this.books = new HashMap<>();
-        this.members = new HashMap<>();
-        this.loans = new HashMap<>();
-        this.memberLoans = new HashMap<>();
+        this(DEFAULT_CONCURRENCY_LEVEL);
+    }
+
+    /**
+     * Creates a service sized for the given number of concurrently updating threads.
+     */
+    public LibraryService(int concurrencyLevel) {
+        this(concurrencyLevel, IdGenerator::generateSnowflakeId);
+    }
+
+    /**
+     * Creates a service that numbers loans from the given generator, which must
+     * be thread-safe and never repeat a value.
+     */
+    public LibraryService(int concurrencyLevel, LongSupplier loanIds) {
+        this(concurrencyLevel, loanIds, Clock.systemDefaultZone());
+    }
+
+    /**
+     * Creates a service that dates loans and judges them overdue by the given
+     * clock; a {@link com.bidgely.library.util.ManualClock} lets tests and
+     * simulations move through months of circulation in moments.
+     */
+    public LibraryService(int concurrencyLevel, LongSupplier loanIds, Clock clock) {
+        ValidationUtil.validatePositive(concurrencyLevel, "Concurrency level");
+        if (loanIds == null) {
+            throw new InvalidInputException("Loan ID generator cannot be null");
+        }
+        if (clock == null) {
+            throw new InvalidInputException("Clock cannot be null");
+        }
+        this.loanIds = loanIds;
+        this.dayClock = new DayClock(clock);
+        this.isbns = new SymbolTable();
+        this.memberIds = new SymbolTable();
+        this.books = new HandleMap<>();
+        this.members = new HandleMap<>();
+        this.loanStripes = newLoanStripes(concurrencyLevel);
+        this.memberLoans = new HandleMap<>();
+        this.activeMemberLoans = new HandleMap<>();
+        this.titleIndex = new TrigramIndex<>();
+        this.authorIndex = new TrigramIndex<>();
+        this.booksByCategory = new EnumMap<>(BookCategory.class);
+        for (BookCategory category : BookCategory.values()) {
+            booksByCategory.put(category, ConcurrentHashMap.newKeySet());
+        }
+        this.availableBooks = ConcurrentHashMap.newKeySet();
+        this.activeLoansByDueDate = new ConcurrentSkipListMap<>();
+        this.bookLocks = new StripedLock(concurrencyLevel);
+        this.memberLocks = new StripedLock(concurrencyLevel);
+    }
+
+    public Clock getClock() {
+        return dayClock.getClock();
+    }
+
+    /**
+     * Gets today's epoch day on the service clock, computed once per day.
+     */
+    int today() {
+        return dayClock.getEpochDay();
+    }
+
+    /**
+     * Gets today's date on the service clock.
+     */
+    LocalDate todayDate() {
+        return dayClock.getDate();
+    }
+
+    /**
+     * Gets the handle of a member ID, or {@link SymbolTable#NONE} if no member
+     * was ever registered with it.
+     */
+    int memberHandle(String memberId) {
+        return memberIds.find(memberId);
+    }
+
+    /**
+     * Gets the handle of an ISBN, or {@link SymbolTable#NONE} if no book was
+     * ever added with it.
+     */
+    int bookHandle(String isbn) {
+        return isbns.find(isbn);
+    }
+
+    /**
+     * Gets the handle of a book's ISBN, interning it for a catalog book that
+     * has none yet.
+     */
+    int bookHandleOf(Book book) {
+        return isbns.intern(book.getIsbn());
+    }
+
+    /**
+     * Gets the interned member ID with the given handle.
+     */
+    String memberIdOf(int handle) {
+        return memberIds.symbol(handle);
+    }
+
+    /**
+     * Gets the interned ISBN with the given handle.
+     */
+    String isbnOf(int handle) {
+        return isbns.symbol(handle);
+    }
+
+    /**
+     * Sets the hold queue consulted when a copy is returned; null disables hold allocation.
+     */
+    public void setHoldQueue(HoldQueue holdQueue) {
+        this.holdQueue = holdQueue;
+    }
+
+    /**
+     * Sets the catalog consulted for ISBNs the service does not hold; null
+     * detaches it. Books added to the service take precedence over catalog
+     * records with the same ISBN. Catalog books can be found, lent, returned
+     * and reserved, but are not listed, searched or counted by the service.
+     */
+    public void setCatalog(BookCatalog catalog) {
+        this.catalog = catalog;
+    }
+
+    /**
+     * Sets the journal that records every state change; null disables journaling.
+     * Set it before the service is shared, and after replaying any earlier journal
+     * into the service.
+     */
+    public void setJournal(ChangeJournal journal) {
+        this.journal = journal;
+    }
+
+    /**
+     * Sets how scans over all books, members or loans run: the available
+     * books, the books in a category, the active members and the overdue
+     * loans. Null makes them sequential, the default.
+     */
+    public void setQueryParallelism(QueryParallelism queryParallelism) {
+        this.queryParallelism = queryParallelism == null ? QueryParallelism.sequential() : queryParallelism;
     }
 
     // Book Management
@@ -32,6 +233,149 @@ public class LibraryService {
      * Adds a new book to the library.
      */
     public void addBook(Book book) throws InvalidInputException {
+        validateBook(book);
+
+        long sequence;
+        int handle = isbns.intern(book.getIsbn());
+        Lock lock = bookLocks.get(book.getIsbn());
+        lock.lock();
+        try {
+            Book previous = books.put(handle, book);
+            unindexBook(previous);
+            indexBook(book);
+            availableCopyCount.add(copiesOf(book) - copiesOf(previous));
+            sequence = journal(ChangeType.BOOK_ADDED, book);
+        } finally {
+            lock.unlock();
+        }
+        sync(sequence);
+    }
+
+    /**
+     * Adds a batch of books, replacing any with the same ISBN as addBook does.
+     *
+     * <p>Records are validated in parallel chunks and invalid ones are reported
+     * rather than thrown; within the batch a later record for an ISBN wins. The
+     * valid records are then published together while every book stripe is held,
+     * so no other book mutation interleaves with the batch.
+     */
+    public BulkLoadReport addBooks(Iterable<? extends Book> batch) {
+        if (batch == null) {
+            throw new InvalidInputException("Book batch cannot be null");
+        }
+        List<Book> records = new ArrayList<>();
+        for (Book book : batch) {
+            records.add(book);
+        }
+        return addBookRecords(records);
+    }
+
+    /**
+     * Adds a stream of books; see {@link #addBooks(Iterable)}.
+     */
+    public BulkLoadReport addBooks(Stream<? extends Book> batch) {
+        if (batch == null) {
+            throw new InvalidInputException("Book batch cannot be null");
+        }
+        return addBookRecords(batch.collect(Collectors.toList()));
+    }
+
+    private BulkLoadReport addBookRecords(List<? extends Book> records) {
+        int chunkSize = Math.max(BULK_CHUNK_MIN,
+                records.size() / (ForkJoinPool.getCommonPoolParallelism() * 4) + 1);
+        List<? extends List<? extends Book>> chunks = CollectionUtil.partition(records, chunkSize);
+        List<List<BulkLoadReport.RecordError>> chunkErrors = IntStream.range(0, chunks.size()).parallel()
+                .mapToObj(c -> validateChunk(chunks.get(c), c * chunkSize))
+                .collect(Collectors.toList());
+
+        List<BulkLoadReport.RecordError> errors = new ArrayList<>();
+        for (List<BulkLoadReport.RecordError> chunk : chunkErrors) {
+            errors.addAll(chunk);
+        }
+        Map<String, Book> accepted = new LinkedHashMap<>(records.size() * 4 / 3 + 1);
+        Iterator<BulkLoadReport.RecordError> rejected = errors.iterator();
+        BulkLoadReport.RecordError nextRejected = rejected.hasNext() ? rejected.next() : null;
+        for (int i = 0; i < records.size(); i++) {
+            if (nextRejected != null && nextRejected.getIndex() == i) {
+                nextRejected = rejected.hasNext() ? rejected.next() : null;
+                continue;
+            }
+            Book book = records.get(i);
+            accepted.put(book.getIsbn(), book);
+        }
+
+        sync(publishBooks(accepted, chunkSize));
+        return new BulkLoadReport(records.size() - errors.size(), errors);
+    }
+
+    /**
+     * Publishes validated books under every book stripe, indexing them in parallel chunks.
+     *
+     * @return the journal sequence of the last book, or 0 if nothing was journaled
+     */
+    private long publishBooks(Map<String, Book> batch, int chunkSize) {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        for (int i = 0; i < bookLocks.size(); i++) {
+            bookLocks.getAt(i).lock();
+        }
+        try {
+            List<Book> published = new ArrayList<>(batch.values());
+            for (Book book : published) {
+                Book previous = books.put(isbns.intern(book.getIsbn()), book);
+                unindexBook(previous);
+                availableCopyCount.add(copiesOf(book) - copiesOf(previous));
+            }
+            CollectionUtil.partition(published, chunkSize).parallelStream().forEach(this::indexBooks);
+            long sequence = 0;
+            for (Book book : published) {
+                sequence = journal(ChangeType.BOOK_ADDED, book);
+            }
+            return sequence;
+        } finally {
+            for (int i = bookLocks.size() - 1; i >= 0; i--) {
+                bookLocks.getAt(i).unlock();
+            }
+        }
+    }
+
+    /**
+     * Batch form of {@link #indexBook(Book)} for books with distinct ISBNs; caller
+     * must hold their book locks.
+     */
+    private void indexBooks(List<Book> chunk) {
+        Map<String, String> titles = new HashMap<>(chunk.size() * 4 / 3 + 1);
+        Map<String, String> authors = new HashMap<>(chunk.size() * 4 / 3 + 1);
+        for (Book book : chunk) {
+            titles.put(book.getIsbn(), book.getTitle());
+            authors.put(book.getIsbn(), book.getAuthor());
+            if (book.getCategory() != null) {
+                booksByCategory.get(book.getCategory()).add(book);
+            }
+            if (book.isAvailable()) {
+                availableBooks.add(book);
+            }
+        }
+        titleIndex.putAll(titles);
+        authorIndex.putAll(authors);
+    }
+
+    private static List<BulkLoadReport.RecordError> validateChunk(List<? extends Book> chunk, int offset) {
+        List<BulkLoadReport.RecordError> errors = new ArrayList<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            Book book = chunk.get(i);
+            try {
+                validateBook(book);
+            } catch (InvalidInputException e) {
+                errors.add(new BulkLoadReport.RecordError(offset + i,
+                        book == null ? null : book.getIsbn(), e.getMessage()));
+            }
+        }
+        return errors;
+    }
+
+    private static void validateBook(Book book) throws InvalidInputException {
         if (book == null) {
             throw new InvalidInputException("Book cannot be null");
         }
@@ -40,15 +384,13 @@ public class LibraryService {
         ValidationUtil.validateNotEmpty(book.getAuthor(), "Author");
         ValidationUtil.validatePositive(book.getTotalCopies(), "Total copies");
         ValidationUtil.validateYear(book.getPublicationYear());
-        
-        books.put(book.getIsbn(), book);
     }
 
     /**
      * Finds a book by ISBN.
      */
     public Book findBookByIsbn(String isbn) throws BookNotFoundException {
-        Book book = books.get(isbn);
+        Book book = lookupBook(isbns.find(isbn), isbn);
         if (book == null) {
             throw new BookNotFoundException(isbn);
         }
@@ -56,29 +398,23 @@ public class LibraryService {
     }
 
     /**
-     * Searches books by title.
+     * Searches books by title (case-insensitive substring match).
      */
     public List<Book> searchBooksByTitle(String title) {
         if (title == null || title.trim().isEmpty()) {
             return new ArrayList<>();
         }
-        String searchTerm = title.toLowerCase();
-        return books.values().stream()
-                .filter(book -> book.getTitle().toLowerCase().contains(searchTerm))
-                .collect(Collectors.toList());
+        return resolveBooks(titleIndex.search(title));
     }
 
     /**
-     * Searches books by author.
+     * Searches books by author (case-insensitive substring match).
      */
     public List<Book> searchBooksByAuthor(String author) {
         if (author == null || author.trim().isEmpty()) {
             return new ArrayList<>();
         }
-        String searchTerm = author.toLowerCase();
-        return books.values().stream()
-                .filter(book -> book.getAuthor().toLowerCase().contains(searchTerm))
-                .collect(Collectors.toList());
+        return resolveBooks(authorIndex.search(author));
     }
 
     /**
@@ -88,18 +424,43 @@ public class LibraryService {
         if (category == null) {
             return new ArrayList<>();
         }
-        return books.values().stream()
-                .filter(book -> book.getCategory() == category)
-                .collect(Collectors.toList());
+        return copyOf(booksByCategory.get(category));
     }
 
     /**
      * Gets all available books.
      */
     public List<Book> getAvailableBooks() {
-        return books.values().stream()
-                .filter(Book::isAvailable)
-                .collect(Collectors.toList());
+        return copyOf(availableBooks);
+    }
+
+    private List<Book> copyOf(Set<Book> indexed) {
+        return queryParallelism.query(indexed.size(), indexed::spliterator,
+                books -> books.collect(Collectors.toList()));
+    }
+
+    /**
+     * Gets all books.
+     */
+    public List<Book> getAllBooks() {
+        return books.values();
+    }
+
+    /**
+     * Gets the number of books in a category.
+     */
+    public int getBookCountByCategory(BookCategory category) {
+        if (category == null) {
+            return 0;
+        }
+        return booksByCategory.get(category).size();
+    }
+
+    /**
+     * Gets the number of books with at least one copy available.
+     */
+    public int getAvailableBookCount() {
+        return availableBooks.size();
     }
 
     /**
@@ -109,23 +470,137 @@ public class LibraryService {
         if (book == null) {
             throw new InvalidInputException("Book cannot be null");
         }
-        if (!books.containsKey(book.getIsbn())) {
-            throw new BookNotFoundException(book.getIsbn());
-        }
         ValidationUtil.validateNotEmpty(book.getTitle(), "Title");
         ValidationUtil.validateNotEmpty(book.getAuthor(), "Author");
-        
-        books.put(book.getIsbn(), book);
+
+        long sequence;
+        int handle = isbns.find(book.getIsbn());
+        Lock lock = bookLocks.get(book.getIsbn());
+        lock.lock();
+        try {
+            if (!books.containsKey(handle)) {
+                throw new BookNotFoundException(book.getIsbn());
+            }
+            Book previous = books.put(handle, book);
+            unindexBook(previous);
+            indexBook(book);
+            availableCopyCount.add(copiesOf(book) - copiesOf(previous));
+            sequence = journal(ChangeType.BOOK_UPDATED, book);
+        } finally {
+            lock.unlock();
+        }
+        sync(sequence);
     }
 
     /**
      * Removes a book from the library.
      */
     public void removeBook(String isbn) throws BookNotFoundException {
-        if (!books.containsKey(isbn)) {
+        if (isbn == null) {
             throw new BookNotFoundException(isbn);
         }
-        books.remove(isbn);
+        long sequence;
+        Lock lock = bookLocks.get(isbn);
+        lock.lock();
+        try {
+            Book removed = books.remove(isbns.find(isbn));
+            if (removed == null) {
+                throw new BookNotFoundException(isbn);
+            }
+            titleIndex.remove(isbn);
+            authorIndex.remove(isbn);
+            unindexBook(removed);
+            availableCopyCount.add(-copiesOf(removed));
+            sequence = journal(ChangeType.BOOK_REMOVED, removed);
+        } finally {
+            lock.unlock();
+        }
+        sync(sequence);
+    }
+
+    /**
+     * Updates the search and secondary indexes for a book; caller must hold the book lock.
+     */
+    private void indexBook(Book book) {
+        titleIndex.put(book.getIsbn(), book.getTitle());
+        authorIndex.put(book.getIsbn(), book.getAuthor());
+        if (book.getCategory() != null) {
+            booksByCategory.get(book.getCategory()).add(book);
+        }
+        if (book.isAvailable()) {
+            availableBooks.add(book);
+        }
+    }
+
+    /**
+     * Drops a replaced or removed book from the secondary indexes; caller must hold the book lock.
+     */
+    private void unindexBook(Book book) {
+        if (book == null) {
+            return;
+        }
+        if (book.getCategory() != null) {
+            booksByCategory.get(book.getCategory()).remove(book);
+        }
+        availableBooks.remove(book);
+    }
+
+    /**
+     * Tells whether a book is one the service holds rather than a catalog record.
+     */
+    private boolean holds(Book book) {
+        return books.get(isbns.find(book.getIsbn())) == book;
+    }
+
+    /**
+     * Counts a copy taken or put back, if the book is one the service holds
+     * rather than a catalog record.
+     */
+    private void copiesChanged(Book book, int delta) {
+        if (holds(book)) {
+            availableCopyCount.add(delta);
+        }
+    }
+
+    private static int copiesOf(Book book) {
+        return book == null ? 0 : book.getAvailableCopies();
+    }
+
+    private static int activeCount(Member member) {
+        return member != null && member.isActive() ? 1 : 0;
+    }
+
+    /**
+     * Re-syncs the available set after a copy count crossed zero. Every crossing is
+     * followed by a refresh that reads the current count under the book lock, so the
+     * last refresh always reflects the last crossing.
+     */
+    private void refreshAvailability(Book book) {
+        Lock lock = bookLocks.get(book.getIsbn());
+        lock.lock();
+        try {
+            if (!holds(book)) {
+                return;
+            }
+            if (book.isAvailable()) {
+                availableBooks.add(book);
+            } else {
+                availableBooks.remove(book);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private List<Book> resolveBooks(List<String> matches) {
+        List<Book> results = new ArrayList<>(matches.size());
+        for (String isbn : matches) {
+            Book book = books.get(isbns.find(isbn));
+            if (book != null) {
+                results.add(book);
+            }
+        }
+        return results;
     }
 
     // Member Management
@@ -142,15 +617,27 @@ public class LibraryService {
         ValidationUtil.validateEmail(member.getEmail());
         ValidationUtil.validatePhoneNumber(member.getPhoneNumber());
         
-        members.put(member.getMemberId(), member);
-        memberLoans.put(member.getMemberId(), new ArrayList<>());
+        long sequence;
+        int handle = memberIds.intern(member.getMemberId());
+        Lock lock = memberLocks.get(member.getMemberId());
+        lock.lock();
+        try {
+            Member previous = members.put(handle, member);
+            activeMemberCount.add(activeCount(member) - activeCount(previous));
+            memberLoans.put(handle, new ArrayList<>());
+            activeMemberLoans.put(handle, new IntArrayList());
+            sequence = journal(ChangeType.MEMBER_REGISTERED, member);
+        } finally {
+            lock.unlock();
+        }
+        sync(sequence);
     }
 
     /**
      * Finds a member by ID.
      */
     public Member findMemberById(String memberId) throws MemberNotFoundException {
-        Member member = members.get(memberId);
+        Member member = members.get(memberIds.find(memberId));
         if (member == null) {
             throw new MemberNotFoundException(memberId);
         }
@@ -164,13 +651,24 @@ public class LibraryService {
         if (member == null) {
             throw new InvalidInputException("Member cannot be null");
         }
-        if (!members.containsKey(member.getMemberId())) {
-            throw new MemberNotFoundException(member.getMemberId());
-        }
         ValidationUtil.validateNotEmpty(member.getName(), "Name");
         ValidationUtil.validateEmail(member.getEmail());
-        
-        members.put(member.getMemberId(), member);
+
+        long sequence;
+        int handle = memberIds.find(member.getMemberId());
+        Lock lock = memberLocks.get(member.getMemberId());
+        lock.lock();
+        try {
+            if (!members.containsKey(handle)) {
+                throw new MemberNotFoundException(member.getMemberId());
+            }
+            Member previous = members.put(handle, member);
+            activeMemberCount.add(activeCount(member) - activeCount(previous));
+            sequence = journal(ChangeType.MEMBER_UPDATED, member);
+        } finally {
+            lock.unlock();
+        }
+        sync(sequence);
     }
 
     /**
@@ -178,75 +676,228 @@ public class LibraryService {
      */
     public void deactivateMember(String memberId) throws MemberNotFoundException {
         Member member = findMemberById(memberId);
-        member.setActive(false);
+        long sequence;
+        Lock lock = memberLocks.get(memberId);
+        lock.lock();
+        try {
+            if (member.isActive() && members.get(memberIds.find(memberId)) == member) {
+                activeMemberCount.decrement();
+            }
+            member.setActive(false);
+            sequence = journal(ChangeType.MEMBER_DEACTIVATED, member);
+        } finally {
+            lock.unlock();
+        }
+        sync(sequence);
+    }
+
+    /**
+     * Gets all members.
+     */
+    public List<Member> getAllMembers() {
+        return members.values();
     }
 
     /**
      * Gets all active members.
      */
     public List<Member> getActiveMembers() {
-        return members.values().stream()
-                .filter(Member::isActive)
-                .collect(Collectors.toList());
+        return queryParallelism.query(members.size(), members::spliterator,
+                all -> all.filter(Member::isActive).collect(Collectors.toList()));
     }
 
     // Loan Management
 
     /**
      * Issues a book loan to a member.
+     *
+     * <p>The loan-limit check runs under the member lock and the copy is taken with
+     * {@link Book#tryBorrow()}, so concurrent checkouts can neither over-lend a title
+     * nor push a member past their membership limit.
      */
     public Loan issueBook(String memberId, String isbn) throws LibraryException {
-        Member member = findMemberById(memberId);
-        Book book = findBookByIsbn(isbn);
+        int memberHandle = memberIds.find(memberId);
+        Member member = members.get(memberHandle);
+        if (member == null) {
+            throw new MemberNotFoundException(memberId);
+        }
+        int bookHandle = isbns.find(isbn);
+        Book book = lookupBook(bookHandle, isbn);
+        if (book == null) {
+            throw new BookNotFoundException(isbn);
+        }
+        if (bookHandle == SymbolTable.NONE) {
+            bookHandle = bookHandleOf(book);
+        }
 
         if (!member.isActive()) {
             throw new InvalidInputException("Member is not active");
         }
 
-        if (!book.isAvailable()) {
-            throw new BookNotAvailableException(isbn);
-        }
+        Loan loan;
+        long sequence;
+        Lock memberLock = memberLocks.get(memberId);
+        memberLock.lock();
+        try {
+            if (!book.isAvailable()) {
+                throw new BookNotAvailableException(isbn);
+            }
 
-        List<Loan> activeLoans = getActiveLoansByMember(memberId);
-        if (activeLoans.size() >= member.getMaxBooksAllowed()) {
-            throw new LoanLimitExceededException(memberId, member.getMaxBooksAllowed());
-        }
+            IntArrayList active = activeMemberLoans.computeIfAbsent(memberHandle, h -> new IntArrayList());
+            if (active.size() >= member.getMaxBooksAllowed()) {
+                throw new LoanLimitExceededException(memberId, member.getMaxBooksAllowed());
+            }
 
-        String loanId = generateLoanId();
-        LocalDate loanDate = LocalDate.now();
-        LocalDate dueDate = loanDate.plusDays(member.getLoanDurationDays());
+            int remaining = book.borrowAndGetRemaining();
+            if (remaining < 0) {
+                throw new BookNotAvailableException(isbn);
+            }
+            copiesChanged(book, -1);
+            if (remaining == 0) {
+                refreshAvailability(book);
+            }
 
-        Loan loan = new Loan(loanId, memberId, isbn, loanDate, dueDate);
-        loans.put(loanId, loan);
-        memberLoans.get(memberId).add(loan);
-        
-        book.borrowCopy();
+            loan = openLoan(memberHandle, member, bookHandle, active);
+            sequence = journal(ChangeType.LOAN_ISSUED, loan);
+        } finally {
+            memberLock.unlock();
+        }
+        sync(sequence);
+        return loan;
+    }
 
+    /**
+     * Records a new loan for a copy already taken off the shelf; caller must hold the member lock.
+     */
+    private Loan openLoan(int memberHandle, Member member, int bookHandle, IntArrayList active) {
+        String loanId = generateLoanId();
+        int loanDay = today();
+        Loan loan = new Loan(loanId, memberIds.symbol(memberHandle), isbns.symbol(bookHandle), loanDay,
+                loanDay + member.getLoanDurationDays());
+        NumberedIdMap<Loan> stripe = loanStripe(loanId);
+        synchronized (stripe) {
+            stripe.put(loanId, loan);
+        }
+        List<Loan> history = memberLoans.computeIfAbsent(memberHandle, h -> new ArrayList<>());
+        active.add(history.size());
+        history.add(loan);
+        activeLoansByDueDate.computeIfAbsent(loan.getDueDate(), d -> ConcurrentHashMap.newKeySet()).add(loan);
+        activeLoanCount.increment();
         return loan;
     }
 
     /**
      * Returns a book.
+     *
+     * <p>If the title has active holds, the copy does not go back on the shelf; it is
+     * issued to the oldest hold whose member can still borrow, and that reservation is
+     * fulfilled. Only if no hold can take it is the copy made available again.
      */
     public void returnBook(String loanId) throws LibraryException {
-        Loan loan = loans.get(loanId);
+        Loan loan = findLoan(loanId);
         if (loan == null) {
             throw new InvalidInputException("Loan not found with ID: " + loanId);
         }
 
-        if (loan.getStatus() != LoanStatus.ACTIVE) {
-            throw new InvalidInputException("Loan is not active");
+        Book book;
+        HoldQueue holds = holdQueue;
+        boolean allocateToHold;
+        long sequence;
+        Lock memberLock = memberLocks.get(loan.getMemberId());
+        memberLock.lock();
+        try {
+            if (loan.getStatus() != LoanStatus.ACTIVE) {
+                throw new InvalidInputException("Loan is not active");
+            }
+
+            book = findBookByIsbn(loan.getIsbn());
+            allocateToHold = holds != null && holds.nextHold(book.getIsbn(), null) != null;
+            if (!allocateToHold) {
+                putBack(book);
+            }
+
+            // The fine is judged before the loan is marked returned, as only active loans are overdue
+            int today = today();
+            double fine = fineOn(loan, today);
+            loan.setReturnDay(today);
+            loan.setStatus(LoanStatus.RETURNED);
+            if (fine > 0) {
+                loan.setFineAmount(fine);
+                finesAccrued.add(fine);
+            }
+            activeLoanCount.decrement();
+            removeActiveLoan(memberIds.find(loan.getMemberId()), loan);
+            Set<Loan> dueBucket = activeLoansByDueDate.get(loan.getDueDate());
+            if (dueBucket != null) {
+                dueBucket.remove(loan);
+            }
+
+            sequence = journal(ChangeType.BOOK_RETURNED, loan);
+        } finally {
+            memberLock.unlock();
         }
 
-        Book book = findBookByIsbn(loan.getIsbn());
-        book.returnCopy();
+        if (allocateToHold) {
+            sequence = Math.max(sequence, allocateToHold(book, holds));
+        }
+        sync(sequence);
+    }
 
-        loan.setReturnDate(LocalDate.now());
-        loan.setStatus(LoanStatus.RETURNED);
+    /**
+     * Hands a returned copy to the first eligible hold, or puts it back on the shelf.
+     * Runs after the returning member's lock is released, so only one member lock is
+     * held at a time; the copy is off the shelf throughout, so walk-in loans cannot take it.
+     *
+     * @return the journal sequence of the new loan, or 0 if none was journaled
+     */
+    private long allocateToHold(Book book, HoldQueue holds) {
+        Reservation hold = holds.nextHold(book.getIsbn(), null);
+        while (hold != null) {
+            long sequence = issueToHold(book, hold, holds);
+            if (sequence >= 0) {
+                return sequence;
+            }
+            hold = holds.nextHold(book.getIsbn(), hold);
+        }
+        putBack(book);
+        return 0;
+    }
 
-        if (loan.isOverdue()) {
-            double fine = calculateFine(loan);
-            loan.setFineAmount(fine);
+    /**
+     * Puts a returned copy back on the shelf.
+     */
+    private void putBack(Book book) {
+        int available = book.returnAndGetAvailable();
+        if (available > 0) {
+            copiesChanged(book, 1);
+        }
+        if (available == 1) {
+            refreshAvailability(book);
+        }
+    }
+
+    /**
+     * Issues the copy to the hold's member if they can still borrow it.
+     *
+     * @return the journal sequence of the new loan (0 without a journal), or -1 if not issued
+     */
+    private long issueToHold(Book book, Reservation hold, HoldQueue holds) {
+        int memberHandle = memberIds.find(hold.getMemberId());
+        Member member = members.get(memberHandle);
+        if (member == null || !member.isActive()) {
+            return -1;
+        }
+        Lock lock = memberLocks.get(member.getMemberId());
+        lock.lock();
+        try {
+            IntArrayList active = activeMemberLoans.computeIfAbsent(memberHandle, h -> new IntArrayList());
+            if (active.size() >= member.getMaxBooksAllowed() || !holds.claimHold(hold)) {
+                return -1;
+            }
+            return journal(ChangeType.LOAN_ISSUED,
+                    openLoan(memberHandle, member, bookHandleOf(book), active));
+        } finally {
+            lock.unlock();
         }
     }
 
@@ -254,50 +905,339 @@ public class LibraryService {
      * Calculates fine for overdue loan.
      */
     public double calculateFine(Loan loan) {
-        if (loan == null || !loan.isOverdue()) {
-            return 0.0;
-        }
-        return loan.getDaysOverdue() * FINE_PER_DAY;
+        return loan == null ? 0.0 : fineOn(loan, today());
+    }
+
+    private static double fineOn(Loan loan, int today) {
+        return loan.isOverdue(today) ? loan.getDaysOverdue(today) * FINE_PER_DAY : 0.0;
     }
 
     /**
-     * Gets all active loans for a member.
+     * Gets all active loans for a member, in the order they were issued.
      */
     public List<Loan> getActiveLoansByMember(String memberId) {
-        List<Loan> allLoans = memberLoans.get(memberId);
-        if (allLoans == null) {
+        int memberHandle = memberIds.find(memberId);
+        IntArrayList active = activeMemberLoans.get(memberHandle);
+        if (active == null) {
             return new ArrayList<>();
         }
-        return allLoans.stream()
-                .filter(loan -> loan.getStatus() == LoanStatus.ACTIVE)
-                .collect(Collectors.toList());
+        Lock lock = memberLocks.get(memberId);
+        lock.lock();
+        try {
+            List<Loan> history = memberLoans.get(memberHandle);
+            List<Loan> loans = new ArrayList<>(active.size());
+            for (int i = 0; i < active.size(); i++) {
+                loans.add(history.get(active.get(i)));
+            }
+            return loans;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the number of active loans for a member.
+     */
+    public int getActiveLoanCount(String memberId) {
+        IntArrayList active = activeMemberLoans.get(memberIds.find(memberId));
+        if (active == null) {
+            return 0;
+        }
+        Lock lock = memberLocks.get(memberId);
+        lock.lock();
+        try {
+            return active.size();
+        } finally {
+            lock.unlock();
+        }
     }
 
     /**
-     * Gets all overdue loans.
+     * Gets all overdue loans as of today on the service clock.
      */
     public List<Loan> getOverdueLoans() {
-        return loans.values().stream()
-                .filter(Loan::isOverdue)
-                .collect(Collectors.toList());
+        return getOverdueLoans(todayDate());
+    }
+
+    /**
+     * Gets all loans that are active and past their due date as of the given date.
+     *
+     * <p>Served from an index of active loans ordered by due date, so the cost is
+     * proportional to the number of overdue loans rather than the loan history.
+     * Emptied due-date buckets are kept; there is at most one per calendar day.
+     * A parallel query splits the work by due date.
+     */
+    public List<Loan> getOverdueLoans(LocalDate asOf) {
+        if (asOf == null) {
+            return new ArrayList<>();
+        }
+        List<Set<Loan>> buckets = new ArrayList<>(activeLoansByDueDate.headMap(asOf, false).values());
+        long size = 0;
+        for (Set<Loan> bucket : buckets) {
+            size += bucket.size();
+        }
+        return queryParallelism.query(size, buckets::spliterator, due -> due
+                .flatMap(Set::stream)
+                .filter(loan -> loan.getStatus() == LoanStatus.ACTIVE)
+                .collect(Collectors.toList()));
     }
 
     /**
      * Gets loan history for a member.
      */
     public List<Loan> getLoanHistory(String memberId) {
-        List<Loan> allLoans = memberLoans.get(memberId);
+        List<Loan> allLoans = memberLoans.get(memberIds.find(memberId));
         if (allLoans == null) {
             return new ArrayList<>();
         }
-        return new ArrayList<>(allLoans);
+        Lock lock = memberLocks.get(memberId);
+        lock.lock();
+        try {
+            return new ArrayList<>(allLoans);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets every loan, grouped by member in the order each member's loans were issued.
+     */
+    public List<Loan> getAllLoans() {
+        List<Loan> all = new ArrayList<>(loanCount());
+        memberLoans.forEach((history, handle) -> {
+            Lock lock = memberLocks.get(memberIds.symbol(handle));
+            lock.lock();
+            try {
+                all.addAll(history);
+            } finally {
+                lock.unlock();
+            }
+        });
+        return all;
+    }
+
+    /**
+     * Restores a loan recorded elsewhere (e.g. a backup), keeping its ID, dates
+     * and status. An active loan takes a copy of its book off the shelf, unless
+     * the book is a catalog record: the catalog keeps its own copy counts, which
+     * already allow for the loan. Loan limits are not re-checked.
+     */
+    public void restoreLoan(Loan loan) throws LibraryException {
+        validateRestoredLoan(loan);
+        Member member = findMemberById(loan.getMemberId());
+        Book book = findBookByIsbn(loan.getIsbn());
+
+        long sequence;
+        Lock lock = memberLocks.get(member.getMemberId());
+        lock.lock();
+        try {
+            sequence = restoreLoanLocked(member, book, loan);
+        } finally {
+            lock.unlock();
+        }
+        sync(sequence);
+    }
+
+    /**
+     * Restores a batch of loans as restoreLoan does, reporting rejected loans
+     * rather than throwing. A run of consecutive loans by one member is restored
+     * under a single hold of that member's lock, so a batch listed member by
+     * member, as {@link #getAllLoans()} lists them, takes each lock once.
+     */
+    public BulkLoadReport restoreLoans(List<? extends Loan> batch) {
+        if (batch == null) {
+            throw new InvalidInputException("Loan batch cannot be null");
+        }
+        List<BulkLoadReport.RecordError> errors = new ArrayList<>();
+        long sequence = 0;
+        int start = 0;
+        while (start < batch.size()) {
+            String memberId = batch.get(start) == null ? null : batch.get(start).getMemberId();
+            int end = start + 1;
+            while (end < batch.size() && memberId != null && batch.get(end) != null
+                    && memberId.equals(batch.get(end).getMemberId())) {
+                end++;
+            }
+            Member member = members.get(memberIds.find(memberId));
+            Lock lock = member == null ? null : memberLocks.get(memberId);
+            if (lock != null) {
+                lock.lock();
+            }
+            try {
+                for (int i = start; i < end; i++) {
+                    Loan loan = batch.get(i);
+                    try {
+                        validateRestoredLoan(loan);
+                        if (member == null) {
+                            throw new MemberNotFoundException(memberId);
+                        }
+                        sequence = restoreLoanLocked(member, findBookByIsbn(loan.getIsbn()), loan);
+                    } catch (LibraryException e) {
+                        errors.add(new BulkLoadReport.RecordError(i, loan == null ? null : loan.getLoanId(),
+                                e.getMessage()));
+                    }
+                }
+            } finally {
+                if (lock != null) {
+                    lock.unlock();
+                }
+            }
+            start = end;
+        }
+        sync(sequence);
+        return new BulkLoadReport(batch.size() - errors.size(), errors);
+    }
+
+    private static void validateRestoredLoan(Loan loan) {
+        if (loan == null) {
+            throw new InvalidInputException("Loan cannot be null");
+        }
+        ValidationUtil.validateNotEmpty(loan.getLoanId(), "Loan ID");
+        if (loan.getLoanDate() == null || loan.getDueDate() == null || loan.getStatus() == null) {
+            throw new InvalidInputException("Loan date, due date and status are required: " + loan.getLoanId());
+        }
+    }
+
+    /**
+     * Restores a validated loan while its member's lock is held, pointing it at
+     * the interned member ID and ISBN.
+     *
+     * @return the journal sequence of the restore, or 0 if it was not journaled
+     */
+    private long restoreLoanLocked(Member member, Book book, Loan loan) {
+        int memberHandle = memberIds.find(member.getMemberId());
+        int bookHandle = bookHandleOf(book);
+        NumberedIdMap<Loan> stripe = loanStripe(loan.getLoanId());
+        synchronized (stripe) {
+            if (stripe.putIfAbsent(loan.getLoanId(), loan) != null) {
+                throw new InvalidInputException("Loan already exists: " + loan.getLoanId());
+            }
+        }
+        boolean active = loan.getStatus() == LoanStatus.ACTIVE;
+        if (active && holds(book)) {
+            int remaining = book.borrowAndGetRemaining();
+            if (remaining < 0) {
+                synchronized (stripe) {
+                    stripe.remove(loan.getLoanId());
+                }
+                throw new BookNotAvailableException(book.getIsbn());
+            }
+            copiesChanged(book, -1);
+            if (remaining == 0) {
+                refreshAvailability(book);
+            }
+        }
+        loan.setMemberId(memberIds.symbol(memberHandle));
+        loan.setIsbn(isbns.symbol(bookHandle));
+        List<Loan> history = memberLoans.computeIfAbsent(memberHandle, h -> new ArrayList<>());
+        history.add(loan);
+        if (active) {
+            activeMemberLoans.computeIfAbsent(memberHandle, h -> new IntArrayList()).add(history.size() - 1);
+            activeLoansByDueDate.computeIfAbsent(loan.getDueDate(), d -> ConcurrentHashMap.newKeySet()).add(loan);
+            activeLoanCount.increment();
+        }
+        if (loan.getFineAmount() > 0) {
+            finesAccrued.add(loan.getFineAmount());
+        }
+        return journal(ChangeType.LOAN_RESTORED, loan);
+    }
+
+    /**
+     * Gets the book the service holds under a handle or, failing that, the
+     * attached catalog's record of the ISBN; returns null if neither has it.
+     */
+    private Book lookupBook(int handle, String isbn) {
+        Book book = books.get(handle);
+        BookCatalog source = catalog;
+        if (book == null && source != null && isbn != null) {
+            book = source.findBook(isbn);
+        }
+        return book;
+    }
+
+    /**
+     * Drops a loan from its member's active loans; caller must hold the member lock.
+     */
+    private void removeActiveLoan(int memberHandle, Loan loan) {
+        IntArrayList active = activeMemberLoans.get(memberHandle);
+        List<Loan> history = memberLoans.get(memberHandle);
+        if (active == null || history == null) {
+            return;
+        }
+        for (int i = 0; i < active.size(); i++) {
+            if (history.get(active.get(i)) == loan) {
+                active.removeAt(i);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Finds a loan by ID, or returns null.
+     */
+    private Loan findLoan(String loanId) {
+        if (loanId == null) {
+            return null;
+        }
+        NumberedIdMap<Loan> stripe = loanStripe(loanId);
+        synchronized (stripe) {
+            return stripe.get(loanId);
+        }
+    }
+
+    private NumberedIdMap<Loan> loanStripe(String loanId) {
+        int hash = loanId.hashCode();
+        return loanStripes[(hash ^ (hash >>> 16)) & (loanStripes.length - 1)];
+    }
+
+    private int loanCount() {
+        int count = 0;
+        for (NumberedIdMap<Loan> stripe : loanStripes) {
+            synchronized (stripe) {
+                count += stripe.size();
+            }
+        }
+        return count;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static NumberedIdMap<Loan>[] newLoanStripes(int concurrencyLevel) {
+        int count = 1;
+        while (count < concurrencyLevel && count < (1 << 16)) {
+            count <<= 1;
+        }
+        NumberedIdMap<Loan>[] stripes = (NumberedIdMap<Loan>[]) new NumberedIdMap<?>[count];
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new NumberedIdMap<>(LOAN_PREFIX);
+        }
+        return stripes;
+    }
+
+    /**
+     * Appends a change to the journal, if any; caller must hold the lock that ordered the change.
+     *
+     * @return the change's sequence, or 0 without a journal
+     */
+    long journal(ChangeType type, Object entity) {
+        ChangeJournal changes = journal;
+        return changes == null ? 0 : changes.append(type, entity);
+    }
+
+    /**
+     * Waits until changes up to the sequence are durable; must be called with no locks held.
+     */
+    void sync(long sequence) {
+        ChangeJournal changes = journal;
+        if (changes != null && sequence > 0) {
+            changes.sync(sequence);
+        }
     }
 
     /**
      * Generates a unique loan ID.
      */
     private String generateLoanId() {
-        return "LOAN-" + System.currentTimeMillis() + "-" + (int)(Math.random() * 1000);
+        return IdGenerator.formatId(LOAN_PREFIX, loanIds.getAsLong());
     }
 
     // Statistics
@@ -320,9 +1260,31 @@ public class LibraryService {
      * Gets total number of active loans.
      */
     public int getTotalActiveLoans() {
-        return (int) loans.values().stream()
-                .filter(loan -> loan.getStatus() == LoanStatus.ACTIVE)
-                .count();
+        return activeLoanCount.intValue();
+    }
+
+    /**
+     * Gets the number of active loans past their due date as of today, from the
+     * sizes of the due-date buckets before today.
+     */
+    long overdueLoanCount() {
+        long count = 0;
+        for (Set<Loan> bucket : activeLoansByDueDate.headMap(todayDate(), false).values()) {
+            count += bucket.size();
+        }
+        return count;
+    }
+
+    long activeMemberCount() {
+        return activeMemberCount.sum();
+    }
+
+    long availableCopyCount() {
+        return availableCopyCount.sum();
+    }
+
+    double finesAccrued() {
+        return finesAccrued.sum();
     }
 }
 
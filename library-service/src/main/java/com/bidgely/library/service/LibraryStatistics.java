@@ -0,0 +1,120 @@
+package com.bidgely.library.service;
+
+import com.bidgely.library.exception.InvalidInputException;
+import com.bidgely.library.model.Reservation;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * A snapshot of the counters the services keep as their state changes, for
+ * monitoring that polls often. Taking one reads each counter once and scans
+ * nothing but the due dates of overdue loans, so it costs the same however
+ * many books, members and loans there are.
+ *
+ * <p>Each figure is exact when it is read, but the figures are read one after
+ * another without a lock, so a snapshot taken while the services change may
+ * mix moments; for example, a loan being returned may already be missing from
+ * the active loans while its fine is not yet counted.
+ */
+public final class LibraryStatistics {
+
+    private final long activeLoans;
+    private final long overdueLoans;
+    private final long activeMembers;
+    private final long activeAuthors;
+    private final long availableCopies;
+    private final double finesAccrued;
+    private final Map<Reservation.ReservationStatus, Long> reservationsByStatus;
+
+    private LibraryStatistics(long activeLoans, long overdueLoans, long activeMembers, long activeAuthors,
+                              long availableCopies, double finesAccrued,
+                              Map<Reservation.ReservationStatus, Long> reservationsByStatus) {
+        this.activeLoans = activeLoans;
+        this.overdueLoans = overdueLoans;
+        this.activeMembers = activeMembers;
+        this.activeAuthors = activeAuthors;
+        this.availableCopies = availableCopies;
+        this.finesAccrued = finesAccrued;
+        this.reservationsByStatus = Collections.unmodifiableMap(reservationsByStatus);
+    }
+
+    /**
+     * Reads the counters of a library service and, when given, its reservation
+     * and author services; counts for a missing service are zero.
+     */
+    public static LibraryStatistics snapshot(LibraryService libraryService, ReservationService reservationService,
+                                             AuthorService authorService) {
+        if (libraryService == null) {
+            throw new InvalidInputException("Library service cannot be null");
+        }
+        Map<Reservation.ReservationStatus, Long> reservations = new EnumMap<>(Reservation.ReservationStatus.class);
+        for (Reservation.ReservationStatus status : Reservation.ReservationStatus.values()) {
+            reservations.put(status, reservationService == null ? 0L : reservationService.reservationCount(status));
+        }
+        return new LibraryStatistics(
+                libraryService.getTotalActiveLoans(),
+                libraryService.overdueLoanCount(),
+                libraryService.activeMemberCount(),
+                authorService == null ? 0 : authorService.getTotalActiveAuthors(),
+                libraryService.availableCopyCount(),
+                libraryService.finesAccrued(),
+                reservations);
+    }
+
+    public long getActiveLoans() {
+        return activeLoans;
+    }
+
+    /**
+     * Gets the number of active loans past their due date on the library clock.
+     */
+    public long getOverdueLoans() {
+        return overdueLoans;
+    }
+
+    public long getActiveMembers() {
+        return activeMembers;
+    }
+
+    public long getActiveAuthors() {
+        return activeAuthors;
+    }
+
+    /**
+     * Gets the number of copies on the shelf across the books the library
+     * service holds.
+     */
+    public long getAvailableCopies() {
+        return availableCopies;
+    }
+
+    /**
+     * Gets the total of the fines charged on returned loans.
+     */
+    public double getFinesAccrued() {
+        return finesAccrued;
+    }
+
+    public long getReservations(Reservation.ReservationStatus status) {
+        return reservationsByStatus.get(status);
+    }
+
+    public Map<Reservation.ReservationStatus, Long> getReservationsByStatus() {
+        return reservationsByStatus;
+    }
+
+    @Override
+    public String toString() {
+        return "LibraryStatistics{" +
+                "activeLoans=" + activeLoans +
+                ", overdueLoans=" + overdueLoans +
+                ", activeMembers=" + activeMembers +
+                ", activeAuthors=" + activeAuthors +
+                ", availableCopies=" + availableCopies +
+                ", finesAccrued=" + finesAccrued +
+                ", reservationsByStatus=" + reservationsByStatus +
+                '}';
+    }
+}
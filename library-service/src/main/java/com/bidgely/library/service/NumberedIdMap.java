@@ -0,0 +1,75 @@
+package com.bidgely.library.service;
+
+import com.bidgely.library.util.IdGenerator;
+import com.bidgely.library.util.LongObjectMap;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * A map from identifiers of the form {@code PREFIX-<number>}, as
+ * {@link IdGenerator#formatId(String, long)} renders
+ * them, to values. Identifiers in that form are keyed by their number in a
+ * {@link LongObjectMap}; any other identifier, such as one restored from an
+ * older system, is kept in an ordinary hash map beside it.
+ *
+ * <p>An identifier counts as numbered as {@link IdGenerator#numberOf(String, String)}
+ * decides, so {@code LOAN-007} and {@code LOAN-7} stay distinct keys.
+ * Not thread-safe; null values are not allowed.
+ */
+final class NumberedIdMap<V> {
+
+    private static final long TEXT_ID = IdGenerator.NOT_NUMBERED;
+
+    private final String prefix;
+    private final LongObjectMap<V> numbered = new LongObjectMap<>();
+    private final Map<String, V> others = new HashMap<>();
+
+    NumberedIdMap(String prefix) {
+        this.prefix = prefix;
+    }
+
+    V get(String id) {
+        long number = numberOf(id);
+        if (number != TEXT_ID) {
+            return numbered.get(number);
+        }
+        return id == null ? null : others.get(id);
+    }
+
+    V put(String id, V value) {
+        long number = numberOf(id);
+        return number != TEXT_ID ? numbered.put(number, value) : others.put(id, checked(value));
+    }
+
+    V putIfAbsent(String id, V value) {
+        long number = numberOf(id);
+        return number != TEXT_ID ? numbered.putIfAbsent(number, value) : others.putIfAbsent(id, checked(value));
+    }
+
+    V remove(String id) {
+        long number = numberOf(id);
+        return number != TEXT_ID ? numbered.remove(number) : others.remove(id);
+    }
+
+    int size() {
+        return numbered.size() + others.size();
+    }
+
+    void forEachValue(Consumer<? super V> action) {
+        numbered.forEach((value, number) -> action.accept(value));
+        others.values().forEach(action);
+    }
+
+    private long numberOf(String id) {
+        return IdGenerator.numberOf(prefix, id);
+    }
+
+    private static <V> V checked(V value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Value cannot be null");
+        }
+        return value;
+    }
+}
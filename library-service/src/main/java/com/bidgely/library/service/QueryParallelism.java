@@ -0,0 +1,85 @@
+package com.bidgely.library.service;
+
+import com.bidgely.library.exception.InvalidInputException;
+import com.bidgely.library.util.ValidationUtil;
+
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * How the services run their whole-collection queries, such as the available
+ * books or the active members. Queries are sequential by default; in parallel
+ * mode a query over at least the threshold number of elements runs as a
+ * parallel stream in the given pool, so report queries can be kept off the
+ * common pool and sized to the machine. Smaller queries stay sequential, as
+ * forking would cost more than it saves.
+ *
+ * <p>Instances are immutable and may be shared between services.
+ */
+public final class QueryParallelism {
+
+    private static final QueryParallelism SEQUENTIAL = new QueryParallelism(null, Integer.MAX_VALUE);
+
+    private final ForkJoinPool pool;
+    private final int sequentialThreshold;
+
+    private QueryParallelism(ForkJoinPool pool, int sequentialThreshold) {
+        this.pool = pool;
+        this.sequentialThreshold = sequentialThreshold;
+    }
+
+    /**
+     * Runs every query on the calling thread.
+     */
+    public static QueryParallelism sequential() {
+        return SEQUENTIAL;
+    }
+
+    /**
+     * Runs queries over at least {@code sequentialThreshold} elements in the
+     * given pool and smaller ones on the calling thread.
+     */
+    public static QueryParallelism parallel(ForkJoinPool pool, int sequentialThreshold) {
+        if (pool == null) {
+            throw new InvalidInputException("Query pool cannot be null");
+        }
+        ValidationUtil.validatePositive(sequentialThreshold, "Sequential threshold");
+        return new QueryParallelism(pool, sequentialThreshold);
+    }
+
+    /**
+     * Gets the pool parallel queries run in, or null if all are sequential.
+     */
+    public ForkJoinPool getPool() {
+        return pool;
+    }
+
+    public int getSequentialThreshold() {
+        return sequentialThreshold;
+    }
+
+    /**
+     * Tells whether a query over the given number of elements runs in parallel.
+     */
+    boolean isParallel(long size) {
+        return pool != null && size >= sequentialThreshold;
+    }
+
+    /**
+     * Applies a query to a stream over the source, parallel in the pool when
+     * the source holds enough elements.
+     *
+     * @param size the number of elements, or an estimate of it
+     */
+    <T, R> R query(long size, Supplier<? extends Spliterator<T>> source,
+                   Function<? super Stream<T>, ? extends R> query) {
+        if (!isParallel(size)) {
+            return query.apply(StreamSupport.stream(source.get(), false));
+        }
+        return pool.submit(() -> query.apply(StreamSupport.stream(source.get(), true))).join();
+    }
+}
@@ -6,26 +6,75 @@ import com.bidgely.library.exception.MemberNotFoundException;
 import com.bidgely.library.model.Book;
 import com.bidgely.library.model.Member;
 import com.bidgely.library.model.Reservation;
+import com.bidgely.library.util.HandleMap;
 import com.bidgely.library.util.IdGenerator;
 import com.bidgely.library.util.ValidationUtil;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.stream.Collectors;
 
 /**
  * Service for managing book reservations.
+ *
+ * <p>Active reservations are additionally indexed by member and by ISBN, so the
+ * per-member and per-book lookups and the duplicate check on create do not scan
+ * the full reservation history. They are also bucketed by expiry date, so the
+ * expiry sweep only visits reservations whose expiry date has passed. Expiry
+ * dates changed directly on a {@link Reservation} are not seen by that index.
+ *
+ * <p>Each ISBN's active reservations form a FIFO hold queue ordered by reservation
+ * date. Both indexes are keyed by the library service's member and ISBN
+ * handles, active holds are keyed by the number in their reservation ID, and
+ * reservations carry its interned ID strings. Reservations are dated, and the no-argument expiry methods judged, by
+ * the library service's clock. The service registers itself as the {@link HoldQueue} of the given
+ * {@link LibraryService}, so a returned copy goes to the oldest eligible hold.
+ *
+ * <p>All public methods are synchronized on the service. The monitor is never held
+ * while calling into a {@link LibraryService} method that takes locks, so
+ * LibraryService may call back into this service while holding its own member
+ * locks. Changes are journaled through the library service's {@link ChangeJournal}
+ * while the monitor is held and synced after it is released.
+ *
+ * <p>Reservations are counted by status as they change, so
+ * {@link LibraryStatistics} reads the counts without taking the monitor.
  */
-public class ReservationService {
+public class ReservationService implements HoldQueue {
+    private static final String RESERVATION_PREFIX = "RES";
+
     private final Map<String, Reservation> reservations;
+    private final NumberedIdMap<Hold> activeHolds;
+    private final HandleMap<Map<String, Reservation>> activeByMember;
+    private final HandleMap<NavigableSet<Hold>> holdQueues;
+    private final NavigableMap<LocalDate, Set<Reservation>> activeByExpiry;
     private final LibraryService libraryService;
+    private final LongAdder[] statusCounts;
+    private long holdSequence;
 
     public ReservationService(LibraryService libraryService) {
-        this.reservations = new HashMap<>();
+        this.reservations = new LinkedHashMap<>();
+        this.activeHolds = new NumberedIdMap<>(RESERVATION_PREFIX);
+        this.activeByMember = new HandleMap<>();
+        this.holdQueues = new HandleMap<>();
+        this.activeByExpiry = new TreeMap<>();
         this.libraryService = libraryService;
+        this.statusCounts = new LongAdder[Reservation.ReservationStatus.values().length];
+        for (int i = 0; i < statusCounts.length; i++) {
+            statusCounts[i] = new LongAdder();
+        }
+        libraryService.setHoldQueue(this);
     }
 
     /**
@@ -35,6 +84,20 @@ public class ReservationService {
         ValidationUtil.validateNotEmpty(memberId, "Member ID");
         ValidationUtil.validateIsbn(isbn);
 
+        Reservation reservation;
+        long sequence;
+        synchronized (this) {
+            reservation = openReservation(memberId, isbn);
+            sequence = libraryService.journal(ChangeType.RESERVATION_CREATED, reservation);
+        }
+        libraryService.sync(sequence);
+        return reservation;
+    }
+
+    /**
+     * Validates and indexes a new reservation; caller must hold the monitor.
+     */
+    private Reservation openReservation(String memberId, String isbn) {
         // Verify member exists
         Member member = libraryService.findMemberById(memberId);
         if (member == null) {
@@ -48,16 +111,19 @@ public class ReservationService {
         }
 
         // Check if member already has an active reservation for this book
-        List<Reservation> memberReservations = getActiveReservationsByMember(memberId);
-        for (Reservation res : memberReservations) {
-            if (res.getIsbn().equals(isbn)) {
-                throw new InvalidInputException("Member already has an active reservation for this book");
-            }
+        int memberHandle = libraryService.memberHandle(memberId);
+        Map<String, Reservation> memberReservations = activeByMember.get(memberHandle);
+        Reservation existing = memberReservations == null ? null : memberReservations.get(isbn);
+        if (existing != null && existing.getStatus() == Reservation.ReservationStatus.ACTIVE) {
+            throw new InvalidInputException("Member already has an active reservation for this book");
         }
 
-        String reservationId = IdGenerator.generateReservationId();
-        Reservation reservation = new Reservation(reservationId, memberId, isbn, LocalDate.now());
+        String reservationId = IdGenerator.formatId(RESERVATION_PREFIX, IdGenerator.generateSnowflakeId());
+        Reservation reservation = new Reservation(reservationId, libraryService.memberIdOf(memberHandle),
+                libraryService.isbnOf(libraryService.bookHandleOf(book)), libraryService.today());
         reservations.put(reservationId, reservation);
+        indexActive(reservation);
+        statusCounts[reservation.getStatus().ordinal()].increment();
 
         return reservation;
     }
@@ -68,12 +134,20 @@ public class ReservationService {
     public void cancelReservation(String reservationId) {
         ValidationUtil.validateNotEmpty(reservationId, "Reservation ID");
 
-        Reservation reservation = reservations.get(reservationId);
-        if (reservation == null) {
-            throw new InvalidInputException("Reservation not found: " + reservationId);
-        }
+        long sequence;
+        synchronized (this) {
+            Reservation reservation = reservations.get(reservationId);
+            if (reservation == null) {
+                throw new InvalidInputException("Reservation not found: " + reservationId);
+            }
 
-        reservation.cancel();
+            Reservation.ReservationStatus previous = reservation.getStatus();
+            reservation.cancel();
+            statusChanged(previous, reservation);
+            unindexActive(reservation);
+            sequence = libraryService.journal(ChangeType.RESERVATION_CANCELLED, reservation);
+        }
+        libraryService.sync(sequence);
     }
 
     /**
@@ -82,73 +156,316 @@ public class ReservationService {
     public void fulfillReservation(String reservationId) {
         ValidationUtil.validateNotEmpty(reservationId, "Reservation ID");
 
-        Reservation reservation = reservations.get(reservationId);
-        if (reservation == null) {
-            throw new InvalidInputException("Reservation not found: " + reservationId);
-        }
+        long sequence;
+        synchronized (this) {
+            Reservation reservation = reservations.get(reservationId);
+            if (reservation == null) {
+                throw new InvalidInputException("Reservation not found: " + reservationId);
+            }
 
-        reservation.fulfill();
+            Reservation.ReservationStatus previous = reservation.getStatus();
+            reservation.fulfill();
+            statusChanged(previous, reservation);
+            unindexActive(reservation);
+            sequence = libraryService.journal(ChangeType.RESERVATION_FULFILLED, reservation);
+        }
+        libraryService.sync(sequence);
     }
 
     /**
      * Gets all active reservations for a member.
      */
-    public List<Reservation> getActiveReservationsByMember(String memberId) {
-        return reservations.values().stream()
-                .filter(r -> r.getMemberId().equals(memberId))
-                .filter(r -> r.getStatus() == Reservation.ReservationStatus.ACTIVE)
-                .collect(Collectors.toList());
+    public synchronized List<Reservation> getActiveReservationsByMember(String memberId) {
+        Map<String, Reservation> entries = activeByMember.get(libraryService.memberHandle(memberId));
+        if (entries == null) {
+            return new ArrayList<>();
+        }
+        return activeOnly(entries.values());
     }
 
     /**
-     * Gets all active reservations for a book.
+     * Gets all active reservations for a book in hold-queue order, oldest first.
      */
-    public List<Reservation> getActiveReservationsByBook(String isbn) {
-        return reservations.values().stream()
-                .filter(r -> r.getIsbn().equals(isbn))
-                .filter(r -> r.getStatus() == Reservation.ReservationStatus.ACTIVE)
-                .collect(Collectors.toList());
+    public synchronized List<Reservation> getActiveReservationsByBook(String isbn) {
+        NavigableSet<Hold> queue = holdQueues.get(libraryService.bookHandle(isbn));
+        if (queue == null) {
+            return new ArrayList<>();
+        }
+        return activeOnly(queue.stream().map(hold -> hold.reservation).collect(Collectors.toList()));
+    }
+
+    /**
+     * Returns the first active hold on the ISBN queued after the given one.
+     */
+    @Override
+    public synchronized Reservation nextHold(String isbn, Reservation after) {
+        NavigableSet<Hold> queue = holdQueues.get(libraryService.bookHandle(isbn));
+        if (queue == null) {
+            return null;
+        }
+        Hold position = after == null ? null : activeHolds.get(after.getReservationId());
+        Iterator<Hold> iterator = position == null
+                ? queue.iterator()
+                : queue.tailSet(position, false).iterator();
+        while (iterator.hasNext()) {
+            Reservation reservation = iterator.next().reservation;
+            if (reservation.getStatus() == Reservation.ReservationStatus.ACTIVE) {
+                return reservation;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Fulfills the hold if it is still active. The change is journaled but not
+     * synced; the calling LibraryService syncs it with the loan that follows.
+     */
+    @Override
+    public synchronized boolean claimHold(Reservation reservation) {
+        if (reservation == null || reservation.getStatus() != Reservation.ReservationStatus.ACTIVE
+                || activeHolds.get(reservation.getReservationId()) == null) {
+            return false;
+        }
+        reservation.fulfill();
+        statusChanged(Reservation.ReservationStatus.ACTIVE, reservation);
+        unindexActive(reservation);
+        libraryService.journal(ChangeType.RESERVATION_FULFILLED, reservation);
+        return true;
     }
 
     /**
      * Gets all expired reservations.
      */
-    public List<Reservation> getExpiredReservations() {
-        return reservations.values().stream()
-                .filter(Reservation::isExpired)
-                .collect(Collectors.toList());
+    public synchronized List<Reservation> getExpiredReservations() {
+        return getExpiredReservations(libraryService.todayDate());
+    }
+
+    /**
+     * Gets all active reservations whose expiry date is before the given date.
+     */
+    public synchronized List<Reservation> getExpiredReservations(LocalDate asOf) {
+        List<Reservation> expired = new ArrayList<>();
+        if (asOf == null) {
+            return expired;
+        }
+        for (Set<Reservation> bucket : activeByExpiry.headMap(asOf, false).values()) {
+            for (Reservation reservation : bucket) {
+                if (reservation.getStatus() == Reservation.ReservationStatus.ACTIVE) {
+                    expired.add(reservation);
+                }
+            }
+        }
+        return expired;
     }
 
     /**
      * Processes expired reservations by marking them as expired.
      */
     public int processExpiredReservations() {
-        List<Reservation> expired = getExpiredReservations();
-        for (Reservation reservation : expired) {
-            reservation.setStatus(Reservation.ReservationStatus.EXPIRED);
+        return processExpiredReservations(libraryService.todayDate());
+    }
+
+    /**
+     * Marks every active reservation whose expiry date is before the given date as
+     * expired. Only the due expiry buckets are visited, so the cost is proportional
+     * to the number of reservations expiring.
+     */
+    public int processExpiredReservations(LocalDate asOf) {
+        if (asOf == null) {
+            return 0;
+        }
+        int count = 0;
+        long sequence = 0;
+        synchronized (this) {
+            Map.Entry<LocalDate, Set<Reservation>> bucket = activeByExpiry.firstEntry();
+            while (bucket != null && bucket.getKey().isBefore(asOf)) {
+                activeByExpiry.pollFirstEntry();
+                for (Reservation reservation : bucket.getValue()) {
+                    if (reservation.getStatus() == Reservation.ReservationStatus.ACTIVE) {
+                        reservation.setStatus(Reservation.ReservationStatus.EXPIRED);
+                        statusChanged(Reservation.ReservationStatus.ACTIVE, reservation);
+                        unindexActive(reservation);
+                        sequence = libraryService.journal(ChangeType.RESERVATION_EXPIRED, reservation);
+                        count++;
+                    }
+                }
+                bucket = activeByExpiry.firstEntry();
+            }
         }
-        return expired.size();
+        libraryService.sync(sequence);
+        return count;
     }
 
     /**
      * Gets a reservation by ID.
      */
-    public Reservation getReservation(String reservationId) {
+    public synchronized Reservation getReservation(String reservationId) {
         return reservations.get(reservationId);
     }
 
     /**
-     * Gets all reservations.
+     * Restores a reservation recorded elsewhere (e.g. a backup), keeping its ID,
+     * dates and status. Active reservations rejoin their book's hold queue behind
+     * those already queued for the same date, so restoring in
+     * {@link #getAllReservations()} order preserves queue order.
      */
-    public List<Reservation> getAllReservations() {
+    public void restoreReservation(Reservation reservation) {
+        long sequence;
+        synchronized (this) {
+            insertRestored(reservation);
+            sequence = libraryService.journal(ChangeType.RESERVATION_RESTORED, reservation);
+        }
+        libraryService.sync(sequence);
+    }
+
+    private void insertRestored(Reservation reservation) {
+        if (reservation == null) {
+            throw new InvalidInputException("Reservation cannot be null");
+        }
+        ValidationUtil.validateNotEmpty(reservation.getReservationId(), "Reservation ID");
+        ValidationUtil.validateNotEmpty(reservation.getMemberId(), "Member ID");
+        ValidationUtil.validateIsbn(reservation.getIsbn());
+        if (reservation.getReservationDate() == null || reservation.getExpiryDate() == null
+                || reservation.getStatus() == null) {
+            throw new InvalidInputException("Reservation date, expiry date and status are required: "
+                    + reservation.getReservationId());
+        }
+        libraryService.findMemberById(reservation.getMemberId());
+        Book book = libraryService.findBookByIsbn(reservation.getIsbn());
+        if (reservations.containsKey(reservation.getReservationId())) {
+            throw new InvalidInputException("Reservation already exists: " + reservation.getReservationId());
+        }
+        int memberHandle = libraryService.memberHandle(reservation.getMemberId());
+        if (reservation.getStatus() == Reservation.ReservationStatus.ACTIVE) {
+            Map<String, Reservation> memberReservations = activeByMember.get(memberHandle);
+            Reservation existing = memberReservations == null ? null : memberReservations.get(reservation.getIsbn());
+            if (existing != null && existing.getStatus() == Reservation.ReservationStatus.ACTIVE) {
+                throw new InvalidInputException("Member already has an active reservation for this book");
+            }
+        }
+
+        reservation.setMemberId(libraryService.memberIdOf(memberHandle));
+        reservation.setIsbn(libraryService.isbnOf(libraryService.bookHandleOf(book)));
+        reservations.put(reservation.getReservationId(), reservation);
+        statusCounts[reservation.getStatus().ordinal()].increment();
+        if (reservation.getStatus() == Reservation.ReservationStatus.ACTIVE) {
+            indexActive(reservation);
+        }
+    }
+
+    /**
+     * Gets all reservations, in the order they were created or restored.
+     */
+    public synchronized List<Reservation> getAllReservations() {
         return new ArrayList<>(reservations.values());
     }
 
     /**
      * Gets total number of reservations.
      */
-    public int getTotalReservations() {
+    public synchronized int getTotalReservations() {
         return reservations.size();
     }
+
+    /**
+     * Gets the number of reservations with a status, as counted by this service.
+     */
+    long reservationCount(Reservation.ReservationStatus status) {
+        return statusCounts[status.ordinal()].sum();
+    }
+
+    /**
+     * Moves a reservation's count from its previous status to its current one.
+     */
+    private void statusChanged(Reservation.ReservationStatus previous, Reservation reservation) {
+        if (previous != reservation.getStatus()) {
+            statusCounts[previous.ordinal()].decrement();
+            statusCounts[reservation.getStatus().ordinal()].increment();
+        }
+    }
+
+    private void indexActive(Reservation reservation) {
+        Hold previous = activeHolds.get(reservation.getReservationId());
+        if (previous != null) {
+            unindexActive(previous.reservation);
+        }
+        Hold hold = new Hold(reservation, libraryService.memberHandle(reservation.getMemberId()),
+                libraryService.bookHandle(reservation.getIsbn()), holdSequence++);
+        activeHolds.put(reservation.getReservationId(), hold);
+        activeByMember.computeIfAbsent(hold.memberHandle, h -> new LinkedHashMap<>())
+                .put(reservation.getIsbn(), reservation);
+        holdQueues.computeIfAbsent(hold.bookHandle, h -> new TreeSet<>())
+                .add(hold);
+        activeByExpiry.computeIfAbsent(hold.expiryDate, date -> new LinkedHashSet<>())
+                .add(reservation);
+    }
+
+    private void unindexActive(Reservation reservation) {
+        Hold hold = activeHolds.remove(reservation.getReservationId());
+        if (hold == null) {
+            return;
+        }
+        Map<String, Reservation> memberEntries = activeByMember.get(hold.memberHandle);
+        if (memberEntries != null && memberEntries.remove(hold.isbn, reservation) && memberEntries.isEmpty()) {
+            activeByMember.remove(hold.memberHandle);
+        }
+        NavigableSet<Hold> queue = holdQueues.get(hold.bookHandle);
+        if (queue != null && queue.remove(hold) && queue.isEmpty()) {
+            holdQueues.remove(hold.bookHandle);
+        }
+        Set<Reservation> bucket = activeByExpiry.get(hold.expiryDate);
+        if (bucket != null && bucket.remove(reservation) && bucket.isEmpty()) {
+            activeByExpiry.remove(hold.expiryDate);
+        }
+    }
+
+    /**
+     * Copies indexed reservations, skipping any whose status was changed outside this service.
+     */
+    private static List<Reservation> activeOnly(Collection<Reservation> entries) {
+        return entries.stream()
+                .filter(r -> r.getStatus() == Reservation.ReservationStatus.ACTIVE)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Index entry for an active reservation. The keys it was indexed under are
+     * captured here so it can be unindexed even if the reservation was modified.
+     */
+    private static final class Hold implements Comparable<Hold> {
+        private final Reservation reservation;
+        private final int memberHandle;
+        private final int bookHandle;
+        private final String isbn;
+        private final int reservationDay;
+        private final LocalDate expiryDate;
+        private final long sequence;
+
+        private Hold(Reservation reservation, int memberHandle, int bookHandle, long sequence) {
+            this.reservation = reservation;
+            this.memberHandle = memberHandle;
+            this.bookHandle = bookHandle;
+            this.isbn = reservation.getIsbn();
+            this.reservationDay = reservation.getReservationDay();
+            this.expiryDate = reservation.getExpiryDate();
+            this.sequence = sequence;
+        }
+
+        @Override
+        public int compareTo(Hold other) {
+            int byDate = Integer.compare(reservationDay, other.reservationDay);
+            return byDate != 0 ? byDate : Long.compare(sequence, other.sequence);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return this == o;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(sequence);
+        }
+    }
 }
 
@@ -0,0 +1,181 @@
+package com.bidgely.library.service.catalog;
+
+import com.bidgely.library.model.Book;
+import com.bidgely.library.model.BookCategory;
+
+import java.util.Objects;
+
+/**
+ * A view of one record in a {@link MappedBookCatalog}. It holds no book data of
+ * its own: getters read the mapped record and setters write it, so any number
+ * of views of a record see the same state, and copies borrowed through one are
+ * gone for all. Copy counts change under the catalog's lock for the record.
+ *
+ * <p>Two views are equal when they show the same record. The ISBN is the
+ * record's key in the catalog and cannot be changed.
+ */
+public final class MappedBook extends Book {
+    private static final long serialVersionUID = 1L;
+
+    private final transient MappedBookCatalog catalog;
+    private final int record;
+
+    MappedBook(MappedBookCatalog catalog, int record) {
+        super(null, null, null, null, 0, 0, null);
+        this.catalog = catalog;
+        this.record = record;
+    }
+
+    @Override
+    public String getIsbn() {
+        return catalog.readString(record, MappedBookCatalog.ISBN);
+    }
+
+    /**
+     * @throws UnsupportedOperationException always; the ISBN keys the record
+     */
+    @Override
+    public void setIsbn(String isbn) {
+        throw new UnsupportedOperationException("The ISBN of a catalog record cannot change");
+    }
+
+    @Override
+    public String getTitle() {
+        return catalog.readString(record, MappedBookCatalog.TITLE);
+    }
+
+    @Override
+    public void setTitle(String title) {
+        catalog.writeString(record, MappedBookCatalog.TITLE, title);
+    }
+
+    @Override
+    public String getAuthor() {
+        return catalog.readString(record, MappedBookCatalog.AUTHOR);
+    }
+
+    @Override
+    public void setAuthor(String author) {
+        catalog.writeString(record, MappedBookCatalog.AUTHOR, author);
+    }
+
+    @Override
+    public String getPublisher() {
+        return catalog.readString(record, MappedBookCatalog.PUBLISHER);
+    }
+
+    @Override
+    public void setPublisher(String publisher) {
+        catalog.writeString(record, MappedBookCatalog.PUBLISHER, publisher);
+    }
+
+    @Override
+    public int getPublicationYear() {
+        return catalog.readInt(record, MappedBookCatalog.YEAR);
+    }
+
+    @Override
+    public void setPublicationYear(int publicationYear) {
+        catalog.writeInt(record, MappedBookCatalog.YEAR, publicationYear);
+    }
+
+    @Override
+    public int getTotalCopies() {
+        return catalog.readInt(record, MappedBookCatalog.TOTAL_COPIES);
+    }
+
+    @Override
+    public void setTotalCopies(int totalCopies) {
+        synchronized (catalog.counterLock(record)) {
+            catalog.writeInt(record, MappedBookCatalog.TOTAL_COPIES, totalCopies);
+        }
+    }
+
+    @Override
+    public int getAvailableCopies() {
+        return catalog.readInt(record, MappedBookCatalog.AVAILABLE_COPIES);
+    }
+
+    @Override
+    public void setAvailableCopies(int availableCopies) {
+        synchronized (catalog.counterLock(record)) {
+            catalog.writeInt(record, MappedBookCatalog.AVAILABLE_COPIES, availableCopies);
+        }
+    }
+
+    @Override
+    public BookCategory getCategory() {
+        return catalog.readCategory(record);
+    }
+
+    @Override
+    public void setCategory(BookCategory category) {
+        catalog.writeCategory(record, category);
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return getAvailableCopies() > 0;
+    }
+
+    @Override
+    public int borrowAndGetRemaining() {
+        synchronized (catalog.counterLock(record)) {
+            int current = getAvailableCopies();
+            if (current <= 0) {
+                return -1;
+            }
+            catalog.writeInt(record, MappedBookCatalog.AVAILABLE_COPIES, current - 1);
+            return current - 1;
+        }
+    }
+
+    @Override
+    public int returnAndGetAvailable() {
+        synchronized (catalog.counterLock(record)) {
+            int current = getAvailableCopies();
+            if (current >= getTotalCopies()) {
+                return -1;
+            }
+            catalog.writeInt(record, MappedBookCatalog.AVAILABLE_COPIES, current + 1);
+            return current + 1;
+        }
+    }
+
+    /**
+     * Serializes a detached copy of the record as a plain {@link Book}.
+     */
+    private Object writeReplace() {
+        Book copy = new Book(getIsbn(), getTitle(), getAuthor(), getPublisher(), getPublicationYear(),
+                getTotalCopies(), getCategory());
+        copy.setAvailableCopies(getAvailableCopies());
+        return copy;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        MappedBook other = (MappedBook) o;
+        return catalog == other.catalog && record == other.record;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(getIsbn());
+    }
+
+    @Override
+    public String toString() {
+        return "MappedBook{" +
+                "isbn='" + getIsbn() + '\'' +
+                ", title='" + getTitle() + '\'' +
+                ", author='" + getAuthor() + '\'' +
+                ", publisher='" + getPublisher() + '\'' +
+                ", publicationYear=" + getPublicationYear() +
+                ", totalCopies=" + getTotalCopies() +
+                ", availableCopies=" + getAvailableCopies() +
+                ", category=" + getCategory() +
+                '}';
+    }
+}
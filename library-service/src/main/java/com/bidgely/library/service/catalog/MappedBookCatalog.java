@@ -0,0 +1,383 @@
+package com.bidgely.library.service.catalog;
+
+import com.bidgely.library.exception.CatalogException;
+import com.bidgely.library.exception.InvalidInputException;
+import com.bidgely.library.model.Book;
+import com.bidgely.library.model.BookCategory;
+import com.bidgely.library.service.BookCatalog;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Book catalog kept off the heap in memory-mapped files, for catalogs of tens
+ * of millions of titles. Lookups return {@link MappedBook} views that read and
+ * write the mapped records, so a catalog adds almost nothing to the heap or to
+ * garbage collection, and reopening one after a restart is served from the
+ * page cache without loading anything.
+ *
+ * <p>A catalog is a directory of two files. {@code books.dat} holds a 64-byte
+ * header ({@code magic, version, capacity, slots, count}, then at offset 24 the
+ * end of the string heap), an ISBN index of {@code [int hash][int record + 1]}
+ * slots with linear probing, and fixed-width records:
+ * <pre>
+ *   0  long ISBN     8  long title     16 long author    24 long publisher
+ *   32 int year      36 int copies     40 int available  44 byte category + 1
+ * </pre>
+ * The long fields point into {@code strings.dat}, an append-only heap of
+ * {@code [int length][UTF-8 bytes]} strings, where 0 stands for null. Changing
+ * a title, author or publisher appends the new string and repoints the record.
+ *
+ * <p>The record capacity is fixed when the catalog is created. Lookups take no
+ * lock and see a record once its add has completed; adds and string updates
+ * are serialized on the catalog, and copy counts are updated under a lock
+ * striped by record. Changes reach the files when the operating system writes
+ * the pages back, or on {@link #force()} and {@link #close()}. The copy counts
+ * in the files are the catalog's record of availability: loans restored on
+ * its books, such as by a journal replay after a restart, take no copies again.
+ */
+public final class MappedBookCatalog implements BookCatalog, Closeable {
+
+    static final String BOOKS_FILE = "books.dat";
+    static final String STRINGS_FILE = "strings.dat";
+
+    private static final int MAGIC = 0x4C424B43;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 64;
+    private static final int COUNT_OFFSET = 16;
+    private static final int STRINGS_END_OFFSET = 24;
+    private static final int SLOT_SIZE = 8;
+    private static final int RECORD_SIZE = 48;
+    private static final int STRINGS_HEADER_SIZE = 8;
+    private static final long INITIAL_STRINGS_SIZE = 1 << 20;
+    private static final int COUNTER_LOCKS = 64;
+
+    static final int ISBN = 0;
+    static final int TITLE = 8;
+    static final int AUTHOR = 16;
+    static final int PUBLISHER = 24;
+    static final int YEAR = 32;
+    static final int TOTAL_COPIES = 36;
+    static final int AVAILABLE_COPIES = 40;
+    static final int CATEGORY = 44;
+
+    private static final BookCategory[] CATEGORIES = BookCategory.values();
+
+    private final MappedFile books;
+    private final MappedFile strings;
+    private final int capacity;
+    private final int slotMask;
+    private final long recordsOffset;
+    private final Object[] counterLocks;
+    private volatile int count;
+    private long stringsEnd;
+
+    private MappedBookCatalog(MappedFile books, MappedFile strings, int capacity, int slots, int count,
+                              long stringsEnd) {
+        this.books = books;
+        this.strings = strings;
+        this.capacity = capacity;
+        this.slotMask = slots - 1;
+        this.recordsOffset = HEADER_SIZE + (long) slots * SLOT_SIZE;
+        this.count = count;
+        this.stringsEnd = stringsEnd;
+        this.counterLocks = new Object[COUNTER_LOCKS];
+        for (int i = 0; i < COUNTER_LOCKS; i++) {
+            counterLocks[i] = new Object();
+        }
+    }
+
+    /**
+     * Creates an empty catalog for up to {@code capacity} books in a directory
+     * that holds no catalog yet.
+     */
+    public static MappedBookCatalog create(Path directory, int capacity) throws IOException {
+        return create(directory, capacity, MappedFile.DEFAULT_CHUNK_BITS);
+    }
+
+    static MappedBookCatalog create(Path directory, int capacity, int chunkBits) throws IOException {
+        if (directory == null || capacity <= 0) {
+            throw new InvalidInputException("A catalog needs a directory and a positive capacity");
+        }
+        int slots = 16;
+        while (slots - (slots >>> 2) < capacity) {
+            slots <<= 1;
+        }
+        Files.createDirectories(directory);
+        MappedFile books = new MappedFile(directory.resolve(BOOKS_FILE), true, chunkBits);
+        MappedFile strings = null;
+        try {
+            strings = new MappedFile(directory.resolve(STRINGS_FILE), true, chunkBits);
+            books.ensureMapped(HEADER_SIZE + (long) slots * SLOT_SIZE + (long) capacity * RECORD_SIZE);
+            strings.ensureMapped(Math.min(INITIAL_STRINGS_SIZE, strings.chunkSize()));
+            books.putInt(0, MAGIC);
+            books.putInt(4, VERSION);
+            books.putInt(8, capacity);
+            books.putInt(12, slots);
+            books.putInt(COUNT_OFFSET, 0);
+            books.putLong(STRINGS_END_OFFSET, STRINGS_HEADER_SIZE);
+            strings.putInt(0, MAGIC);
+            strings.putInt(4, VERSION);
+            return new MappedBookCatalog(books, strings, capacity, slots, 0, STRINGS_HEADER_SIZE);
+        } catch (IOException | RuntimeException e) {
+            closeQuietly(books);
+            closeQuietly(strings);
+            throw e;
+        }
+    }
+
+    /**
+     * Opens a catalog created earlier, mapping its files without reading them.
+     *
+     * @throws IOException if the directory holds no catalog of this version
+     */
+    public static MappedBookCatalog open(Path directory) throws IOException {
+        return open(directory, MappedFile.DEFAULT_CHUNK_BITS);
+    }
+
+    static MappedBookCatalog open(Path directory, int chunkBits) throws IOException {
+        MappedFile books = new MappedFile(directory.resolve(BOOKS_FILE), false, chunkBits);
+        MappedFile strings = null;
+        try {
+            strings = new MappedFile(directory.resolve(STRINGS_FILE), false, chunkBits);
+            if (books.fileSize() < HEADER_SIZE || strings.fileSize() < STRINGS_HEADER_SIZE) {
+                throw new IOException("Not a version " + VERSION + " book catalog: " + directory);
+            }
+            books.ensureMapped(books.fileSize());
+            strings.ensureMapped(strings.fileSize());
+            if (books.getInt(0) != MAGIC || books.getInt(4) != VERSION
+                    || strings.getInt(0) != MAGIC || strings.getInt(4) != VERSION) {
+                throw new IOException("Not a version " + VERSION + " book catalog: " + directory);
+            }
+            return new MappedBookCatalog(books, strings, books.getInt(8), books.getInt(12),
+                    books.getInt(COUNT_OFFSET), books.getLong(STRINGS_END_OFFSET));
+        } catch (IOException | RuntimeException e) {
+            closeQuietly(books);
+            closeQuietly(strings);
+            throw e;
+        }
+    }
+
+    /**
+     * Adds a copy of a book to the catalog.
+     *
+     * @throws InvalidInputException if the book has no ISBN, is already in the
+     *         catalog, or the catalog is full
+     * @throws CatalogException if the string heap cannot be extended
+     */
+    public synchronized void addBook(Book book) {
+        if (book == null || book.getIsbn() == null || book.getIsbn().isEmpty()) {
+            throw new InvalidInputException("A catalog book needs an ISBN");
+        }
+        String isbn = book.getIsbn();
+        if (find(isbn) >= 0) {
+            throw new InvalidInputException("Book already in catalog: " + isbn);
+        }
+        int record = count;
+        if (record >= capacity) {
+            throw new InvalidInputException("Catalog is full: capacity " + capacity);
+        }
+        long base = recordOffset(record);
+        books.putLong(base + ISBN, appendString(isbn));
+        books.putLong(base + TITLE, appendString(book.getTitle()));
+        books.putLong(base + AUTHOR, appendString(book.getAuthor()));
+        books.putLong(base + PUBLISHER, appendString(book.getPublisher()));
+        books.putInt(base + YEAR, book.getPublicationYear());
+        books.putInt(base + TOTAL_COPIES, book.getTotalCopies());
+        books.putInt(base + AVAILABLE_COPIES, book.getAvailableCopies());
+        books.putByte(base + CATEGORY, (byte) (book.getCategory() == null ? 0 : book.getCategory().ordinal() + 1));
+
+        int hash = isbn.hashCode();
+        long slot = slotOffset(hash);
+        while (books.getInt(slot + 4) != 0) {
+            slot = nextSlot(slot);
+        }
+        books.putInt(slot, hash);
+        books.putInt(slot + 4, record + 1);
+        books.putInt(COUNT_OFFSET, record + 1);
+        count = record + 1;
+    }
+
+    /**
+     * Finds a book by ISBN.
+     *
+     * @return a view of the catalog record, or null if there is none
+     */
+    @Override
+    public MappedBook findBook(String isbn) {
+        int record = isbn == null ? -1 : find(isbn);
+        return record < 0 ? null : new MappedBook(this, record);
+    }
+
+    /**
+     * Gets the number of books in the catalog.
+     */
+    public int size() {
+        return count;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Writes every change so far through to the storage device.
+     */
+    public synchronized void force() {
+        books.force();
+        strings.force();
+    }
+
+    /**
+     * Writes changes through and closes the files; views must not be used after.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        force();
+        try {
+            books.close();
+        } finally {
+            strings.close();
+        }
+    }
+
+    String readString(int record, int field) {
+        long offset = books.getLong(recordOffset(record) + field);
+        if (offset == 0) {
+            return null;
+        }
+        byte[] bytes = new byte[strings.getInt(offset)];
+        strings.get(offset + 4, bytes, bytes.length);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    synchronized void writeString(int record, int field, String value) {
+        books.putLong(recordOffset(record) + field, appendString(value));
+    }
+
+    int readInt(int record, int field) {
+        return books.getInt(recordOffset(record) + field);
+    }
+
+    void writeInt(int record, int field, int value) {
+        books.putInt(recordOffset(record) + field, value);
+    }
+
+    BookCategory readCategory(int record) {
+        int stored = books.getByte(recordOffset(record) + CATEGORY);
+        return stored == 0 ? null : CATEGORIES[stored - 1];
+    }
+
+    void writeCategory(int record, BookCategory category) {
+        books.putByte(recordOffset(record) + CATEGORY, (byte) (category == null ? 0 : category.ordinal() + 1));
+    }
+
+    /**
+     * Gets the lock guarding a record's copy counts.
+     */
+    Object counterLock(int record) {
+        return counterLocks[record & (COUNTER_LOCKS - 1)];
+    }
+
+    /**
+     * Finds the record of an ISBN among the completed adds, or returns -1.
+     */
+    private int find(String isbn) {
+        int limit = count;
+        int hash = isbn.hashCode();
+        for (long slot = slotOffset(hash); ; slot = nextSlot(slot)) {
+            int stored = books.getInt(slot + 4);
+            if (stored == 0) {
+                return -1;
+            }
+            int record = stored - 1;
+            if (record < limit && books.getInt(slot) == hash && isbnEquals(record, isbn)) {
+                return record;
+            }
+        }
+    }
+
+    /**
+     * Compares a record's ISBN with a string, byte by byte while it is ASCII,
+     * so a lookup does not decode the stored ISBN.
+     */
+    private boolean isbnEquals(int record, String isbn) {
+        long offset = books.getLong(recordOffset(record) + ISBN);
+        int length = strings.getInt(offset);
+        if (length != isbn.length()) {
+            return length > isbn.length() && isbn.equals(readString(record, ISBN));
+        }
+        for (int i = 0; i < length; i++) {
+            byte b = strings.getByte(offset + 4 + i);
+            if (b < 0) {
+                return isbn.equals(readString(record, ISBN));
+            }
+            if (b != isbn.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Appends a string to the heap; caller must hold the catalog monitor.
+     *
+     * @return its offset, or 0 for null
+     */
+    private long appendString(String value) {
+        if (value == null) {
+            return 0;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        long length = 4L + bytes.length;
+        long chunk = strings.chunkSize();
+        if (length > chunk) {
+            throw new InvalidInputException("String too long for the catalog: " + bytes.length + " bytes");
+        }
+        long offset = (stringsEnd + 3) & ~3L;
+        if ((offset & (chunk - 1)) + length > chunk) {
+            offset = (offset + chunk - 1) & -chunk;
+        }
+        long end = offset + length;
+        long mapped = strings.mappedSize();
+        if (end > mapped) {
+            try {
+                strings.ensureMapped(Math.max(end, Math.min(mapped * 2, (mapped & -chunk) + chunk)));
+            } catch (IOException e) {
+                throw new CatalogException("Failed to extend the catalog string heap", e);
+            }
+        }
+        strings.putInt(offset, bytes.length);
+        strings.put(offset + 4, bytes, bytes.length);
+        stringsEnd = end;
+        books.putLong(STRINGS_END_OFFSET, end);
+        return offset;
+    }
+
+    private long recordOffset(int record) {
+        return recordsOffset + (long) record * RECORD_SIZE;
+    }
+
+    private long slotOffset(int hash) {
+        int mixed = hash * 0x9E3779B9;
+        return HEADER_SIZE + (long) ((mixed ^ (mixed >>> 16)) & slotMask) * SLOT_SIZE;
+    }
+
+    private long nextSlot(long slot) {
+        long next = slot + SLOT_SIZE;
+        return next == recordsOffset ? HEADER_SIZE : next;
+    }
+
+    private static void closeQuietly(MappedFile file) {
+        if (file != null) {
+            try {
+                file.close();
+            } catch (IOException e) {
+                // already failing; the original exception is rethrown
+            }
+        }
+    }
+}
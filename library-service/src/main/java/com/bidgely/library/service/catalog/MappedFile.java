@@ -0,0 +1,138 @@
+package com.bidgely.library.service.catalog;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A file mapped read-write as a run of equal, power-of-two sized chunks, so it
+ * may be larger than one {@link MappedByteBuffer} can address.
+ *
+ * <p>Ints and longs must be read and written at offsets aligned to their size,
+ * which keeps each inside one chunk; byte runs must not cross a chunk boundary.
+ * Mapping more of the file publishes a new chunk array, so reads need no lock;
+ * growth must be serialized by the caller.
+ */
+final class MappedFile implements Closeable {
+
+    static final int DEFAULT_CHUNK_BITS = 30;
+
+    private final FileChannel channel;
+    private final int chunkBits;
+    private final long chunkMask;
+    private volatile MappedByteBuffer[] chunks = new MappedByteBuffer[0];
+
+    MappedFile(Path path, boolean create, int chunkBits) throws IOException {
+        this.channel = create
+                ? FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                        StandardOpenOption.WRITE)
+                : FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.chunkBits = chunkBits;
+        this.chunkMask = (1L << chunkBits) - 1;
+    }
+
+    /**
+     * Gets the size of a chunk; byte runs must fit within one.
+     */
+    long chunkSize() {
+        return 1L << chunkBits;
+    }
+
+    /**
+     * Gets the size of the file on disk.
+     */
+    long fileSize() throws IOException {
+        return channel.size();
+    }
+
+    /**
+     * Maps the file up to at least the given size, extending it if needed.
+     */
+    void ensureMapped(long size) throws IOException {
+        MappedByteBuffer[] current = chunks;
+        int needed = (int) ((size + chunkMask) >>> chunkBits);
+        if (size <= mappedSize()) {
+            return;
+        }
+        MappedByteBuffer[] grown = new MappedByteBuffer[needed];
+        System.arraycopy(current, 0, grown, 0, current.length);
+        for (int i = Math.max(0, current.length - 1); i < needed; i++) {
+            long start = (long) i << chunkBits;
+            grown[i] = channel.map(FileChannel.MapMode.READ_WRITE, start, Math.min(chunkSize(), size - start));
+        }
+        chunks = grown;
+    }
+
+    /**
+     * Gets the number of bytes from the start of the file that are mapped.
+     */
+    long mappedSize() {
+        MappedByteBuffer[] current = chunks;
+        return current.length == 0 ? 0
+                : ((long) (current.length - 1) << chunkBits) + current[current.length - 1].capacity();
+    }
+
+    byte getByte(long offset) {
+        return chunk(offset).get((int) (offset & chunkMask));
+    }
+
+    void putByte(long offset, byte value) {
+        chunk(offset).put((int) (offset & chunkMask), value);
+    }
+
+    int getInt(long offset) {
+        return chunk(offset).getInt((int) (offset & chunkMask));
+    }
+
+    void putInt(long offset, int value) {
+        chunk(offset).putInt((int) (offset & chunkMask), value);
+    }
+
+    long getLong(long offset) {
+        return chunk(offset).getLong((int) (offset & chunkMask));
+    }
+
+    void putLong(long offset, long value) {
+        chunk(offset).putLong((int) (offset & chunkMask), value);
+    }
+
+    /**
+     * Copies bytes out of the file; the run must lie within one chunk.
+     */
+    void get(long offset, byte[] target, int length) {
+        ByteBuffer view = chunk(offset).duplicate();
+        view.position((int) (offset & chunkMask));
+        view.get(target, 0, length);
+    }
+
+    /**
+     * Copies bytes into the file; the run must lie within one chunk.
+     */
+    void put(long offset, byte[] source, int length) {
+        ByteBuffer view = chunk(offset).duplicate();
+        view.position((int) (offset & chunkMask));
+        view.put(source, 0, length);
+    }
+
+    /**
+     * Writes changes in the mapped chunks through to the storage device.
+     */
+    void force() {
+        for (MappedByteBuffer chunk : chunks) {
+            chunk.force();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private MappedByteBuffer chunk(long offset) {
+        return chunks[(int) (offset >>> chunkBits)];
+    }
+}
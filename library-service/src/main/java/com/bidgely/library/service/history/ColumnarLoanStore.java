@@ -0,0 +1,286 @@
+package com.bidgely.library.service.history;
+
+import com.bidgely.library.exception.InvalidInputException;
+import com.bidgely.library.model.EpochDays;
+import com.bidgely.library.model.Loan;
+import com.bidgely.library.model.LoanStatus;
+import com.bidgely.library.model.SymbolTable;
+import com.bidgely.library.util.IdGenerator;
+import com.bidgely.library.util.LongIntMap;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Append-only loan history held as parallel primitive columns, for reporting
+ * over tens of millions of loans.
+ *
+ * <p>Each loan is one row across the columns: its numeric loan ID, member and
+ * book (as {@link SymbolTable} handles of the member ID and ISBN),
+ * loan, due and return epoch days, status ordinal and fine (held as a float),
+ * plus the row of the member's previous loan: 37 bytes, and 12 to 24 more in
+ * the loan ID index, where a {@link Loan} object with its ID string and map
+ * entries takes about 160. Scans such as the overdue count read only the
+ * columns they test. Loan IDs that are not in the {@code LOAN-<number>} form
+ * the service generates are kept aside as strings.
+ *
+ * <p>{@link #record(Loan)} appends a loan or, for a loan ID already stored,
+ * overwrites its row with the loan's latest state, so the store can follow a
+ * service (or a journal replay) by recording each loan after every change. The
+ * queries mirror {@link com.bidgely.library.service.LibraryService}'s and build
+ * {@link Loan} objects only for the rows they return. All methods are
+ * synchronized on the store.
+ */
+public class ColumnarLoanStore {
+
+    private static final String LOAN_PREFIX = "LOAN";
+    private static final long TEXT_ID = IdGenerator.NOT_NUMBERED;
+    private static final int NO_ROW = -1;
+    private static final byte NO_STATUS = -1;
+    private static final byte ACTIVE = (byte) LoanStatus.ACTIVE.ordinal();
+    private static final LoanStatus[] STATUSES = LoanStatus.values();
+    private static final int DEFAULT_CAPACITY = 1024;
+
+    private final SymbolTable members = new SymbolTable();
+    private final SymbolTable isbns = new SymbolTable();
+    private final LongIntMap rowsByNumber;
+    private final Map<String, Integer> rowsByTextId = new HashMap<>();
+    private final Map<Integer, String> textIds = new HashMap<>();
+
+    private long[] loanNumber;
+    private int[] memberIndex;
+    private int[] bookIndex;
+    private int[] loanDay;
+    private int[] dueDay;
+    private int[] returnDay;
+    private byte[] status;
+    private float[] fine;
+    private int[] previousOfMember;
+    private int size;
+
+    private int[] lastRowOfMember = new int[DEFAULT_CAPACITY];
+    private int[] activeOfMember = new int[DEFAULT_CAPACITY];
+    private int activeCount;
+
+    public ColumnarLoanStore() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a store with room for the given number of loans before its columns grow.
+     */
+    public ColumnarLoanStore(int expectedLoans) {
+        if (expectedLoans < 0) {
+            throw new InvalidInputException("Expected loan count cannot be negative");
+        }
+        int capacity = Math.max(expectedLoans, 16);
+        loanNumber = new long[capacity];
+        memberIndex = new int[capacity];
+        bookIndex = new int[capacity];
+        loanDay = new int[capacity];
+        dueDay = new int[capacity];
+        returnDay = new int[capacity];
+        status = new byte[capacity];
+        fine = new float[capacity];
+        previousOfMember = new int[capacity];
+        rowsByNumber = new LongIntMap(NO_ROW, capacity);
+    }
+
+    /**
+     * Records a loan's current state: appends it, or updates the row of the
+     * loan with the same ID. A loan keeps the member and book it was first
+     * recorded with.
+     *
+     * @throws InvalidInputException if the loan, its ID, member ID or ISBN is null
+     */
+    public synchronized void record(Loan loan) {
+        if (loan == null || loan.getLoanId() == null || loan.getMemberId() == null || loan.getIsbn() == null) {
+            throw new InvalidInputException("Loan, loan ID, member ID and ISBN are required");
+        }
+        long number = IdGenerator.numberOf(LOAN_PREFIX, loan.getLoanId());
+        int row = number == TEXT_ID ? rowsByTextId.getOrDefault(loan.getLoanId(), NO_ROW) : rowsByNumber.get(number);
+        if (row == NO_ROW) {
+            row = append(loan, number);
+        } else if (status[row] == ACTIVE) {
+            changeActive(memberIndex[row], -1);
+        }
+        loanDay[row] = loan.getLoanDay();
+        dueDay[row] = loan.getDueDay();
+        returnDay[row] = loan.getReturnDay();
+        status[row] = loan.getStatus() == null ? NO_STATUS : (byte) loan.getStatus().ordinal();
+        fine[row] = (float) loan.getFineAmount();
+        if (status[row] == ACTIVE) {
+            changeActive(memberIndex[row], 1);
+        }
+    }
+
+    /**
+     * Records every loan in order; see {@link #record(Loan)}.
+     */
+    public synchronized void recordAll(Iterable<? extends Loan> loans) {
+        for (Loan loan : loans) {
+            record(loan);
+        }
+    }
+
+    /**
+     * Gets the stored state of a loan, or null if it was never recorded.
+     */
+    public synchronized Loan getLoan(String loanId) {
+        if (loanId == null) {
+            return null;
+        }
+        long number = IdGenerator.numberOf(LOAN_PREFIX, loanId);
+        int row = number == TEXT_ID ? rowsByTextId.getOrDefault(loanId, NO_ROW) : rowsByNumber.get(number);
+        return row == NO_ROW ? null : toLoan(row);
+    }
+
+    /**
+     * Gets a member's loans in the order they were first recorded.
+     */
+    public synchronized List<Loan> getLoanHistory(String memberId) {
+        int member = members.find(memberId);
+        if (member < 0) {
+            return new ArrayList<>();
+        }
+        List<Loan> history = new ArrayList<>();
+        for (int row = lastRowOfMember[member]; row != NO_ROW; row = previousOfMember[row]) {
+            history.add(toLoan(row));
+        }
+        Collections.reverse(history);
+        return history;
+    }
+
+    /**
+     * Gets a member's active loans in the order they were first recorded.
+     */
+    public synchronized List<Loan> getActiveLoansByMember(String memberId) {
+        List<Loan> active = getLoanHistory(memberId);
+        active.removeIf(loan -> loan.getStatus() != LoanStatus.ACTIVE);
+        return active;
+    }
+
+    public synchronized int getActiveLoanCount(String memberId) {
+        int member = members.find(memberId);
+        return member < 0 ? 0 : activeOfMember[member];
+    }
+
+    /**
+     * Gets every active loan due before the given date, in recording order.
+     */
+    public synchronized List<Loan> getOverdueLoans(LocalDate asOf) {
+        List<Loan> overdue = new ArrayList<>();
+        if (asOf == null) {
+            return overdue;
+        }
+        int today = EpochDays.of(asOf);
+        for (int row = 0; row < size; row++) {
+            if (isOverdue(row, today)) {
+                overdue.add(toLoan(row));
+            }
+        }
+        return overdue;
+    }
+
+    /**
+     * Counts the active loans due before the given date without building them.
+     */
+    public synchronized int getOverdueLoanCount(LocalDate asOf) {
+        if (asOf == null) {
+            return 0;
+        }
+        int today = EpochDays.of(asOf);
+        int count = 0;
+        for (int row = 0; row < size; row++) {
+            if (isOverdue(row, today)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public synchronized int getTotalActiveLoans() {
+        return activeCount;
+    }
+
+    /**
+     * Gets the number of loans stored.
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    public synchronized int getMemberCount() {
+        return members.size();
+    }
+
+    public synchronized int getBookCount() {
+        return isbns.size();
+    }
+
+    private boolean isOverdue(int row, int today) {
+        return status[row] == ACTIVE && dueDay[row] != EpochDays.NONE && today > dueDay[row];
+    }
+
+    private int append(Loan loan, long number) {
+        if (size == loanNumber.length) {
+            grow();
+        }
+        int row = size++;
+        int knownMembers = members.size();
+        int member = members.intern(loan.getMemberId());
+        if (member == knownMembers) {
+            if (member == lastRowOfMember.length) {
+                int length = lastRowOfMember.length * 2;
+                lastRowOfMember = Arrays.copyOf(lastRowOfMember, length);
+                activeOfMember = Arrays.copyOf(activeOfMember, length);
+            }
+            lastRowOfMember[member] = NO_ROW;
+        }
+        loanNumber[row] = number;
+        if (number == TEXT_ID) {
+            rowsByTextId.put(loan.getLoanId(), row);
+            textIds.put(row, loan.getLoanId());
+        } else {
+            rowsByNumber.put(number, row);
+        }
+        memberIndex[row] = member;
+        bookIndex[row] = isbns.intern(loan.getIsbn());
+        previousOfMember[row] = lastRowOfMember[member];
+        lastRowOfMember[member] = row;
+        return row;
+    }
+
+    private void changeActive(int member, int delta) {
+        activeOfMember[member] += delta;
+        activeCount += delta;
+    }
+
+    private void grow() {
+        int capacity = loanNumber.length + (loanNumber.length >> 1);
+        loanNumber = Arrays.copyOf(loanNumber, capacity);
+        memberIndex = Arrays.copyOf(memberIndex, capacity);
+        bookIndex = Arrays.copyOf(bookIndex, capacity);
+        loanDay = Arrays.copyOf(loanDay, capacity);
+        dueDay = Arrays.copyOf(dueDay, capacity);
+        returnDay = Arrays.copyOf(returnDay, capacity);
+        status = Arrays.copyOf(status, capacity);
+        fine = Arrays.copyOf(fine, capacity);
+        previousOfMember = Arrays.copyOf(previousOfMember, capacity);
+    }
+
+    private Loan toLoan(int row) {
+        String loanId = loanNumber[row] == TEXT_ID ? textIds.get(row) : IdGenerator.formatId(LOAN_PREFIX, loanNumber[row]);
+        Loan loan = new Loan(loanId, members.symbol(memberIndex[row]), isbns.symbol(bookIndex[row]), loanDay[row],
+                dueDay[row]);
+        loan.setReturnDay(returnDay[row]);
+        loan.setStatus(status[row] == NO_STATUS ? null : STATUSES[status[row]]);
+        loan.setFineAmount(fine[row]);
+        return loan;
+    }
+}
@@ -0,0 +1,151 @@
+package com.bidgely.library.service.io;
+
+import com.bidgely.library.exception.InvalidInputException;
+import com.bidgely.library.model.Book;
+import com.bidgely.library.model.Loan;
+import com.bidgely.library.model.Member;
+import com.bidgely.library.model.Reservation;
+import com.bidgely.library.service.LibraryService;
+import com.bidgely.library.service.ReservationService;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Writes books, members, loans and reservations to CSV or JSON Lines files in
+ * the layout {@link CatalogImporter} reads back.
+ *
+ * <p>Each export replaces the target file and returns the number of records written.
+ */
+public class CatalogExporter {
+
+    private final LibraryService libraryService;
+    private final ReservationService reservationService;
+
+    public CatalogExporter(LibraryService libraryService, ReservationService reservationService) {
+        if (libraryService == null) {
+            throw new InvalidInputException("Library service cannot be null");
+        }
+        this.libraryService = libraryService;
+        this.reservationService = reservationService;
+    }
+
+    /**
+     * Exports books, with the format taken from the file extension.
+     */
+    public int exportBooks(Path path) throws IOException {
+        return exportBooks(path, RecordFormat.forPath(path));
+    }
+
+    /**
+     * Exports all books.
+     */
+    public int exportBooks(Path path, RecordFormat format) throws IOException {
+        int count = 0;
+        try (RecordWriter writer = RecordWriter.open(path, format, RecordType.BOOKS)) {
+            for (Book book : libraryService.getAllBooks()) {
+                writer.record()
+                        .string(book.getIsbn())
+                        .string(book.getTitle())
+                        .string(book.getAuthor())
+                        .string(book.getPublisher())
+                        .number(book.getPublicationYear())
+                        .number(book.getTotalCopies())
+                        .enumValue(book.getCategory())
+                        .end();
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Exports members, with the format taken from the file extension.
+     */
+    public int exportMembers(Path path) throws IOException {
+        return exportMembers(path, RecordFormat.forPath(path));
+    }
+
+    /**
+     * Exports all members, active or not.
+     */
+    public int exportMembers(Path path, RecordFormat format) throws IOException {
+        int count = 0;
+        try (RecordWriter writer = RecordWriter.open(path, format, RecordType.MEMBERS)) {
+            for (Member member : libraryService.getAllMembers()) {
+                writer.record()
+                        .string(member.getMemberId())
+                        .string(member.getName())
+                        .string(member.getEmail())
+                        .string(member.getPhoneNumber())
+                        .date(member.getMembershipDate())
+                        .enumValue(member.getMembershipType())
+                        .bool(member.isActive())
+                        .end();
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Exports loans, with the format taken from the file extension.
+     */
+    public int exportLoans(Path path) throws IOException {
+        return exportLoans(path, RecordFormat.forPath(path));
+    }
+
+    /**
+     * Exports every loan, returned or not.
+     */
+    public int exportLoans(Path path, RecordFormat format) throws IOException {
+        int count = 0;
+        try (RecordWriter writer = RecordWriter.open(path, format, RecordType.LOANS)) {
+            for (Loan loan : libraryService.getAllLoans()) {
+                writer.record()
+                        .string(loan.getLoanId())
+                        .string(loan.getMemberId())
+                        .string(loan.getIsbn())
+                        .date(loan.getLoanDate())
+                        .date(loan.getDueDate())
+                        .date(loan.getReturnDate())
+                        .enumValue(loan.getStatus())
+                        .decimal(loan.getFineAmount())
+                        .end();
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Exports reservations, with the format taken from the file extension.
+     */
+    public int exportReservations(Path path) throws IOException {
+        return exportReservations(path, RecordFormat.forPath(path));
+    }
+
+    /**
+     * Exports every reservation in creation order, which keeps hold queues in order on re-import.
+     */
+    public int exportReservations(Path path, RecordFormat format) throws IOException {
+        if (reservationService == null) {
+            throw new InvalidInputException("No reservation service to export from");
+        }
+        int count = 0;
+        try (RecordWriter writer = RecordWriter.open(path, format, RecordType.RESERVATIONS)) {
+            for (Reservation reservation : reservationService.getAllReservations()) {
+                writer.record()
+                        .string(reservation.getReservationId())
+                        .string(reservation.getMemberId())
+                        .string(reservation.getIsbn())
+                        .date(reservation.getReservationDate())
+                        .date(reservation.getExpiryDate())
+                        .enumValue(reservation.getStatus())
+                        .end();
+                count++;
+            }
+        }
+        return count;
+    }
+}
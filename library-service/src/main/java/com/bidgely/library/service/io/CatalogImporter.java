@@ -0,0 +1,229 @@
+package com.bidgely.library.service.io;
+
+import com.bidgely.library.exception.InvalidInputException;
+import com.bidgely.library.exception.LibraryException;
+import com.bidgely.library.model.*;
+import com.bidgely.library.service.BulkLoadReport;
+import com.bidgely.library.service.LibraryService;
+import com.bidgely.library.service.ReservationService;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streams books, members, loans and reservations from CSV or JSON Lines files
+ * into the services.
+ *
+ * <p>Files are read through memory-mapped windows and records are handed over
+ * as they are parsed (books in batches through {@link LibraryService#addBooks}),
+ * so memory use does not grow with the file. Bad records are reported by their
+ * zero-based position in the file, not counting the CSV header, and the import
+ * carries on. Import members and books before the loans and reservations that
+ * refer to them.
+ */
+public class CatalogImporter {
+
+    private static final int DEFAULT_BATCH_SIZE = 10_000;
+
+    private final LibraryService libraryService;
+    private final ReservationService reservationService;
+    private final int batchSize;
+    private final int windowSize;
+
+    public CatalogImporter(LibraryService libraryService, ReservationService reservationService) {
+        this(libraryService, reservationService, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Creates an importer that loads books in batches of the given size.
+     */
+    public CatalogImporter(LibraryService libraryService, ReservationService reservationService, int batchSize) {
+        this(libraryService, reservationService, batchSize, MappedRecordSource.DEFAULT_WINDOW_SIZE);
+    }
+
+    CatalogImporter(LibraryService libraryService, ReservationService reservationService,
+                    int batchSize, int windowSize) {
+        if (libraryService == null) {
+            throw new InvalidInputException("Library service cannot be null");
+        }
+        if (batchSize <= 0) {
+            throw new InvalidInputException("Batch size must be positive");
+        }
+        this.libraryService = libraryService;
+        this.reservationService = reservationService;
+        this.batchSize = batchSize;
+        this.windowSize = windowSize;
+    }
+
+    /**
+     * Imports books, with the format taken from the file extension.
+     */
+    public BulkLoadReport importBooks(Path path) throws IOException {
+        return importBooks(path, RecordFormat.forPath(path));
+    }
+
+    /**
+     * Imports books in batches; a book with an existing ISBN replaces it.
+     */
+    public BulkLoadReport importBooks(Path path, RecordFormat format) throws IOException {
+        List<BulkLoadReport.RecordError> errors = new ArrayList<>();
+        List<Book> batch = new ArrayList<>(batchSize);
+        int[] batchIndexes = new int[batchSize];
+        int accepted = 0;
+        try (RecordReader reader = RecordReader.open(path, format, RecordType.BOOKS, windowSize)) {
+            while (nextRecord(reader, errors)) {
+                Book book;
+                try {
+                    book = new Book(reader.getString(0), reader.getString(1), reader.getString(2),
+                            reader.getString(3), reader.getInt(4), reader.getInt(5),
+                            reader.getEnum(6, BookCategory.class));
+                } catch (InvalidInputException e) {
+                    errors.add(new BulkLoadReport.RecordError(reader.index(), reader.keyOrNull(), e.getMessage()));
+                    continue;
+                }
+                batchIndexes[batch.size()] = reader.index();
+                batch.add(book);
+                if (batch.size() == batchSize) {
+                    accepted += flushBooks(batch, batchIndexes, errors);
+                }
+            }
+        }
+        accepted += flushBooks(batch, batchIndexes, errors);
+        return new BulkLoadReport(accepted, errors);
+    }
+
+    /**
+     * Imports members, with the format taken from the file extension.
+     */
+    public BulkLoadReport importMembers(Path path) throws IOException {
+        return importMembers(path, RecordFormat.forPath(path));
+    }
+
+    /**
+     * Imports members; a member with an existing ID replaces it.
+     */
+    public BulkLoadReport importMembers(Path path, RecordFormat format) throws IOException {
+        List<BulkLoadReport.RecordError> errors = new ArrayList<>();
+        int accepted = 0;
+        try (RecordReader reader = RecordReader.open(path, format, RecordType.MEMBERS, windowSize)) {
+            while (nextRecord(reader, errors)) {
+                try {
+                    Member member = new Member(reader.getString(0), reader.getString(1), reader.getString(2),
+                            reader.getString(3), reader.getDate(4),
+                            reader.require(5, reader.getEnum(5, MembershipType.class)));
+                    if (!reader.isNull(6)) {
+                        member.setActive(reader.getBoolean(6));
+                    }
+                    libraryService.registerMember(member);
+                    accepted++;
+                } catch (LibraryException e) {
+                    errors.add(new BulkLoadReport.RecordError(reader.index(), reader.keyOrNull(), e.getMessage()));
+                }
+            }
+        }
+        return new BulkLoadReport(accepted, errors);
+    }
+
+    /**
+     * Imports loans, with the format taken from the file extension.
+     */
+    public BulkLoadReport importLoans(Path path) throws IOException {
+        return importLoans(path, RecordFormat.forPath(path));
+    }
+
+    /**
+     * Restores loans; see {@link LibraryService#restoreLoan(Loan)}.
+     */
+    public BulkLoadReport importLoans(Path path, RecordFormat format) throws IOException {
+        List<BulkLoadReport.RecordError> errors = new ArrayList<>();
+        int accepted = 0;
+        try (RecordReader reader = RecordReader.open(path, format, RecordType.LOANS, windowSize)) {
+            while (nextRecord(reader, errors)) {
+                try {
+                    Loan loan = new Loan(reader.getString(0), reader.getString(1), reader.getString(2),
+                            reader.getDate(3), reader.getDate(4));
+                    loan.setReturnDate(reader.getDate(5));
+                    LoanStatus status = reader.getEnum(6, LoanStatus.class);
+                    if (status != null) {
+                        loan.setStatus(status);
+                    }
+                    if (!reader.isNull(7)) {
+                        loan.setFineAmount(reader.getDouble(7));
+                    }
+                    libraryService.restoreLoan(loan);
+                    accepted++;
+                } catch (LibraryException e) {
+                    errors.add(new BulkLoadReport.RecordError(reader.index(), reader.keyOrNull(), e.getMessage()));
+                }
+            }
+        }
+        return new BulkLoadReport(accepted, errors);
+    }
+
+    /**
+     * Imports reservations, with the format taken from the file extension.
+     */
+    public BulkLoadReport importReservations(Path path) throws IOException {
+        return importReservations(path, RecordFormat.forPath(path));
+    }
+
+    /**
+     * Restores reservations; see {@link ReservationService#restoreReservation(Reservation)}.
+     */
+    public BulkLoadReport importReservations(Path path, RecordFormat format) throws IOException {
+        if (reservationService == null) {
+            throw new InvalidInputException("No reservation service to import into");
+        }
+        List<BulkLoadReport.RecordError> errors = new ArrayList<>();
+        int accepted = 0;
+        try (RecordReader reader = RecordReader.open(path, format, RecordType.RESERVATIONS, windowSize)) {
+            while (nextRecord(reader, errors)) {
+                try {
+                    Reservation reservation = new Reservation(reader.getString(0), reader.getString(1),
+                            reader.getString(2), reader.require(3, reader.getDate(3)));
+                    if (!reader.isNull(4)) {
+                        reservation.setExpiryDate(reader.getDate(4));
+                    }
+                    Reservation.ReservationStatus status = reader.getEnum(5, Reservation.ReservationStatus.class);
+                    if (status != null) {
+                        reservation.setStatus(status);
+                    }
+                    reservationService.restoreReservation(reservation);
+                    accepted++;
+                } catch (LibraryException e) {
+                    errors.add(new BulkLoadReport.RecordError(reader.index(), reader.keyOrNull(), e.getMessage()));
+                }
+            }
+        }
+        return new BulkLoadReport(accepted, errors);
+    }
+
+    /**
+     * Advances the reader, recording malformed records as errors and skipping them.
+     */
+    private static boolean nextRecord(RecordReader reader, List<BulkLoadReport.RecordError> errors)
+            throws IOException {
+        while (true) {
+            try {
+                return reader.next();
+            } catch (InvalidInputException e) {
+                errors.add(new BulkLoadReport.RecordError(reader.index(), reader.keyOrNull(), e.getMessage()));
+            }
+        }
+    }
+
+    private int flushBooks(List<Book> batch, int[] batchIndexes, List<BulkLoadReport.RecordError> errors) {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        BulkLoadReport report = libraryService.addBooks(batch);
+        for (BulkLoadReport.RecordError error : report.getErrors()) {
+            errors.add(new BulkLoadReport.RecordError(batchIndexes[error.getIndex()], error.getKey(),
+                    error.getMessage()));
+        }
+        batch.clear();
+        return report.getAcceptedCount();
+    }
+}
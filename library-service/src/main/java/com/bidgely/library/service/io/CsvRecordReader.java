@@ -0,0 +1,110 @@
+package com.bidgely.library.service.io;
+
+import com.bidgely.library.exception.InvalidInputException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reads RFC 4180 CSV with a header row naming the columns.
+ *
+ * <p>Quoted fields may contain commas, newlines and doubled quotes. An empty
+ * unquoted field is null; {@code ""} is the empty string.
+ */
+final class CsvRecordReader extends RecordReader {
+
+    private final int[] columnAt;
+
+    CsvRecordReader(RecordType type, MappedRecordSource source) throws IOException {
+        super(type, source);
+        if (!source.next()) {
+            throw new InvalidInputException("Missing CSV header");
+        }
+        String[] header = splitHeader(source.buffer(), source.start(), source.end());
+        columnAt = new int[header.length];
+        for (int i = 0; i < header.length; i++) {
+            columnAt[i] = type.indexOf(header[i].trim());
+        }
+    }
+
+    @Override
+    protected void parse(ByteBuffer buffer, int start, int end) {
+        int position = 0;
+        int i = start;
+        while (true) {
+            int fieldEnd;
+            if (i < end && buffer.get(i) == '"') {
+                int j = i + 1;
+                boolean escaped = false;
+                while (true) {
+                    if (j >= end) {
+                        throw malformed("unterminated quoted field");
+                    }
+                    if (buffer.get(j) == '"') {
+                        if (j + 1 < end && buffer.get(j + 1) == '"') {
+                            escaped = true;
+                            j += 2;
+                            continue;
+                        }
+                        break;
+                    }
+                    j++;
+                }
+                store(position, i + 1, j, escaped);
+                fieldEnd = j + 1;
+                if (fieldEnd < end && buffer.get(fieldEnd) != ',') {
+                    throw malformed("unexpected character after quoted field");
+                }
+            } else {
+                fieldEnd = i;
+                while (fieldEnd < end && buffer.get(fieldEnd) != ',') {
+                    fieldEnd++;
+                }
+                if (fieldEnd > i) {
+                    store(position, i, fieldEnd, false);
+                }
+            }
+            position++;
+            if (fieldEnd >= end) {
+                return;
+            }
+            i = fieldEnd + 1;
+        }
+    }
+
+    @Override
+    protected int unescape(ByteBuffer buffer, int start, int end) {
+        byte[] out = scratch(end - start);
+        int length = 0;
+        for (int i = start; i < end; i++) {
+            byte b = buffer.get(i);
+            out[length++] = b;
+            if (b == '"') {
+                i++;
+            }
+        }
+        return length;
+    }
+
+    private void store(int position, int start, int end, boolean escaped) {
+        if (position < columnAt.length && columnAt[position] >= 0) {
+            setField(columnAt[position], start, end, escaped);
+        }
+    }
+
+    private String[] splitHeader(ByteBuffer buffer, int start, int end) {
+        byte[] bytes = new byte[end - start];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = buffer.get(start + i);
+        }
+        String[] names = new String(bytes, StandardCharsets.UTF_8).split(",", -1);
+        for (int i = 0; i < names.length; i++) {
+            String name = names[i].trim();
+            if (name.length() >= 2 && name.startsWith("\"") && name.endsWith("\"")) {
+                names[i] = name.substring(1, name.length() - 1);
+            }
+        }
+        return names;
+    }
+}
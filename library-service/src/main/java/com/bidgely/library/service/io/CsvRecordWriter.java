@@ -0,0 +1,81 @@
+package com.bidgely.library.service.io;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Writes RFC 4180 CSV with a header row. Null is written as an empty field and
+ * text is quoted when it is empty or contains a comma, quote or line break.
+ */
+final class CsvRecordWriter extends RecordWriter {
+
+    CsvRecordWriter(RecordType type, Writer out) {
+        super(type, out);
+    }
+
+    @Override
+    protected void writeHeader() throws IOException {
+        for (int i = 0; i < type.columnCount(); i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            out.write(type.column(i));
+        }
+        out.write('\n');
+    }
+
+    @Override
+    protected void beginRecord() {
+        // Fields carry their own separators
+    }
+
+    @Override
+    protected void endRecord() throws IOException {
+        out.write('\n');
+    }
+
+    @Override
+    protected void writeToken(String token) throws IOException {
+        separate();
+        if (token != null) {
+            out.write(token);
+        }
+    }
+
+    @Override
+    protected void writeText(String value) throws IOException {
+        separate();
+        if (!needsQuotes(value)) {
+            out.write(value);
+            return;
+        }
+        out.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                out.write('"');
+            }
+            out.write(c);
+        }
+        out.write('"');
+    }
+
+    private void separate() throws IOException {
+        if (column > 0) {
+            out.write(',');
+        }
+    }
+
+    private static boolean needsQuotes(String value) {
+        if (value.isEmpty()) {
+            return true;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,216 @@
+package com.bidgely.library.service.io;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reads JSON Lines where every line is a flat object of strings, numbers,
+ * booleans and nulls. Keys are matched to columns byte by byte; unknown keys are
+ * ignored and missing keys read as null.
+ */
+final class JsonLinesRecordReader extends RecordReader {
+
+    private final byte[][] keys;
+
+    JsonLinesRecordReader(RecordType type, MappedRecordSource source) {
+        super(type, source);
+        keys = new byte[type.columnCount()][];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = type.column(i).getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    @Override
+    protected void parse(ByteBuffer buffer, int start, int end) {
+        int i = skipWhitespace(buffer, start, end);
+        if (i >= end || buffer.get(i) != '{') {
+            throw malformed("expected '{'");
+        }
+        i = skipWhitespace(buffer, i + 1, end);
+        if (i < end && buffer.get(i) == '}') {
+            return;
+        }
+        while (true) {
+            if (i >= end || buffer.get(i) != '"') {
+                throw malformed("expected a key");
+            }
+            int keyStart = i + 1;
+            int keyEnd = endOfString(buffer, keyStart, end);
+            int column = columnOf(buffer, keyStart, keyEnd);
+
+            i = skipWhitespace(buffer, keyEnd + 1, end);
+            if (i >= end || buffer.get(i) != ':') {
+                throw malformed("expected ':'");
+            }
+            i = skipWhitespace(buffer, i + 1, end);
+            if (i >= end) {
+                throw malformed("missing value");
+            }
+
+            byte first = buffer.get(i);
+            if (first == '"') {
+                int valueEnd = endOfString(buffer, i + 1, end);
+                if (column >= 0) {
+                    setField(column, i + 1, valueEnd, containsBackslash(buffer, i + 1, valueEnd));
+                }
+                i = valueEnd + 1;
+            } else if (first == '{' || first == '[') {
+                throw malformed("nested values are not supported");
+            } else {
+                int valueEnd = i;
+                while (valueEnd < end) {
+                    byte b = buffer.get(valueEnd);
+                    if (b == ',' || b == '}' || b == ' ' || b == '\t') {
+                        break;
+                    }
+                    valueEnd++;
+                }
+                if (column >= 0 && !isNullLiteral(buffer, i, valueEnd)) {
+                    setField(column, i, valueEnd, false);
+                }
+                i = valueEnd;
+            }
+
+            i = skipWhitespace(buffer, i, end);
+            if (i < end && buffer.get(i) == ',') {
+                i = skipWhitespace(buffer, i + 1, end);
+            } else if (i < end && buffer.get(i) == '}') {
+                return;
+            } else {
+                throw malformed("expected ',' or '}'");
+            }
+        }
+    }
+
+    @Override
+    protected int unescape(ByteBuffer buffer, int start, int end) {
+        byte[] out = scratch(end - start);
+        int length = 0;
+        for (int i = start; i < end; i++) {
+            byte b = buffer.get(i);
+            if (b != '\\') {
+                out[length++] = b;
+                continue;
+            }
+            byte escape = buffer.get(++i);
+            switch (escape) {
+                case 'n':
+                    out[length++] = '\n';
+                    break;
+                case 't':
+                    out[length++] = '\t';
+                    break;
+                case 'r':
+                    out[length++] = '\r';
+                    break;
+                case 'b':
+                    out[length++] = '\b';
+                    break;
+                case 'f':
+                    out[length++] = '\f';
+                    break;
+                case 'u':
+                    int codePoint = hex(buffer, i + 1, end);
+                    i += 4;
+                    if (Character.isHighSurrogate((char) codePoint) && i + 6 < end
+                            && buffer.get(i + 1) == '\\' && buffer.get(i + 2) == 'u') {
+                        int low = hex(buffer, i + 3, end);
+                        if (Character.isLowSurrogate((char) low)) {
+                            codePoint = Character.toCodePoint((char) codePoint, (char) low);
+                            i += 6;
+                        }
+                    }
+                    length = encodeUtf8(out, length, codePoint);
+                    break;
+                default:
+                    out[length++] = escape;
+            }
+        }
+        return length;
+    }
+
+    private int columnOf(ByteBuffer buffer, int start, int end) {
+        for (int c = 0; c < keys.length; c++) {
+            byte[] key = keys[c];
+            if (key.length != end - start) {
+                continue;
+            }
+            int k = 0;
+            while (k < key.length && buffer.get(start + k) == key[k]) {
+                k++;
+            }
+            if (k == key.length) {
+                return c;
+            }
+        }
+        return -1;
+    }
+
+    private int endOfString(ByteBuffer buffer, int from, int end) {
+        for (int i = from; i < end; i++) {
+            byte b = buffer.get(i);
+            if (b == '\\') {
+                i++;
+            } else if (b == '"') {
+                return i;
+            }
+        }
+        throw malformed("unterminated string");
+    }
+
+    private int hex(ByteBuffer buffer, int from, int end) {
+        if (from + 4 > end) {
+            throw malformed("truncated \\u escape");
+        }
+        int value = 0;
+        for (int i = from; i < from + 4; i++) {
+            int digit = Character.digit(buffer.get(i), 16);
+            if (digit < 0) {
+                throw malformed("invalid \\u escape");
+            }
+            value = value * 16 + digit;
+        }
+        return value;
+    }
+
+    private static int encodeUtf8(byte[] out, int length, int codePoint) {
+        if (codePoint < 0x80) {
+            out[length++] = (byte) codePoint;
+        } else if (codePoint < 0x800) {
+            out[length++] = (byte) (0xC0 | (codePoint >> 6));
+            out[length++] = (byte) (0x80 | (codePoint & 0x3F));
+        } else if (codePoint < 0x10000) {
+            out[length++] = (byte) (0xE0 | (codePoint >> 12));
+            out[length++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+            out[length++] = (byte) (0x80 | (codePoint & 0x3F));
+        } else {
+            out[length++] = (byte) (0xF0 | (codePoint >> 18));
+            out[length++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+            out[length++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+            out[length++] = (byte) (0x80 | (codePoint & 0x3F));
+        }
+        return length;
+    }
+
+    private static boolean containsBackslash(ByteBuffer buffer, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (buffer.get(i) == '\\') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isNullLiteral(ByteBuffer buffer, int start, int end) {
+        return end - start == 4 && buffer.get(start) == 'n' && buffer.get(start + 1) == 'u'
+                && buffer.get(start + 2) == 'l' && buffer.get(start + 3) == 'l';
+    }
+
+    private static int skipWhitespace(ByteBuffer buffer, int from, int end) {
+        int i = from;
+        while (i < end && (buffer.get(i) == ' ' || buffer.get(i) == '\t')) {
+            i++;
+        }
+        return i;
+    }
+}
@@ -0,0 +1,81 @@
+package com.bidgely.library.service.io;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Writes one flat JSON object per line, keyed by column name.
+ */
+final class JsonLinesRecordWriter extends RecordWriter {
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    JsonLinesRecordWriter(RecordType type, Writer out) {
+        super(type, out);
+    }
+
+    @Override
+    protected void writeHeader() {
+        // JSON Lines records are self-describing
+    }
+
+    @Override
+    protected void beginRecord() throws IOException {
+        out.write('{');
+    }
+
+    @Override
+    protected void endRecord() throws IOException {
+        out.write("}\n");
+    }
+
+    @Override
+    protected void writeToken(String token) throws IOException {
+        writeKey();
+        out.write(token == null ? "null" : token);
+    }
+
+    @Override
+    protected void writeText(String value) throws IOException {
+        writeKey();
+        out.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    out.write("\\\"");
+                    break;
+                case '\\':
+                    out.write("\\\\");
+                    break;
+                case '\n':
+                    out.write("\\n");
+                    break;
+                case '\r':
+                    out.write("\\r");
+                    break;
+                case '\t':
+                    out.write("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        out.write("\\u00");
+                        out.write(HEX[c >> 4]);
+                        out.write(HEX[c & 0xF]);
+                    } else {
+                        out.write(c);
+                    }
+            }
+        }
+        out.write('"');
+    }
+
+    private void writeKey() throws IOException {
+        if (column > 0) {
+            out.write(',');
+        }
+        out.write('"');
+        out.write(type.column(column));
+        out.write("\":");
+    }
+}
@@ -0,0 +1,117 @@
+package com.bidgely.library.service.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Splits a file into newline-terminated records read through a sliding
+ * memory-mapped window, so files of any size are read with bounded memory and
+ * without copying into a heap buffer.
+ *
+ * <p>A record ends at {@code \n} (a preceding {@code \r} is dropped); blank
+ * records are skipped and a UTF-8 byte order mark is ignored. With
+ * {@code quotedNewlines}, newlines inside double quotes belong to the record,
+ * as CSV requires. A record must fit in one window.
+ */
+final class MappedRecordSource implements Closeable {
+
+    static final int DEFAULT_WINDOW_SIZE = 64 << 20;
+
+    private final FileChannel channel;
+    private final long size;
+    private final int windowSize;
+    private final boolean quotedNewlines;
+    private MappedByteBuffer window;
+    private long windowOffset;
+    private int position;
+    private int recordStart;
+    private int recordEnd;
+
+    MappedRecordSource(Path path, boolean quotedNewlines, int windowSize) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        this.size = channel.size();
+        this.windowSize = windowSize;
+        this.quotedNewlines = quotedNewlines;
+        remap(0);
+        if (window.limit() >= 3 && (window.get(0) & 0xFF) == 0xEF
+                && (window.get(1) & 0xFF) == 0xBB && (window.get(2) & 0xFF) == 0xBF) {
+            position = 3;
+        }
+    }
+
+    /**
+     * Advances to the next non-blank record.
+     *
+     * @return false at end of file
+     */
+    boolean next() throws IOException {
+        while (windowOffset + position < size) {
+            if (position >= window.limit()) {
+                remap(windowOffset + position);
+            }
+            int end = findRecordEnd(position);
+            if (end < 0) {
+                if (windowOffset + window.limit() < size) {
+                    if (position == 0) {
+                        throw new IOException("Record at offset " + windowOffset + " exceeds " + windowSize + " bytes");
+                    }
+                    remap(windowOffset + position);
+                    continue;
+                }
+                end = window.limit();
+            }
+            recordStart = position;
+            recordEnd = end > recordStart && window.get(end - 1) == '\r' ? end - 1 : end;
+            position = end + 1;
+            if (recordEnd > recordStart) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Gets the window holding the current record.
+     */
+    MappedByteBuffer buffer() {
+        return window;
+    }
+
+    int start() {
+        return recordStart;
+    }
+
+    int end() {
+        return recordEnd;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private int findRecordEnd(int from) {
+        boolean inQuotes = false;
+        int limit = window.limit();
+        for (int i = from; i < limit; i++) {
+            byte b = window.get(i);
+            if (b == '\n' && !inQuotes) {
+                return i;
+            }
+            if (b == '"' && quotedNewlines) {
+                inQuotes = !inQuotes;
+            }
+        }
+        return -1;
+    }
+
+    private void remap(long offset) throws IOException {
+        windowOffset = offset;
+        position = 0;
+        window = channel.map(FileChannel.MapMode.READ_ONLY, offset, Math.min(windowSize, size - offset));
+    }
+}
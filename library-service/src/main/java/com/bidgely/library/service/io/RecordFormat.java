@@ -0,0 +1,29 @@
+package com.bidgely.library.service.io;
+
+import com.bidgely.library.exception.InvalidInputException;
+
+import java.nio.file.Path;
+
+/**
+ * Flat-file formats for catalog import and export.
+ */
+public enum RecordFormat {
+    /** RFC 4180 CSV with a header row. An empty unquoted field is null. */
+    CSV,
+    /** One flat JSON object per line. */
+    JSON_LINES;
+
+    /**
+     * Picks the format from a file extension: .csv, or .jsonl / .ndjson.
+     */
+    public static RecordFormat forPath(Path path) {
+        String name = path.getFileName().toString().toLowerCase();
+        if (name.endsWith(".csv")) {
+            return CSV;
+        }
+        if (name.endsWith(".jsonl") || name.endsWith(".ndjson")) {
+            return JSON_LINES;
+        }
+        throw new InvalidInputException("Cannot infer record format from file name: " + name);
+    }
+}
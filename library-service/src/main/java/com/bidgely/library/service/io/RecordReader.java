@@ -0,0 +1,295 @@
+package com.bidgely.library.service.io;
+
+import com.bidgely.library.exception.InvalidInputException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Reads typed fields of one record at a time from a {@link MappedRecordSource}.
+ *
+ * <p>Parsing a record only records where each column's bytes lie in the mapped
+ * window. Numbers, dates, booleans and enum constants are decoded straight from
+ * those bytes; a String is created only when a text column is requested.
+ */
+abstract class RecordReader implements Closeable {
+
+    private static final Map<Class<?>, byte[][]> ENUM_NAMES = new HashMap<>();
+    private static final byte[] TRUE = "true".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] FALSE = "false".getBytes(StandardCharsets.US_ASCII);
+
+    protected final RecordType type;
+    protected final MappedRecordSource source;
+    private final int[] fieldStart;
+    private final int[] fieldEnd;
+    private final boolean[] fieldEscaped;
+    private byte[] scratch = new byte[256];
+    private int index = -1;
+
+    protected RecordReader(RecordType type, MappedRecordSource source) {
+        this.type = type;
+        this.source = source;
+        this.fieldStart = new int[type.columnCount()];
+        this.fieldEnd = new int[type.columnCount()];
+        this.fieldEscaped = new boolean[type.columnCount()];
+    }
+
+    /**
+     * Opens a reader for the given format.
+     */
+    static RecordReader open(Path path, RecordFormat format, RecordType type, int windowSize) throws IOException {
+        if (format == RecordFormat.CSV) {
+            return new CsvRecordReader(type, new MappedRecordSource(path, true, windowSize));
+        }
+        return new JsonLinesRecordReader(type, new MappedRecordSource(path, false, windowSize));
+    }
+
+    /**
+     * Advances to the next record.
+     *
+     * @return false at end of input
+     * @throws InvalidInputException if the record is malformed; the reader has
+     *         still advanced past it
+     */
+    boolean next() throws IOException {
+        if (!source.next()) {
+            return false;
+        }
+        index++;
+        Arrays.fill(fieldStart, -1);
+        parse(source.buffer(), source.start(), source.end());
+        return true;
+    }
+
+    /**
+     * Gets the zero-based position of the current record, not counting any header.
+     */
+    int index() {
+        return index;
+    }
+
+    /**
+     * Returns a value read from a column, or fails if the column was null.
+     */
+    <T> T require(int column, T value) {
+        if (value == null) {
+            throw new InvalidInputException("Missing value for " + type.column(column));
+        }
+        return value;
+    }
+
+    /**
+     * Splits the record in {@code [start, end)} into fields via {@link #setField}.
+     */
+    protected abstract void parse(ByteBuffer buffer, int start, int end);
+
+    /**
+     * Decodes a field whose bytes contain format-specific escapes into UTF-8 bytes.
+     *
+     * @return the number of bytes written to the scratch array
+     */
+    protected abstract int unescape(ByteBuffer buffer, int start, int end);
+
+    protected void setField(int column, int start, int end, boolean escaped) {
+        fieldStart[column] = start;
+        fieldEnd[column] = end;
+        fieldEscaped[column] = escaped;
+    }
+
+    boolean isNull(int column) {
+        return fieldStart[column] < 0;
+    }
+
+    String getString(int column) {
+        if (isNull(column)) {
+            return null;
+        }
+        ByteBuffer buffer = source.buffer();
+        int start = fieldStart[column];
+        int end = fieldEnd[column];
+        if (fieldEscaped[column]) {
+            int length = unescape(buffer, start, end);
+            return new String(scratch, 0, length, StandardCharsets.UTF_8);
+        }
+        int length = end - start;
+        byte[] bytes = scratch(length);
+        boolean ascii = true;
+        for (int i = 0; i < length; i++) {
+            byte b = buffer.get(start + i);
+            bytes[i] = b;
+            ascii &= b >= 0;
+        }
+        return new String(bytes, 0, length, ascii ? StandardCharsets.ISO_8859_1 : StandardCharsets.UTF_8);
+    }
+
+    int getInt(int column) {
+        long value = getLong(column);
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            throw invalid(column);
+        }
+        return (int) value;
+    }
+
+    long getLong(int column) {
+        requireValue(column);
+        ByteBuffer buffer = source.buffer();
+        int i = fieldStart[column];
+        int end = fieldEnd[column];
+        boolean negative = i < end && buffer.get(i) == '-';
+        if (negative) {
+            i++;
+        }
+        if (i == end || end - i > 18) {
+            throw invalid(column);
+        }
+        long value = 0;
+        for (; i < end; i++) {
+            int digit = buffer.get(i) - '0';
+            if (digit < 0 || digit > 9) {
+                throw invalid(column);
+            }
+            value = value * 10 + digit;
+        }
+        return negative ? -value : value;
+    }
+
+    double getDouble(int column) {
+        requireValue(column);
+        String text = getString(column);
+        try {
+            return Double.parseDouble(text);
+        } catch (NumberFormatException e) {
+            throw invalid(column);
+        }
+    }
+
+    boolean getBoolean(int column) {
+        requireValue(column);
+        if (fieldEquals(column, TRUE)) {
+            return true;
+        }
+        if (fieldEquals(column, FALSE)) {
+            return false;
+        }
+        throw invalid(column);
+    }
+
+    /**
+     * Parses an ISO {@code yyyy-MM-dd} date, or returns null for a null field.
+     */
+    LocalDate getDate(int column) {
+        if (isNull(column)) {
+            return null;
+        }
+        ByteBuffer buffer = source.buffer();
+        int start = fieldStart[column];
+        if (fieldEnd[column] - start != 10 || buffer.get(start + 4) != '-' || buffer.get(start + 7) != '-') {
+            throw invalid(column);
+        }
+        try {
+            return LocalDate.of(digits(buffer, start, 4, column), digits(buffer, start + 5, 2, column),
+                    digits(buffer, start + 8, 2, column));
+        } catch (java.time.DateTimeException e) {
+            throw invalid(column);
+        }
+    }
+
+    /**
+     * Matches the field against the enum's constant names, or returns null for a null field.
+     */
+    <E extends Enum<E>> E getEnum(int column, Class<E> enumType) {
+        if (isNull(column)) {
+            return null;
+        }
+        byte[][] names = enumNames(enumType);
+        for (int i = 0; i < names.length; i++) {
+            if (fieldEquals(column, names[i])) {
+                return enumType.getEnumConstants()[i];
+            }
+        }
+        throw invalid(column);
+    }
+
+    /**
+     * Gets the first column as text for error reports, or null if it cannot be read.
+     */
+    String keyOrNull() {
+        try {
+            return getString(0);
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    protected byte[] scratch(int capacity) {
+        if (scratch.length < capacity) {
+            scratch = new byte[Math.max(capacity, scratch.length * 2)];
+        }
+        return scratch;
+    }
+
+    protected InvalidInputException malformed(String reason) {
+        return new InvalidInputException("Malformed " + type.name().toLowerCase() + " record: " + reason);
+    }
+
+    @Override
+    public void close() throws IOException {
+        source.close();
+    }
+
+    private boolean fieldEquals(int column, byte[] expected) {
+        int start = fieldStart[column];
+        if (fieldEscaped[column] || fieldEnd[column] - start != expected.length) {
+            return false;
+        }
+        ByteBuffer buffer = source.buffer();
+        for (int i = 0; i < expected.length; i++) {
+            if (buffer.get(start + i) != expected[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int digits(ByteBuffer buffer, int start, int count, int column) {
+        int value = 0;
+        for (int i = start; i < start + count; i++) {
+            int digit = buffer.get(i) - '0';
+            if (digit < 0 || digit > 9) {
+                throw invalid(column);
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private void requireValue(int column) {
+        if (isNull(column)) {
+            throw new InvalidInputException("Missing value for " + type.column(column));
+        }
+    }
+
+    private InvalidInputException invalid(int column) {
+        return new InvalidInputException("Invalid value for " + type.column(column) + ": " + getString(column));
+    }
+
+    private static byte[][] enumNames(Class<? extends Enum<?>> enumType) {
+        synchronized (ENUM_NAMES) {
+            return ENUM_NAMES.computeIfAbsent(enumType, t -> {
+                Enum<?>[] constants = enumType.getEnumConstants();
+                byte[][] names = new byte[constants.length][];
+                for (int i = 0; i < constants.length; i++) {
+                    names[i] = constants[i].name().getBytes(StandardCharsets.US_ASCII);
+                }
+                return names;
+            });
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.bidgely.library.service.io;
+
+/**
+ * Record types understood by the importer and exporter, with their column names.
+ *
+ * <p>The column names are the CSV header and the JSON Lines keys. Column order
+ * only matters on export; on import CSV columns are matched by header name and
+ * unknown columns are ignored.
+ */
+public enum RecordType {
+    BOOKS("isbn", "title", "author", "publisher", "publicationYear", "totalCopies", "category"),
+    MEMBERS("memberId", "name", "email", "phoneNumber", "membershipDate", "membershipType", "active"),
+    LOANS("loanId", "memberId", "isbn", "loanDate", "dueDate", "returnDate", "status", "fineAmount"),
+    RESERVATIONS("reservationId", "memberId", "isbn", "reservationDate", "expiryDate", "status");
+
+    private final String[] columns;
+
+    RecordType(String... columns) {
+        this.columns = columns;
+    }
+
+    /**
+     * Gets the column names in export order; the first column is the record's key.
+     */
+    public String[] getColumns() {
+        return columns.clone();
+    }
+
+    int columnCount() {
+        return columns.length;
+    }
+
+    String column(int index) {
+        return columns[index];
+    }
+
+    int indexOf(String column) {
+        for (int i = 0; i < columns.length; i++) {
+            if (columns[i].equals(column)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
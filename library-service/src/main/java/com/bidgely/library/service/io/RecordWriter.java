@@ -0,0 +1,104 @@
+package com.bidgely.library.service.io;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+/**
+ * Streams records out one field at a time, in {@link RecordType} column order.
+ */
+abstract class RecordWriter implements Closeable {
+
+    protected final RecordType type;
+    protected final Writer out;
+    protected int column;
+
+    protected RecordWriter(RecordType type, Writer out) {
+        this.type = type;
+        this.out = out;
+    }
+
+    /**
+     * Creates the file (replacing any existing one) and opens a writer for the given format.
+     */
+    static RecordWriter open(Path path, RecordFormat format, RecordType type) throws IOException {
+        BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8);
+        RecordWriter recordWriter = format == RecordFormat.CSV
+                ? new CsvRecordWriter(type, writer)
+                : new JsonLinesRecordWriter(type, writer);
+        recordWriter.writeHeader();
+        return recordWriter;
+    }
+
+    protected abstract void writeHeader() throws IOException;
+
+    protected abstract void beginRecord() throws IOException;
+
+    protected abstract void endRecord() throws IOException;
+
+    /**
+     * Writes a field that is either null or a raw token (number, boolean, date, enum name).
+     */
+    protected abstract void writeToken(String token) throws IOException;
+
+    protected abstract void writeText(String value) throws IOException;
+
+    RecordWriter record() throws IOException {
+        column = 0;
+        beginRecord();
+        return this;
+    }
+
+    void end() throws IOException {
+        endRecord();
+    }
+
+    RecordWriter string(String value) throws IOException {
+        if (value == null) {
+            writeToken(null);
+        } else {
+            writeText(value);
+        }
+        column++;
+        return this;
+    }
+
+    RecordWriter number(long value) throws IOException {
+        writeToken(Long.toString(value));
+        column++;
+        return this;
+    }
+
+    RecordWriter decimal(double value) throws IOException {
+        writeToken(Double.toString(value));
+        column++;
+        return this;
+    }
+
+    RecordWriter bool(boolean value) throws IOException {
+        writeToken(value ? "true" : "false");
+        column++;
+        return this;
+    }
+
+    /**
+     * Writes an ISO {@code yyyy-MM-dd} date as text, or null.
+     */
+    RecordWriter date(LocalDate value) throws IOException {
+        return string(value == null ? null : value.toString());
+    }
+
+    RecordWriter enumValue(Enum<?> value) throws IOException {
+        return string(value == null ? null : value.name());
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+}
@@ -0,0 +1,23 @@
+package com.bidgely.library.service.journal;
+
+/**
+ * When a {@link Journal} forces written changes to the storage device.
+ */
+public enum FsyncPolicy {
+    /**
+     * Every change is forced before the service call returns. Concurrent callers
+     * share a single force (group commit), so throughput grows with concurrency.
+     */
+    EVERY_OP,
+    /**
+     * Changes are written before the call returns and forced every interval; a
+     * power failure can lose up to one interval of changes.
+     */
+    INTERVAL,
+    /**
+     * Changes are written before the call returns and forced only on close,
+     * leaving write-back to the operating system. Survives a JVM crash but not
+     * necessarily a power failure.
+     */
+    OS
+}
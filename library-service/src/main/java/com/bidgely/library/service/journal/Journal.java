@@ -0,0 +1,696 @@
+package com.bidgely.library.service.journal;
+
+import com.bidgely.library.exception.InvalidInputException;
+import com.bidgely.library.exception.JournalException;
+import com.bidgely.library.model.Author;
+import com.bidgely.library.model.Book;
+import com.bidgely.library.model.Loan;
+import com.bidgely.library.model.Member;
+import com.bidgely.library.model.Reservation;
+import com.bidgely.library.model.codec.EntityEncoder;
+import com.bidgely.library.service.AuthorService;
+import com.bidgely.library.service.BulkLoadReport;
+import com.bidgely.library.service.ChangeJournal;
+import com.bidgely.library.service.ChangeType;
+import com.bidgely.library.service.LibraryService;
+import com.bidgely.library.service.ReservationService;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only binary write-ahead log of service state changes, compacted by
+ * snapshots.
+ *
+ * <p>The journal lives in a directory of numbered segment files
+ * ({@code journal-<n>.log}), each an 8-byte header followed by records of
+ * {@code [int length][int crc32][byte change type][entity]}, where the length
+ * and checksum cover the type and entity bytes. Entities are encoded by an
+ * {@link EntityEncoder} without a dictionary, so every record decodes on its
+ * own and a torn tail loses nothing before it. Each record holds the entity as
+ * it stood after the change, so replay only has to keep the latest image of
+ * each entity.
+ *
+ * <p>Appends encode into an in-memory buffer under a short lock and never touch
+ * the file. {@link #sync(long)} writes the buffer with group commit: the first
+ * waiting caller writes (and, under {@link FsyncPolicy#EVERY_OP}, forces)
+ * everything appended so far while later callers wait for it, so one write and
+ * one force cover every change that arrived in the meantime.
+ *
+ * <p>{@link #snapshot} starts a new segment and then writes every entity in the
+ * services to {@code snapshot-<n>.snap}, where {@code n} is the last segment it
+ * covers, and deletes those segments. Writers keep running while it copies:
+ * an entity changed during the copy may be captured half-changed, but its
+ * change is recorded in the new segment, and replaying that segment over the
+ * snapshot restores the final image. Startup therefore reads the latest
+ * snapshot through a memory map and replays only the segments after it.
+ *
+ * <p>Opening the journal truncates the newest segment after the last record
+ * that passes its checksum, dropping a record torn by a crash. After any I/O
+ * failure the journal rejects further changes; the services may then be ahead
+ * of the files and the process should be restarted from the journal. File
+ * channels are interruptible, so interrupting a thread while it writes the
+ * journal also fails it.
+ *
+ * <p>Typical startup: open the journal, {@link #replay} it into freshly created
+ * services, then attach it with {@link LibraryService#setJournal} and
+ * {@link AuthorService#setJournal} and start {@link #scheduleSnapshots}.
+ */
+public class Journal implements ChangeJournal, Closeable {
+
+    static final int HEADER_SIZE = 8;
+    static final int RECORD_HEADER_SIZE = 9;
+    static final int MAX_RECORD_SIZE = 16 << 20;
+    private static final int MAGIC = 0x4C424A4C;
+    private static final int VERSION = 2;
+    private static final int INITIAL_BUFFER_SIZE = 64 << 10;
+    private static final int RETAINED_BUFFER_SIZE = 4 << 20;
+    private static final long DEFAULT_FSYNC_INTERVAL_MILLIS = 100;
+    private static final String SEGMENT_PREFIX = "journal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+    private static final String SNAPSHOT_SUFFIX = ".snap";
+    private static final String TEMPORARY_SUFFIX = ".tmp";
+
+    private final Path directory;
+    private final FsyncPolicy policy;
+    private final long snapshotSegment;
+    private final List<Path> tail;
+    private final long recoveredEnd;
+    private final ScheduledExecutorService forcer;
+    private final Object lock = new Object();
+    private final Object snapshotLock = new Object();
+    private final CRC32 crc = new CRC32();
+    private final EntityEncoder encoder = new EntityEncoder(0);
+    private ByteBuffer pending = ByteBuffer.allocateDirect(INITIAL_BUFFER_SIZE);
+    private ByteBuffer spare = ByteBuffer.allocateDirect(INITIAL_BUFFER_SIZE);
+    private FileChannel channel;
+    private long segment;
+    private long appended;
+    private long written;
+    private long forced;
+    private boolean flushing;
+    private boolean closed;
+    private boolean snapshotTaken;
+    private Throwable failure;
+    private ScheduledExecutorService snapshotter;
+
+    /**
+     * Opens or creates a journal, forcing every 100 ms under {@link FsyncPolicy#INTERVAL}.
+     */
+    public Journal(Path directory, FsyncPolicy policy) throws IOException {
+        this(directory, policy, DEFAULT_FSYNC_INTERVAL_MILLIS);
+    }
+
+    /**
+     * Opens or creates a journal in the directory, creating the directory if needed.
+     *
+     * @param fsyncIntervalMillis how often changes are forced under {@link FsyncPolicy#INTERVAL}
+     */
+    public Journal(Path directory, FsyncPolicy policy, long fsyncIntervalMillis) throws IOException {
+        if (directory == null || policy == null) {
+            throw new InvalidInputException("Journal directory and fsync policy are required");
+        }
+        if (policy == FsyncPolicy.INTERVAL && fsyncIntervalMillis <= 0) {
+            throw new InvalidInputException("Fsync interval must be positive");
+        }
+        this.directory = directory;
+        this.policy = policy;
+        Files.createDirectories(directory);
+
+        TreeMap<Long, Path> segments = new TreeMap<>();
+        long latestSnapshot = 0;
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory)) {
+            for (Path entry : entries) {
+                String name = entry.getFileName().toString();
+                if (name.startsWith(SNAPSHOT_PREFIX) && name.endsWith(TEMPORARY_SUFFIX)) {
+                    Files.delete(entry);
+                } else if (number(name, SEGMENT_PREFIX, SEGMENT_SUFFIX) > 0) {
+                    segments.put(number(name, SEGMENT_PREFIX, SEGMENT_SUFFIX), entry);
+                } else {
+                    latestSnapshot = Math.max(latestSnapshot, number(name, SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX));
+                }
+            }
+        }
+        this.snapshotSegment = latestSnapshot;
+        // Left behind when a compaction was cut short
+        deleteCovered(snapshotSegment);
+        if (segments.tailMap(snapshotSegment, false).isEmpty()) {
+            segments.put(snapshotSegment + 1, segmentPath(snapshotSegment + 1));
+        }
+        this.tail = new ArrayList<>(segments.tailMap(snapshotSegment, false).values());
+        this.segment = segments.lastKey();
+        this.channel = FileChannel.open(segmentPath(segment), StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            this.recoveredEnd = recover();
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        if (policy == FsyncPolicy.INTERVAL) {
+            forcer = Executors.newSingleThreadScheduledExecutor(daemonThreads("library-journal-fsync"));
+            forcer.scheduleWithFixedDelay(this::forceWritten, fsyncIntervalMillis, fsyncIntervalMillis,
+                    TimeUnit.MILLISECONDS);
+        } else {
+            forcer = null;
+        }
+    }
+
+    public FsyncPolicy getPolicy() {
+        return policy;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Rebuilds service state from the latest snapshot and the journal segments
+     * written after it, as they were when the journal was opened. Call it on
+     * empty services before attaching this journal to them and before the first
+     * snapshot; either of the optional services may be null to skip its
+     * entities.
+     *
+     * @return how many entities were restored, and which the services rejected,
+     *         identified by the number of their last record counting from the
+     *         start of the snapshot
+     * @throws JournalException if the snapshot or a segment other than the
+     *         newest is damaged
+     */
+    public BulkLoadReport replay(LibraryService libraryService, ReservationService reservationService,
+                                 AuthorService authorService) throws IOException {
+        if (libraryService == null) {
+            throw new InvalidInputException("Library service cannot be null");
+        }
+        synchronized (snapshotLock) {
+            if (snapshotTaken) {
+                throw new JournalException("Replay must run before the first snapshot");
+            }
+        }
+        JournalState state = new JournalState();
+        if (snapshotSegment > 0) {
+            SnapshotFile.load(snapshotPath(snapshotSegment), state);
+        }
+        for (int i = 0; i < tail.size() - 1; i++) {
+            Path path = tail.get(i);
+            try (FileChannel older = FileChannel.open(path, StandardOpenOption.READ)) {
+                checkHeader(older, path);
+                long end = replaySegment(older, older.size(), state);
+                if (end < older.size()) {
+                    throw new JournalException("Corrupt journal segment " + path + " at offset " + end);
+                }
+            }
+        }
+        replaySegment(channel, recoveredEnd, state);
+        return state.restore(libraryService, reservationService, authorService);
+    }
+
+    /**
+     * Writes a snapshot of the services and deletes the journal segments it
+     * makes redundant. Writers are not blocked while the services are copied.
+     * The services must be the ones attached to this journal; snapshots are
+     * taken one at a time.
+     *
+     * @throws JournalException if the journal is closed or has failed
+     */
+    public void snapshot(LibraryService libraryService, ReservationService reservationService,
+                         AuthorService authorService) throws IOException {
+        if (libraryService == null || reservationService == null || authorService == null) {
+            throw new InvalidInputException("A snapshot needs the library, reservation and author services");
+        }
+        synchronized (snapshotLock) {
+            snapshotTaken = true;
+            long covered = startSegment();
+            Path snapshot = snapshotPath(covered);
+            Path temporary = snapshot.resolveSibling(snapshot.getFileName() + TEMPORARY_SUFFIX);
+            try (SnapshotFile.Writer writer = new SnapshotFile.Writer(temporary, covered)) {
+                for (Book book : libraryService.getAllBooks()) {
+                    writer.add(ChangeType.BOOK_ADDED, book);
+                }
+                for (Member member : libraryService.getAllMembers()) {
+                    writer.add(ChangeType.MEMBER_REGISTERED, member);
+                }
+                for (Author author : authorService.getAllAuthors()) {
+                    writer.add(ChangeType.AUTHOR_RESTORED, author);
+                }
+                for (Loan loan : libraryService.getAllLoans()) {
+                    writer.add(ChangeType.LOAN_RESTORED, loan);
+                }
+                for (Reservation reservation : reservationService.getAllReservations()) {
+                    writer.add(ChangeType.RESERVATION_RESTORED, reservation);
+                }
+                writer.finish();
+            } catch (IOException | RuntimeException e) {
+                Files.deleteIfExists(temporary);
+                throw e;
+            }
+            Files.move(temporary, snapshot, StandardCopyOption.ATOMIC_MOVE);
+            deleteCovered(covered);
+        }
+    }
+
+    /**
+     * Takes a snapshot every {@code periodMillis} on a background thread until
+     * the journal is closed. A failed snapshot stops the schedule; the returned
+     * future then reports the failure.
+     */
+    public ScheduledFuture<?> scheduleSnapshots(LibraryService libraryService, ReservationService reservationService,
+                                                AuthorService authorService, long periodMillis) {
+        if (libraryService == null || reservationService == null || authorService == null) {
+            throw new InvalidInputException("A snapshot needs the library, reservation and author services");
+        }
+        if (periodMillis <= 0) {
+            throw new InvalidInputException("Snapshot period must be positive");
+        }
+        synchronized (lock) {
+            checkUsable();
+            if (snapshotter == null) {
+                snapshotter = Executors.newSingleThreadScheduledExecutor(daemonThreads("library-journal-snapshot"));
+            }
+            return snapshotter.scheduleWithFixedDelay(() -> {
+                try {
+                    snapshot(libraryService, reservationService, authorService);
+                } catch (IOException e) {
+                    throw new JournalException("Failed to write snapshot", e);
+                }
+            }, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public long append(ChangeType type, Object entity) {
+        if (type == null || !type.getEntityType().isInstance(entity)) {
+            throw new InvalidInputException("Change " + type + " cannot carry " + entity);
+        }
+        synchronized (lock) {
+            checkUsable();
+            int start = pending.position();
+            while (true) {
+                if (pending.capacity() - start < RECORD_HEADER_SIZE) {
+                    pending = grow(pending, start);
+                }
+                try {
+                    pending.position(start + RECORD_HEADER_SIZE - 1);
+                    pending.put(type.getCode());
+                    encoder.write(pending, entity);
+                    break;
+                } catch (BufferOverflowException e) {
+                    pending = grow(pending, start);
+                }
+            }
+            int end = pending.position();
+            int length = end - start - 8;
+            if (length > MAX_RECORD_SIZE) {
+                pending.position(start);
+                throw new JournalException("Change too large to journal: " + length + " bytes");
+            }
+            ByteBuffer body = pending.duplicate();
+            body.position(start + 8).limit(end);
+            crc.reset();
+            crc.update(body);
+            pending.putInt(start, length);
+            pending.putInt(start + 4, (int) crc.getValue());
+            return ++appended;
+        }
+    }
+
+    @Override
+    public void sync(long sequence) {
+        try {
+            flush(sequence, policy == FsyncPolicy.EVERY_OP);
+        } catch (IOException e) {
+            throw new JournalException("Failed to write journal", e);
+        }
+    }
+
+    /**
+     * Writes and forces every appended change, then closes the journal. Changes
+     * appended after close has started are rejected; a snapshot already being
+     * written is finished first.
+     */
+    @Override
+    public void close() throws IOException {
+        long last;
+        ScheduledExecutorService snapshots;
+        synchronized (lock) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            last = appended;
+            snapshots = snapshotter;
+        }
+        // Interrupting a force would close the channel, so let a running task finish
+        stop(forcer);
+        stop(snapshots);
+        try {
+            flush(last, true);
+        } finally {
+            synchronized (lock) {
+                channel.close();
+            }
+        }
+    }
+
+    /**
+     * Writes changes up to the sequence, forcing them if asked. Only one caller
+     * writes at a time; callers arriving meanwhile wait and are usually covered
+     * by that write, or else one of them writes everything appended since.
+     */
+    private void flush(long sequence, boolean force) throws IOException {
+        ByteBuffer batch;
+        long batchEnd;
+        FileChannel target;
+        synchronized (lock) {
+            if (!awaitTurn(sequence, force)) {
+                return;
+            }
+            batch = takePending();
+            batchEnd = appended;
+            target = channel;
+        }
+
+        Throwable error = null;
+        try {
+            write(batch, target, force);
+        } catch (IOException | RuntimeException e) {
+            error = e;
+        }
+
+        synchronized (lock) {
+            release(batch, batchEnd, force, error);
+        }
+        rethrow(error);
+    }
+
+    /**
+     * Writes and forces everything appended so far to the current segment and
+     * switches appends to a new one.
+     *
+     * @return the number of the segment that was closed
+     */
+    private long startSegment() throws IOException {
+        ByteBuffer batch;
+        long batchEnd;
+        FileChannel previous;
+        long covered;
+        synchronized (lock) {
+            checkUsable();
+            awaitTurn(Long.MAX_VALUE, true);
+            batch = takePending();
+            batchEnd = appended;
+            previous = channel;
+            covered = segment;
+        }
+
+        Throwable error = null;
+        FileChannel next = null;
+        try {
+            write(batch, previous, true);
+            next = FileChannel.open(segmentPath(covered + 1), StandardOpenOption.CREATE_NEW,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            writeHeader(next);
+        } catch (IOException | RuntimeException e) {
+            error = e;
+        }
+
+        synchronized (lock) {
+            release(batch, batchEnd, true, error);
+            if (error == null) {
+                channel = next;
+                segment = covered + 1;
+            }
+        }
+        if (error != null && next != null) {
+            next.close();
+        }
+        rethrow(error);
+        previous.close();
+        return covered;
+    }
+
+    /**
+     * Waits under the lock until no other caller is writing, then claims the
+     * write.
+     *
+     * @return false if the sequence was written (or forced) meanwhile
+     */
+    private boolean awaitTurn(long sequence, boolean force) throws IOException {
+        while (true) {
+            if (failure != null) {
+                throw new IOException("Journal failed earlier", failure);
+            }
+            if ((force ? forced : written) >= sequence) {
+                return false;
+            }
+            if (!flushing) {
+                flushing = true;
+                return true;
+            }
+            try {
+                lock.wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new JournalException("Interrupted while waiting for the journal");
+            }
+        }
+    }
+
+    private ByteBuffer takePending() {
+        ByteBuffer batch = pending;
+        pending = spare;
+        spare = null;
+        return batch;
+    }
+
+    /**
+     * Records the outcome of a write under the lock and wakes the waiting callers.
+     */
+    private void release(ByteBuffer batch, long batchEnd, boolean force, Throwable error) {
+        batch.clear();
+        spare = batch.capacity() > RETAINED_BUFFER_SIZE ? ByteBuffer.allocateDirect(INITIAL_BUFFER_SIZE) : batch;
+        if (error == null) {
+            written = batchEnd;
+            if (force) {
+                forced = batchEnd;
+            }
+        } else if (failure == null) {
+            failure = error;
+        }
+        flushing = false;
+        lock.notifyAll();
+    }
+
+    /**
+     * Forces whatever has been written; runs on the interval policy's timer.
+     */
+    private void forceWritten() {
+        long target;
+        FileChannel current;
+        synchronized (lock) {
+            if (failure != null || closed || forced >= written) {
+                return;
+            }
+            target = written;
+            current = channel;
+        }
+        try {
+            current.force(false);
+            synchronized (lock) {
+                forced = Math.max(forced, target);
+            }
+        } catch (ClosedChannelException e) {
+            // A new segment was started meanwhile, which forced this one
+        } catch (IOException e) {
+            synchronized (lock) {
+                if (failure == null) {
+                    failure = e;
+                }
+            }
+        }
+    }
+
+    /**
+     * Validates the header of the newest segment, or writes one to a new
+     * segment, and truncates after its last valid record.
+     *
+     * @return the offset where appending starts
+     */
+    private long recover() throws IOException {
+        if (channel.size() < HEADER_SIZE) {
+            channel.truncate(0);
+            writeHeader(channel);
+            return HEADER_SIZE;
+        }
+        checkHeader(channel, segmentPath(segment));
+        JournalReader reader = new JournalReader(channel, channel.size());
+        while (reader.next()) {
+            // find the end of the last intact record
+        }
+        long end = reader.validEnd();
+        if (end < channel.size()) {
+            channel.truncate(end);
+            channel.force(true);
+        }
+        channel.position(end);
+        return end;
+    }
+
+    /**
+     * Deletes the segments up to and including the given one and every snapshot before it.
+     */
+    private void deleteCovered(long covered) throws IOException {
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory)) {
+            for (Path entry : entries) {
+                String name = entry.getFileName().toString();
+                long number = number(name, SEGMENT_PREFIX, SEGMENT_SUFFIX);
+                if (number > 0 && number <= covered) {
+                    Files.delete(entry);
+                }
+                number = number(name, SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX);
+                if (number > 0 && number < covered) {
+                    Files.delete(entry);
+                }
+            }
+        }
+    }
+
+    private void checkUsable() {
+        if (closed) {
+            throw new JournalException("Journal is closed");
+        }
+        if (failure != null) {
+            throw new JournalException("Journal failed earlier", failure);
+        }
+    }
+
+    private Path segmentPath(long number) {
+        return directory.resolve(String.format("%s%016d%s", SEGMENT_PREFIX, number, SEGMENT_SUFFIX));
+    }
+
+    private Path snapshotPath(long number) {
+        return directory.resolve(String.format("%s%016d%s", SNAPSHOT_PREFIX, number, SNAPSHOT_SUFFIX));
+    }
+
+    /**
+     * Parses the number out of a segment or snapshot file name.
+     *
+     * @return the number, or 0 if the name does not have the prefix and suffix around a positive number
+     */
+    private static long number(String name, String prefix, String suffix) {
+        if (!name.startsWith(prefix) || !name.endsWith(suffix)
+                || name.length() == prefix.length() + suffix.length()) {
+            return 0;
+        }
+        try {
+            return Math.max(0, Long.parseLong(name.substring(prefix.length(), name.length() - suffix.length())));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Folds a segment's records into the state.
+     *
+     * @return the file offset just past the last valid record
+     */
+    private static long replaySegment(FileChannel segment, long limit, JournalState state) throws IOException {
+        JournalReader reader = new JournalReader(segment, limit);
+        while (reader.next()) {
+            Object entity;
+            try {
+                entity = state.decode(reader.payload(), reader.type());
+            } catch (IllegalArgumentException | BufferUnderflowException e) {
+                throw new JournalException("Undecodable " + reader.type() + " record at position "
+                        + state.getRecordCount(), e);
+            }
+            state.apply(reader.type(), entity);
+        }
+        return reader.validEnd();
+    }
+
+    private static void writeHeader(FileChannel segment) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC).putInt(VERSION).flip();
+        while (header.hasRemaining()) {
+            segment.write(header, header.position());
+        }
+        segment.force(true);
+        segment.position(HEADER_SIZE);
+    }
+
+    private static void checkHeader(FileChannel segment, Path path) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        while (header.hasRemaining() && segment.read(header, header.position()) >= 0) {
+            // read the whole header
+        }
+        if (header.position() < HEADER_SIZE || header.getInt(0) != MAGIC || header.getInt(4) != VERSION) {
+            throw new IOException("Not a version " + VERSION + " library journal: " + path);
+        }
+    }
+
+    private static void write(ByteBuffer batch, FileChannel target, boolean force) throws IOException {
+        batch.flip();
+        while (batch.hasRemaining()) {
+            target.write(batch);
+        }
+        if (force) {
+            target.force(false);
+        }
+    }
+
+    private static void rethrow(Throwable error) throws IOException {
+        if (error instanceof IOException) {
+            throw (IOException) error;
+        } else if (error != null) {
+            throw (RuntimeException) error;
+        }
+    }
+
+    private static void stop(ScheduledExecutorService executor) {
+        if (executor == null) {
+            return;
+        }
+        executor.shutdown();
+        try {
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static ThreadFactory daemonThreads(String name) {
+        return task -> {
+            Thread thread = new Thread(task, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static ByteBuffer grow(ByteBuffer buffer, int used) {
+        ByteBuffer larger = ByteBuffer.allocateDirect(buffer.capacity() * 2);
+        buffer.position(0).limit(used);
+        larger.put(buffer);
+        return larger;
+    }
+}
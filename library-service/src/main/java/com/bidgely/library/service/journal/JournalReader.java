@@ -0,0 +1,116 @@
+package com.bidgely.library.service.journal;
+
+import com.bidgely.library.service.ChangeType;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.zip.CRC32;
+
+/**
+ * Reads journal records in order, stopping at the end of the file or at the
+ * first record that is incomplete or fails its checksum.
+ */
+final class JournalReader {
+
+    private static final int READ_SIZE = 1 << 20;
+
+    private final FileChannel channel;
+    private final long limit;
+    private final CRC32 crc = new CRC32();
+    private ByteBuffer buffer = ByteBuffer.allocate(READ_SIZE);
+    private long fileOffset;
+    private long recordEnd;
+    private ChangeType type;
+    private ByteBuffer payload;
+
+    /**
+     * Reads records between the header and the given file offset.
+     */
+    JournalReader(FileChannel channel, long limit) {
+        this.channel = channel;
+        this.limit = limit;
+        this.fileOffset = Journal.HEADER_SIZE;
+        this.recordEnd = Journal.HEADER_SIZE;
+        buffer.flip();
+    }
+
+    /**
+     * Advances to the next valid record.
+     *
+     * @return false at the end of the valid records
+     */
+    boolean next() throws IOException {
+        if (!fill(Journal.RECORD_HEADER_SIZE)) {
+            return false;
+        }
+        int start = buffer.position();
+        int length = buffer.getInt(start);
+        int checksum = buffer.getInt(start + 4);
+        if (length < 1 || length > Journal.MAX_RECORD_SIZE || !fill(8 + length)) {
+            return false;
+        }
+        start = buffer.position();
+        ByteBuffer body = buffer.duplicate();
+        body.position(start + 8).limit(start + 8 + length);
+        crc.reset();
+        crc.update(body.duplicate());
+        ChangeType next = ChangeType.fromCode(body.get());
+        if ((int) crc.getValue() != checksum || next == null) {
+            return false;
+        }
+        type = next;
+        payload = body.slice();
+        buffer.position(start + 8 + length);
+        fileOffset += 8 + length;
+        recordEnd = fileOffset;
+        return true;
+    }
+
+    ChangeType type() {
+        return type;
+    }
+
+    /**
+     * Gets the current record's entity bytes; valid until the next call to {@link #next()}.
+     */
+    ByteBuffer payload() {
+        return payload;
+    }
+
+    /**
+     * Gets the file offset just past the last valid record read.
+     */
+    long validEnd() {
+        return recordEnd;
+    }
+
+    /**
+     * Makes at least {@code count} unread bytes available, reading more of the file as needed.
+     */
+    private boolean fill(int count) throws IOException {
+        if (buffer.remaining() >= count) {
+            return true;
+        }
+        long unread = fileOffset + buffer.remaining();
+        if (fileOffset + count > limit) {
+            return false;
+        }
+        if (buffer.capacity() < count) {
+            ByteBuffer larger = ByteBuffer.allocate(Math.max(count, buffer.capacity() * 2));
+            larger.put(buffer);
+            buffer = larger;
+        } else {
+            buffer.compact();
+        }
+        while (buffer.position() < count) {
+            int read = channel.read(buffer, unread);
+            if (read < 0) {
+                break;
+            }
+            unread += read;
+        }
+        buffer.flip();
+        return buffer.remaining() >= count;
+    }
+}
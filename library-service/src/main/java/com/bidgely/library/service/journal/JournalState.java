@@ -0,0 +1,270 @@
+package com.bidgely.library.service.journal;
+
+import com.bidgely.library.exception.LibraryException;
+import com.bidgely.library.model.*;
+import com.bidgely.library.model.codec.EntityDecoder;
+import com.bidgely.library.service.AuthorService;
+import com.bidgely.library.service.BulkLoadReport;
+import com.bidgely.library.service.ChangeType;
+import com.bidgely.library.service.LibraryService;
+import com.bidgely.library.service.ReservationService;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * The latest image of every entity seen in a snapshot and the journal after
+ * it, folded record by record and then restored into the services in
+ * dependency order.
+ *
+ * <p>Snapshot entities are kept in a list per type, since a snapshot holds each
+ * entity once; only journal records are keyed, to find the entity they change.
+ * Entities keep the position where they first appeared, so loans and
+ * reservations are restored in the order they were created and hold queues come
+ * back in the same order.
+ */
+final class JournalState {
+
+    private final Section<Book> books = new Section<>(Book::getIsbn);
+    private final Section<Member> members = new Section<>(Member::getMemberId);
+    private final Section<Author> authors = new Section<>(Author::getAuthorId);
+    private final Section<Loan> loans = new Section<>(Loan::getLoanId);
+    private final Section<Reservation> reservations = new Section<>(Reservation::getReservationId);
+    private final EntityDecoder decoder = new EntityDecoder(0);
+    private final Map<String, String> references = new HashMap<>();
+    private final List<BulkLoadReport.RecordError> errors = new ArrayList<>();
+    private int recordCount;
+    private int accepted;
+
+    /**
+     * Decodes a journal record's entity, sharing the member IDs and ISBNs of
+     * loans and reservations across records.
+     */
+    Object decode(ByteBuffer payload, ChangeType type) {
+        Object entity = decoder.read(payload, type.getEntityType());
+        if (entity instanceof Loan) {
+            Loan loan = (Loan) entity;
+            loan.setMemberId(share(loan.getMemberId()));
+            loan.setIsbn(share(loan.getIsbn()));
+        } else if (entity instanceof Reservation) {
+            Reservation reservation = (Reservation) entity;
+            reservation.setMemberId(share(reservation.getMemberId()));
+            reservation.setIsbn(share(reservation.getIsbn()));
+        }
+        return entity;
+    }
+
+    /**
+     * Adds the next snapshot entity. All snapshot entities must be loaded before
+     * the first journal record is applied, with each type's entities together.
+     *
+     * @throws IllegalArgumentException if this type's entities are not contiguous
+     */
+    void load(ChangeType type, Object entity) {
+        int index = recordCount++;
+        Class<?> entityType = type.getEntityType();
+        if (entityType == Book.class) {
+            books.load((Book) entity, index);
+        } else if (entityType == Member.class) {
+            members.load((Member) entity, index);
+        } else if (entityType == Loan.class) {
+            loans.load((Loan) entity, index);
+        } else if (entityType == Reservation.class) {
+            reservations.load((Reservation) entity, index);
+        } else {
+            authors.load((Author) entity, index);
+        }
+    }
+
+    /**
+     * Applies the next journal record; records are numbered in the order they
+     * are loaded or applied.
+     */
+    void apply(ChangeType type, Object entity) {
+        int index = recordCount++;
+        switch (type) {
+            case BOOK_REMOVED:
+                books.change(((Book) entity).getIsbn(), null, index);
+                break;
+            case BOOK_ADDED:
+            case BOOK_UPDATED:
+                Book book = (Book) entity;
+                books.change(book.getIsbn(), book, index);
+                break;
+            case MEMBER_REGISTERED:
+            case MEMBER_UPDATED:
+            case MEMBER_DEACTIVATED:
+                Member member = (Member) entity;
+                members.change(member.getMemberId(), member, index);
+                break;
+            case LOAN_ISSUED:
+            case BOOK_RETURNED:
+            case LOAN_RESTORED:
+                Loan loan = (Loan) entity;
+                loans.change(loan.getLoanId(), loan, index);
+                break;
+            case RESERVATION_CREATED:
+            case RESERVATION_CANCELLED:
+            case RESERVATION_FULFILLED:
+            case RESERVATION_EXPIRED:
+            case RESERVATION_RESTORED:
+                Reservation reservation = (Reservation) entity;
+                reservations.change(reservation.getReservationId(), reservation, index);
+                break;
+            default:
+                Author author = (Author) entity;
+                authors.change(author.getAuthorId(), author, index);
+        }
+    }
+
+    int getRecordCount() {
+        return recordCount;
+    }
+
+    /**
+     * Restores books, members, authors, loans and then reservations. Entities the
+     * services reject (e.g. a loan whose book was later removed) are reported
+     * with the number of the last record that changed them. Can only be called once.
+     */
+    BulkLoadReport restore(LibraryService libraryService, ReservationService reservationService,
+                           AuthorService authorService) {
+        restoreBatch(books, batch -> {
+            // Loans restored below take their copies again
+            for (Book book : batch) {
+                book.setAvailableCopies(book.getTotalCopies());
+            }
+            return libraryService.addBooks(batch);
+        });
+        members.forEachImage((member, index) ->
+                restore(index, member.getMemberId(), () -> libraryService.registerMember(member)));
+        if (authorService != null) {
+            authors.forEachImage((author, index) ->
+                    restore(index, author.getAuthorId(), () -> authorService.restoreAuthor(author)));
+        }
+        restoreBatch(loans, libraryService::restoreLoans);
+        if (reservationService != null) {
+            reservations.forEachImage((reservation, index) -> restore(index, reservation.getReservationId(),
+                    () -> reservationService.restoreReservation(reservation)));
+        }
+        return new BulkLoadReport(accepted, errors);
+    }
+
+    /**
+     * Restores a section through one bulk call, mapping the errors it reports
+     * back to record numbers.
+     */
+    private <T> void restoreBatch(Section<T> section, Function<List<T>, BulkLoadReport> action) {
+        List<T> batch = new ArrayList<>(section.size());
+        int[] indexes = new int[section.size()];
+        section.forEachImage((entity, index) -> {
+            indexes[batch.size()] = index;
+            batch.add(entity);
+        });
+        BulkLoadReport report = action.apply(batch);
+        for (BulkLoadReport.RecordError error : report.getErrors()) {
+            errors.add(new BulkLoadReport.RecordError(indexes[error.getIndex()], error.getKey(),
+                    error.getMessage()));
+        }
+        accepted += report.getAcceptedCount();
+    }
+
+    private String share(String value) {
+        if (value == null) {
+            return null;
+        }
+        String shared = references.putIfAbsent(value, value);
+        return shared == null ? value : shared;
+    }
+
+    private void restore(int index, String key, Runnable action) {
+        try {
+            action.run();
+            accepted++;
+        } catch (LibraryException e) {
+            errors.add(new BulkLoadReport.RecordError(index, key, e.getMessage()));
+        }
+    }
+
+    /**
+     * The entities of one type: those loaded from a snapshot, in order, and the
+     * latest journal change to each entity, keyed by its ID.
+     */
+    private static final class Section<T> {
+        private final Function<T, String> key;
+        private final List<T> loaded = new ArrayList<>();
+        private final Map<String, Image<T>> changes = new LinkedHashMap<>();
+        private int loadedStart;
+
+        private Section(Function<T, String> key) {
+            this.key = key;
+        }
+
+        void load(T entity, int index) {
+            if (loaded.isEmpty()) {
+                loadedStart = index;
+            } else if (index != loadedStart + loaded.size()) {
+                throw new IllegalArgumentException("Snapshot entities of one type must be stored together");
+            }
+            loaded.add(entity);
+        }
+
+        /**
+         * Records the entity's latest image, or null if it was removed.
+         */
+        void change(String id, T entity, int index) {
+            Image<T> image = changes.get(id);
+            if (image == null) {
+                changes.put(id, new Image<>(entity, index));
+            } else {
+                image.entity = entity;
+                image.index = index;
+            }
+        }
+
+        int size() {
+            return loaded.size() + changes.size();
+        }
+
+        /**
+         * Visits the final image of every entity that was not removed, with the
+         * number of the record it came from: snapshot entities first, then those
+         * first seen in the journal. Consumes the journal changes.
+         */
+        void forEachImage(ObjIntConsumer<T> action) {
+            for (int i = 0; i < loaded.size(); i++) {
+                T entity = loaded.get(i);
+                int index = loadedStart + i;
+                Image<T> change = changes.isEmpty() ? null : changes.remove(key.apply(entity));
+                if (change != null) {
+                    entity = change.entity;
+                    index = change.index;
+                }
+                if (entity != null) {
+                    action.accept(entity, index);
+                }
+            }
+            for (Image<T> change : changes.values()) {
+                if (change.entity != null) {
+                    action.accept(change.entity, change.index);
+                }
+            }
+            changes.clear();
+        }
+    }
+
+    private static final class Image<T> {
+        private T entity;
+        private int index;
+
+        private Image(T entity, int index) {
+            this.entity = entity;
+            this.index = index;
+        }
+    }
+}
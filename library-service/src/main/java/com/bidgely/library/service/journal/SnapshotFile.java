@@ -0,0 +1,219 @@
+package com.bidgely.library.service.journal;
+
+import com.bidgely.library.exception.JournalException;
+import com.bidgely.library.model.codec.EntityDecoder;
+import com.bidgely.library.model.codec.EntityEncoder;
+import com.bidgely.library.service.ChangeType;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * Binary image of every entity in the services at the time of a snapshot.
+ *
+ * <p>The file is a 16-byte header ({@code magic, version, long segment}) and
+ * records of {@code [int length][byte change type][entity]}, ended by a zero
+ * length, the record count and a CRC-32 of all record bytes. The segment is the
+ * last journal segment the snapshot covers. Entities are written by one
+ * {@link EntityEncoder} whose dictionary spans the file, so each member ID,
+ * ISBN and author name is stored in full once and loaded as one shared string.
+ */
+final class SnapshotFile {
+
+    static final int HEADER_SIZE = 16;
+    private static final int MAGIC = 0x4C42534E;
+    private static final int VERSION = 2;
+    private static final int FOOTER_SIZE = 16;
+    private static final int BUFFER_SIZE = 1 << 20;
+    private static final int MAP_WINDOW = 1 << 30;
+    private static final int DICTIONARY_CAPACITY = 1 << 24;
+
+    private SnapshotFile() {
+    }
+
+    /**
+     * Reads the snapshot into the state through a memory-mapped view of the file.
+     *
+     * @return the last journal segment the snapshot covers
+     * @throws JournalException if the file is truncated or fails its checksum
+     */
+    static long load(Path path, JournalState state) throws IOException {
+        return load(path, state, MAP_WINDOW);
+    }
+
+    /**
+     * Reads the snapshot, mapping at most {@code window} bytes of it at a time.
+     */
+    static long load(Path path, JournalState state, int window) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedReader reader = new MappedReader(channel, window);
+            ByteBuffer header = reader.take(HEADER_SIZE);
+            if (header == null || header.getInt() != MAGIC || header.getInt() != VERSION) {
+                throw new JournalException("Not a version " + VERSION + " library snapshot: " + path);
+            }
+            long segment = header.getLong();
+            EntityDecoder decoder = new EntityDecoder(DICTIONARY_CAPACITY);
+            CRC32 crc = new CRC32();
+            long count = 0;
+            while (true) {
+                ByteBuffer prefix = reader.take(4);
+                if (prefix == null) {
+                    throw new JournalException("Truncated snapshot: " + path);
+                }
+                int length = prefix.getInt(0);
+                if (length == 0) {
+                    break;
+                }
+                ByteBuffer body = length > 0 && length <= Journal.MAX_RECORD_SIZE ? reader.take(length) : null;
+                if (body == null) {
+                    throw new JournalException("Corrupt snapshot record " + count + ": " + path);
+                }
+                crc.update(prefix);
+                crc.update(body.duplicate());
+                ChangeType type = ChangeType.fromCode(body.get());
+                if (type == null) {
+                    throw new JournalException("Corrupt snapshot record " + count + ": " + path);
+                }
+                try {
+                    state.load(type, decoder.read(body, type.getEntityType()));
+                } catch (IllegalArgumentException | BufferUnderflowException e) {
+                    throw new JournalException("Corrupt snapshot record " + count + ": " + path, e);
+                }
+                count++;
+            }
+            ByteBuffer footer = reader.take(FOOTER_SIZE - 4);
+            if (footer == null || footer.getLong() != count || footer.getInt() != (int) crc.getValue()) {
+                throw new JournalException("Snapshot fails its checksum: " + path);
+            }
+            return segment;
+        }
+    }
+
+    /**
+     * Streams records to a new snapshot file through a direct buffer.
+     */
+    static final class Writer implements Closeable {
+        private final FileChannel channel;
+        private final CRC32 crc = new CRC32();
+        private final EntityEncoder encoder = new EntityEncoder(DICTIONARY_CAPACITY);
+        private ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        private long count;
+
+        Writer(Path path, long segment) throws IOException {
+            channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+            buffer.putInt(MAGIC).putInt(VERSION).putLong(segment);
+            drain(HEADER_SIZE);
+        }
+
+        void add(ChangeType type, Object entity) throws IOException {
+            while (true) {
+                int start = buffer.position();
+                if (buffer.remaining() > 4) {
+                    try {
+                        buffer.position(start + 4);
+                        buffer.put(type.getCode());
+                        encoder.write(buffer, entity);
+                        int length = buffer.position() - start - 4;
+                        if (length > Journal.MAX_RECORD_SIZE) {
+                            throw new JournalException("Entity too large to snapshot: " + length + " bytes");
+                        }
+                        buffer.putInt(start, length);
+                        count++;
+                        return;
+                    } catch (BufferOverflowException e) {
+                        buffer.position(start);
+                    }
+                }
+                if (start > 0) {
+                    drain(0);
+                } else {
+                    buffer = ByteBuffer.allocateDirect(buffer.capacity() * 2);
+                }
+            }
+        }
+
+        /**
+         * Writes the footer and forces the file to disk.
+         */
+        void finish() throws IOException {
+            drain(0);
+            buffer.putInt(0).putLong(count).putInt((int) crc.getValue());
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+
+        /**
+         * Writes the buffer, folding all but the first {@code unchecked} bytes into the checksum.
+         */
+        private void drain(int unchecked) throws IOException {
+            buffer.flip();
+            ByteBuffer checked = buffer.duplicate();
+            checked.position(unchecked);
+            crc.update(checked);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+    }
+
+    /**
+     * Hands out consecutive slices of a file, remapping a window of it when a
+     * slice would cross the end of the current one.
+     */
+    private static final class MappedReader {
+        private final FileChannel channel;
+        private final long size;
+        private final int window;
+        private MappedByteBuffer mapped;
+        private long mappedAt;
+
+        MappedReader(FileChannel channel, int window) throws IOException {
+            this.channel = channel;
+            this.size = channel.size();
+            this.window = window;
+            map(0);
+        }
+
+        /**
+         * Gets the next {@code count} bytes as a buffer of their own, or null past the end of the file.
+         */
+        ByteBuffer take(int count) throws IOException {
+            if (mapped.remaining() < count) {
+                long offset = mappedAt + mapped.position();
+                if (offset + count > size) {
+                    return null;
+                }
+                map(offset);
+                if (mapped.remaining() < count) {
+                    throw new JournalException("Snapshot record larger than the mapping window: " + count);
+                }
+            }
+            ByteBuffer slice = mapped.slice();
+            slice.limit(count);
+            mapped.position(mapped.position() + count);
+            return slice;
+        }
+
+        private void map(long offset) throws IOException {
+            mappedAt = offset;
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, offset, Math.min(window, size - offset));
+        }
+    }
+}
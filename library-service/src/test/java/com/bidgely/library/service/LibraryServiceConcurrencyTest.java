@@ -0,0 +1,161 @@
+package com.bidgely.library.service;
+
+import com.bidgely.library.exception.BookNotAvailableException;
+import com.bidgely.library.exception.LoanLimitExceededException;
+import com.bidgely.library.model.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LibraryServiceConcurrencyTest {
+
+    private static final int THREADS = 16;
+    private static final int BOOKS = 8;
+    private static final int COPIES_PER_BOOK = 5;
+    private static final int MEMBERS = 40;
+    private static final int OPERATIONS_PER_THREAD = 2000;
+
+    private LibraryService libraryService;
+    private List<String> isbns;
+    private List<String> memberIds;
+
+    @BeforeEach
+    void setUp() {
+        libraryService = new LibraryService(8);
+        isbns = new ArrayList<>();
+        memberIds = new ArrayList<>();
+
+        for (int i = 0; i < BOOKS; i++) {
+            String isbn = "978013468599" + i;
+            libraryService.addBook(new Book(isbn, "Book " + i, "Author " + i,
+                    "Publisher", 2020, COPIES_PER_BOOK, BookCategory.TECHNOLOGY));
+            isbns.add(isbn);
+        }
+
+        MembershipType[] types = MembershipType.values();
+        for (int i = 0; i < MEMBERS; i++) {
+            String memberId = "M" + i;
+            libraryService.registerMember(new Member(memberId, "Member " + i, "member" + i + "@example.com",
+                    "1234567890", LocalDate.of(2023, 1, 1), types[i % types.length]));
+            memberIds.add(memberId);
+        }
+    }
+
+    @Test
+    void testConcurrentIssue_neverOverLendsCopies() throws Exception {
+        runConcurrently(random -> {
+            try {
+                libraryService.issueBook(pick(memberIds, random), pick(isbns, random));
+            } catch (BookNotAvailableException | LoanLimitExceededException e) {
+                // Expected under contention
+            }
+        });
+
+        int totalActive = 0;
+        for (String isbn : isbns) {
+            Book book = libraryService.findBookByIsbn(isbn);
+            int active = countActiveLoansForBook(isbn);
+            assertThat(book.getAvailableCopies()).isGreaterThanOrEqualTo(0);
+            assertThat(active).isLessThanOrEqualTo(COPIES_PER_BOOK);
+            assertThat(book.getAvailableCopies() + active).isEqualTo(COPIES_PER_BOOK);
+            totalActive += active;
+        }
+        assertThat(libraryService.getTotalActiveLoans()).isEqualTo(totalActive);
+        assertMemberLimitsRespected();
+    }
+
+    @Test
+    void testConcurrentIssueAndReturn_keepsCopiesAndLimitsConsistent() throws Exception {
+        AtomicInteger returned = new AtomicInteger();
+        runConcurrently(random -> {
+            String memberId = pick(memberIds, random);
+            if (random.nextBoolean()) {
+                try {
+                    libraryService.issueBook(memberId, pick(isbns, random));
+                } catch (BookNotAvailableException | LoanLimitExceededException e) {
+                    // Expected under contention
+                }
+            } else {
+                List<Loan> active = libraryService.getActiveLoansByMember(memberId);
+                if (!active.isEmpty()) {
+                    try {
+                        libraryService.returnBook(pick(active, random).getLoanId());
+                        returned.incrementAndGet();
+                    } catch (com.bidgely.library.exception.InvalidInputException e) {
+                        // Another thread returned the same loan first
+                    }
+                }
+            }
+        });
+
+        assertThat(returned.get()).isPositive();
+        for (String isbn : isbns) {
+            Book book = libraryService.findBookByIsbn(isbn);
+            assertThat(book.getAvailableCopies() + countActiveLoansForBook(isbn)).isEqualTo(COPIES_PER_BOOK);
+            assertThat(libraryService.getAvailableBooks().contains(book)).isEqualTo(book.isAvailable());
+        }
+        assertMemberLimitsRespected();
+    }
+
+    private void assertMemberLimitsRespected() {
+        for (String memberId : memberIds) {
+            Member member = libraryService.findMemberById(memberId);
+            assertThat(libraryService.getActiveLoansByMember(memberId))
+                    .hasSizeLessThanOrEqualTo(member.getMembershipType().getMaxBooks());
+        }
+    }
+
+    private int countActiveLoansForBook(String isbn) {
+        int count = 0;
+        for (String memberId : memberIds) {
+            for (Loan loan : libraryService.getActiveLoansByMember(memberId)) {
+                if (loan.getIsbn().equals(isbn)) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    private void runConcurrently(Operation operation) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int t = 0; t < THREADS; t++) {
+                long seed = t;
+                futures.add(executor.submit(() -> {
+                    Random random = new Random(seed);
+                    start.await();
+                    for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+                        operation.run(random);
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static <T> T pick(List<T> list, Random random) {
+        return list.get(random.nextInt(list.size()));
+    }
+
+    @FunctionalInterface
+    private interface Operation {
+        void run(Random random);
+    }
+}
@@ -2,11 +2,19 @@ package com.bidgely.library.service;
 
 import com.bidgely.library.exception.*;
 import com.bidgely.library.model.*;
+import com.bidgely.library.util.ManualClock;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -78,6 +86,85 @@ class LibraryServiceTest {
                 .hasMessageContaining("Invalid publication year");
     }
 
+    @Test
+    void testAddBooks_reportsInvalidRecordsAndPublishesTheRest() {
+        List<Book> batch = new ArrayList<>();
+        batch.add(new Book("9780132350884", "Clean Code", "Robert Martin",
+                "Prentice Hall", 2008, 3, BookCategory.TECHNOLOGY));
+        batch.add(new Book("invalid", "Broken", "Author", "Publisher", 2020, 1, BookCategory.FICTION));
+        batch.add(null);
+        batch.add(new Book("9780201633610", "Design Patterns", "Erich Gamma",
+                "Addison-Wesley", 1994, 2, BookCategory.TECHNOLOGY));
+
+        BulkLoadReport report = libraryService.addBooks(batch);
+
+        assertThat(report.getAcceptedCount()).isEqualTo(2);
+        assertThat(report.getErrors()).extracting(BulkLoadReport.RecordError::getIndex).containsExactly(1, 2);
+        assertThat(report.getErrors().get(0).getKey()).isEqualTo("invalid");
+        assertThat(report.getErrors().get(0).getMessage()).contains("Invalid ISBN format");
+        assertThat(libraryService.getTotalBooks()).isEqualTo(3);
+        assertThat(libraryService.searchBooksByTitle("patterns")).extracting(Book::getIsbn)
+                .containsExactly("9780201633610");
+        assertThat(libraryService.getBookCountByCategory(BookCategory.TECHNOLOGY)).isEqualTo(3);
+    }
+
+    @Test
+    void testAddBooks_replacesExistingAndLaterDuplicateWins() {
+        Book replacement = new Book("9780134685991", "Effective Java 3rd Edition", "Joshua Bloch",
+                "Addison-Wesley", 2018, 1, BookCategory.SCIENCE);
+        Book duplicate = new Book("9780134685991", "Effective Java Final", "Joshua Bloch",
+                "Addison-Wesley", 2018, 2, BookCategory.SCIENCE);
+
+        BulkLoadReport report = libraryService.addBooks(Stream.of(replacement, duplicate));
+
+        assertThat(report.hasErrors()).isFalse();
+        assertThat(libraryService.findBookByIsbn("9780134685991")).isSameAs(duplicate);
+        assertThat(libraryService.getBookCountByCategory(BookCategory.TECHNOLOGY)).isZero();
+        assertThat(libraryService.getBooksByCategory(BookCategory.SCIENCE)).containsExactly(duplicate);
+        assertThat(libraryService.searchBooksByTitle("final")).containsExactly(duplicate);
+        assertThat(libraryService.getAvailableBooks()).containsExactly(duplicate);
+    }
+
+    @Test
+    void testAddBooks_largeBatchAcrossChunks() {
+        List<Book> batch = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            String isbn = i % 1000 == 999 ? "bad-" + i : String.format("978%010d", i);
+            batch.add(new Book(isbn, "Title " + i, "Author", "Publisher", 2020, 1, BookCategory.FICTION));
+        }
+
+        BulkLoadReport report = libraryService.addBooks(batch);
+
+        assertThat(report.getAcceptedCount()).isEqualTo(4995);
+        assertThat(report.getErrors()).extracting(BulkLoadReport.RecordError::getIndex)
+                .containsExactly(999, 1999, 2999, 3999, 4999);
+        assertThat(libraryService.getTotalBooks()).isEqualTo(4996);
+        assertThat(libraryService.getAvailableBookCount()).isEqualTo(4996);
+    }
+
+    @Test
+    void testRestoreLoans_reportsRejectedLoansAndRestoresTheRest() {
+        LocalDate loanDate = LocalDate.of(2024, 3, 1);
+        Loan returned = new Loan("L2", "M001", "9780134685991", loanDate, loanDate.plusDays(14));
+        returned.setReturnDate(loanDate.plusDays(7));
+        returned.setStatus(LoanStatus.RETURNED);
+        List<Loan> batch = new ArrayList<>();
+        batch.add(new Loan("L1", "M001", "9780134685991", loanDate, loanDate.plusDays(14)));
+        batch.add(returned);
+        batch.add(new Loan("L1", "M001", "9780134685991", loanDate, loanDate.plusDays(14)));
+        batch.add(new Loan("L3", "M404", "9780134685991", loanDate, loanDate.plusDays(14)));
+        batch.add(new Loan("L4", "M001", "9999999999999", loanDate, loanDate.plusDays(14)));
+        batch.add(new Loan("L5", "M001", "9780134685991", loanDate, loanDate.plusDays(14)));
+
+        BulkLoadReport report = libraryService.restoreLoans(batch);
+
+        assertThat(report.getAcceptedCount()).isEqualTo(3);
+        assertThat(report.getErrors()).extracting(BulkLoadReport.RecordError::getIndex).containsExactly(2, 3, 4);
+        assertThat(libraryService.getLoanHistory("M001")).extracting(Loan::getLoanId)
+                .containsExactly("L1", "L2", "L5");
+        assertThat(libraryService.findBookByIsbn("9780134685991").getAvailableCopies()).isEqualTo(3);
+    }
+
     @Test
     void testFindBookByIsbn_success() throws Exception {
         Book found = libraryService.findBookByIsbn("9780134685991");
@@ -117,6 +204,35 @@ class LibraryServiceTest {
         assertThat(results.get(0).getAuthor()).isEqualTo("Joshua Bloch");
     }
 
+    @Test
+    void testSearchBooksByTitle_substring() {
+        List<Book> results = libraryService.searchBooksByTitle("ive ja");
+        assertThat(results).containsExactly(testBook);
+    }
+
+    @Test
+    void testSearchBooksByTitle_shortQuery() {
+        assertThat(libraryService.searchBooksByTitle("ja")).containsExactly(testBook);
+        assertThat(libraryService.searchBooksByTitle("q")).isEmpty();
+    }
+
+    @Test
+    void testSearchBooksByTitle_afterUpdate() throws Exception {
+        Book renamed = new Book("9780134685991", "Java Puzzlers", "Joshua Bloch",
+                               "Addison-Wesley", 2005, 5, BookCategory.TECHNOLOGY);
+        libraryService.updateBook(renamed);
+
+        assertThat(libraryService.searchBooksByTitle("Effective")).isEmpty();
+        assertThat(libraryService.searchBooksByTitle("puzzlers")).hasSize(1);
+    }
+
+    @Test
+    void testSearchBooksByTitle_afterRemove() throws Exception {
+        libraryService.removeBook("9780134685991");
+        assertThat(libraryService.searchBooksByTitle("Effective")).isEmpty();
+        assertThat(libraryService.searchBooksByAuthor("Bloch")).isEmpty();
+    }
+
     @Test
     void testGetBooksByCategory() {
         List<Book> results = libraryService.getBooksByCategory(BookCategory.TECHNOLOGY);
@@ -129,6 +245,45 @@ class LibraryServiceTest {
         assertThat(results).hasSize(1);
     }
 
+    @Test
+    void testGetBookCountByCategory() {
+        assertThat(libraryService.getBookCountByCategory(BookCategory.TECHNOLOGY)).isEqualTo(1);
+        assertThat(libraryService.getBookCountByCategory(BookCategory.FICTION)).isZero();
+        assertThat(libraryService.getBookCountByCategory(null)).isZero();
+    }
+
+    @Test
+    void testGetBooksByCategory_afterCategoryChange() throws Exception {
+        Book moved = new Book("9780134685991", "Effective Java", "Joshua Bloch",
+                             "Addison-Wesley", 2018, 5, BookCategory.REFERENCE);
+        libraryService.updateBook(moved);
+
+        assertThat(libraryService.getBooksByCategory(BookCategory.TECHNOLOGY)).isEmpty();
+        assertThat(libraryService.getBooksByCategory(BookCategory.REFERENCE)).containsExactly(moved);
+    }
+
+    @Test
+    void testGetAvailableBooks_tracksLastCopy() throws Exception {
+        Book single = new Book("9780132350884", "Clean Code", "Robert Martin",
+                              "Prentice Hall", 2008, 1, BookCategory.TECHNOLOGY);
+        libraryService.addBook(single);
+        assertThat(libraryService.getAvailableBookCount()).isEqualTo(2);
+
+        Loan loan = libraryService.issueBook("M001", "9780132350884");
+        assertThat(libraryService.getAvailableBooks()).containsExactly(testBook);
+        assertThat(libraryService.getAvailableBookCount()).isEqualTo(1);
+
+        libraryService.returnBook(loan.getLoanId());
+        assertThat(libraryService.getAvailableBooks()).containsExactlyInAnyOrder(testBook, single);
+    }
+
+    @Test
+    void testGetAvailableBooks_afterRemove() throws Exception {
+        libraryService.removeBook("9780134685991");
+        assertThat(libraryService.getAvailableBooks()).isEmpty();
+        assertThat(libraryService.getBookCountByCategory(BookCategory.TECHNOLOGY)).isZero();
+    }
+
     @Test
     void testUpdateBook_success() throws Exception {
         testBook.setTitle("Effective Java 3rd Edition");
@@ -248,6 +403,36 @@ class LibraryServiceTest {
         assertThat(book.getAvailableCopies()).isEqualTo(4);
     }
 
+    @Test
+    void testIssueBook_loansShareTheRegisteredIdInstances() throws Exception {
+        Loan issued = libraryService.issueBook(new String("M001".toCharArray()),
+                new String("9780134685991".toCharArray()));
+        Loan restored = new Loan("LOAN-RESTORED", new String("M001".toCharArray()),
+                new String("9780134685991".toCharArray()), LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 15));
+        restored.setStatus(LoanStatus.RETURNED);
+        libraryService.restoreLoan(restored);
+
+        for (Loan loan : libraryService.getLoanHistory("M001")) {
+            assertThat(loan.getMemberId()).isSameAs(testMember.getMemberId());
+            assertThat(loan.getIsbn()).isSameAs(testBook.getIsbn());
+        }
+        assertThat(libraryService.getLoanHistory("M001")).containsExactly(issued, restored);
+    }
+
+    @Test
+    void testIssueBook_usesPluggableLoanIdGenerator() throws Exception {
+        AtomicLong sequence = new AtomicLong(41);
+        LibraryService service = new LibraryService(4, sequence::incrementAndGet);
+        service.addBook(libraryService.findBookByIsbn("9780134685991"));
+        service.registerMember(libraryService.findMemberById("M001"));
+
+        Loan loan = service.issueBook("M001", "9780134685991");
+
+        assertThat(loan.getLoanId()).isEqualTo("LOAN-42");
+        service.returnBook("LOAN-42");
+        assertThat(loan.getStatus()).isEqualTo(LoanStatus.RETURNED);
+    }
+
     @Test
     void testIssueBook_memberNotFound() {
         assertThatThrownBy(() -> libraryService.issueBook("M999", "9780134685991"))
@@ -347,6 +532,39 @@ class LibraryServiceTest {
         assertThat(activeLoans).hasSize(1);
     }
 
+    @Test
+    void testGetActiveLoanCount() throws Exception {
+        Loan loan = libraryService.issueBook("M001", "9780134685991");
+        assertThat(libraryService.getActiveLoanCount("M001")).isEqualTo(1);
+
+        libraryService.returnBook(loan.getLoanId());
+        assertThat(libraryService.getActiveLoanCount("M001")).isZero();
+        assertThat(libraryService.getActiveLoansByMember("M001")).isEmpty();
+        assertThat(libraryService.getLoanHistory("M001")).containsExactly(loan);
+    }
+
+    @Test
+    void testReturnBook_numberedAndTextLoanIdsStayDistinct() throws Exception {
+        LocalDate loanDate = LocalDate.of(2024, 3, 1);
+        libraryService.restoreLoan(new Loan("LOAN-7", "M001", "9780134685991", loanDate, loanDate.plusDays(14)));
+        libraryService.restoreLoan(new Loan("LOAN-007", "M001", "9780134685991", loanDate, loanDate.plusDays(14)));
+        Loan issued = libraryService.issueBook("M001", "9780134685991");
+
+        libraryService.returnBook("LOAN-007");
+
+        assertThat(libraryService.getActiveLoansByMember("M001")).extracting(Loan::getLoanId)
+                .containsExactly("LOAN-7", issued.getLoanId());
+        assertThat(libraryService.getTotalActiveLoans()).isEqualTo(2);
+        assertThatThrownBy(() -> libraryService.returnBook("LOAN-0007"))
+                .isInstanceOf(InvalidInputException.class)
+                .hasMessageContaining("Loan not found");
+    }
+
+    @Test
+    void testGetActiveLoanCount_unknownMember() {
+        assertThat(libraryService.getActiveLoanCount("M999")).isZero();
+    }
+
     @Test
     void testGetActiveLoansByMember_noLoans() {
         List<Loan> activeLoans = libraryService.getActiveLoansByMember("M001");
@@ -360,6 +578,23 @@ class LibraryServiceTest {
         assertThat(overdueLoans).isNotNull();
     }
 
+    @Test
+    void testGetOverdueLoans_asOf() throws Exception {
+        Loan loan = libraryService.issueBook("M001", "9780134685991");
+
+        assertThat(libraryService.getOverdueLoans(loan.getDueDate())).isEmpty();
+        assertThat(libraryService.getOverdueLoans(loan.getDueDate().plusDays(1))).containsExactly(loan);
+        assertThat(libraryService.getOverdueLoans(null)).isEmpty();
+    }
+
+    @Test
+    void testGetOverdueLoans_asOf_afterReturn() throws Exception {
+        Loan loan = libraryService.issueBook("M001", "9780134685991");
+        libraryService.returnBook(loan.getLoanId());
+
+        assertThat(libraryService.getOverdueLoans(loan.getDueDate().plusDays(30))).isEmpty();
+    }
+
     @Test
     void testGetLoanHistory() throws Exception {
         libraryService.issueBook("M001", "9780134685991");
@@ -398,5 +633,96 @@ class LibraryServiceTest {
         libraryService.returnBook(loan.getLoanId());
         assertThat(libraryService.getTotalActiveLoans()).isEqualTo(0);
     }
-}
 
+    @Test
+    void testClock_datesLoansAndJudgesThemOverdue() {
+        ManualClock clock = new ManualClock(Instant.parse("2024-03-01T23:30:00Z"), ZoneOffset.UTC);
+        LibraryService clocked = new LibraryService(4, new AtomicLong()::incrementAndGet, clock);
+        clocked.addBook(testBook);
+        clocked.registerMember(testMember);
+
+        Loan loan = clocked.issueBook(testMember.getMemberId(), testBook.getIsbn());
+        LocalDate dueDate = loan.getDueDate();
+        assertThat(loan.getLoanDate()).isEqualTo(LocalDate.of(2024, 3, 1));
+        assertThat(clocked.getOverdueLoans()).isEmpty();
+
+        clock.advance(Duration.ofHours(1));
+        assertThat(clocked.todayDate()).isEqualTo(LocalDate.of(2024, 3, 2));
+        clock.setInstant(dueDate.plusDays(3).atStartOfDay(ZoneOffset.UTC).toInstant());
+
+        assertThat(clocked.getOverdueLoans()).containsExactly(loan);
+        assertThat(clocked.calculateFine(loan)).isEqualTo(3.0);
+    }
+
+    @Test
+    void testReturnBook_chargesFineForOverdueDays() {
+        ManualClock clock = new ManualClock(Instant.parse("2024-03-01T12:00:00Z"), ZoneOffset.UTC);
+        LibraryService clocked = new LibraryService(4, new AtomicLong()::incrementAndGet, clock);
+        clocked.addBook(testBook);
+        clocked.registerMember(testMember);
+
+        Loan onTime = clocked.issueBook(testMember.getMemberId(), testBook.getIsbn());
+        clock.setInstant(onTime.getDueDate().atStartOfDay(ZoneOffset.UTC).toInstant());
+        clocked.returnBook(onTime.getLoanId());
+        Loan late = clocked.issueBook(testMember.getMemberId(), testBook.getIsbn());
+        clock.setInstant(late.getDueDate().plusDays(5).atStartOfDay(ZoneOffset.UTC).toInstant());
+        clocked.returnBook(late.getLoanId());
+
+        assertThat(onTime.getFineAmount()).isZero();
+        assertThat(late.getStatus()).isEqualTo(LoanStatus.RETURNED);
+        assertThat(late.getReturnDate()).isEqualTo(late.getDueDate().plusDays(5));
+        assertThat(late.getFineAmount()).isEqualTo(5.0);
+    }
+
+    @Test
+    void testQueryParallelism_parallelScansMatchSequential() {
+        ManualClock clock = new ManualClock(Instant.parse("2024-03-01T12:00:00Z"), ZoneOffset.UTC);
+        LibraryService service = new LibraryService(4, new AtomicLong()::incrementAndGet, clock);
+        for (int i = 0; i < 3000; i++) {
+            service.addBook(new Book(String.format("978%010d", i), "Title " + i, "Author", "Publisher", 2020,
+                    1 + i % 2, BookCategory.values()[i % BookCategory.values().length]));
+        }
+        for (int m = 0; m < 400; m++) {
+            String memberId = String.format("M%04d", m);
+            service.registerMember(new Member(memberId, "Member " + m, "member" + m + "@example.com",
+                    "1234567890", LocalDate.of(2023, 1, 1), MembershipType.FACULTY));
+            for (int i = 0; i < 3; i++) {
+                service.issueBook(memberId, String.format("978%010d", (m * 7 + i * 1009) % 3000));
+            }
+            if (m % 5 == 0) {
+                service.deactivateMember(memberId);
+            }
+            if (m % 20 == 0) {
+                clock.advance(Duration.ofDays(1));
+            }
+        }
+        LocalDate asOf = LocalDate.of(2025, 1, 1);
+        List<Book> available = service.getAvailableBooks();
+        List<Book> fiction = service.getBooksByCategory(BookCategory.FICTION);
+        List<Member> active = service.getActiveMembers();
+        List<Loan> overdue = service.getOverdueLoans(asOf);
+        int activeLoans = service.getTotalActiveLoans();
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            service.setQueryParallelism(QueryParallelism.parallel(pool, 1));
+
+            assertThat(service.getAvailableBooks()).containsExactlyInAnyOrderElementsOf(available);
+            assertThat(service.getBooksByCategory(BookCategory.FICTION)).containsExactlyInAnyOrderElementsOf(fiction);
+            assertThat(service.getActiveMembers()).containsExactlyElementsOf(active).hasSize(320);
+            assertThat(service.getOverdueLoans(asOf)).containsExactlyElementsOf(overdue).hasSize(1200);
+            assertThat(service.getTotalActiveLoans()).isEqualTo(activeLoans).isEqualTo(1200);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testQueryParallelism_rejectsMissingPoolAndThreshold() {
+        assertThatThrownBy(() -> QueryParallelism.parallel(null, 1000))
+                .isInstanceOf(InvalidInputException.class);
+        assertThatThrownBy(() -> QueryParallelism.parallel(ForkJoinPool.commonPool(), 0))
+                .isInstanceOf(InvalidInputException.class);
+        assertThat(QueryParallelism.sequential().getPool()).isNull();
+    }
+}
@@ -0,0 +1,162 @@
+package com.bidgely.library.service;
+
+import com.bidgely.library.model.*;
+import com.bidgely.library.util.ManualClock;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LibraryStatisticsTest {
+
+    private static final String ISBN = "9780134685991";
+    private static final String OTHER_ISBN = "9780132350884";
+
+    private ManualClock clock;
+    private LibraryService libraryService;
+    private ReservationService reservationService;
+    private AuthorService authorService;
+
+    @BeforeEach
+    void setUp() {
+        clock = new ManualClock(Instant.parse("2024-03-01T12:00:00Z"), ZoneOffset.UTC);
+        libraryService = new LibraryService(4, new AtomicLong()::incrementAndGet, clock);
+        reservationService = new ReservationService(libraryService);
+        authorService = new AuthorService();
+    }
+
+    @Test
+    void testSnapshot_followsStateTransitions() {
+        libraryService.addBook(new Book(ISBN, "Effective Java", "Joshua Bloch", "Addison-Wesley", 2018, 2,
+                BookCategory.TECHNOLOGY));
+        libraryService.addBook(new Book(OTHER_ISBN, "Clean Code", "Robert Martin", "Prentice Hall", 2008, 1,
+                BookCategory.TECHNOLOGY));
+        for (int m = 1; m <= 3; m++) {
+            libraryService.registerMember(new Member("M00" + m, "Member " + m, "member" + m + "@example.com",
+                    "1234567890", LocalDate.of(2023, 1, 1), MembershipType.PREMIUM));
+        }
+        libraryService.deactivateMember("M003");
+        libraryService.deactivateMember("M003");
+        authorService.addAuthor("Joshua", "Bloch");
+        Author martin = authorService.addAuthor("Robert", "Martin");
+        authorService.deactivateAuthor(martin.getAuthorId());
+
+        libraryService.issueBook("M001", ISBN);
+        Loan late = libraryService.issueBook("M001", OTHER_ISBN);
+        Reservation hold = reservationService.createReservation("M002", OTHER_ISBN);
+        reservationService.cancelReservation(reservationService.createReservation("M002", ISBN).getReservationId());
+        clock.setInstant(late.getDueDate().plusDays(4).atStartOfDay(ZoneOffset.UTC).toInstant());
+
+        LibraryStatistics before = LibraryStatistics.snapshot(libraryService, reservationService, authorService);
+        assertThat(before.getActiveLoans()).isEqualTo(2);
+        assertThat(before.getOverdueLoans()).isEqualTo(2);
+        assertThat(before.getActiveMembers()).isEqualTo(2);
+        assertThat(before.getActiveAuthors()).isEqualTo(1);
+        assertThat(before.getAvailableCopies()).isEqualTo(1);
+        assertThat(before.getReservations(Reservation.ReservationStatus.ACTIVE)).isEqualTo(1);
+        assertThat(before.getReservations(Reservation.ReservationStatus.CANCELLED)).isEqualTo(1);
+
+        // The returned copy goes straight to the hold, so it never reaches the shelf
+        libraryService.returnBook(late.getLoanId());
+
+        LibraryStatistics after = LibraryStatistics.snapshot(libraryService, reservationService, authorService);
+        assertThat(hold.getStatus()).isEqualTo(Reservation.ReservationStatus.FULFILLED);
+        assertThat(after.getActiveLoans()).isEqualTo(2);
+        assertThat(after.getOverdueLoans()).isEqualTo(1);
+        assertThat(after.getAvailableCopies()).isEqualTo(1);
+        assertThat(late.getFineAmount()).isEqualTo(4.0);
+        assertThat(after.getFinesAccrued()).isEqualTo(4.0);
+        assertThat(after.getReservations(Reservation.ReservationStatus.ACTIVE)).isZero();
+        assertThat(after.getReservations(Reservation.ReservationStatus.FULFILLED)).isEqualTo(1);
+        assertThat(LibraryStatistics.snapshot(libraryService, null, null).getReservationsByStatus().values())
+                .containsOnly(0L);
+    }
+
+    @Test
+    void testActiveAuthors_countedUnderConcurrentUpdateAndDeactivate() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            for (int round = 0; round < 500; round++) {
+                Author author = authorService.addAuthor("Joshua", "Bloch");
+                CountDownLatch start = new CountDownLatch(1);
+                Future<?> update = executor.submit(() -> {
+                    start.await();
+                    return authorService.updateAuthor(new Author(author.getAuthorId(), "Joshua", "Bloch"));
+                });
+                Future<?> deactivate = executor.submit(() -> {
+                    start.await();
+                    authorService.deactivateAuthor(author.getAuthorId());
+                    return null;
+                });
+                start.countDown();
+                update.get();
+                deactivate.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        LibraryStatistics statistics = LibraryStatistics.snapshot(libraryService, null, authorService);
+        assertThat(statistics.getActiveAuthors())
+                .isEqualTo(authorService.getAllAuthors().stream().filter(Author::isActive).count());
+    }
+
+    @Test
+    void testSnapshot_matchesScansAfterRandomCirculation() {
+        Random random = new Random(11);
+        for (int i = 0; i < 50; i++) {
+            libraryService.addBook(new Book(String.format("978%010d", i), "Title " + i, "Author", "Publisher",
+                    2020, 1 + i % 3, BookCategory.FICTION));
+        }
+        for (int m = 0; m < 20; m++) {
+            libraryService.registerMember(new Member(String.format("M%03d", m), "Member " + m,
+                    "member" + m + "@example.com", "1234567890", LocalDate.of(2023, 1, 1), MembershipType.FACULTY));
+        }
+        for (int step = 0; step < 2000; step++) {
+            String memberId = String.format("M%03d", random.nextInt(20));
+            String isbn = String.format("978%010d", random.nextInt(50));
+            int action = random.nextInt(10);
+            try {
+                if (action < 5) {
+                    libraryService.issueBook(memberId, isbn);
+                } else if (action < 8) {
+                    for (Loan loan : libraryService.getActiveLoansByMember(memberId)) {
+                        libraryService.returnBook(loan.getLoanId());
+                        break;
+                    }
+                } else if (action == 8) {
+                    reservationService.createReservation(memberId, isbn);
+                } else {
+                    clock.advance(Duration.ofDays(3));
+                    reservationService.processExpiredReservations();
+                }
+            } catch (RuntimeException e) {
+                // Unavailable books, loan limits and duplicate holds are part of the workload
+            }
+        }
+
+        LibraryStatistics statistics = LibraryStatistics.snapshot(libraryService, reservationService, authorService);
+        assertThat(statistics.getActiveLoans())
+                .isEqualTo(libraryService.getAllLoans().stream().filter(l -> l.getStatus() == LoanStatus.ACTIVE).count());
+        assertThat(statistics.getOverdueLoans()).isEqualTo(libraryService.getOverdueLoans().size());
+        assertThat(statistics.getAvailableCopies())
+                .isEqualTo(libraryService.getAllBooks().stream().mapToLong(Book::getAvailableCopies).sum());
+        assertThat(statistics.getFinesAccrued())
+                .isEqualTo(libraryService.getAllLoans().stream().mapToDouble(Loan::getFineAmount).sum());
+        for (Reservation.ReservationStatus status : Reservation.ReservationStatus.values()) {
+            assertThat(statistics.getReservations(status)).as(status.name()).isEqualTo(
+                    reservationService.getAllReservations().stream().filter(r -> r.getStatus() == status).count());
+        }
+    }
+}
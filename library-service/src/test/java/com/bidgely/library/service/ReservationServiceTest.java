@@ -0,0 +1,204 @@
+package com.bidgely.library.service;
+
+import com.bidgely.library.exception.InvalidInputException;
+import com.bidgely.library.model.*;
+import com.bidgely.library.util.ManualClock;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ReservationServiceTest {
+
+    private static final String ISBN = "9780134685991";
+    private static final String OTHER_ISBN = "9780132350884";
+
+    private LibraryService libraryService;
+    private ReservationService reservationService;
+
+    @BeforeEach
+    void setUp() {
+        libraryService = new LibraryService();
+        libraryService.addBook(new Book(ISBN, "Effective Java", "Joshua Bloch",
+                "Addison-Wesley", 2018, 1, BookCategory.TECHNOLOGY));
+        libraryService.addBook(new Book(OTHER_ISBN, "Clean Code", "Robert Martin",
+                "Prentice Hall", 2008, 1, BookCategory.TECHNOLOGY));
+        libraryService.registerMember(new Member("M001", "John Doe", "john.doe@example.com",
+                "1234567890", LocalDate.of(2023, 1, 1), MembershipType.PREMIUM));
+        libraryService.registerMember(new Member("M002", "Jane Doe", "jane.doe@example.com",
+                "9876543210", LocalDate.of(2023, 1, 1), MembershipType.BASIC));
+        reservationService = new ReservationService(libraryService);
+    }
+
+    @Test
+    void testCreateReservation_success() {
+        Reservation reservation = reservationService.createReservation("M001", ISBN);
+
+        assertThat(reservation.getStatus()).isEqualTo(Reservation.ReservationStatus.ACTIVE);
+        assertThat(reservationService.getReservation(reservation.getReservationId())).isEqualTo(reservation);
+        assertThat(reservationService.getActiveReservationsByMember("M001")).containsExactly(reservation);
+        assertThat(reservationService.getActiveReservationsByBook(ISBN)).containsExactly(reservation);
+    }
+
+    @Test
+    void testCreateReservation_duplicate() {
+        reservationService.createReservation("M001", ISBN);
+
+        assertThatThrownBy(() -> reservationService.createReservation("M001", ISBN))
+                .isInstanceOf(InvalidInputException.class)
+                .hasMessageContaining("already has an active reservation");
+    }
+
+    @Test
+    void testCreateReservation_afterCancel() {
+        Reservation first = reservationService.createReservation("M001", ISBN);
+        reservationService.cancelReservation(first.getReservationId());
+
+        Reservation second = reservationService.createReservation("M001", ISBN);
+        assertThat(reservationService.getActiveReservationsByMember("M001")).containsExactly(second);
+    }
+
+    @Test
+    void testGetActiveReservationsByBook_ordered() {
+        Reservation first = reservationService.createReservation("M001", ISBN);
+        Reservation second = reservationService.createReservation("M002", ISBN);
+        reservationService.createReservation("M002", OTHER_ISBN);
+
+        assertThat(reservationService.getActiveReservationsByBook(ISBN)).containsExactly(first, second);
+    }
+
+    @Test
+    void testFulfillReservation_removesFromActive() {
+        Reservation reservation = reservationService.createReservation("M001", ISBN);
+        reservationService.fulfillReservation(reservation.getReservationId());
+
+        assertThat(reservation.getStatus()).isEqualTo(Reservation.ReservationStatus.FULFILLED);
+        assertThat(reservationService.getActiveReservationsByMember("M001")).isEmpty();
+        assertThat(reservationService.getActiveReservationsByBook(ISBN)).isEmpty();
+    }
+
+    @Test
+    void testGetActiveReservations_ignoresStatusChangedOutsideService() {
+        Reservation reservation = reservationService.createReservation("M001", ISBN);
+        reservation.cancel();
+
+        assertThat(reservationService.getActiveReservationsByMember("M001")).isEmpty();
+        assertThat(reservationService.createReservation("M001", ISBN)).isNotNull();
+    }
+
+    @Test
+    void testReturnBook_allocatesCopyToOldestHold() {
+        Loan loan = libraryService.issueBook("M001", ISBN);
+        Reservation first = reservationService.createReservation("M002", ISBN);
+        libraryService.registerMember(new Member("M003", "Jim Doe", "jim.doe@example.com",
+                "5551234567", LocalDate.of(2023, 1, 1), MembershipType.BASIC));
+        Reservation second = reservationService.createReservation("M003", ISBN);
+
+        libraryService.returnBook(loan.getLoanId());
+
+        assertThat(first.getStatus()).isEqualTo(Reservation.ReservationStatus.FULFILLED);
+        assertThat(second.getStatus()).isEqualTo(Reservation.ReservationStatus.ACTIVE);
+        assertThat(libraryService.getActiveLoansByMember("M002")).extracting(Loan::getIsbn).containsExactly(ISBN);
+        assertThat(libraryService.findBookByIsbn(ISBN).getAvailableCopies()).isZero();
+        assertThat(libraryService.getAvailableBooks()).extracting(Book::getIsbn).doesNotContain(ISBN);
+        assertThat(reservationService.getActiveReservationsByBook(ISBN)).containsExactly(second);
+    }
+
+    @Test
+    void testReturnBook_skipsHoldWhenMemberAtLimit() {
+        Loan loan = libraryService.issueBook("M001", ISBN);
+        Reservation blocked = reservationService.createReservation("M002", ISBN);
+        libraryService.registerMember(new Member("M003", "Jim Doe", "jim.doe@example.com",
+                "5551234567", LocalDate.of(2023, 1, 1), MembershipType.BASIC));
+        Reservation later = reservationService.createReservation("M003", ISBN);
+        for (int i = 0; i < MembershipType.BASIC.getMaxBooks(); i++) {
+            String isbn = "978013235088" + (i + 5);
+            libraryService.addBook(new Book(isbn, "Filler " + i, "Author", "Publisher", 2020, 1, BookCategory.FICTION));
+            libraryService.issueBook("M002", isbn);
+        }
+
+        libraryService.returnBook(loan.getLoanId());
+
+        assertThat(blocked.getStatus()).isEqualTo(Reservation.ReservationStatus.ACTIVE);
+        assertThat(later.getStatus()).isEqualTo(Reservation.ReservationStatus.FULFILLED);
+        assertThat(libraryService.getActiveLoansByMember("M003")).extracting(Loan::getIsbn).containsExactly(ISBN);
+    }
+
+    @Test
+    void testReturnBook_withoutHolds_returnsCopyToShelf() {
+        Loan loan = libraryService.issueBook("M001", ISBN);
+        Reservation cancelled = reservationService.createReservation("M002", ISBN);
+        reservationService.cancelReservation(cancelled.getReservationId());
+
+        libraryService.returnBook(loan.getLoanId());
+
+        assertThat(libraryService.findBookByIsbn(ISBN).getAvailableCopies()).isEqualTo(1);
+        assertThat(libraryService.getActiveLoansByMember("M002")).isEmpty();
+    }
+
+    @Test
+    void testCancelReservation_notFound() {
+        assertThatThrownBy(() -> reservationService.cancelReservation("RES-0"))
+                .isInstanceOf(InvalidInputException.class)
+                .hasMessageContaining("Reservation not found");
+    }
+
+    @Test
+    void testProcessExpiredReservations_notYetExpired() {
+        reservationService.createReservation("M001", ISBN);
+
+        assertThat(reservationService.getExpiredReservations()).isEmpty();
+        assertThat(reservationService.processExpiredReservations()).isZero();
+    }
+
+    @Test
+    void testProcessExpiredReservations_asOf() {
+        Reservation reservation = reservationService.createReservation("M001", ISBN);
+        LocalDate afterExpiry = reservation.getExpiryDate().plusDays(1);
+
+        assertThat(reservationService.processExpiredReservations(reservation.getExpiryDate())).isZero();
+        assertThat(reservationService.getExpiredReservations(afterExpiry)).containsExactly(reservation);
+        assertThat(reservationService.processExpiredReservations(afterExpiry)).isEqualTo(1);
+        assertThat(reservation.getStatus()).isEqualTo(Reservation.ReservationStatus.EXPIRED);
+        assertThat(reservationService.getActiveReservationsByBook(ISBN)).isEmpty();
+        assertThat(reservationService.processExpiredReservations(afterExpiry)).isZero();
+    }
+
+    @Test
+    void testProcessExpiredReservations_skipsCancelled() {
+        Reservation cancelled = reservationService.createReservation("M001", ISBN);
+        reservationService.createReservation("M002", ISBN);
+        reservationService.cancelReservation(cancelled.getReservationId());
+
+        LocalDate afterExpiry = cancelled.getExpiryDate().plusDays(1);
+        assertThat(reservationService.processExpiredReservations(afterExpiry)).isEqualTo(1);
+        assertThat(cancelled.getStatus()).isEqualTo(Reservation.ReservationStatus.CANCELLED);
+    }
+
+    @Test
+    void testProcessExpiredReservations_followsTheServiceClock() {
+        ManualClock clock = new ManualClock(Instant.parse("2024-03-01T10:00:00Z"), ZoneOffset.UTC);
+        LibraryService clocked = new LibraryService(4, new AtomicLong()::incrementAndGet, clock);
+        clocked.addBook(new Book(ISBN, "Effective Java", "Joshua Bloch", "Addison-Wesley", 2018, 1,
+                BookCategory.TECHNOLOGY));
+        clocked.registerMember(new Member("M001", "John Doe", "john.doe@example.com", "1234567890",
+                LocalDate.of(2023, 1, 1), MembershipType.PREMIUM));
+        ReservationService reservations = new ReservationService(clocked);
+
+        Reservation reservation = reservations.createReservation("M001", ISBN);
+        clock.advance(Duration.ofDays(7));
+        assertThat(reservations.processExpiredReservations()).isZero();
+        clock.advance(Duration.ofDays(1));
+
+        assertThat(reservation.getReservationDate()).isEqualTo(LocalDate.of(2024, 3, 1));
+        assertThat(reservations.getExpiredReservations()).containsExactly(reservation);
+        assertThat(reservations.processExpiredReservations()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,118 @@
+package com.bidgely.library.service.catalog;
+
+import com.bidgely.library.exception.BookNotAvailableException;
+import com.bidgely.library.exception.InvalidInputException;
+import com.bidgely.library.model.*;
+import com.bidgely.library.service.LibraryService;
+import com.bidgely.library.service.ReservationService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MappedBookCatalogTest {
+
+    private static final String ISBN = "9780134685991";
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testAddAndFind_viewsShareTheRecord() throws IOException {
+        try (MappedBookCatalog catalog = MappedBookCatalog.create(dir, 10)) {
+            catalog.addBook(new Book(ISBN, "Effective Java", "Joshua Bloch", null, 2018, 2,
+                    BookCategory.TECHNOLOGY));
+
+            MappedBook first = catalog.findBook(ISBN);
+            MappedBook second = catalog.findBook(new String(ISBN.toCharArray()));
+
+            assertThat(first.getTitle()).isEqualTo("Effective Java");
+            assertThat(first.getPublisher()).isNull();
+            assertThat(first.getCategory()).isEqualTo(BookCategory.TECHNOLOGY);
+            assertThat(first).isEqualTo(second).hasSameHashCodeAs(second);
+            assertThat(first.tryBorrow()).isTrue();
+            assertThat(second.tryBorrow()).isTrue();
+            assertThat(first.tryBorrow()).isFalse();
+            assertThat(second.isAvailable()).isFalse();
+            second.setTitle("Effective Java, Third Edition");
+            assertThat(first.getTitle()).isEqualTo("Effective Java, Third Edition");
+            assertThat(catalog.findBook("9780132350884")).isNull();
+            assertThatThrownBy(() -> first.setIsbn("9780132350884"))
+                    .isInstanceOf(UnsupportedOperationException.class);
+        }
+    }
+
+    @Test
+    void testReopen_keepsRecordsAndCopyCounts() throws IOException {
+        // Small chunks put strings and records across several mappings
+        try (MappedBookCatalog catalog = MappedBookCatalog.create(dir, 2000, 12)) {
+            for (int i = 0; i < 2000; i++) {
+                catalog.addBook(new Book(isbn(i), "Title " + i + " " + repeat('x', i % 300), "Author " + i,
+                        "Publisher", 1900 + i % 120, 3, BookCategory.values()[i % BookCategory.values().length]));
+            }
+            catalog.findBook(isbn(7)).tryBorrow();
+            assertThatThrownBy(() -> catalog.addBook(new Book(isbn(2000), "Late", "Author", null, 2020, 1,
+                    BookCategory.FICTION)))
+                    .isInstanceOf(InvalidInputException.class)
+                    .hasMessageContaining("full");
+            assertThatThrownBy(() -> catalog.addBook(new Book(isbn(5), "Again", "Author", null, 2020, 1,
+                    BookCategory.FICTION)))
+                    .isInstanceOf(InvalidInputException.class)
+                    .hasMessageContaining("already");
+        }
+
+        try (MappedBookCatalog catalog = MappedBookCatalog.open(dir, 12)) {
+            assertThat(catalog.size()).isEqualTo(2000);
+            for (int i = 0; i < 2000; i += 97) {
+                MappedBook book = catalog.findBook(isbn(i));
+                assertThat(book.getTitle()).isEqualTo("Title " + i + " " + repeat('x', i % 300));
+                assertThat(book.getPublicationYear()).isEqualTo(1900 + i % 120);
+            }
+            assertThat(catalog.findBook(isbn(7)).getAvailableCopies()).isEqualTo(2);
+        }
+    }
+
+    @Test
+    void testLibraryService_lendsAndReservesCatalogBooks() throws IOException {
+        LibraryService libraryService = new LibraryService();
+        ReservationService reservationService = new ReservationService(libraryService);
+        libraryService.registerMember(new Member("M001", "John Doe", "john.doe@example.com", "1234567890",
+                LocalDate.of(2023, 1, 1), MembershipType.PREMIUM));
+        libraryService.registerMember(new Member("M002", "Jane Roe", "jane.roe@example.com", "1234567890",
+                LocalDate.of(2023, 1, 1), MembershipType.PREMIUM));
+        try (MappedBookCatalog catalog = MappedBookCatalog.create(dir, 10)) {
+            catalog.addBook(new Book(ISBN, "Effective Java", "Joshua Bloch", "Addison-Wesley", 2018, 1,
+                    BookCategory.TECHNOLOGY));
+            libraryService.setCatalog(catalog);
+
+            Loan loan = libraryService.issueBook("M001", ISBN);
+            assertThatThrownBy(() -> libraryService.issueBook("M002", ISBN))
+                    .isInstanceOf(BookNotAvailableException.class);
+            Reservation hold = reservationService.createReservation("M002", ISBN);
+            libraryService.returnBook(loan.getLoanId());
+
+            assertThat(hold.getStatus()).isEqualTo(Reservation.ReservationStatus.FULFILLED);
+            assertThat(libraryService.getActiveLoansByMember("M002")).extracting(Loan::getIsbn)
+                    .containsExactly(ISBN);
+            assertThat(libraryService.findBookByIsbn(ISBN).getAvailableCopies()).isZero();
+            assertThat(libraryService.getTotalBooks()).isZero();
+        }
+    }
+
+    private static String isbn(int i) {
+        return String.format("978%010d", i);
+    }
+
+    private static String repeat(char c, int count) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            builder.append(c);
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,118 @@
+package com.bidgely.library.service.history;
+
+import com.bidgely.library.exception.InvalidInputException;
+import com.bidgely.library.model.*;
+import com.bidgely.library.service.LibraryService;
+import com.bidgely.library.util.ManualClock;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ColumnarLoanStoreTest {
+
+    private static final LocalDate DAY = LocalDate.of(2024, 5, 1);
+
+    @Test
+    void testRecord_updatesTheRowOfAReturnedLoan() {
+        ColumnarLoanStore store = new ColumnarLoanStore();
+        Loan loan = new Loan("LOAN-7", "M001", "9780134685991", DAY, DAY.plusDays(14));
+        store.record(loan);
+        assertThat(store.getTotalActiveLoans()).isEqualTo(1);
+        assertThat(store.getActiveLoanCount("M001")).isEqualTo(1);
+
+        loan.setReturnDate(DAY.plusDays(20));
+        loan.setStatus(LoanStatus.RETURNED);
+        loan.setFineAmount(3.0);
+        store.record(loan);
+
+        assertThat(store.size()).isEqualTo(1);
+        assertThat(store.getTotalActiveLoans()).isZero();
+        assertThat(store.getActiveLoanCount("M001")).isZero();
+        assertThat(store.getLoan("LOAN-7")).isEqualToComparingFieldByFieldRecursively(loan);
+    }
+
+    @Test
+    void testRecord_keepsIdsThatAreNotLoanNumbers() {
+        ColumnarLoanStore store = new ColumnarLoanStore(0);
+        List<Loan> loans = new ArrayList<>();
+        for (String id : new String[]{"L1", "LOAN-007", "LOAN-x", "LOAN-7", "LOAN--3"}) {
+            Loan loan = new Loan(id, "M001", "9780134685991", DAY, DAY.plusDays(14));
+            loans.add(loan);
+            store.record(loan);
+        }
+
+        assertThat(store.size()).isEqualTo(5);
+        for (Loan loan : loans) {
+            assertThat(store.getLoan(loan.getLoanId())).isEqualToComparingFieldByFieldRecursively(loan);
+        }
+        assertThat(store.getLoan("LOAN-8")).isNull();
+    }
+
+    @Test
+    void testRecord_withoutMember() {
+        assertThatThrownBy(() -> new ColumnarLoanStore().record(new Loan("LOAN-1", null, "9780134685991", DAY, DAY)))
+                .isInstanceOf(InvalidInputException.class);
+    }
+
+    @Test
+    void testQueries_matchTheLibraryService() throws Exception {
+        ManualClock clock = new ManualClock(Instant.parse("2024-01-01T09:00:00Z"), ZoneOffset.UTC);
+        LibraryService libraryService = new LibraryService(16, new AtomicLong()::incrementAndGet, clock);
+        for (int i = 0; i < 40; i++) {
+            libraryService.addBook(new Book("978000000" + (1000 + i), "Book " + i, "Author", "Publisher", 2000, 2,
+                    BookCategory.FICTION));
+        }
+        for (int i = 0; i < 20; i++) {
+            libraryService.registerMember(new Member("M" + i, "Member " + i, "m" + i + "@example.com", "1234567890",
+                    LocalDate.of(2023, 1, 1), MembershipType.PREMIUM));
+        }
+        ColumnarLoanStore store = new ColumnarLoanStore(16);
+        List<Loan> open = new ArrayList<>();
+        Random random = new Random(7);
+        for (int day = 0; day < 60; day++) {
+            for (int i = 0; i < 5; i++) {
+                try {
+                    Loan loan = libraryService.issueBook("M" + random.nextInt(20), "978000000" + (1000 + random.nextInt(40)));
+                    open.add(loan);
+                    store.record(loan);
+                } catch (Exception e) {
+                    // Title out or member at the limit
+                }
+            }
+            if (!open.isEmpty() && random.nextInt(3) > 0) {
+                Loan loan = open.remove(random.nextInt(open.size()));
+                libraryService.returnBook(loan.getLoanId());
+                store.record(loan);
+            }
+            clock.advance(Duration.ofDays(1));
+        }
+
+        LocalDate today = LocalDate.now(clock);
+        assertThat(store.size()).isEqualTo(libraryService.getAllLoans().size());
+        assertThat(store.getTotalActiveLoans()).isEqualTo(libraryService.getTotalActiveLoans());
+        assertThat(store.getOverdueLoanCount(today)).isEqualTo(libraryService.getOverdueLoans(today).size())
+                .isPositive();
+        for (int i = 0; i < 20; i++) {
+            String memberId = "M" + i;
+            assertThat(store.getLoanHistory(memberId))
+                    .isEqualTo(libraryService.getLoanHistory(memberId));
+            assertThat(store.getActiveLoansByMember(memberId))
+                    .isEqualTo(libraryService.getActiveLoansByMember(memberId));
+            assertThat(store.getActiveLoanCount(memberId)).isEqualTo(libraryService.getActiveLoanCount(memberId));
+        }
+        for (Loan loan : libraryService.getAllLoans()) {
+            assertThat(store.getLoan(loan.getLoanId())).isEqualToComparingFieldByFieldRecursively(loan);
+        }
+        assertThat(store.getLoanHistory("M99")).isEmpty();
+    }
+}
@@ -0,0 +1,202 @@
+package com.bidgely.library.service.io;
+
+import com.bidgely.library.exception.InvalidInputException;
+import com.bidgely.library.model.*;
+import com.bidgely.library.service.BulkLoadReport;
+import com.bidgely.library.service.LibraryService;
+import com.bidgely.library.service.ReservationService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CatalogImporterTest {
+
+    private static final String ISBN = "9780134685991";
+    private static final String OTHER_ISBN = "9780132350884";
+
+    @TempDir
+    Path dir;
+
+    private LibraryService libraryService;
+    private ReservationService reservationService;
+
+    @BeforeEach
+    void setUp() {
+        libraryService = new LibraryService();
+        reservationService = new ReservationService(libraryService);
+        libraryService.addBook(new Book(ISBN, "Effective Java, \"3rd\" Edition", "Joshua Bloch",
+                "Addison-Wesley\nBoston", 2018, 2, BookCategory.TECHNOLOGY));
+        libraryService.addBook(new Book(OTHER_ISBN, "Café Müller 🍰", "Robert Martin",
+                null, 2008, 1, BookCategory.FICTION));
+        libraryService.registerMember(new Member("M001", "John Doe", "john.doe@example.com",
+                "1234567890", LocalDate.of(2023, 1, 1), MembershipType.PREMIUM));
+        libraryService.registerMember(new Member("M002", "Jane Doe", "jane.doe@example.com",
+                "9876543210", LocalDate.of(2023, 2, 1), MembershipType.BASIC));
+    }
+
+    @ParameterizedTest
+    @EnumSource(RecordFormat.class)
+    void testRoundTrip_restoresAllRecords(RecordFormat format) throws IOException {
+        Loan returned = libraryService.issueBook("M001", OTHER_ISBN);
+        libraryService.returnBook(returned.getLoanId());
+        Loan active = libraryService.issueBook("M002", ISBN);
+        Reservation first = reservationService.createReservation("M001", OTHER_ISBN);
+        Reservation second = reservationService.createReservation("M002", OTHER_ISBN);
+        libraryService.deactivateMember("M002");
+
+        CatalogExporter exporter = new CatalogExporter(libraryService, reservationService);
+        String extension = format == RecordFormat.CSV ? ".csv" : ".jsonl";
+        assertThat(exporter.exportBooks(dir.resolve("books" + extension))).isEqualTo(2);
+        assertThat(exporter.exportMembers(dir.resolve("members" + extension))).isEqualTo(2);
+        assertThat(exporter.exportLoans(dir.resolve("loans" + extension))).isEqualTo(2);
+        assertThat(exporter.exportReservations(dir.resolve("reservations" + extension))).isEqualTo(2);
+
+        LibraryService restored = new LibraryService();
+        ReservationService restoredReservations = new ReservationService(restored);
+        CatalogImporter importer = new CatalogImporter(restored, restoredReservations, 1, 256);
+        assertThat(importer.importBooks(dir.resolve("books" + extension)).getAcceptedCount()).isEqualTo(2);
+        assertThat(importer.importMembers(dir.resolve("members" + extension)).getAcceptedCount()).isEqualTo(2);
+        assertThat(importer.importLoans(dir.resolve("loans" + extension)).getAcceptedCount()).isEqualTo(2);
+        assertThat(importer.importReservations(dir.resolve("reservations" + extension)).getAcceptedCount())
+                .isEqualTo(2);
+
+        Book book = restored.findBookByIsbn(ISBN);
+        assertThat(book.getTitle()).isEqualTo("Effective Java, \"3rd\" Edition");
+        assertThat(book.getPublisher()).isEqualTo("Addison-Wesley\nBoston");
+        assertThat(book.getAvailableCopies()).isEqualTo(1);
+        Book other = restored.findBookByIsbn(OTHER_ISBN);
+        assertThat(other.getTitle()).isEqualTo("Café Müller 🍰");
+        assertThat(other.getPublisher()).isNull();
+        assertThat(other.getCategory()).isEqualTo(BookCategory.FICTION);
+
+        Member member = restored.findMemberById("M002");
+        assertThat(member.isActive()).isFalse();
+        assertThat(member.getMembershipType()).isEqualTo(MembershipType.BASIC);
+        assertThat(member.getMembershipDate()).isEqualTo(LocalDate.of(2023, 2, 1));
+
+        assertThat(restored.getActiveLoansByMember("M002")).extracting(Loan::getLoanId)
+                .containsExactly(active.getLoanId());
+        assertThat(restored.getLoanHistory("M001")).hasSize(1);
+        Loan history = restored.getLoanHistory("M001").get(0);
+        assertThat(history.getLoanId()).isEqualTo(returned.getLoanId());
+        assertThat(history.getStatus()).isEqualTo(LoanStatus.RETURNED);
+        assertThat(history.getReturnDate()).isEqualTo(returned.getReturnDate());
+
+        assertThat(restoredReservations.getActiveReservationsByBook(OTHER_ISBN))
+                .extracting(Reservation::getReservationId)
+                .containsExactly(first.getReservationId(), second.getReservationId());
+    }
+
+    @Test
+    void testImportBooks_reportsBadRecordsAndContinues() throws IOException {
+        Path csv = write("books.csv",
+                "isbn,title,author,publisher,publicationYear,totalCopies,category",
+                "9780000000001,Good Book,Some Author,Pub,2001,3,FICTION",
+                "9780000000002,Bad Year,Some Author,Pub,20x1,3,FICTION",
+                "9780000000003,Bad Category,Some Author,Pub,2001,3,POETRY",
+                ",No Isbn,Some Author,Pub,2001,3,FICTION",
+                "9780000000004,\"Quoted, Title\",Some Author,Pub,2001,3,",
+                "9780000000005,\"Unterminated,Some Author,Pub,2001,3,FICTION");
+
+        BulkLoadReport report = new CatalogImporter(new LibraryService(), null, 2, 96).importBooks(csv);
+
+        assertThat(report.getAcceptedCount()).isEqualTo(2);
+        assertThat(report.getErrors()).extracting(BulkLoadReport.RecordError::getIndex)
+                .containsExactly(1, 2, 3, 5);
+        assertThat(report.getErrors().get(0).getMessage()).isEqualTo("Invalid value for publicationYear: 20x1");
+        assertThat(report.getErrors().get(1).getKey()).isEqualTo("9780000000003");
+        assertThat(report.getErrors().get(3).getMessage()).startsWith("Malformed books record");
+    }
+
+    @Test
+    void testImportMembers_jsonLinesWithEscapesAndUnknownKeys() throws IOException {
+        Path jsonl = write("members.jsonl",
+                "{\"memberId\": \"M010\", \"name\": \"Zo\\u00eb \\\"Z\\\" \\ud83d\\ude00\", \"extra\": 1,"
+                        + " \"email\": \"zoe@example.com\", \"phoneNumber\": \"5551234567\","
+                        + " \"membershipDate\": \"2024-03-05\", \"membershipType\": \"STUDENT\", \"active\": true}",
+                "",
+                "{\"memberId\": \"M011\", \"name\": \"No Type\", \"email\": \"x@example.com\","
+                        + " \"phoneNumber\": \"5551234567\", \"membershipType\": null}",
+                "{\"memberId\": \"M012\", \"nested\": {}}",
+                "[1, 2]");
+        LibraryService service = new LibraryService();
+
+        BulkLoadReport report = new CatalogImporter(service, null).importMembers(jsonl);
+
+        assertThat(report.getAcceptedCount()).isEqualTo(1);
+        assertThat(report.getErrors()).extracting(BulkLoadReport.RecordError::getIndex).containsExactly(1, 2, 3);
+        assertThat(report.getErrors().get(0).getMessage()).isEqualTo("Missing value for membershipType");
+        Member member = service.findMemberById("M010");
+        assertThat(member.getName()).isEqualTo("Zoë \"Z\" 😀");
+        assertThat(member.getMembershipType()).isEqualTo(MembershipType.STUDENT);
+        assertThat(member.getMembershipDate()).isEqualTo(LocalDate.of(2024, 3, 5));
+    }
+
+    @Test
+    void testImportBooks_crlfAndReorderedHeader() throws IOException {
+        Path csv = dir.resolve("books.csv");
+        Files.write(csv, ("\uFEFFtitle,isbn,totalCopies,publicationYear,author\r\n"
+                + "\"Line\r\nBreak\",9780000000001,4,1999,Writer\r\n").getBytes(StandardCharsets.UTF_8));
+        LibraryService service = new LibraryService();
+
+        BulkLoadReport report = new CatalogImporter(service, null).importBooks(csv);
+
+        assertThat(report.hasErrors()).isFalse();
+        Book book = service.findBookByIsbn("9780000000001");
+        assertThat(book.getTitle()).isEqualTo("Line\r\nBreak");
+        assertThat(book.getTotalCopies()).isEqualTo(4);
+        assertThat(book.getCategory()).isNull();
+    }
+
+    @Test
+    void testImportLoans_rejectsUnknownMemberAndDuplicateId() throws IOException {
+        Path csv = write("loans.csv",
+                "loanId,memberId,isbn,loanDate,dueDate,returnDate,status,fineAmount",
+                "LOAN-1,M001," + ISBN + ",2024-01-01,2024-01-15,,ACTIVE,0.0",
+                "LOAN-1,M001," + ISBN + ",2024-01-01,2024-01-15,,ACTIVE,0.0",
+                "LOAN-2,M999," + ISBN + ",2024-01-01,2024-01-15,,ACTIVE,0.0",
+                "LOAN-3,M002," + ISBN + ",2024-01-01,2024-02-30,,ACTIVE,0.0");
+
+        BulkLoadReport report = new CatalogImporter(libraryService, reservationService).importLoans(csv);
+
+        assertThat(report.getAcceptedCount()).isEqualTo(1);
+        assertThat(report.getErrors()).extracting(BulkLoadReport.RecordError::getIndex).containsExactly(1, 2, 3);
+        assertThat(report.getErrors().get(2).getMessage()).isEqualTo("Invalid value for dueDate: 2024-02-30");
+        assertThat(libraryService.findBookByIsbn(ISBN).getAvailableCopies()).isEqualTo(1);
+        assertThat(libraryService.getOverdueLoans(LocalDate.of(2024, 1, 16))).extracting(Loan::getLoanId)
+                .containsExactly("LOAN-1");
+    }
+
+    @Test
+    void testImportBooks_recordLargerThanWindow() throws IOException {
+        Path csv = write("books.csv",
+                "isbn,title,author,publisher,publicationYear,totalCopies,category",
+                "9780000000001,A Title That Does Not Fit,Some Author,Pub,2001,3,FICTION");
+
+        assertThatThrownBy(() -> new CatalogImporter(new LibraryService(), null, 10, 32).importBooks(csv))
+                .isInstanceOf(IOException.class);
+    }
+
+    @Test
+    void testForPath_unknownExtension() {
+        assertThatThrownBy(() -> RecordFormat.forPath(dir.resolve("books.xml")))
+                .isInstanceOf(InvalidInputException.class);
+    }
+
+    private Path write(String name, String... lines) throws IOException {
+        Path path = dir.resolve(name);
+        Files.write(path, String.join("\n", lines).getBytes(StandardCharsets.UTF_8));
+        return path;
+    }
+}
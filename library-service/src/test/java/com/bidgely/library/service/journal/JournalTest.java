@@ -0,0 +1,538 @@
+package com.bidgely.library.service.journal;
+
+import com.bidgely.library.exception.BookNotAvailableException;
+import com.bidgely.library.exception.InvalidInputException;
+import com.bidgely.library.exception.JournalException;
+import com.bidgely.library.exception.LoanLimitExceededException;
+import com.bidgely.library.model.*;
+import com.bidgely.library.service.AuthorService;
+import com.bidgely.library.service.BulkLoadReport;
+import com.bidgely.library.service.ChangeType;
+import com.bidgely.library.service.LibraryService;
+import com.bidgely.library.service.ReservationService;
+import com.bidgely.library.service.catalog.MappedBookCatalog;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+class JournalTest {
+
+    private static final String ISBN = "9780134685991";
+    private static final String OTHER_ISBN = "9780132350884";
+
+    @TempDir
+    Path dir;
+
+    private Path journalDir;
+    private LibraryService libraryService;
+    private ReservationService reservationService;
+    private AuthorService authorService;
+
+    @BeforeEach
+    void setUp() {
+        journalDir = dir.resolve("journal");
+        libraryService = new LibraryService();
+        reservationService = new ReservationService(libraryService);
+        authorService = new AuthorService();
+    }
+
+    @Test
+    void testReplay_rebuildsServiceState() throws IOException {
+        Loan returned;
+        Loan active;
+        Loan allocated;
+        Reservation cancelled;
+        Author author;
+        try (Journal journal = open(FsyncPolicy.OS)) {
+            libraryService.addBook(book(ISBN, 1));
+            libraryService.addBook(book(OTHER_ISBN, 2));
+            libraryService.addBook(book("9780596009205", 1));
+            libraryService.updateBook(new Book(OTHER_ISBN, "Clean Code, 2nd ed", "Robert Martin",
+                    "Prentice Hall", 2024, 2, BookCategory.TECHNOLOGY));
+            libraryService.removeBook("9780596009205");
+            libraryService.registerMember(member("M001", MembershipType.PREMIUM));
+            libraryService.registerMember(member("M002", MembershipType.BASIC));
+            libraryService.registerMember(member("M003", MembershipType.STUDENT));
+
+            returned = libraryService.issueBook("M001", OTHER_ISBN);
+            libraryService.returnBook(returned.getLoanId());
+            active = libraryService.issueBook("M001", ISBN);
+            reservationService.createReservation("M002", ISBN);
+            cancelled = reservationService.createReservation("M003", OTHER_ISBN);
+            reservationService.cancelReservation(cancelled.getReservationId());
+            libraryService.returnBook(active.getLoanId());
+            allocated = libraryService.getActiveLoansByMember("M002").get(0);
+            reservationService.createReservation("M003", ISBN);
+            libraryService.deactivateMember("M001");
+
+            author = authorService.addAuthor("Joshua", "Bloch");
+            authorService.addAuthor("Robert", "Martin");
+            authorService.deactivateAuthor(author.getAuthorId());
+        }
+
+        LibraryService restored = new LibraryService();
+        ReservationService restoredReservations = new ReservationService(restored);
+        AuthorService restoredAuthors = new AuthorService();
+        BulkLoadReport report;
+        try (Journal journal = new Journal(journalDir, FsyncPolicy.OS)) {
+            report = journal.replay(restored, restoredReservations, restoredAuthors);
+        }
+
+        assertThat(report.hasErrors()).isFalse();
+        assertThat(restored.getTotalBooks()).isEqualTo(2);
+        assertThat(restored.findBookByIsbn(OTHER_ISBN).getTitle()).isEqualTo("Clean Code, 2nd ed");
+        assertThat(restored.findBookByIsbn(OTHER_ISBN).getAvailableCopies()).isEqualTo(2);
+        assertThat(restored.findBookByIsbn(ISBN).getAvailableCopies()).isZero();
+        assertThat(restored.findMemberById("M001").isActive()).isFalse();
+        assertThat(restored.getLoanHistory("M001")).extracting(Loan::getLoanId, Loan::getStatus)
+                .containsExactly(
+                        tuple(returned.getLoanId(), LoanStatus.RETURNED),
+                        tuple(active.getLoanId(), LoanStatus.RETURNED));
+        assertThat(restored.getActiveLoansByMember("M002")).extracting(Loan::getLoanId)
+                .containsExactly(allocated.getLoanId());
+        assertThat(restoredReservations.getReservation(cancelled.getReservationId()).getStatus())
+                .isEqualTo(Reservation.ReservationStatus.CANCELLED);
+        assertThat(restoredReservations.getActiveReservationsByBook(ISBN)).extracting(Reservation::getMemberId)
+                .containsExactly("M003");
+        assertThat(restoredReservations.getTotalReservations()).isEqualTo(3);
+        assertThat(restoredAuthors.getTotalAuthors()).isEqualTo(2);
+        assertThat(restoredAuthors.findAuthorById(author.getAuthorId()).isActive()).isFalse();
+    }
+
+    @ParameterizedTest
+    @EnumSource(FsyncPolicy.class)
+    void testSync_writesChangeBeforeReturning(FsyncPolicy policy) throws IOException {
+        try (Journal journal = open(policy)) {
+            long before = Files.size(newestSegment());
+            libraryService.addBook(book(ISBN, 1));
+
+            assertThat(Files.size(newestSegment())).isGreaterThan(before);
+            assertThat(journal.getPolicy()).isEqualTo(policy);
+        }
+    }
+
+    @Test
+    void testOpen_truncatesTornTail() throws IOException {
+        try (Journal journal = open(FsyncPolicy.EVERY_OP)) {
+            libraryService.addBook(book(ISBN, 1));
+        }
+        Path segment = newestSegment();
+        long intact = Files.size(segment);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.APPEND)) {
+            channel.write(ByteBuffer.wrap(new byte[] {0, 0, 0, 40, 1, 2, 3}));
+        }
+
+        LibraryService restored = new LibraryService();
+        try (Journal journal = new Journal(journalDir, FsyncPolicy.EVERY_OP)) {
+            assertThat(Files.size(segment)).isEqualTo(intact);
+            journal.replay(restored, null, null);
+            restored.setJournal(journal);
+            restored.addBook(book(OTHER_ISBN, 1));
+        }
+
+        LibraryService reopened = new LibraryService();
+        try (Journal journal = new Journal(journalDir, FsyncPolicy.EVERY_OP)) {
+            journal.replay(reopened, null, null);
+        }
+        assertThat(reopened.getAllBooks()).extracting(Book::getIsbn).containsExactlyInAnyOrder(ISBN, OTHER_ISBN);
+    }
+
+    @Test
+    void testReplay_stopsAtCorruptRecord() throws IOException {
+        try (Journal journal = open(FsyncPolicy.OS)) {
+            libraryService.addBook(book(ISBN, 1));
+            libraryService.addBook(book(OTHER_ISBN, 1));
+        }
+        try (FileChannel channel = FileChannel.open(newestSegment(), StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[] {'#'}), channel.size() - 3);
+        }
+
+        LibraryService restored = new LibraryService();
+        try (Journal journal = new Journal(journalDir, FsyncPolicy.OS)) {
+            journal.replay(restored, null, null);
+        }
+        assertThat(restored.getAllBooks()).extracting(Book::getIsbn).containsExactly(ISBN);
+    }
+
+    @Test
+    void testReplay_reportsLoansWhoseBookWasRemoved() throws IOException {
+        try (Journal journal = open(FsyncPolicy.OS)) {
+            libraryService.addBook(book(ISBN, 1));
+            libraryService.registerMember(member("M001", MembershipType.BASIC));
+            libraryService.issueBook("M001", ISBN);
+            libraryService.removeBook(ISBN);
+        }
+
+        BulkLoadReport report;
+        try (Journal journal = new Journal(journalDir, FsyncPolicy.OS)) {
+            report = journal.replay(new LibraryService(), null, null);
+        }
+        assertThat(report.getAcceptedCount()).isEqualTo(1);
+        assertThat(report.getErrors()).extracting(BulkLoadReport.RecordError::getIndex).containsExactly(2);
+    }
+
+    @Test
+    void testReplay_keepsCatalogCopyCountsAcrossRestarts() throws IOException {
+        Path catalogDir = dir.resolve("catalog");
+        try (MappedBookCatalog catalog = MappedBookCatalog.create(catalogDir, 10);
+             Journal journal = open(FsyncPolicy.OS)) {
+            catalog.addBook(book(ISBN, 2));
+            libraryService.setCatalog(catalog);
+            libraryService.registerMember(member("M001", MembershipType.PREMIUM));
+            libraryService.registerMember(member("M002", MembershipType.PREMIUM));
+            libraryService.issueBook("M001", ISBN);
+            libraryService.returnBook(libraryService.issueBook("M002", ISBN).getLoanId());
+        }
+
+        // Neither restart may take the active loan's copy a second time
+        for (int restart = 0; restart < 2; restart++) {
+            try (MappedBookCatalog catalog = MappedBookCatalog.open(catalogDir);
+                 Journal journal = new Journal(journalDir, FsyncPolicy.OS)) {
+                LibraryService restored = new LibraryService();
+                restored.setCatalog(catalog);
+                assertThat(journal.replay(restored, null, null).hasErrors()).isFalse();
+
+                assertThat(restored.getActiveLoansByMember("M001")).extracting(Loan::getIsbn).containsExactly(ISBN);
+                assertThat(restored.getActiveLoansByMember("M002")).isEmpty();
+                assertThat(catalog.findBook(ISBN).getAvailableCopies()).isEqualTo(1);
+            }
+        }
+
+        try (MappedBookCatalog catalog = MappedBookCatalog.open(catalogDir);
+             Journal journal = new Journal(journalDir, FsyncPolicy.OS)) {
+            LibraryService restored = new LibraryService();
+            restored.setCatalog(catalog);
+            journal.replay(restored, null, null);
+            restored.returnBook(restored.getActiveLoansByMember("M001").get(0).getLoanId());
+
+            assertThat(catalog.findBook(ISBN).getAvailableCopies()).isEqualTo(2);
+        }
+    }
+
+    @Test
+    void testConcurrentChanges_allReplayedUnderGroupCommit() throws Exception {
+        List<String> memberIds = new ArrayList<>();
+        Journal journal = open(FsyncPolicy.EVERY_OP);
+        for (int i = 0; i < 4; i++) {
+            libraryService.addBook(book("978013468599" + i, 3));
+        }
+        for (int i = 0; i < 12; i++) {
+            libraryService.registerMember(member("M" + i, MembershipType.FACULTY));
+            memberIds.add("M" + i);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            Random random = new Random(t);
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < 200; i++) {
+                    String memberId = memberIds.get(random.nextInt(memberIds.size()));
+                    List<Loan> active = libraryService.getActiveLoansByMember(memberId);
+                    try {
+                        if (!active.isEmpty() && random.nextBoolean()) {
+                            libraryService.returnBook(active.get(0).getLoanId());
+                        } else {
+                            libraryService.issueBook(memberId, "978013468599" + random.nextInt(4));
+                        }
+                    } catch (BookNotAvailableException | LoanLimitExceededException
+                             | InvalidInputException e) {
+                        // Expected under contention
+                    }
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        journal.close();
+
+        LibraryService restored = new LibraryService();
+        try (Journal reopened = new Journal(journalDir, FsyncPolicy.EVERY_OP)) {
+            assertThat(reopened.replay(restored, null, null).hasErrors()).isFalse();
+        }
+        for (String memberId : memberIds) {
+            assertThat(ids(restored.getLoanHistory(memberId))).isEqualTo(ids(libraryService.getLoanHistory(memberId)));
+            assertThat(ids(restored.getActiveLoansByMember(memberId)))
+                    .isEqualTo(ids(libraryService.getActiveLoansByMember(memberId)));
+        }
+        for (int i = 0; i < 4; i++) {
+            String isbn = "978013468599" + i;
+            assertThat(restored.findBookByIsbn(isbn).getAvailableCopies())
+                    .isEqualTo(libraryService.findBookByIsbn(isbn).getAvailableCopies());
+        }
+    }
+
+    @Test
+    void testConcurrentAuthorUpdates_replayTheLatestImage() throws Exception {
+        Journal journal = open(FsyncPolicy.OS);
+        String authorId = authorService.addAuthor("Joshua", "Bloch").getAuthorId();
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            int thread = t;
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < 500; i++) {
+                    authorService.updateAuthor(new Author(authorId, "Joshua", "Bloch " + thread + "-" + i));
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        journal.close();
+
+        AuthorService restoredAuthors = new AuthorService();
+        try (Journal reopened = new Journal(journalDir, FsyncPolicy.OS)) {
+            assertThat(reopened.replay(new LibraryService(), null, restoredAuthors).hasErrors()).isFalse();
+        }
+        assertThat(restoredAuthors.findAuthorById(authorId).getLastName())
+                .isEqualTo(authorService.findAuthorById(authorId).getLastName());
+    }
+
+    @Test
+    void testAppend_rejectedAfterClose() throws IOException {
+        Journal journal = open(FsyncPolicy.OS);
+        journal.close();
+
+        assertThatThrownBy(() -> libraryService.addBook(book(ISBN, 1)))
+                .isInstanceOf(JournalException.class)
+                .hasMessageContaining("closed");
+        assertThatThrownBy(() -> journal.append(ChangeType.LOAN_ISSUED, book(ISBN, 1)))
+                .isInstanceOf(InvalidInputException.class);
+    }
+
+    @Test
+    void testOpen_rejectsForeignFile() throws IOException {
+        Files.createDirectories(journalDir);
+        Files.write(journalDir.resolve("journal-0000000000000001.log"), "not a journal at all".getBytes());
+
+        assertThatThrownBy(() -> new Journal(journalDir, FsyncPolicy.OS))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("Not a version 2 library journal");
+    }
+
+    @Test
+    void testSnapshot_replaysSnapshotThenLaterSegments() throws IOException {
+        Loan returned;
+        Loan active;
+        Author author;
+        try (Journal journal = open(FsyncPolicy.OS)) {
+            libraryService.addBook(book(ISBN, 2));
+            libraryService.addBook(book(OTHER_ISBN, 1));
+            libraryService.addBook(book("9780596009205", 1));
+            libraryService.registerMember(member("M001", MembershipType.PREMIUM));
+            libraryService.registerMember(member("M002", MembershipType.BASIC));
+            returned = libraryService.issueBook("M001", ISBN);
+            active = libraryService.issueBook("M001", OTHER_ISBN);
+            reservationService.createReservation("M002", OTHER_ISBN);
+            author = authorService.addAuthor("Joshua", "Bloch");
+
+            journal.snapshot(libraryService, reservationService, authorService);
+
+            libraryService.returnBook(returned.getLoanId());
+            libraryService.removeBook("9780596009205");
+            libraryService.updateMember(new Member("M002", "Renamed Member", "m002@example.com",
+                    "1234567890", LocalDate.of(2023, 1, 1), MembershipType.BASIC));
+            authorService.deactivateAuthor(author.getAuthorId());
+        }
+
+        assertThat(journalFiles()).containsExactly("journal-0000000000000002.log",
+                "snapshot-0000000000000001.snap");
+        LibraryService restored = new LibraryService();
+        ReservationService restoredReservations = new ReservationService(restored);
+        AuthorService restoredAuthors = new AuthorService();
+        try (Journal journal = new Journal(journalDir, FsyncPolicy.OS)) {
+            assertThat(journal.replay(restored, restoredReservations, restoredAuthors).hasErrors()).isFalse();
+        }
+
+        assertThat(restored.getAllBooks()).extracting(Book::getIsbn).containsExactlyInAnyOrder(ISBN, OTHER_ISBN);
+        assertThat(restored.findBookByIsbn(ISBN).getAvailableCopies()).isEqualTo(2);
+        assertThat(restored.findBookByIsbn(OTHER_ISBN).getAvailableCopies()).isZero();
+        assertThat(restored.getLoanHistory("M001")).extracting(Loan::getLoanId, Loan::getStatus)
+                .containsExactly(
+                        tuple(returned.getLoanId(), LoanStatus.RETURNED),
+                        tuple(active.getLoanId(), LoanStatus.ACTIVE));
+        assertThat(restored.findMemberById("M002").getName()).isEqualTo("Renamed Member");
+        assertThat(restoredReservations.getActiveReservationsByBook(OTHER_ISBN)).extracting(Reservation::getMemberId)
+                .containsExactly("M002");
+        assertThat(restoredAuthors.findAuthorById(author.getAuthorId()).isActive()).isFalse();
+    }
+
+    @Test
+    void testSnapshot_keepsChangesMadeWhileItIsWritten() throws Exception {
+        List<String> memberIds = new ArrayList<>();
+        Journal journal = open(FsyncPolicy.OS);
+        for (int i = 0; i < 4; i++) {
+            libraryService.addBook(book("978013468599" + i, 3));
+        }
+        for (int i = 0; i < 12; i++) {
+            libraryService.registerMember(member("M" + i, MembershipType.FACULTY));
+            memberIds.add("M" + i);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            Random random = new Random(t);
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < 500; i++) {
+                    String memberId = memberIds.get(random.nextInt(memberIds.size()));
+                    List<Loan> active = libraryService.getActiveLoansByMember(memberId);
+                    try {
+                        if (!active.isEmpty() && random.nextBoolean()) {
+                            libraryService.returnBook(active.get(0).getLoanId());
+                        } else {
+                            libraryService.issueBook(memberId, "978013468599" + random.nextInt(4));
+                        }
+                    } catch (BookNotAvailableException | LoanLimitExceededException
+                             | InvalidInputException e) {
+                        // Expected under contention
+                    }
+                }
+            }));
+        }
+        for (int i = 0; i < 5; i++) {
+            journal.snapshot(libraryService, reservationService, authorService);
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        journal.close();
+
+        LibraryService restored = new LibraryService();
+        try (Journal reopened = new Journal(journalDir, FsyncPolicy.OS)) {
+            assertThat(reopened.replay(restored, null, null).hasErrors()).isFalse();
+        }
+        for (String memberId : memberIds) {
+            assertThat(ids(restored.getLoanHistory(memberId))).isEqualTo(ids(libraryService.getLoanHistory(memberId)));
+            assertThat(ids(restored.getActiveLoansByMember(memberId)))
+                    .isEqualTo(ids(libraryService.getActiveLoansByMember(memberId)));
+        }
+        for (int i = 0; i < 4; i++) {
+            String isbn = "978013468599" + i;
+            assertThat(restored.findBookByIsbn(isbn).getAvailableCopies())
+                    .isEqualTo(libraryService.findBookByIsbn(isbn).getAvailableCopies());
+        }
+    }
+
+    @Test
+    void testSnapshotFile_readsAcrossMappingWindows() throws IOException {
+        try (Journal journal = open(FsyncPolicy.OS)) {
+            for (int i = 0; i < 50; i++) {
+                String isbn = String.format("978013468%04d", i);
+                libraryService.addBook(book(isbn, 1));
+                libraryService.registerMember(member("M" + i, MembershipType.STUDENT));
+                libraryService.issueBook("M" + i, isbn);
+            }
+            journal.snapshot(libraryService, reservationService, authorService);
+        }
+
+        JournalState state = new JournalState();
+        long covered = SnapshotFile.load(journalDir.resolve("snapshot-0000000000000001.snap"), state, 200);
+        LibraryService restored = new LibraryService();
+
+        assertThat(covered).isEqualTo(1);
+        assertThat(state.restore(restored, null, null).getAcceptedCount()).isEqualTo(150);
+        assertThat(ids(restored.getAllLoans())).containsExactlyInAnyOrderElementsOf(ids(libraryService.getAllLoans()));
+    }
+
+    @Test
+    void testSnapshot_damagedSnapshotIsRejected() throws IOException {
+        try (Journal journal = open(FsyncPolicy.OS)) {
+            libraryService.addBook(book(ISBN, 1));
+            journal.snapshot(libraryService, reservationService, authorService);
+            assertThatThrownBy(() -> journal.replay(new LibraryService(), null, null))
+                    .isInstanceOf(JournalException.class)
+                    .hasMessageContaining("before the first snapshot");
+        }
+        Path snapshot = journalDir.resolve("snapshot-0000000000000001.snap");
+        try (FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[] {'#'}), SnapshotFile.HEADER_SIZE + 10);
+        }
+
+        try (Journal journal = new Journal(journalDir, FsyncPolicy.OS)) {
+            assertThatThrownBy(() -> journal.replay(new LibraryService(), null, null))
+                    .isInstanceOf(JournalException.class)
+                    .hasMessageContaining("checksum");
+        }
+    }
+
+    @Test
+    void testScheduleSnapshots_compactsInTheBackground() throws Exception {
+        Path firstSnapshot = journalDir.resolve("snapshot-0000000000000001.snap");
+        try (Journal journal = open(FsyncPolicy.OS)) {
+            libraryService.addBook(book(ISBN, 1));
+            journal.scheduleSnapshots(libraryService, reservationService, authorService, 10);
+            for (int i = 0; i < 500 && Files.notExists(firstSnapshot) && journalFiles().size() < 2; i++) {
+                Thread.sleep(10);
+            }
+            libraryService.addBook(book(OTHER_ISBN, 1));
+        }
+
+        assertThat(journalFiles()).doesNotContain("journal-0000000000000001.log");
+        LibraryService restored = new LibraryService();
+        try (Journal journal = new Journal(journalDir, FsyncPolicy.OS)) {
+            journal.replay(restored, null, null);
+        }
+        assertThat(restored.getAllBooks()).extracting(Book::getIsbn).containsExactlyInAnyOrder(ISBN, OTHER_ISBN);
+    }
+
+    private Journal open(FsyncPolicy policy) throws IOException {
+        Journal journal = new Journal(journalDir, policy, 10);
+        libraryService.setJournal(journal);
+        authorService.setJournal(journal);
+        return journal;
+    }
+
+    private Path newestSegment() throws IOException {
+        List<String> segments = journalFiles().stream().filter(name -> name.endsWith(".log"))
+                .collect(Collectors.toList());
+        return journalDir.resolve(segments.get(segments.size() - 1));
+    }
+
+    private List<String> journalFiles() throws IOException {
+        try (Stream<Path> files = Files.list(journalDir)) {
+            return files.map(path -> path.getFileName().toString()).sorted().collect(Collectors.toList());
+        }
+    }
+
+    private static List<String> ids(List<Loan> loans) {
+        return loans.stream().map(Loan::getLoanId).collect(Collectors.toList());
+    }
+
+    private static Book book(String isbn, int copies) {
+        return new Book(isbn, "Title " + isbn, "Author", "Publisher", 2018, copies, BookCategory.TECHNOLOGY);
+    }
+
+    private static Member member(String memberId, MembershipType type) {
+        return new Member(memberId, "Member " + memberId, memberId.toLowerCase() + "@example.com",
+                "1234567890", LocalDate.of(2023, 1, 1), type);
+    }
+}
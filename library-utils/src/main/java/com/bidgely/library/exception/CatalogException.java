@@ -0,0 +1,15 @@
+package com.bidgely.library.exception;
+
+/**
+ * Exception thrown when a book catalog's files cannot be read or extended.
+ */
+public class CatalogException extends LibraryException {
+
+    public CatalogException(String message) {
+        super(message);
+    }
+
+    public CatalogException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
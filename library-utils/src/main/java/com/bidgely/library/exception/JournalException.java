@@ -0,0 +1,15 @@
+package com.bidgely.library.exception;
+
+/**
+ * Exception thrown when a state change cannot be written to or read from the journal.
+ */
+public class JournalException extends LibraryException {
+
+    public JournalException(String message) {
+        super(message);
+    }
+
+    public JournalException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
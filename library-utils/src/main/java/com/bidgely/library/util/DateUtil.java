@@ -1,5 +1,6 @@
 package com.bidgely.library.util;
 
+import java.time.Clock;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
@@ -59,20 +60,49 @@ public class DateUtil {
      * Checks if a date is in the past.
      */
     public static boolean isPast(LocalDate date) {
+        return isPast(date, LocalDate.now());
+    }
+
+    /**
+     * Checks if a date is before today's date on the given clock.
+     */
+    public static boolean isPast(LocalDate date, Clock clock) {
+        return isPast(date, LocalDate.now(clock));
+    }
+
+    /**
+     * Checks if a date is before the given date; scans can read today once and
+     * pass it to every check.
+     */
+    public static boolean isPast(LocalDate date, LocalDate today) {
         if (date == null) {
             return false;
         }
-        return date.isBefore(LocalDate.now());
+        return date.isBefore(today);
     }
 
     /**
      * Checks if a date is in the future.
      */
     public static boolean isFuture(LocalDate date) {
+        return isFuture(date, LocalDate.now());
+    }
+
+    /**
+     * Checks if a date is after today's date on the given clock.
+     */
+    public static boolean isFuture(LocalDate date, Clock clock) {
+        return isFuture(date, LocalDate.now(clock));
+    }
+
+    /**
+     * Checks if a date is after the given date.
+     */
+    public static boolean isFuture(LocalDate date, LocalDate today) {
         if (date == null) {
             return false;
         }
-        return date.isAfter(LocalDate.now());
+        return date.isAfter(today);
     }
 
     /**
@@ -81,5 +111,12 @@ public class DateUtil {
     public static LocalDate today() {
         return LocalDate.now();
     }
+
+    /**
+     * Gets today's date on the given clock.
+     */
+    public static LocalDate today(Clock clock) {
+        return LocalDate.now(clock);
+    }
 }
 
@@ -0,0 +1,83 @@
+package com.bidgely.library.util;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+
+/**
+ * The current business date of a {@link Clock}, worked out once per day.
+ *
+ * <p>Turning an instant into a date needs a time-zone rules lookup; this class
+ * does it only when the clock leaves the day it last computed, and otherwise
+ * answers with one {@link Clock#millis()} read and two comparisons. A clock
+ * that moves backwards is followed too, so tests can rewind a
+ * {@link ManualClock}. Safe for concurrent use.
+ */
+public final class DayClock {
+
+    private final Clock clock;
+    private final ZoneId zone;
+    private volatile Day day;
+
+    public DayClock(Clock clock) {
+        if (clock == null) {
+            throw new IllegalArgumentException("Clock cannot be null");
+        }
+        this.clock = clock;
+        this.zone = clock.getZone();
+    }
+
+    /**
+     * Creates a day clock on the system clock in the default time zone.
+     */
+    public static DayClock system() {
+        return new DayClock(Clock.systemDefaultZone());
+    }
+
+    public Clock getClock() {
+        return clock;
+    }
+
+    /**
+     * Gets today's date.
+     */
+    public LocalDate getDate() {
+        return current().date;
+    }
+
+    /**
+     * Gets today's date as a count of days since 1970-01-01.
+     */
+    public int getEpochDay() {
+        return current().epochDay;
+    }
+
+    private Day current() {
+        long now = clock.millis();
+        Day current = day;
+        if (current == null || now < current.start || now >= current.end) {
+            current = new Day(Instant.ofEpochMilli(now).atZone(zone).toLocalDate(), zone);
+            day = current;
+        }
+        return current;
+    }
+
+    /**
+     * A date with the instants it starts and ends at, published as one object
+     * so readers never see the fields of two different days.
+     */
+    private static final class Day {
+        final LocalDate date;
+        final int epochDay;
+        final long start;
+        final long end;
+
+        Day(LocalDate date, ZoneId zone) {
+            this.date = date;
+            this.epochDay = Math.toIntExact(date.toEpochDay());
+            this.start = date.atStartOfDay(zone).toInstant().toEpochMilli();
+            this.end = date.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli();
+        }
+    }
+}
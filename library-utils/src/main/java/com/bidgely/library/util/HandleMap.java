@@ -0,0 +1,295 @@
+package com.bidgely.library.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * A concurrent map from dense int handles, such as those a symbol table hands
+ * out, to values. Values are held in arrays indexed by handle, so a lookup is
+ * two array reads with no hashing, and an entry costs one reference instead of
+ * a hash map node.
+ *
+ * <p>Memory is proportional to the largest handle stored, so keys should be
+ * small and dense. Reads take no lock; writes are compare-and-set on the slot,
+ * with a lock only to add a chunk of slots. Null values are not allowed.
+ *
+ * <p>{@link #spliterator()} splits the handle range in halves, so parallel
+ * streams over the values divide the work evenly when handles are dense.
+ */
+public final class HandleMap<V> {
+
+    private static final int CHUNK_BITS = 10;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    private final AtomicInteger size = new AtomicInteger();
+    private volatile AtomicReferenceArray<V>[] chunks = newChunks(4);
+
+    /**
+     * Gets the value stored for a handle, or null if there is none.
+     */
+    public V get(int handle) {
+        AtomicReferenceArray<V> chunk = chunkAt(handle);
+        return chunk == null ? null : chunk.get(handle & CHUNK_MASK);
+    }
+
+    /**
+     * Tells whether a value is stored for a handle.
+     */
+    public boolean containsKey(int handle) {
+        return get(handle) != null;
+    }
+
+    /**
+     * Stores a value for a handle.
+     *
+     * @return the value it replaced, or null
+     * @throws IllegalArgumentException if the handle is negative or the value null
+     */
+    public V put(int handle, V value) {
+        checkValue(value);
+        V previous = chunkFor(handle).getAndSet(handle & CHUNK_MASK, value);
+        if (previous == null) {
+            size.incrementAndGet();
+        }
+        return previous;
+    }
+
+    /**
+     * Stores a value for a handle that has none.
+     *
+     * @return the value already stored, or null if the new one was stored
+     */
+    public V putIfAbsent(int handle, V value) {
+        checkValue(value);
+        AtomicReferenceArray<V> chunk = chunkFor(handle);
+        int index = handle & CHUNK_MASK;
+        do {
+            V current = chunk.get(index);
+            if (current != null) {
+                return current;
+            }
+        } while (!chunk.compareAndSet(index, null, value));
+        size.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * Gets the value for a handle, storing one made by the function if there
+     * is none. The function may run more than once when threads race, and only
+     * one of its results is kept.
+     */
+    public V computeIfAbsent(int handle, IntFunction<? extends V> function) {
+        V current = get(handle);
+        if (current != null) {
+            return current;
+        }
+        V created = function.apply(handle);
+        current = putIfAbsent(handle, created);
+        return current == null ? created : current;
+    }
+
+    /**
+     * Removes the value stored for a handle.
+     *
+     * @return the value removed, or null
+     */
+    public V remove(int handle) {
+        AtomicReferenceArray<V> chunk = chunkAt(handle);
+        if (chunk == null) {
+            return null;
+        }
+        V previous = chunk.getAndSet(handle & CHUNK_MASK, null);
+        if (previous != null) {
+            size.decrementAndGet();
+        }
+        return previous;
+    }
+
+    /**
+     * Gets the number of handles with a value.
+     */
+    public int size() {
+        return size.get();
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Passes each value with its handle to the action, in handle order. Entries
+     * stored or removed while it runs may or may not be seen.
+     */
+    public void forEach(ObjIntConsumer<? super V> action) {
+        AtomicReferenceArray<V>[] current = chunks;
+        for (int c = 0; c < current.length; c++) {
+            AtomicReferenceArray<V> chunk = current[c];
+            if (chunk == null) {
+                continue;
+            }
+            for (int i = 0; i < CHUNK_SIZE; i++) {
+                V value = chunk.get(i);
+                if (value != null) {
+                    action.accept(value, (c << CHUNK_BITS) | i);
+                }
+            }
+        }
+    }
+
+    /**
+     * Copies the values into a list, in handle order.
+     */
+    public List<V> values() {
+        List<V> values = new ArrayList<>(size());
+        forEach((value, handle) -> values.add(value));
+        return values;
+    }
+
+    /**
+     * Gets a spliterator over the values in handle order, for sequential or
+     * parallel streams. It sees the chunks present when it was made; entries
+     * stored or removed while it runs may or may not be seen.
+     */
+    public Spliterator<V> spliterator() {
+        AtomicReferenceArray<V>[] current = chunks;
+        int used = current.length;
+        while (used > 0 && current[used - 1] == null) {
+            used--;
+        }
+        long slots = (long) used << CHUNK_BITS;
+        return new ValueSpliterator<>(current, 0, slots, slots == 0 ? 0 : (double) size() / slots);
+    }
+
+    private AtomicReferenceArray<V> chunkAt(int handle) {
+        if (handle < 0) {
+            return null;
+        }
+        AtomicReferenceArray<V>[] current = chunks;
+        int chunk = handle >>> CHUNK_BITS;
+        return chunk < current.length ? current[chunk] : null;
+    }
+
+    private AtomicReferenceArray<V> chunkFor(int handle) {
+        if (handle < 0) {
+            throw new IllegalArgumentException("Handle cannot be negative: " + handle);
+        }
+        AtomicReferenceArray<V> chunk = chunkAt(handle);
+        if (chunk != null) {
+            return chunk;
+        }
+        synchronized (this) {
+            AtomicReferenceArray<V>[] current = chunks;
+            int index = handle >>> CHUNK_BITS;
+            if (index >= current.length) {
+                AtomicReferenceArray<V>[] grown = newChunks(Math.max(current.length * 2, index + 1));
+                System.arraycopy(current, 0, grown, 0, current.length);
+                current = grown;
+            }
+            if (current[index] == null) {
+                current[index] = new AtomicReferenceArray<>(CHUNK_SIZE);
+            }
+            chunks = current;
+            return current[index];
+        }
+    }
+
+    private static void checkValue(Object value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Value cannot be null");
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <V> AtomicReferenceArray<V>[] newChunks(int length) {
+        return (AtomicReferenceArray<V>[]) new AtomicReferenceArray<?>[length];
+    }
+
+    /**
+     * Walks a range of slots. Ranges split at chunk boundaries while they span
+     * more than one chunk, then in halves down to a minimum run of slots.
+     */
+    private static final class ValueSpliterator<V> implements Spliterator<V> {
+        private static final int MIN_SPLIT = 256;
+
+        private final AtomicReferenceArray<V>[] chunks;
+        private final double density;
+        private long index;
+        private final long fence;
+
+        ValueSpliterator(AtomicReferenceArray<V>[] chunks, long index, long fence, double density) {
+            this.chunks = chunks;
+            this.index = index;
+            this.fence = fence;
+            this.density = density;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super V> action) {
+            while (index < fence) {
+                long slot = index++;
+                AtomicReferenceArray<V> chunk = chunks[(int) (slot >>> CHUNK_BITS)];
+                if (chunk == null) {
+                    index = (slot | CHUNK_MASK) + 1;
+                    continue;
+                }
+                V value = chunk.get((int) slot & CHUNK_MASK);
+                if (value != null) {
+                    action.accept(value);
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super V> action) {
+            long slot = index;
+            index = fence;
+            while (slot < fence) {
+                AtomicReferenceArray<V> chunk = chunks[(int) (slot >>> CHUNK_BITS)];
+                long chunkEnd = Math.min(fence, (slot | CHUNK_MASK) + 1);
+                if (chunk != null) {
+                    for (; slot < chunkEnd; slot++) {
+                        V value = chunk.get((int) slot & CHUNK_MASK);
+                        if (value != null) {
+                            action.accept(value);
+                        }
+                    }
+                }
+                slot = chunkEnd;
+            }
+        }
+
+        @Override
+        public Spliterator<V> trySplit() {
+            long length = fence - index;
+            if (length < 2 * MIN_SPLIT) {
+                return null;
+            }
+            long middle = index + (length >>> 1);
+            if (length > CHUNK_SIZE) {
+                middle = Math.max(index + MIN_SPLIT, middle & ~(long) CHUNK_MASK);
+            }
+            Spliterator<V> prefix = new ValueSpliterator<>(chunks, index, middle, density);
+            index = middle;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return (long) Math.ceil((fence - index) * density);
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | NONNULL | CONCURRENT;
+        }
+    }
+}
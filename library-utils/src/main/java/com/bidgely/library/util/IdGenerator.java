@@ -8,7 +8,17 @@ import java.util.concurrent.atomic.AtomicLong;
  */
 public class IdGenerator {
 
+    /**
+     * What {@link #numberOf(String, String)} returns for an ID that is not in
+     * the form {@link #formatId(String, long)} renders.
+     */
+    public static final long NOT_NUMBERED = Long.MIN_VALUE;
+
+    private static final int MAX_DIGITS = 19;
+
     private static final AtomicLong counter = new AtomicLong(1000);
+    private static final SnowflakeIdGenerator snowflake =
+            new SnowflakeIdGenerator(Integer.getInteger("library.node.id", 0));
 
     private IdGenerator() {
         // Private constructor to prevent instantiation
@@ -77,6 +87,67 @@ public class IdGenerator {
         return generatePrefixedId("PUB");
     }
 
+    /**
+     * Generates a time-ordered 64-bit ID that is unique across nodes.
+     *
+     * <p>The node ID is read from the {@code library.node.id} system property
+     * (default 0) and must be distinct for every process sharing an ID space.
+     */
+    public static long generateSnowflakeId() {
+        return snowflake.nextId();
+    }
+
+    /**
+     * Renders a numeric ID with a prefix, e.g. {@code LOAN-123}.
+     */
+    public static String formatId(String prefix, long id) {
+        return new StringBuilder(prefix.length() + 20).append(prefix).append('-').append(id).toString();
+    }
+
+    /**
+     * Parses an ID rendered by {@link #formatId(String, long)}.
+     *
+     * @throws NumberFormatException if the ID does not carry the prefix and a number
+     */
+    public static long parseId(String prefix, String id) {
+        if (id == null || !id.startsWith(prefix) || id.length() <= prefix.length() + 1
+                || id.charAt(prefix.length()) != '-') {
+            throw new NumberFormatException("Not a " + prefix + " ID: " + id);
+        }
+        return Long.parseLong(id.substring(prefix.length() + 1));
+    }
+
+    /**
+     * Gets the number of an ID exactly as {@link #formatId(String, long)}
+     * renders it, or {@link #NOT_NUMBERED} for any other string, without
+     * allocating. An ID counts only if formatting its number gives it back, so
+     * {@code LOAN-7} has a number and {@code LOAN-007} does not.
+     */
+    public static long numberOf(String prefix, String id) {
+        int start = prefix.length() + 1;
+        if (id == null || id.length() <= start || !id.startsWith(prefix) || id.charAt(start - 1) != '-') {
+            return NOT_NUMBERED;
+        }
+        boolean negative = id.charAt(start) == '-';
+        int first = negative ? start + 1 : start;
+        int digits = id.length() - first;
+        if (digits == 0 || digits > MAX_DIGITS || (id.charAt(first) == '0' && (digits > 1 || negative))) {
+            return NOT_NUMBERED;
+        }
+        long number = 0;
+        for (int i = first; i < id.length(); i++) {
+            char c = id.charAt(i);
+            if (c < '0' || c > '9') {
+                return NOT_NUMBERED;
+            }
+            number = number * 10 + (c - '0');
+            if (number < 0) {
+                return NOT_NUMBERED;
+            }
+        }
+        return negative ? -number : number;
+    }
+
     /**
      * Resets the counter (useful for testing).
      */
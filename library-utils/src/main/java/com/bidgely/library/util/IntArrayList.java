@@ -0,0 +1,130 @@
+package com.bidgely.library.util;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * A growable list of ints backed by a plain int array, costing four bytes an
+ * element instead of a reference and a boxed Integer. No array is allocated
+ * until the first element is added, so a list that stays empty is a single
+ * small object. The list is not thread-safe.
+ */
+public final class IntArrayList {
+
+    private static final int[] EMPTY = new int[0];
+    private static final int MIN_GROWTH = 4;
+
+    private int[] elements;
+    private int size;
+
+    public IntArrayList() {
+        this.elements = EMPTY;
+    }
+
+    public IntArrayList(int initialCapacity) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Capacity cannot be negative: " + initialCapacity);
+        }
+        this.elements = initialCapacity == 0 ? EMPTY : new int[initialCapacity];
+    }
+
+    public void add(int value) {
+        if (size == elements.length) {
+            elements = Arrays.copyOf(elements, size + Math.max(MIN_GROWTH, size >>> 1));
+        }
+        elements[size++] = value;
+    }
+
+    /**
+     * Gets the element at an index.
+     *
+     * @throws IndexOutOfBoundsException if the index is not below the size
+     */
+    public int get(int index) {
+        checkIndex(index);
+        return elements[index];
+    }
+
+    /**
+     * Replaces the element at an index.
+     *
+     * @return the element replaced
+     */
+    public int set(int index, int value) {
+        checkIndex(index);
+        int previous = elements[index];
+        elements[index] = value;
+        return previous;
+    }
+
+    /**
+     * Removes the element at an index, shifting later elements down.
+     *
+     * @return the element removed
+     */
+    public int removeAt(int index) {
+        checkIndex(index);
+        int removed = elements[index];
+        System.arraycopy(elements, index + 1, elements, index, size - index - 1);
+        size--;
+        return removed;
+    }
+
+    /**
+     * Removes the first occurrence of a value, shifting later elements down.
+     *
+     * @return true if the value was found
+     */
+    public boolean removeValue(int value) {
+        int index = indexOf(value);
+        if (index < 0) {
+            return false;
+        }
+        removeAt(index);
+        return true;
+    }
+
+    /**
+     * Gets the index of the first occurrence of a value, or -1 if absent.
+     */
+    public int indexOf(int value) {
+        for (int i = 0; i < size; i++) {
+            if (elements[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public boolean contains(int value) {
+        return indexOf(value) >= 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    public void forEach(IntConsumer action) {
+        for (int i = 0; i < size; i++) {
+            action.accept(elements[i]);
+        }
+    }
+
+    public int[] toArray() {
+        return Arrays.copyOf(elements, size);
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+    }
+}
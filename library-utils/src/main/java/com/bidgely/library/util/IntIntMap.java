@@ -0,0 +1,190 @@
+package com.bidgely.library.util;
+
+import java.util.Arrays;
+
+/**
+ * A map from int keys to int values, held in two parallel int arrays with open
+ * addressing and linear probing: eight bytes a slot, with no boxing and no
+ * nodes to follow.
+ *
+ * <p>The map is created with a missing value that {@link #get(int)} returns
+ * for absent keys and that marks empty slots, so it cannot itself be stored;
+ * every int is a valid key. The table is kept at most three quarters full and
+ * removals shift later entries back, leaving no tombstones. The map is not
+ * thread-safe; callers sharing one must guard it.
+ */
+public final class IntIntMap {
+
+    private static final int HASH_MIX = 0x9E3779B9;
+
+    private final int missingValue;
+    private int[] keys;
+    private int[] values;
+    private int mask;
+    private int size;
+
+    public IntIntMap(int missingValue) {
+        this(missingValue, 0);
+    }
+
+    /**
+     * Creates a map that holds the given number of entries without growing.
+     */
+    public IntIntMap(int missingValue, int expectedSize) {
+        this.missingValue = missingValue;
+        allocate(LongObjectMap.capacityFor(expectedSize));
+    }
+
+    /**
+     * Gets the value that stands for an absent key.
+     */
+    public int missingValue() {
+        return missingValue;
+    }
+
+    /**
+     * Gets the value stored for a key, or the missing value if there is none.
+     */
+    public int get(int key) {
+        for (int slot = slot(key); values[slot] != missingValue; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                return values[slot];
+            }
+        }
+        return missingValue;
+    }
+
+    public boolean containsKey(int key) {
+        return get(key) != missingValue;
+    }
+
+    /**
+     * Stores a value for a key.
+     *
+     * @return the value it replaced, or the missing value
+     * @throws IllegalArgumentException if the value is the missing value
+     */
+    public int put(int key, int value) {
+        if (value == missingValue) {
+            throw new IllegalArgumentException("Value cannot be the missing value: " + value);
+        }
+        int slot = slot(key);
+        while (values[slot] != missingValue) {
+            if (keys[slot] == key) {
+                int previous = values[slot];
+                values[slot] = value;
+                return previous;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size > LongObjectMap.maxFill(values.length)) {
+            rehash(values.length * 2);
+        }
+        return missingValue;
+    }
+
+    /**
+     * Adds to the value stored for a key, treating an absent key as holding the
+     * missing value; a sum equal to the missing value removes the key. With a
+     * missing value of zero this keeps a count per key.
+     *
+     * @return the new value
+     */
+    public int addTo(int key, int delta) {
+        int sum = get(key) + delta;
+        if (sum == missingValue) {
+            remove(key);
+        } else {
+            put(key, sum);
+        }
+        return sum;
+    }
+
+    /**
+     * Removes the value stored for a key.
+     *
+     * @return the value removed, or the missing value
+     */
+    public int remove(int key) {
+        int slot = slot(key);
+        while (values[slot] != missingValue && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        int previous = values[slot];
+        if (previous == missingValue) {
+            return missingValue;
+        }
+        values[slot] = missingValue;
+        size--;
+        int gap = slot;
+        for (int next = (gap + 1) & mask; values[next] != missingValue; next = (next + 1) & mask) {
+            // The entry may fill the gap only if its home slot is not between the gap and itself
+            if (((next - slot(keys[next])) & mask) >= ((next - gap) & mask)) {
+                keys[gap] = keys[next];
+                values[gap] = values[next];
+                values[next] = missingValue;
+                gap = next;
+            }
+        }
+        return previous;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Passes each key with its value to the action, in no particular order.
+     */
+    public void forEach(EntryConsumer action) {
+        for (int slot = 0; slot < values.length; slot++) {
+            if (values[slot] != missingValue) {
+                action.accept(keys[slot], values[slot]);
+            }
+        }
+    }
+
+    private int slot(int key) {
+        int hash = key * HASH_MIX;
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    private void rehash(int capacity) {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldValues.length; i++) {
+            if (oldValues[i] != missingValue) {
+                int slot = slot(oldKeys[i]);
+                while (values[slot] != missingValue) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new int[capacity];
+        if (missingValue != 0) {
+            Arrays.fill(values, missingValue);
+        }
+        mask = capacity - 1;
+    }
+
+    /**
+     * Receives the entries of an {@link IntIntMap}.
+     */
+    @FunctionalInterface
+    public interface EntryConsumer {
+        void accept(int key, int value);
+    }
+}
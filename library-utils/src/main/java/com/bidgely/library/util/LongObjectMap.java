@@ -0,0 +1,198 @@
+package com.bidgely.library.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * A map from long keys to values, held in two parallel arrays with open
+ * addressing and linear probing. An entry costs a long and a reference in the
+ * arrays, instead of a hash map node and a boxed key, and a lookup probes
+ * adjacent slots rather than following a chain of nodes.
+ *
+ * <p>A slot is empty when its value is null, so every long is a valid key and
+ * null values are not allowed. The table is kept at most three quarters full
+ * and removals shift later entries back, leaving no tombstones. The map is not
+ * thread-safe; callers sharing one must guard it.
+ */
+public final class LongObjectMap<V> {
+
+    private static final int MIN_CAPACITY = 16;
+    private static final int MAX_CAPACITY = 1 << 30;
+    private static final long HASH_MIX = 0x9E3779B97F4A7C15L;
+
+    private long[] keys;
+    private Object[] values;
+    private int mask;
+    private int size;
+
+    public LongObjectMap() {
+        this(0);
+    }
+
+    /**
+     * Creates a map that holds the given number of entries without growing.
+     */
+    public LongObjectMap(int expectedSize) {
+        allocate(capacityFor(expectedSize));
+    }
+
+    /**
+     * Gets the value stored for a key, or null if there is none.
+     */
+    @SuppressWarnings("unchecked")
+    public V get(long key) {
+        for (int slot = slot(key); values[slot] != null; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                return (V) values[slot];
+            }
+        }
+        return null;
+    }
+
+    public boolean containsKey(long key) {
+        return get(key) != null;
+    }
+
+    /**
+     * Stores a value for a key.
+     *
+     * @return the value it replaced, or null
+     * @throws IllegalArgumentException if the value is null
+     */
+    public V put(long key, V value) {
+        return put(key, value, true);
+    }
+
+    /**
+     * Stores a value for a key that has none.
+     *
+     * @return the value already stored, or null if the new one was stored
+     * @throws IllegalArgumentException if the value is null
+     */
+    public V putIfAbsent(long key, V value) {
+        return put(key, value, false);
+    }
+
+    /**
+     * Removes the value stored for a key.
+     *
+     * @return the value removed, or null
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(long key) {
+        int slot = slot(key);
+        while (values[slot] != null && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        Object previous = values[slot];
+        if (previous == null) {
+            return null;
+        }
+        values[slot] = null;
+        size--;
+        int gap = slot;
+        for (int next = (gap + 1) & mask; values[next] != null; next = (next + 1) & mask) {
+            // The entry may fill the gap only if its home slot is not between the gap and itself
+            if (((next - slot(keys[next])) & mask) >= ((next - gap) & mask)) {
+                keys[gap] = keys[next];
+                values[gap] = values[next];
+                values[next] = null;
+                gap = next;
+            }
+        }
+        return (V) previous;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Passes each value with its key to the action, in no particular order.
+     */
+    @SuppressWarnings("unchecked")
+    public void forEach(ObjLongConsumer<? super V> action) {
+        for (int slot = 0; slot < values.length; slot++) {
+            if (values[slot] != null) {
+                action.accept((V) values[slot], keys[slot]);
+            }
+        }
+    }
+
+    /**
+     * Copies the values into a list, in no particular order.
+     */
+    public List<V> values() {
+        List<V> copy = new ArrayList<>(size);
+        forEach((value, key) -> copy.add(value));
+        return copy;
+    }
+
+    @SuppressWarnings("unchecked")
+    private V put(long key, V value, boolean replace) {
+        if (value == null) {
+            throw new IllegalArgumentException("Value cannot be null");
+        }
+        int slot = slot(key);
+        while (values[slot] != null) {
+            if (keys[slot] == key) {
+                Object previous = values[slot];
+                if (replace) {
+                    values[slot] = value;
+                }
+                return (V) previous;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size > maxFill(values.length)) {
+            rehash(values.length * 2);
+        }
+        return null;
+    }
+
+    private int slot(long key) {
+        long hash = key * HASH_MIX;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldValues.length; i++) {
+            if (oldValues[i] != null) {
+                int slot = slot(oldKeys[i]);
+                while (values[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+    }
+
+    static int capacityFor(int expectedSize) {
+        int capacity = MIN_CAPACITY;
+        while (maxFill(capacity) < expectedSize && capacity < MAX_CAPACITY) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    static int maxFill(int capacity) {
+        return capacity - (capacity >>> 2);
+    }
+}
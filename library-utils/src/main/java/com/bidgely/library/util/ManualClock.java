@@ -0,0 +1,62 @@
+package com.bidgely.library.util;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+
+/**
+ * A clock that only moves when told to, for tests and simulations that run
+ * weeks of library activity in seconds. Safe for concurrent use.
+ */
+public final class ManualClock extends Clock {
+
+    private final ZoneId zone;
+    private volatile Instant instant;
+
+    public ManualClock(Instant instant, ZoneId zone) {
+        if (instant == null || zone == null) {
+            throw new IllegalArgumentException("Instant and zone cannot be null");
+        }
+        this.instant = instant;
+        this.zone = zone;
+    }
+
+    /**
+     * Moves the clock forward (or, with a negative amount, back).
+     */
+    public synchronized void advance(Duration amount) {
+        instant = instant.plus(amount);
+    }
+
+    public void setInstant(Instant instant) {
+        if (instant == null) {
+            throw new IllegalArgumentException("Instant cannot be null");
+        }
+        this.instant = instant;
+    }
+
+    @Override
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    /**
+     * Returns a clock in the given zone that starts at this clock's current
+     * instant but then moves independently of it.
+     */
+    @Override
+    public Clock withZone(ZoneId zone) {
+        return new ManualClock(instant, zone);
+    }
+
+    @Override
+    public Instant instant() {
+        return instant;
+    }
+
+    @Override
+    public long millis() {
+        return instant.toEpochMilli();
+    }
+}
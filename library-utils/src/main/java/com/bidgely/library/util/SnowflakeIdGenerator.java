@@ -0,0 +1,82 @@
+package com.bidgely.library.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Lock-free generator of 64-bit, time-ordered unique identifiers.
+ *
+ * <p>Layout (most significant first): 41 bits of milliseconds since
+ * {@link #EPOCH_MILLIS}, 10 bits of node ID and 12 bits of per-millisecond
+ * sequence. IDs from one generator are strictly increasing; IDs from generators
+ * with different node IDs never collide. If more than 4096 IDs are requested in
+ * one millisecond, or the clock steps backwards, the generator keeps counting
+ * forward from its last timestamp instead of blocking.
+ */
+public class SnowflakeIdGenerator implements LongSupplier {
+
+    /** Custom epoch: 2024-01-01T00:00:00Z. */
+    public static final long EPOCH_MILLIS = 1704067200000L;
+
+    public static final int NODE_BITS = 10;
+    public static final int SEQUENCE_BITS = 12;
+    public static final int MAX_NODE_ID = (1 << NODE_BITS) - 1;
+
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private final long nodeId;
+    private final LongSupplier clock;
+    // (millis since epoch << SEQUENCE_BITS) | sequence of the last issued ID
+    private final AtomicLong lastState;
+
+    public SnowflakeIdGenerator(int nodeId) {
+        this(nodeId, System::currentTimeMillis);
+    }
+
+    /**
+     * Creates a generator reading time from the given millisecond clock.
+     */
+    public SnowflakeIdGenerator(int nodeId, LongSupplier clock) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Node ID must be between 0 and " + MAX_NODE_ID + ": " + nodeId);
+        }
+        this.nodeId = nodeId;
+        this.clock = clock;
+        this.lastState = new AtomicLong();
+    }
+
+    /**
+     * Returns the next unique identifier.
+     */
+    public long nextId() {
+        while (true) {
+            long now = clock.getAsLong() - EPOCH_MILLIS;
+            long previous = lastState.get();
+            long next = now > (previous >>> SEQUENCE_BITS) ? now << SEQUENCE_BITS : previous + 1;
+            if (lastState.compareAndSet(previous, next)) {
+                return ((next >>> SEQUENCE_BITS) << (NODE_BITS + SEQUENCE_BITS))
+                        | (nodeId << SEQUENCE_BITS)
+                        | (next & SEQUENCE_MASK);
+            }
+        }
+    }
+
+    @Override
+    public long getAsLong() {
+        return nextId();
+    }
+
+    /**
+     * Returns the node ID encoded in an identifier.
+     */
+    public static int nodeOf(long id) {
+        return (int) ((id >>> SEQUENCE_BITS) & MAX_NODE_ID);
+    }
+
+    /**
+     * Returns the creation time, in epoch milliseconds, encoded in an identifier.
+     */
+    public static long timestampOf(long id) {
+        return (id >>> (NODE_BITS + SEQUENCE_BITS)) + EPOCH_MILLIS;
+    }
+}
@@ -0,0 +1,62 @@
+package com.bidgely.library.util;
+
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A fixed set of locks selected by key hash, so that operations on different
+ * keys can proceed in parallel while operations on the same key are serialized.
+ */
+public class StripedLock {
+
+    private final ReentrantLock[] locks;
+    private final int mask;
+
+    /**
+     * Creates a striped lock with at least the given number of stripes,
+     * rounded up to the next power of two.
+     */
+    public StripedLock(int stripes) {
+        if (stripes <= 0) {
+            throw new IllegalArgumentException("Stripes must be positive: " + stripes);
+        }
+        int size = 1;
+        while (size < stripes && size < (1 << 30)) {
+            size <<= 1;
+        }
+        this.locks = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        this.mask = size - 1;
+    }
+
+    /**
+     * Returns the lock guarding the given key.
+     */
+    public Lock get(Object key) {
+        return locks[indexOf(key)];
+    }
+
+    /**
+     * Returns the stripe index for the given key.
+     */
+    public int indexOf(Object key) {
+        int h = key == null ? 0 : key.hashCode();
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    /**
+     * Returns the lock at the given stripe index.
+     */
+    public Lock getAt(int index) {
+        return locks[index];
+    }
+
+    /**
+     * Returns the number of stripes.
+     */
+    public int size() {
+        return locks.length;
+    }
+}
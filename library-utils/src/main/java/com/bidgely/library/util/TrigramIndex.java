@@ -0,0 +1,185 @@
+package com.bidgely.library.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory inverted trigram index answering case-insensitive substring queries.
+ *
+ * <p>Each document is lower-cased once on insert and broken into overlapping
+ * three-character grams. A query looks up the posting list of every gram it
+ * contains; if any is missing there is no match, otherwise the candidates in the
+ * shortest list are confirmed with {@link String#contains}. Confirming against
+ * the stored text both completes the intersection and rejects documents that
+ * contain the grams but not contiguously, so results match
+ * {@code text.toLowerCase().contains(query.toLowerCase())} exactly.
+ * Queries shorter than three characters fall back to a scan of the stored text.
+ *
+ * <p>Updates to different keys may run concurrently; updates to the same key
+ * must be serialized by the caller.
+ */
+public class TrigramIndex<K> {
+
+    private static final int GRAM_LENGTH = 3;
+    private static final long GRAM_MIX = 0x9E3779B97F4A7C15L;
+
+    private final Map<K, String> documents;
+    private final Map<Long, Set<K>> postings;
+
+    public TrigramIndex() {
+        this.documents = new ConcurrentHashMap<>();
+        this.postings = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Indexes the text for a key, replacing any text previously indexed for it.
+     */
+    public void put(K key, String text) {
+        String lower = text == null ? "" : text.toLowerCase();
+        String previous = documents.put(key, lower);
+        if (previous != null) {
+            if (previous.equals(lower)) {
+                return;
+            }
+            unindex(key, previous);
+        }
+        for (int i = 0; i + GRAM_LENGTH <= lower.length(); i++) {
+            postings.compute(gram(lower, i), (g, keys) -> {
+                Set<K> posting = keys == null ? ConcurrentHashMap.<K>newKeySet() : keys;
+                posting.add(key);
+                return posting;
+            });
+        }
+    }
+
+    /**
+     * Indexes a batch of keys, replacing any text previously indexed for them.
+     *
+     * <p>Grams are grouped locally first so each posting list is updated once per
+     * batch instead of once per key, which makes bulk loads several times faster
+     * than repeated {@link #put(Object, String)} calls.
+     */
+    public void putAll(Map<? extends K, String> texts) {
+        Map<Long, List<K>> grouped = new HashMap<>();
+        for (Map.Entry<? extends K, String> entry : texts.entrySet()) {
+            K key = entry.getKey();
+            String lower = entry.getValue() == null ? "" : entry.getValue().toLowerCase();
+            String previous = documents.put(key, lower);
+            if (previous != null) {
+                if (previous.equals(lower)) {
+                    continue;
+                }
+                unindex(key, previous);
+            }
+            for (int i = 0; i + GRAM_LENGTH <= lower.length(); i++) {
+                grouped.computeIfAbsent(gram(lower, i), g -> new ArrayList<>()).add(key);
+            }
+        }
+        for (Map.Entry<Long, List<K>> entry : grouped.entrySet()) {
+            List<K> keys = entry.getValue();
+            postings.compute(entry.getKey(), (g, existing) -> {
+                Set<K> posting = existing == null ? ConcurrentHashMap.<K>newKeySet(keys.size()) : existing;
+                posting.addAll(keys);
+                return posting;
+            });
+        }
+    }
+
+    /**
+     * Removes a key from the index.
+     */
+    public void remove(K key) {
+        String previous = documents.remove(key);
+        if (previous != null) {
+            unindex(key, previous);
+        }
+    }
+
+    /**
+     * Returns the keys whose text contains the query, ignoring case.
+     */
+    public List<K> search(String query) {
+        if (query == null) {
+            return new ArrayList<>();
+        }
+        String lower = query.toLowerCase();
+        if (lower.length() < GRAM_LENGTH) {
+            return scan(lower);
+        }
+
+        Set<K> smallest = null;
+        for (int i = 0; i + GRAM_LENGTH <= lower.length(); i++) {
+            Set<K> posting = postings.get(gram(lower, i));
+            if (posting == null) {
+                return new ArrayList<>();
+            }
+            if (smallest == null || posting.size() < smallest.size()) {
+                smallest = posting;
+            }
+        }
+
+        List<K> results = new ArrayList<>();
+        for (K key : smallest) {
+            if (matches(key, lower)) {
+                results.add(key);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Returns the number of indexed keys.
+     */
+    public int size() {
+        return documents.size();
+    }
+
+    /**
+     * Removes all keys from the index.
+     */
+    public void clear() {
+        documents.clear();
+        postings.clear();
+    }
+
+    private List<K> scan(String lower) {
+        List<K> results = new ArrayList<>();
+        for (Map.Entry<K, String> entry : documents.entrySet()) {
+            if (entry.getValue().contains(lower)) {
+                results.add(entry.getKey());
+            }
+        }
+        return results;
+    }
+
+    private boolean matches(K key, String lower) {
+        String text = documents.get(key);
+        return text != null && text.contains(lower);
+    }
+
+    private void unindex(K key, String text) {
+        for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+            postings.computeIfPresent(gram(text, i), (g, keys) -> {
+                keys.remove(key);
+                return keys.isEmpty() ? null : keys;
+            });
+        }
+    }
+
+    /**
+     * Packs three chars into a long and scrambles it with an odd multiplier. The
+     * multiply is a bijection, so grams stay distinct, and it spreads them across
+     * hash buckets; the plain packing folds to only a few hundred distinct hash
+     * codes for lower-case text.
+     */
+    private static Long gram(String text, int offset) {
+        long packed = ((long) text.charAt(offset) << 32)
+                | ((long) text.charAt(offset + 1) << 16)
+                | text.charAt(offset + 2);
+        return packed * GRAM_MIX;
+    }
+}
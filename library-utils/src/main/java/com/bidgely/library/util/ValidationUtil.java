@@ -2,14 +2,20 @@ package com.bidgely.library.util;
 
 import com.bidgely.library.exception.InvalidInputException;
 
+import java.util.regex.Pattern;
+
 /**
  * Utility class for input validation.
+ *
+ * <p>Patterns are compiled once. Bare-digit ISBNs, which is how nearly all
+ * catalog records arrive, and phone numbers are checked by hand without
+ * touching the regex engine.
  */
 public class ValidationUtil {
 
-    private static final String ISBN_PATTERN = "^(?:ISBN(?:-1[03])?:? )?(?=[0-9X]{10}$|(?=(?:[0-9]+[- ]){3})[- 0-9X]{13}$|97[89][0-9]{10}$|(?=(?:[0-9]+[- ]){4})[- 0-9]{17}$)(?:97[89][- ]?)?[0-9]{1,5}[- ]?[0-9]+[- ]?[0-9]+[- ]?[0-9X]$";
-    private static final String EMAIL_PATTERN = "^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,}$";
-    private static final String PHONE_PATTERN = "^[0-9]{10}$";
+    private static final Pattern ISBN_PATTERN = Pattern.compile("^(?:ISBN(?:-1[03])?:? )?(?=[0-9X]{10}$|(?=(?:[0-9]+[- ]){3})[- 0-9X]{13}$|97[89][0-9]{10}$|(?=(?:[0-9]+[- ]){4})[- 0-9]{17}$)(?:97[89][- ]?)?[0-9]{1,5}[- ]?[0-9]+[- ]?[0-9]+[- ]?[0-9X]$");
+    private static final Pattern EMAIL_PATTERN = Pattern.compile("^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,}$");
+    private static final int PHONE_LENGTH = 10;
 
     private ValidationUtil() {
         // Private constructor to prevent instantiation
@@ -29,31 +35,109 @@ public class ValidationUtil {
      */
     public static void validateIsbn(String isbn) throws InvalidInputException {
         validateNotEmpty(isbn, "ISBN");
-        if (!isbn.matches(ISBN_PATTERN)) {
+        if (!isValidIsbnFormat(isbn)) {
             throw new InvalidInputException("Invalid ISBN format: " + isbn);
         }
     }
 
+    /**
+     * Validates ISBN format and the ISBN-10 or ISBN-13 check digit.
+     */
+    public static void validateIsbnWithChecksum(String isbn) throws InvalidInputException {
+        validateIsbn(isbn);
+        if (!hasValidIsbnChecksum(isbn)) {
+            throw new InvalidInputException("Invalid ISBN checksum: " + isbn);
+        }
+    }
+
+    /**
+     * Checks ISBN format: ISBN-10 or ISBN-13, bare or hyphenated, optionally
+     * prefixed with "ISBN", "ISBN-10:" or "ISBN-13:".
+     */
+    public static boolean isValidIsbnFormat(String isbn) {
+        int length = isbn.length();
+        int digits = 0;
+        while (digits < length && isAsciiDigit(isbn.charAt(digits))) {
+            digits++;
+        }
+        if (digits == length) {
+            // Bare digits: exactly what the pattern accepts without separators or prefix
+            return length == 10 || (length == 13 && isbn.startsWith("97") && (isbn.charAt(2) == '8' || isbn.charAt(2) == '9'));
+        }
+        if (digits == 9 && length == 10 && isbn.charAt(9) == 'X') {
+            return true;
+        }
+        return ISBN_PATTERN.matcher(isbn).matches();
+    }
+
+    /**
+     * Checks the check digit of an ISBN-10 or ISBN-13, ignoring hyphens, spaces
+     * and an "ISBN" prefix. Does not allocate.
+     */
+    public static boolean hasValidIsbnChecksum(String isbn) {
+        int start = isbn.startsWith("ISBN") ? isbn.indexOf(' ') + 1 : 0;
+        int count = 0;
+        int sum10 = 0;
+        int sum13 = 0;
+        for (int i = start; i < isbn.length(); i++) {
+            char c = isbn.charAt(i);
+            int value;
+            if (isAsciiDigit(c)) {
+                value = c - '0';
+            } else if (c == 'X' && count == 9 && i == isbn.length() - 1) {
+                value = 10;
+            } else if (c == '-' || c == ' ') {
+                continue;
+            } else {
+                return false;
+            }
+            if (count < 10) {
+                sum10 += (10 - count) * value;
+            }
+            sum13 += (count % 2 == 0 ? 1 : 3) * value;
+            count++;
+        }
+        if (count == 10) {
+            return sum10 % 11 == 0;
+        }
+        return count == 13 && sum13 % 10 == 0;
+    }
+
     /**
      * Validates email format.
      */
     public static void validateEmail(String email) throws InvalidInputException {
         validateNotEmpty(email, "Email");
-        if (!email.matches(EMAIL_PATTERN)) {
+        if (!EMAIL_PATTERN.matcher(email).matches()) {
             throw new InvalidInputException("Invalid email format: " + email);
         }
     }
 
     /**
-     * Validates phone number format.
+     * Validates phone number format (exactly ten digits).
      */
     public static void validatePhoneNumber(String phoneNumber) throws InvalidInputException {
         validateNotEmpty(phoneNumber, "Phone number");
-        if (!phoneNumber.matches(PHONE_PATTERN)) {
+        if (!isValidPhoneNumber(phoneNumber)) {
             throw new InvalidInputException("Invalid phone number format: " + phoneNumber);
         }
     }
 
+    /**
+     * Checks that a phone number is exactly ten ASCII digits.
+     */
+    public static boolean isValidPhoneNumber(String phoneNumber) {
+        if (phoneNumber.length() != PHONE_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < PHONE_LENGTH; i++) {
+            if (!isAsciiDigit(phoneNumber.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     /**
      * Validates that a number is positive.
      */
@@ -81,5 +165,8 @@ public class ValidationUtil {
             throw new InvalidInputException("Invalid publication year: " + year);
         }
     }
-}
 
+    private static boolean isAsciiDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
@@ -2,7 +2,10 @@ package com.bidgely.library.util;
 
 import org.junit.jupiter.api.Test;
 
+import java.time.Clock;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.time.ZoneOffset;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -130,5 +133,15 @@ class DateUtilTest {
         LocalDate today = DateUtil.today();
         assertThat(today).isEqualTo(LocalDate.now());
     }
-}
 
+    @Test
+    void testClockOverloads() {
+        Clock clock = Clock.fixed(Instant.parse("2024-03-01T12:00:00Z"), ZoneOffset.UTC);
+
+        assertThat(DateUtil.today(clock)).isEqualTo(LocalDate.of(2024, 3, 1));
+        assertThat(DateUtil.isPast(LocalDate.of(2024, 2, 29), clock)).isTrue();
+        assertThat(DateUtil.isPast(LocalDate.of(2024, 3, 1), clock)).isFalse();
+        assertThat(DateUtil.isFuture(LocalDate.of(2024, 3, 2), clock)).isTrue();
+        assertThat(DateUtil.isFuture(LocalDate.of(2024, 3, 2), LocalDate.of(2024, 3, 2))).isFalse();
+    }
+}
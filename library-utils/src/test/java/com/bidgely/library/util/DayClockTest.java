@@ -0,0 +1,60 @@
+package com.bidgely.library.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DayClockTest {
+
+    @Test
+    void testGetDate_rollsOverAtMidnightInTheClockZone() {
+        ManualClock clock = new ManualClock(Instant.parse("2024-03-01T22:59:59Z"), ZoneId.of("Europe/Paris"));
+        DayClock dayClock = new DayClock(clock);
+
+        assertThat(dayClock.getDate()).isEqualTo(LocalDate.of(2024, 3, 1));
+        clock.advance(Duration.ofSeconds(1));
+        assertThat(dayClock.getDate()).isEqualTo(LocalDate.of(2024, 3, 2));
+        assertThat(dayClock.getEpochDay()).isEqualTo((int) LocalDate.of(2024, 3, 2).toEpochDay());
+    }
+
+    @Test
+    void testGetDate_followsAClockMovedBack() {
+        ManualClock clock = new ManualClock(Instant.parse("2024-03-10T12:00:00Z"), ZoneOffset.UTC);
+        DayClock dayClock = new DayClock(clock);
+        assertThat(dayClock.getDate()).isEqualTo(LocalDate.of(2024, 3, 10));
+
+        clock.advance(Duration.ofDays(-30));
+
+        assertThat(dayClock.getDate()).isEqualTo(LocalDate.of(2024, 2, 9));
+    }
+
+    @Test
+    void testGetDate_acrossDaylightSavingChange() {
+        ZoneId newYork = ZoneId.of("America/New_York");
+        ManualClock clock = new ManualClock(LocalDate.of(2024, 3, 10).atStartOfDay(newYork).toInstant(), newYork);
+        DayClock dayClock = new DayClock(clock);
+        assertThat(dayClock.getDate()).isEqualTo(LocalDate.of(2024, 3, 10));
+
+        // The day of the change is 23 hours long
+        clock.advance(Duration.ofHours(23));
+
+        assertThat(dayClock.getDate()).isEqualTo(LocalDate.of(2024, 3, 11));
+    }
+
+    @Test
+    void testConstructor_rejectsNullClock() {
+        assertThatThrownBy(() -> new DayClock(null)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void testSystem_matchesLocalDateNow() {
+        assertThat(DayClock.system().getDate()).isEqualTo(LocalDate.now());
+    }
+}
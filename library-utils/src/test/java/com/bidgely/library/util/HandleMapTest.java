@@ -0,0 +1,114 @@
+package com.bidgely.library.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class HandleMapTest {
+
+    @Test
+    void testPutGetRemove() {
+        HandleMap<String> map = new HandleMap<>();
+
+        assertThat(map.put(3, "c")).isNull();
+        assertThat(map.put(3, "C")).isEqualTo("c");
+        assertThat(map.putIfAbsent(3, "x")).isEqualTo("C");
+        assertThat(map.putIfAbsent(100_000, "far")).isNull();
+
+        assertThat(map.get(3)).isEqualTo("C");
+        assertThat(map.get(100_000)).isEqualTo("far");
+        assertThat(map.get(4)).isNull();
+        assertThat(map.get(-1)).isNull();
+        assertThat(map.get(Integer.MAX_VALUE)).isNull();
+        assertThat(map.size()).isEqualTo(2);
+
+        assertThat(map.remove(3)).isEqualTo("C");
+        assertThat(map.remove(3)).isNull();
+        assertThat(map.containsKey(3)).isFalse();
+        assertThat(map.size()).isEqualTo(1);
+    }
+
+    @Test
+    void testComputeIfAbsent() {
+        HandleMap<List<String>> map = new HandleMap<>();
+
+        map.computeIfAbsent(7, handle -> new ArrayList<>()).add("a");
+        map.computeIfAbsent(7, handle -> new ArrayList<>()).add("b");
+
+        assertThat(map.get(7)).containsExactly("a", "b");
+        assertThat(map.size()).isEqualTo(1);
+    }
+
+    @Test
+    void testValuesAndForEach_inHandleOrder() {
+        HandleMap<String> map = new HandleMap<>();
+        map.put(5000, "b");
+        map.put(2, "a");
+        map.put(70_000, "c");
+
+        assertThat(map.values()).containsExactly("a", "b", "c");
+        List<Integer> handles = new ArrayList<>();
+        map.forEach((value, handle) -> handles.add(handle));
+        assertThat(handles).containsExactly(2, 5000, 70_000);
+    }
+
+    @Test
+    void testSpliterator_splitsEvenlyAndKeepsHandleOrder() {
+        HandleMap<Integer> map = new HandleMap<>();
+        // Sparse handles leave chunks unallocated between the populated ones
+        List<Integer> handles = IntStream.range(0, 200_000).filter(i -> i % 3 == 0 && (i >>> 10) % 7 != 3)
+                .boxed().collect(Collectors.toList());
+        handles.forEach(handle -> map.put(handle, handle));
+
+        assertThat(StreamSupport.stream(map.spliterator(), true).collect(Collectors.toList()))
+                .containsExactlyElementsOf(handles);
+        assertThat(StreamSupport.stream(map.spliterator(), false).mapToLong(Integer::longValue).sum())
+                .isEqualTo(handles.stream().mapToLong(Integer::longValue).sum());
+
+        Spliterator<Integer> second = map.spliterator();
+        Spliterator<Integer> first = second.trySplit();
+        assertThat(first).isNotNull();
+        long firstCount = StreamSupport.stream(first, false).count();
+        long secondCount = StreamSupport.stream(second, false).count();
+        assertThat(firstCount + secondCount).isEqualTo(handles.size());
+        assertThat(Math.abs(firstCount - secondCount)).isLessThan(handles.size() / 4);
+        assertThat(new HandleMap<String>().spliterator().tryAdvance(value -> { })).isFalse();
+    }
+
+    @Test
+    void testConcurrentPutIfAbsent_countsEachHandleOnce() throws InterruptedException {
+        HandleMap<Integer> map = new HandleMap<>();
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            int value = t;
+            threads[t] = new Thread(() -> {
+                for (int handle = 0; handle < 50_000; handle++) {
+                    map.putIfAbsent(handle, value);
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertThat(map.size()).isEqualTo(50_000);
+        assertThat(map.values()).hasSize(50_000);
+    }
+
+    @Test
+    void testRejectsNegativeHandlesAndNullValues() {
+        HandleMap<String> map = new HandleMap<>();
+
+        assertThatThrownBy(() -> map.put(-1, "a")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> map.put(1, null)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,42 @@
+package com.bidgely.library.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IntArrayListTest {
+
+    @Test
+    void testAddGetRemove() {
+        IntArrayList list = new IntArrayList();
+        for (int i = 0; i < 100; i++) {
+            list.add(i * 2);
+        }
+
+        assertThat(list.size()).isEqualTo(100);
+        assertThat(list.get(99)).isEqualTo(198);
+        assertThat(list.indexOf(40)).isEqualTo(20);
+        assertThat(list.indexOf(41)).isEqualTo(-1);
+
+        assertThat(list.removeAt(0)).isZero();
+        assertThat(list.removeValue(40)).isTrue();
+        assertThat(list.removeValue(40)).isFalse();
+        assertThat(list.set(0, -2)).isEqualTo(2);
+
+        assertThat(list.size()).isEqualTo(98);
+        assertThat(list.toArray()).startsWith(-2, 4, 6).endsWith(196, 198);
+    }
+
+    @Test
+    void testIndexOutOfBounds() {
+        IntArrayList list = new IntArrayList(4);
+        list.add(1);
+
+        assertThatThrownBy(() -> list.get(1)).isInstanceOf(IndexOutOfBoundsException.class);
+        assertThatThrownBy(() -> list.removeAt(-1)).isInstanceOf(IndexOutOfBoundsException.class);
+        list.clear();
+        assertThat(list.isEmpty()).isTrue();
+        assertThatThrownBy(() -> list.get(0)).isInstanceOf(IndexOutOfBoundsException.class);
+    }
+}
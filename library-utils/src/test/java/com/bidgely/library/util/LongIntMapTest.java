@@ -0,0 +1,66 @@
+package com.bidgely.library.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LongIntMapTest {
+
+    @Test
+    void testPutGetRemove() {
+        LongIntMap map = new LongIntMap(-1);
+
+        assertThat(map.put(7, 70)).isEqualTo(-1);
+        assertThat(map.put(7, 71)).isEqualTo(70);
+        assertThat(map.put(Long.MIN_VALUE, 0)).isEqualTo(-1);
+
+        assertThat(map.get(7)).isEqualTo(71);
+        assertThat(map.get(Long.MIN_VALUE)).isZero();
+        assertThat(map.get(8)).isEqualTo(-1);
+        assertThat(map.size()).isEqualTo(2);
+
+        assertThat(map.remove(7)).isEqualTo(71);
+        assertThat(map.remove(7)).isEqualTo(-1);
+        assertThat(map.containsKey(7)).isFalse();
+        assertThatThrownBy(() -> map.put(1, -1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void testAddTo_keepsCountsAndDropsZeroes() {
+        LongIntMap counts = new LongIntMap(0);
+
+        assertThat(counts.addTo(5, 1)).isEqualTo(1);
+        assertThat(counts.addTo(5, 2)).isEqualTo(3);
+        assertThat(counts.addTo(6, 1)).isEqualTo(1);
+        assertThat(counts.addTo(5, -3)).isZero();
+
+        assertThat(counts.containsKey(5)).isFalse();
+        assertThat(counts.size()).isEqualTo(1);
+    }
+
+    @Test
+    void testRandomOperations_matchHashMap() {
+        LongIntMap map = new LongIntMap(Integer.MIN_VALUE);
+        Map<Long, Integer> expected = new HashMap<>();
+        Random random = new Random(13);
+        for (int i = 0; i < 200_000; i++) {
+            long key = (long) random.nextInt(5000) << 32;
+            if (random.nextInt(3) == 0) {
+                assertThat(map.remove(key)).isEqualTo(expected.getOrDefault(key, Integer.MIN_VALUE));
+                expected.remove(key);
+            } else {
+                assertThat(map.put(key, i)).isEqualTo(expected.getOrDefault(key, Integer.MIN_VALUE));
+                expected.put(key, i);
+            }
+        }
+
+        Map<Long, Integer> seen = new HashMap<>();
+        map.forEach(seen::put);
+        assertThat(seen).isEqualTo(expected);
+    }
+}
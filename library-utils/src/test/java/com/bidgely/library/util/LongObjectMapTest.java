@@ -0,0 +1,64 @@
+package com.bidgely.library.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LongObjectMapTest {
+
+    @Test
+    void testPutGetRemove() {
+        LongObjectMap<String> map = new LongObjectMap<>();
+
+        assertThat(map.put(3L, "c")).isNull();
+        assertThat(map.put(3L, "C")).isEqualTo("c");
+        assertThat(map.putIfAbsent(3L, "x")).isEqualTo("C");
+        assertThat(map.put(Long.MIN_VALUE, "min")).isNull();
+        assertThat(map.put(0L, "zero")).isNull();
+
+        assertThat(map.get(3L)).isEqualTo("C");
+        assertThat(map.get(Long.MIN_VALUE)).isEqualTo("min");
+        assertThat(map.get(0L)).isEqualTo("zero");
+        assertThat(map.get(4L)).isNull();
+        assertThat(map.size()).isEqualTo(3);
+
+        assertThat(map.remove(3L)).isEqualTo("C");
+        assertThat(map.remove(3L)).isNull();
+        assertThat(map.containsKey(3L)).isFalse();
+        assertThat(map.values()).containsExactlyInAnyOrder("min", "zero");
+    }
+
+    @Test
+    void testRandomOperations_matchHashMap() {
+        LongObjectMap<Long> map = new LongObjectMap<>();
+        Map<Long, Long> expected = new HashMap<>();
+        Random random = new Random(11);
+        for (int i = 0; i < 200_000; i++) {
+            // A small key range makes removals hit long probe runs
+            long key = random.nextInt(5000) * 0x1_0000_0000L;
+            if (random.nextInt(3) == 0) {
+                assertThat(map.remove(key)).isEqualTo(expected.remove(key));
+            } else {
+                assertThat(map.put(key, (long) i)).isEqualTo(expected.put(key, (long) i));
+            }
+        }
+
+        assertThat(map.size()).isEqualTo(expected.size());
+        Map<Long, Long> seen = new HashMap<>();
+        map.forEach((value, key) -> seen.put(key, value));
+        assertThat(seen).isEqualTo(expected);
+    }
+
+    @Test
+    void testRejectsNullValues() {
+        LongObjectMap<String> map = new LongObjectMap<>(100);
+
+        assertThatThrownBy(() -> map.put(1L, null)).isInstanceOf(IllegalArgumentException.class);
+        assertThat(map.isEmpty()).isTrue();
+    }
+}
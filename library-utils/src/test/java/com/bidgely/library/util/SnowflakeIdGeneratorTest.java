@@ -0,0 +1,131 @@
+package com.bidgely.library.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SnowflakeIdGeneratorTest {
+
+    private static final long NOW = SnowflakeIdGenerator.EPOCH_MILLIS + 123_456_789L;
+
+    @Test
+    void testNextId_encodesTimestampAndNode() {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(42, () -> NOW);
+
+        long id = generator.nextId();
+
+        assertThat(SnowflakeIdGenerator.timestampOf(id)).isEqualTo(NOW);
+        assertThat(SnowflakeIdGenerator.nodeOf(id)).isEqualTo(42);
+    }
+
+    @Test
+    void testNextId_differentNodesNeverCollide() {
+        SnowflakeIdGenerator first = new SnowflakeIdGenerator(1, () -> NOW);
+        SnowflakeIdGenerator second = new SnowflakeIdGenerator(2, () -> NOW);
+
+        Set<Long> ids = new HashSet<>();
+        for (int i = 0; i < 1000; i++) {
+            ids.add(first.nextId());
+            ids.add(second.nextId());
+        }
+        assertThat(ids).hasSize(2000);
+    }
+
+    @Test
+    void testNextId_sequenceOverflowStaysMonotonic() {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(0, () -> NOW);
+
+        long previous = generator.nextId();
+        for (int i = 0; i < 10_000; i++) {
+            long id = generator.nextId();
+            assertThat(id).isGreaterThan(previous);
+            previous = id;
+        }
+    }
+
+    @Test
+    void testNextId_clockStepsBackwards() {
+        AtomicLong clock = new AtomicLong(NOW);
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(0, clock::get);
+
+        long before = generator.nextId();
+        clock.set(NOW - 1000);
+
+        assertThat(generator.nextId()).isGreaterThan(before);
+    }
+
+    @Test
+    void testNextId_uniqueAcrossThreads() throws Exception {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(7);
+        int threads = 8;
+        int perThread = 20_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<long[]>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    long[] ids = new long[perThread];
+                    for (int i = 0; i < perThread; i++) {
+                        ids[i] = generator.nextId();
+                    }
+                    return ids;
+                }));
+            }
+            Set<Long> all = new HashSet<>();
+            for (Future<long[]> future : futures) {
+                long[] ids = future.get(30, TimeUnit.SECONDS);
+                for (int i = 1; i < ids.length; i++) {
+                    assertThat(ids[i]).isGreaterThan(ids[i - 1]);
+                }
+                for (long id : ids) {
+                    all.add(id);
+                }
+            }
+            assertThat(all).hasSize(threads * perThread);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testConstructor_invalidNodeId() {
+        assertThatThrownBy(() -> new SnowflakeIdGenerator(SnowflakeIdGenerator.MAX_NODE_ID + 1))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new SnowflakeIdGenerator(-1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void testFormatAndParseId_roundTrip() {
+        long id = IdGenerator.generateSnowflakeId();
+
+        String rendered = IdGenerator.formatId("LOAN", id);
+
+        assertThat(rendered).isEqualTo("LOAN-" + id);
+        assertThat(IdGenerator.parseId("LOAN", rendered)).isEqualTo(id);
+        assertThatThrownBy(() -> IdGenerator.parseId("RES", rendered))
+                .isInstanceOf(NumberFormatException.class);
+    }
+
+    @Test
+    void testNumberOf_acceptsOnlyFormattedIds() {
+        long id = IdGenerator.generateSnowflakeId();
+
+        assertThat(IdGenerator.numberOf("LOAN", IdGenerator.formatId("LOAN", id))).isEqualTo(id);
+        assertThat(IdGenerator.numberOf("LOAN", "LOAN--42")).isEqualTo(-42);
+        assertThat(IdGenerator.numberOf("LOAN", "LOAN-0")).isZero();
+        assertThat(IdGenerator.numberOf("LOAN", "LOAN-" + Long.MAX_VALUE)).isEqualTo(Long.MAX_VALUE);
+        for (String other : new String[] {null, "LOAN", "LOAN-", "LOAN-007", "LOAN--0", "LOAN-+7", "LOAN-7x",
+                "LOANS-7", "RES-7", "LOAN-9223372036854775808", "LOAN-" + Long.MIN_VALUE}) {
+            assertThat(IdGenerator.numberOf("LOAN", other)).as(other).isEqualTo(IdGenerator.NOT_NUMBERED);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.bidgely.library.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TrigramIndexTest {
+
+    private TrigramIndex<String> index;
+
+    @BeforeEach
+    void setUp() {
+        index = new TrigramIndex<>();
+        index.put("1", "Effective Java");
+        index.put("2", "Java Concurrency in Practice");
+        index.put("3", "Clean Code");
+    }
+
+    @Test
+    void testSearch_caseInsensitive() {
+        assertThat(index.search("JAVA")).containsExactlyInAnyOrder("1", "2");
+    }
+
+    @Test
+    void testSearch_substringAcrossWords() {
+        assertThat(index.search("ive ja")).containsExactly("1");
+    }
+
+    @Test
+    void testSearch_gramsPresentButNotContiguous() {
+        // "cod" and "ode" both occur, but "codec" does not
+        assertThat(index.search("codec")).isEmpty();
+    }
+
+    @Test
+    void testSearch_shortQuery() {
+        assertThat(index.search("cl")).containsExactly("3");
+        assertThat(index.search("")).containsExactlyInAnyOrder("1", "2", "3");
+    }
+
+    @Test
+    void testSearch_nullQuery() {
+        assertThat(index.search(null)).isEmpty();
+    }
+
+    @Test
+    void testPut_replacesPreviousText() {
+        index.put("1", "Effective Python");
+        assertThat(index.search("java")).containsExactly("2");
+        assertThat(index.search("python")).containsExactly("1");
+        assertThat(index.size()).isEqualTo(3);
+    }
+
+    @Test
+    void testPutAll_matchesIndividualPuts() {
+        Map<String, String> batch = new HashMap<>();
+        batch.put("1", "Effective Python");
+        batch.put("4", "Java Performance");
+        index.putAll(batch);
+
+        assertThat(index.search("java")).containsExactlyInAnyOrder("2", "4");
+        assertThat(index.search("python")).containsExactly("1");
+        assertThat(index.search("performance")).containsExactly("4");
+        assertThat(index.size()).isEqualTo(4);
+    }
+
+    @Test
+    void testRemove() {
+        index.remove("2");
+        assertThat(index.search("java")).containsExactly("1");
+        assertThat(index.size()).isEqualTo(2);
+    }
+
+    @Test
+    void testClear() {
+        index.clear();
+        assertThat(index.search("java")).isEmpty();
+        assertThat(index.size()).isZero();
+    }
+
+    @Test
+    void testSearch_matchesContainsSemantics() {
+        Random random = new Random(42);
+        String alphabet = "abcAB C";
+        Map<String, String> texts = new HashMap<>();
+        TrigramIndex<String> randomIndex = new TrigramIndex<>();
+        for (int i = 0; i < 500; i++) {
+            String text = randomString(random, alphabet, 1 + random.nextInt(12));
+            texts.put("K" + i, text);
+            randomIndex.put("K" + i, text);
+        }
+
+        for (int q = 0; q < 200; q++) {
+            String query = randomString(random, alphabet, 1 + random.nextInt(5));
+            List<String> expected = new ArrayList<>();
+            for (Map.Entry<String, String> entry : texts.entrySet()) {
+                if (entry.getValue().toLowerCase().contains(query.toLowerCase())) {
+                    expected.add(entry.getKey());
+                }
+            }
+            assertThat(randomIndex.search(query)).containsExactlyInAnyOrderElementsOf(expected);
+        }
+    }
+
+    private static String randomString(Random random, String alphabet, int length) {
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            sb.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return sb.toString();
+    }
+}
@@ -3,6 +3,9 @@ package com.bidgely.library.util;
 import com.bidgely.library.exception.InvalidInputException;
 import org.junit.jupiter.api.Test;
 
+import java.util.Random;
+import java.util.regex.Pattern;
+
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
@@ -54,6 +57,61 @@ class ValidationUtilTest {
                 .hasMessageContaining("Invalid ISBN format");
     }
 
+    @Test
+    void testValidateIsbn_withHyphenatedAndPrefixedForms() throws InvalidInputException {
+        ValidationUtil.validateIsbn("978-0-13-468599-1");
+        ValidationUtil.validateIsbn("ISBN-13: 978-0-13-468599-1");
+        ValidationUtil.validateIsbn("013468599X");
+        // No exception should be thrown
+    }
+
+    @Test
+    void testValidateIsbn_withInvalidBareDigits() {
+        assertThatThrownBy(() -> ValidationUtil.validateIsbn("1234567890123"))
+                .isInstanceOf(InvalidInputException.class)
+                .hasMessageContaining("Invalid ISBN format");
+        assertThatThrownBy(() -> ValidationUtil.validateIsbn("97801346859"))
+                .isInstanceOf(InvalidInputException.class);
+        assertThatThrownBy(() -> ValidationUtil.validateIsbn("X134685997"))
+                .isInstanceOf(InvalidInputException.class);
+    }
+
+    @Test
+    void testIsValidIsbnFormat_matchesRegexOnRandomInput() {
+        Pattern legacy = Pattern.compile("^(?:ISBN(?:-1[03])?:? )?(?=[0-9X]{10}$|(?=(?:[0-9]+[- ]){3})[- 0-9X]{13}$|97[89][0-9]{10}$|(?=(?:[0-9]+[- ]){4})[- 0-9]{17}$)(?:97[89][- ]?)?[0-9]{1,5}[- ]?[0-9]+[- ]?[0-9]+[- ]?[0-9X]$");
+        String alphabet = "0123456789789X- ";
+        Random random = new Random(7);
+        for (int i = 0; i < 50_000; i++) {
+            int length = 8 + random.nextInt(11);
+            StringBuilder candidate = new StringBuilder(random.nextInt(8) == 0 ? "97" : "");
+            while (candidate.length() < length) {
+                int bound = random.nextBoolean() ? 10 : alphabet.length();
+                candidate.append(alphabet.charAt(random.nextInt(bound)));
+            }
+            String isbn = candidate.toString();
+            assertThat(ValidationUtil.isValidIsbnFormat(isbn)).as(isbn).isEqualTo(legacy.matcher(isbn).matches());
+        }
+    }
+
+    @Test
+    void testHasValidIsbnChecksum() {
+        assertThat(ValidationUtil.hasValidIsbnChecksum("9780134685991")).isTrue();
+        assertThat(ValidationUtil.hasValidIsbnChecksum("978-0-13-468599-1")).isTrue();
+        assertThat(ValidationUtil.hasValidIsbnChecksum("ISBN-13: 978-0-13-468599-1")).isTrue();
+        assertThat(ValidationUtil.hasValidIsbnChecksum("0134685997")).isTrue();
+        assertThat(ValidationUtil.hasValidIsbnChecksum("080442957X")).isTrue();
+        assertThat(ValidationUtil.hasValidIsbnChecksum("9780134685992")).isFalse();
+        assertThat(ValidationUtil.hasValidIsbnChecksum("0134685996")).isFalse();
+        assertThat(ValidationUtil.hasValidIsbnChecksum("97801346859")).isFalse();
+    }
+
+    @Test
+    void testValidateIsbnWithChecksum_withWrongCheckDigit() {
+        assertThatThrownBy(() -> ValidationUtil.validateIsbnWithChecksum("9780134685992"))
+                .isInstanceOf(InvalidInputException.class)
+                .hasMessageContaining("Invalid ISBN checksum");
+    }
+
     @Test
     void testValidateEmail_withValidEmail() throws InvalidInputException {
         ValidationUtil.validateEmail("test@example.com");
@@ -93,6 +151,14 @@ class ValidationUtilTest {
                 .hasMessageContaining("Invalid phone number format");
     }
 
+    @Test
+    void testValidatePhoneNumber_withNonAsciiDigits() {
+        assertThatThrownBy(() -> ValidationUtil.validatePhoneNumber("12345678\u0661\u0662"))
+                .isInstanceOf(InvalidInputException.class)
+                .hasMessageContaining("Invalid phone number format");
+        assertThat(ValidationUtil.isValidPhoneNumber("12345678901")).isFalse();
+    }
+
     @Test
     void testValidatePositive_withPositiveNumber() throws InvalidInputException {
         ValidationUtil.validatePositive(5, "Field");